@@ -0,0 +1,149 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.bench;
+
+import com.google.testing.testify.risk.frontend.client.riskprovider.impl.CheckinDirectoryTreeNode;
+import com.google.testing.testify.risk.frontend.model.Checkin;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Benchmarks building a {@link CheckinDirectoryTreeNode} tree from checkins to deep directories,
+ * and looking checkins up in it.  Each benchmark runs against both the current tree and
+ * {@link LegacyCheckinDirectoryTreeNode}; {@link #footprint} reports the heap each one retains.
+ * The legacy tree needs a large heap at the biggest sizes, eg:
+ * -Djmh.args="CheckinDirectoryTree -jvmArgs -Xmx8g".
+ */
+@State(Scope.Thread)
+public class CheckinDirectoryTreeBenchmark {
+  private static final int DEPTH = 15;
+  private static final int DIRECTORIES_PER_LEVEL = 8;
+
+  /** The number of checkins. */
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int size;
+
+  @Param({"compact", "legacy"})
+  public String tree;
+
+  private String[] directories;
+  /** Directories half way down the tree, which have many checkins under them. */
+  private String[] parentDirectories;
+  private Checkin[] checkins;
+  private CheckinDirectoryTreeNode compactTree;
+  private LegacyCheckinDirectoryTreeNode legacyTree;
+
+  /** The heap retained by a tree, reported alongside the benchmark score. */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Footprint {
+    public long retainedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      retainedBytes = 0;
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(0);
+    directories = new String[size];
+    parentDirectories = new String[size];
+    checkins = new Checkin[size];
+    for (int i = 0; i < size; i++) {
+      StringBuilder directory = new StringBuilder();
+      for (int level = 0; level < DEPTH; level++) {
+        if (level == DEPTH / 2) {
+          parentDirectories[i] = directory.toString();
+        }
+        if (level > 0) {
+          directory.append('/');
+        }
+        directory.append("dir").append(level).append('_')
+            .append(random.nextInt(DIRECTORIES_PER_LEVEL));
+      }
+      directories[i] = directory.toString();
+      Checkin checkin = new Checkin();
+      checkin.setExternalId((long) i);
+      checkin.addDirectoryTouched(directories[i]);
+      checkins[i] = checkin;
+    }
+    buildTree();
+  }
+
+  private Object buildTree() {
+    if ("legacy".equals(tree)) {
+      legacyTree = new LegacyCheckinDirectoryTreeNode();
+      for (int i = 0; i < size; i++) {
+        legacyTree.addCheckin(directories[i], checkins[i]);
+      }
+      return legacyTree;
+    }
+    compactTree = new CheckinDirectoryTreeNode();
+    for (int i = 0; i < size; i++) {
+      compactTree.addCheckin(directories[i], checkins[i]);
+    }
+    return compactTree;
+  }
+
+  @Benchmark
+  public Object addCheckin() {
+    return buildTree();
+  }
+
+  @Benchmark
+  public int getCheckinsUnder() {
+    int found = 0;
+    for (int i = 0; i < size; i += DIRECTORIES_PER_LEVEL) {
+      if ("legacy".equals(tree)) {
+        found += legacyTree.getCheckinsUnder(parentDirectories[i]).size();
+      } else {
+        found += compactTree.getCheckinsUnder(parentDirectories[i]).size();
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  public Object footprint(Footprint footprint) {
+    compactTree = null;
+    legacyTree = null;
+    long before = usedMemory();
+    Object built = buildTree();
+    footprint.retainedBytes = usedMemory() - before;
+    return built;
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,74 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.bench;
+
+import com.google.common.collect.Lists;
+import com.google.testing.testify.risk.frontend.model.DataRequest;
+import com.google.testing.testify.risk.frontend.model.DataRequestOption;
+import com.google.testing.testify.risk.frontend.server.util.DataRequestDocumentGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * Benchmarks generating the data request document served by the data API, in XML and JSON.
+ */
+@State(Scope.Thread)
+public class DataRequestDocumentBenchmark {
+  private static final int REQUESTS_PER_PROJECT = 10;
+  private static final String[] DATA_SOURCES = {"Bugs", "Tests", "Checkins"};
+
+  /** The number of data requests. */
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int size;
+
+  private List<DataRequest> requests;
+
+  @Setup
+  public void setUp() {
+    requests = Lists.newArrayList();
+    for (int i = 0; i < size; i++) {
+      DataRequest request = new DataRequest();
+      request.setRequestId((long) i);
+      request.setParentProjectId(i / REQUESTS_PER_PROJECT);
+      request.setDataSourceName(DATA_SOURCES[i % DATA_SOURCES.length]);
+      List<DataRequestOption> options = Lists.newArrayList();
+      options.add(new DataRequestOption("Component", "component" + i));
+      options.add(new DataRequestOption("Label", "label" + i));
+      request.setDataRequestOptions(options);
+      requests.add(request);
+    }
+  }
+
+  @Benchmark
+  public String generateDocument() {
+    return DataRequestDocumentGenerator.generateDocument(requests);
+  }
+
+  @Benchmark
+  public StringWriter writeJson() throws IOException {
+    StringWriter out = new StringWriter();
+    DataRequestDocumentGenerator.writeJson(requests, out);
+    return out;
+  }
+}
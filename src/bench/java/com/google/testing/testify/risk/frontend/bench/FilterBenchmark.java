@@ -0,0 +1,76 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.bench;
+
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.DatumType;
+import com.google.testing.testify.risk.frontend.model.Filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks {@link Filter#apply} with long lists of filter options, which are matched against a
+ * datum one at a time.
+ */
+@State(Scope.Thread)
+public class FilterBenchmark {
+
+  /** The number of filter options. */
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int size;
+
+  private Filter anyFilter;
+  private Filter allFilter;
+  private Bug bug;
+
+  @Setup
+  public void setUp() {
+    anyFilter = newFilter("any");
+    allFilter = newFilter("all");
+    bug = new Bug();
+    bug.setTitle("NullPointerException when saving project " + (size - 1));
+    bug.setPath("/storage/datastore/project");
+    bug.addBugGroup("storage");
+    bug.addBugGroup("crash");
+  }
+
+  private Filter newFilter(String conjunction) {
+    Filter filter = new Filter();
+    filter.setFilterType(DatumType.BUGS);
+    filter.setFilterConjunction(conjunction);
+    filter.setTargetAttributeId(1L);
+    for (int i = 0; i < size; i++) {
+      filter.addFilterOption(i % 2 == 0 ? "Title" : "Labels", "project " + i);
+    }
+    return filter;
+  }
+
+  @Benchmark
+  public Bug applyAny() {
+    anyFilter.apply(bug);
+    return bug;
+  }
+
+  @Benchmark
+  public Bug applyAll() {
+    allFilter.apply(bug);
+    return bug;
+  }
+}
@@ -0,0 +1,160 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.bench;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.testing.testify.risk.frontend.model.Attribute;
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.Capability;
+import com.google.testing.testify.risk.frontend.model.Component;
+import com.google.testing.testify.risk.frontend.model.FailureRate;
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
+import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.model.UserImpact;
+import com.google.testing.testify.risk.frontend.server.util.RiskEngine;
+import com.google.testing.testify.risk.frontend.server.util.RiskInput;
+import com.google.testing.testify.risk.frontend.shared.util.RiskUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Benchmarks the risk calculations: {@link RiskUtil#determineRisk} over every capability, and
+ * {@link RiskEngine}, which builds the same bug and test case lookups as the client's
+ * BugRiskProvider and TestCoverageRiskProvider and calculates the risk of every cell from them.
+ * The client providers themselves load their data through GWT RPC, so can't run outside a
+ * browser.
+ */
+@State(Scope.Thread)
+public class RiskBenchmark {
+  private static final long PROJECT_ID = 1;
+  private static final int ATTRIBUTES = 20;
+  private static final int COMPONENTS = 20;
+  /** Capabilities per bug or test case. */
+  private static final int CAPABILITY_RATIO = 10;
+
+  /** The number of bugs and of test cases. */
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int size;
+
+  private final RiskEngine engine = new RiskEngine();
+  private final Random random = new Random(0);
+  private List<Attribute> attributes;
+  private List<Component> components;
+  private List<Capability> capabilities;
+  private Map<Long, Capability> capabilitiesById;
+  private List<Bug> bugs;
+  private List<TestCase> tests;
+  private RiskMatrix matrix;
+
+  @Setup
+  public void setUp() {
+    attributes = Lists.newArrayList();
+    for (int i = 0; i < ATTRIBUTES; i++) {
+      Attribute attribute = new Attribute(PROJECT_ID);
+      attribute.setAttributeId(i);
+      attributes.add(attribute);
+    }
+    components = Lists.newArrayList();
+    for (int i = 0; i < COMPONENTS; i++) {
+      Component component = new Component(PROJECT_ID);
+      component.setComponentId(i);
+      components.add(component);
+    }
+    capabilities = Lists.newArrayList();
+    capabilitiesById = Maps.newHashMap();
+    for (int i = 0; i < size / CAPABILITY_RATIO; i++) {
+      Capability capability = new Capability(PROJECT_ID, random.nextInt(ATTRIBUTES),
+          random.nextInt(COMPONENTS));
+      capability.setCapabilityId(i);
+      capability.setUserImpact(UserImpact.values()[random.nextInt(UserImpact.values().length)]);
+      capability.setFailureRate(
+          FailureRate.values()[random.nextInt(FailureRate.values().length)]);
+      capabilities.add(capability);
+      capabilitiesById.put(capability.getCapabilityId(), capability);
+    }
+    bugs = Lists.newArrayList();
+    tests = Lists.newArrayList();
+    for (int i = 0; i < size; i++) {
+      bugs.add(newBug(i));
+      tests.add(newTest(i));
+    }
+    matrix = engine.computeRisk(PROJECT_ID, attributes, components, capabilities, bugs, tests);
+  }
+
+  /** A bug assigned to a random Attribute, Component or Capability, or to nothing. */
+  private Bug newBug(long id) {
+    Bug bug = new Bug();
+    bug.setParentProjectId(PROJECT_ID);
+    bug.setExternalId(id);
+    switch (random.nextInt(4)) {
+      case 0:
+        bug.setTargetAttributeId((long) random.nextInt(ATTRIBUTES));
+        break;
+      case 1:
+        bug.setTargetComponentId((long) random.nextInt(COMPONENTS));
+        break;
+      case 2:
+        bug.setTargetCapabilityId((long) random.nextInt(Math.max(1, capabilities.size())));
+        break;
+      default:
+        break;
+    }
+    return bug;
+  }
+
+  /** A test case tagged with a random Attribute, Component and Capability. */
+  private TestCase newTest(long id) {
+    TestCase test = new TestCase();
+    test.setParentProjectId(PROJECT_ID);
+    test.setExternalId(id);
+    test.addTag("Attribute:" + random.nextInt(ATTRIBUTES));
+    test.addTag("Component:" + random.nextInt(COMPONENTS));
+    test.addTag("Capability:" + random.nextInt(Math.max(1, capabilities.size())));
+    return test;
+  }
+
+  @Benchmark
+  public void determineRisk(Blackhole blackhole) {
+    for (Capability capability : capabilities) {
+      blackhole.consume(RiskUtil.determineRisk(capability));
+    }
+  }
+
+  @Benchmark
+  public RiskMatrix computeRisk() {
+    return engine.computeRisk(PROJECT_ID, attributes, components, capabilities, bugs, tests);
+  }
+
+  /** Moves one bug onto another capability, as happens when a filter or an edit reassigns it. */
+  @Benchmark
+  public RiskMatrix applyRiskInput() {
+    Bug bug = bugs.get(random.nextInt(size));
+    engine.applyRiskInput(matrix, RiskInput.of(bug), capabilitiesById, -1);
+    bug.setTargetCapabilityId((long) random.nextInt(Math.max(1, capabilities.size())));
+    engine.applyRiskInput(matrix, RiskInput.of(bug), capabilitiesById, 1);
+    return matrix;
+  }
+}
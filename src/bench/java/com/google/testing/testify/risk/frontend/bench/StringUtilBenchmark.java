@@ -0,0 +1,65 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.bench;
+
+import com.google.common.collect.Lists;
+import com.google.testing.testify.risk.frontend.shared.util.StringUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Benchmarks the comma separated list helpers in {@link StringUtil}, which are used for labels,
+ * tags and data request options.
+ */
+@State(Scope.Thread)
+public class StringUtilBenchmark {
+
+  /** The number of items in each list. */
+  @Param({"1000", "10000", "100000", "1000000"})
+  public int size;
+
+  private String csv;
+  private List<String> list;
+  private List<String> otherList;
+
+  @Setup
+  public void setUp() {
+    list = Lists.newArrayList();
+    otherList = Lists.newArrayList();
+    for (int i = 0; i < size; i++) {
+      list.add("label" + i);
+      // Overlaps with every other item of list.
+      otherList.add("label" + (i * 2));
+    }
+    csv = StringUtil.listToCsv(list);
+  }
+
+  @Benchmark
+  public List<String> csvToList() {
+    return StringUtil.csvToList(csv);
+  }
+
+  @Benchmark
+  public List<String> subtractList() {
+    return StringUtil.subtractList(list, otherList);
+  }
+}
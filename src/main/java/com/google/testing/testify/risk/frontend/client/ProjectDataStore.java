@@ -0,0 +1,218 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.client;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.gwt.event.shared.EventBus;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.testing.testify.risk.frontend.client.event.ProjectChangedEvent;
+import com.google.testing.testify.risk.frontend.client.event.ProjectChangedHandler;
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.DataPage;
+import com.google.testing.testify.risk.frontend.model.DatumFilter;
+import com.google.testing.testify.risk.frontend.model.DatumSummary;
+import com.google.testing.testify.risk.frontend.model.DatumType;
+import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client side store of a project's uploaded data, shared by every page of the project.  Each
+ * page of data and list of summaries is requested once and then reused, so moving between pages
+ * and capabilities does not download the same data again.  A request made while the same request
+ * is still in flight waits for its result rather than being sent twice.
+ *
+ * Data of a type is dropped when it is changed through this store, and all data is dropped when
+ * the project changes.  Call {@link #invalidate} after changing data some other way.
+ */
+public class ProjectDataStore {
+
+  /** Requests a result from the server. */
+  private interface Loader<T> {
+    public void load(AsyncCallback<T> callback);
+  }
+
+  /** A result, or the callbacks waiting on it while it loads. */
+  private static class Entry<T> {
+    private T result;
+    private boolean loaded;
+    private final List<AsyncCallback<T>> waiting = Lists.newArrayList();
+  }
+
+  private final long projectId;
+  private final DataRpcAsync dataService;
+  private final Map<DatumType, Map<String, Entry<?>>> entries = Maps.newHashMap();
+
+  public ProjectDataStore(long projectId, DataRpcAsync dataService, EventBus eventBus) {
+    this.projectId = projectId;
+    this.dataService = dataService;
+
+    eventBus.addHandler(ProjectChangedEvent.getType(),
+        new ProjectChangedHandler() {
+          @Override
+          public void onProjectChanged(ProjectChangedEvent event) {
+            invalidateAll();
+          }
+        });
+  }
+
+  public void getBugsPage(final String cursor, final int limit, final DatumFilter filter,
+      AsyncCallback<DataPage<Bug>> callback) {
+    get(DatumType.BUGS, getPageKey(cursor, limit, filter), callback,
+        new Loader<DataPage<Bug>>() {
+          @Override
+          public void load(AsyncCallback<DataPage<Bug>> loaded) {
+            dataService.getProjectBugsPage(projectId, cursor, limit, filter, loaded);
+          }
+        });
+  }
+
+  public void getTestCasesPage(final String cursor, final int limit, final DatumFilter filter,
+      AsyncCallback<DataPage<TestCase>> callback) {
+    get(DatumType.TESTS, getPageKey(cursor, limit, filter), callback,
+        new Loader<DataPage<TestCase>>() {
+          @Override
+          public void load(AsyncCallback<DataPage<TestCase>> loaded) {
+            dataService.getProjectTestCasesPage(projectId, cursor, limit, filter, loaded);
+          }
+        });
+  }
+
+  public void getCheckinsPage(final String cursor, final int limit, final DatumFilter filter,
+      AsyncCallback<DataPage<Checkin>> callback) {
+    get(DatumType.CHECKINS, getPageKey(cursor, limit, filter), callback,
+        new Loader<DataPage<Checkin>>() {
+          @Override
+          public void load(AsyncCallback<DataPage<Checkin>> loaded) {
+            dataService.getProjectCheckinsPage(projectId, cursor, limit, filter, loaded);
+          }
+        });
+  }
+
+  public void getSummaries(final DatumType type, AsyncCallback<List<DatumSummary>> callback) {
+    get(type, "summaries", callback,
+        new Loader<List<DatumSummary>>() {
+          @Override
+          public void load(AsyncCallback<List<DatumSummary>> loaded) {
+            dataService.getProjectDataSummaries(projectId, type, loaded);
+          }
+        });
+  }
+
+  public void updateBugAssociations(String bugId, long attributeId, long componentId,
+      long capabilityId, AsyncCallback<Void> callback) {
+    dataService.updateBugAssociations(bugId, attributeId, componentId, capabilityId,
+        invalidateOnSuccess(DatumType.BUGS, callback));
+  }
+
+  public void updateTestAssociations(String testCaseId, long attributeId, long componentId,
+      long capabilityId, AsyncCallback<Void> callback) {
+    dataService.updateTestAssociations(testCaseId, attributeId, componentId, capabilityId,
+        invalidateOnSuccess(DatumType.TESTS, callback));
+  }
+
+  public void updateCheckinAssociations(String checkinId, long attributeId, long componentId,
+      long capabilityId, AsyncCallback<Void> callback) {
+    dataService.updateCheckinAssociations(checkinId, attributeId, componentId, capabilityId,
+        invalidateOnSuccess(DatumType.CHECKINS, callback));
+  }
+
+  /** Drops all stored data of a type.  Requests still in flight are not stored. */
+  public void invalidate(DatumType type) {
+    entries.remove(type);
+  }
+
+  public void invalidateAll() {
+    entries.clear();
+  }
+
+  /** Passes a stored result to the callback, or requests it if it isn't stored yet. */
+  @SuppressWarnings("unchecked")
+  private <T> void get(final DatumType type, final String key, AsyncCallback<T> callback,
+      Loader<T> loader) {
+    Map<String, Entry<?>> typeEntries = entries.get(type);
+    if (typeEntries == null) {
+      typeEntries = Maps.newHashMap();
+      entries.put(type, typeEntries);
+    }
+    Entry<T> existing = (Entry<T>) typeEntries.get(key);
+    if (existing != null) {
+      if (existing.loaded) {
+        callback.onSuccess(existing.result);
+      } else {
+        existing.waiting.add(callback);
+      }
+      return;
+    }
+
+    final Entry<T> entry = new Entry<T>();
+    entry.waiting.add(callback);
+    typeEntries.put(key, entry);
+    loader.load(new AsyncCallback<T>() {
+      @Override
+      public void onFailure(Throwable caught) {
+        // Don't keep the failure; the next request tries again.
+        Map<String, Entry<?>> current = entries.get(type);
+        if (current != null && current.get(key) == entry) {
+          current.remove(key);
+        }
+        for (AsyncCallback<T> waiting : takeWaiting(entry)) {
+          waiting.onFailure(caught);
+        }
+      }
+
+      @Override
+      public void onSuccess(T result) {
+        entry.result = result;
+        entry.loaded = true;
+        for (AsyncCallback<T> waiting : takeWaiting(entry)) {
+          waiting.onSuccess(result);
+        }
+      }
+    });
+  }
+
+  private <T> List<AsyncCallback<T>> takeWaiting(Entry<T> entry) {
+    List<AsyncCallback<T>> waiting = Lists.newArrayList(entry.waiting);
+    entry.waiting.clear();
+    return waiting;
+  }
+
+  private AsyncCallback<Void> invalidateOnSuccess(final DatumType type,
+      final AsyncCallback<Void> callback) {
+    return new AsyncCallback<Void>() {
+      @Override
+      public void onFailure(Throwable caught) {
+        callback.onFailure(caught);
+      }
+
+      @Override
+      public void onSuccess(Void result) {
+        invalidate(type);
+        callback.onSuccess(result);
+      }
+    };
+  }
+
+  private static String getPageKey(String cursor, int limit, DatumFilter filter) {
+    return limit + "/" + (filter == null ? "" : filter.getTargetCapabilityId())
+        + "/" + (cursor == null ? "" : cursor);
+  }
+}
@@ -18,6 +18,7 @@ package com.google.testing.testify.risk.frontend.client;
 import com.google.common.base.Function;
 import com.google.common.collect.Lists;
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.RunAsyncCallback;
 import com.google.gwt.event.dom.client.ChangeEvent;
 import com.google.gwt.event.shared.EventBus;
 import com.google.gwt.event.shared.SimpleEventBus;
@@ -26,6 +27,7 @@ import com.google.gwt.uibinder.client.UiFactory;
 import com.google.gwt.uibinder.client.UiField;
 import com.google.gwt.uibinder.client.UiHandler;
 import com.google.gwt.user.client.History;
+import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.gwt.user.client.ui.Composite;
 import com.google.gwt.user.client.ui.Label;
 import com.google.gwt.user.client.ui.ListBox;
@@ -62,6 +64,7 @@ import com.google.testing.testify.risk.frontend.client.view.widgets.ProjectFavor
 import com.google.testing.testify.risk.frontend.client.view.widgets.PageHeaderWidget;
 import com.google.testing.testify.risk.frontend.model.Bug;
 import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.DataPage;
 import com.google.testing.testify.risk.frontend.model.UploadedDatum;
 import com.google.testing.testify.risk.frontend.model.Project;
 import com.google.testing.testify.risk.frontend.model.TestCase;
@@ -83,6 +86,9 @@ public class TaApplication extends Composite {
   private static final TestifyApplicationUiBinder uiBinder =
       GWT.create(TestifyApplicationUiBinder.class);
 
+  /** How many bugs, checkins or tests to request at a time for the project data pages. */
+  private static final int DATA_PAGE_SIZE = 100;
+
   @UiField
   protected SimplePanel contentPanel;
 
@@ -130,6 +136,9 @@ public class TaApplication extends Composite {
   /** EventBus for firing and subscribing to application-level events. */
   private final EventBus eventBus = new SimpleEventBus();
 
+  /** The project's uploaded data, shared between pages. */
+  private final ProjectDataStore dataStore;
+
   /** Current page the application is on. */
   private NavigationLink currentLink;
 
@@ -138,6 +147,7 @@ public class TaApplication extends Composite {
     this.projectService = projectService;
     this.userService = userService;
     this.dataService = dataService;
+    this.dataStore = new ProjectDataStore(project.getProjectId(), dataService, eventBus);
     initWidget(uiBinder.createAndBindUi(this));
     allLinks = Lists.newArrayList(
         projectDetailsLink, attributesLink, componentsLink, capabilitiesLink, configureDataLink,
@@ -147,9 +157,7 @@ public class TaApplication extends Composite {
     initializeToolbar();
     initializeMenuItems();
     hookupEventListeners();
-
-    // Default page.
-    switchToPage(projectDetailsLink, "");
+    // No page is created until one is switched to.
   }
 
   @UiFactory
@@ -234,7 +242,7 @@ public class TaApplication extends Composite {
   /**
    * Switches the current view to the provided Testify application page.
    */
-  public void switchToPage(NavigationLink link, String pageData) {
+  public void switchToPage(final NavigationLink link, final String pageData) {
     NavigationLink oldLink = currentLink;
     this.currentLink = link;
 
@@ -243,92 +251,151 @@ public class TaApplication extends Composite {
     }
     link.select();
 
-    TaPagePresenter presenter = link.getPresenter();
-    if (presenter != null) {
-      presenter.refreshView(pageData);
-      setAsMainContent(presenter.getView());
-    } else {
-      // No presenter means something went awry.
-      NotificationUtil.displayErrorMessage("The requested page is currently unavailable.");
-    }
+    link.getPresenter(new TaCallback<TaPagePresenter>("loading page") {
+      @Override
+      public void onSuccess(TaPagePresenter presenter) {
+        if (presenter == null) {
+          // No presenter means something went awry.
+          NotificationUtil.displayErrorMessage("The requested page is currently unavailable.");
+        } else if (currentLink == link) {
+          // Only show the page if the user hasn't moved on while its code was loading.
+          presenter.refreshView(pageData);
+          setAsMainContent(presenter.getView());
+        }
+      }
+    });
   }
 
-  /** Initializes machinery related to navigation via menu items. */
+  /**
+   * Initializes machinery related to navigation via menu items.  Every page except the default
+   * Project Settings page is behind its own split point, so its code is only downloaded when it
+   * is first opened.
+   */
   private void initializeMenuItems() {
-    projectDetailsLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    projectDetailsLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createProjectSettingsPage();
+      public void createPresenter(AsyncCallback<TaPagePresenter> callback) {
+        callback.onSuccess(createProjectSettingsPage());
       }
     });
 
-    attributesLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    attributesLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createAttributesPage();
+      public void createPresenter(final AsyncCallback<TaPagePresenter> callback) {
+        GWT.runAsync(new PageLoadCallback(callback) {
+          @Override
+          public void onSuccess() {
+            callback.onSuccess(createAttributesPage());
+          }
+        });
       }
     });
 
-    componentsLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    componentsLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createComponentsPage();
+      public void createPresenter(final AsyncCallback<TaPagePresenter> callback) {
+        GWT.runAsync(new PageLoadCallback(callback) {
+          @Override
+          public void onSuccess() {
+            callback.onSuccess(createComponentsPage());
+          }
+        });
       }
     });
 
-    capabilitiesLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    capabilitiesLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createEditCapabilitiesPage();
+      public void createPresenter(final AsyncCallback<TaPagePresenter> callback) {
+        GWT.runAsync(new PageLoadCallback(callback) {
+          @Override
+          public void onSuccess() {
+            callback.onSuccess(createEditCapabilitiesPage());
+          }
+        });
       }
     });
 
-    configureDataLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    configureDataLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createConfigureDataPage();
+      public void createPresenter(final AsyncCallback<TaPagePresenter> callback) {
+        GWT.runAsync(new PageLoadCallback(callback) {
+          @Override
+          public void onSuccess() {
+            callback.onSuccess(createConfigureDataPage());
+          }
+        });
       }
     });
 
-    configureFiltersLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    configureFiltersLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createFiltersPage();
+      public void createPresenter(final AsyncCallback<TaPagePresenter> callback) {
+        GWT.runAsync(new PageLoadCallback(callback) {
+          @Override
+          public void onSuccess() {
+            callback.onSuccess(createFiltersPage());
+          }
+        });
       }
     });
 
-    projectBugsLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    projectBugsLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createBugsPage();
+      public void createPresenter(final AsyncCallback<TaPagePresenter> callback) {
+        GWT.runAsync(new PageLoadCallback(callback) {
+          @Override
+          public void onSuccess() {
+            callback.onSuccess(createBugsPage());
+          }
+        });
       }
     });
 
-    projectCheckinsLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    projectCheckinsLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createCheckinsPage();
+      public void createPresenter(final AsyncCallback<TaPagePresenter> callback) {
+        GWT.runAsync(new PageLoadCallback(callback) {
+          @Override
+          public void onSuccess() {
+            callback.onSuccess(createCheckinsPage());
+          }
+        });
       }
     });
 
-    projectTestcasesLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    projectTestcasesLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createTestcasesPage();
+      public void createPresenter(final AsyncCallback<TaPagePresenter> callback) {
+        GWT.runAsync(new PageLoadCallback(callback) {
+          @Override
+          public void onSuccess() {
+            callback.onSuccess(createTestcasesPage());
+          }
+        });
       }
     });
 
-    knownRisksLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    knownRisksLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createKnownRiskPage();
+      public void createPresenter(final AsyncCallback<TaPagePresenter> callback) {
+        GWT.runAsync(new PageLoadCallback(callback) {
+          @Override
+          public void onSuccess() {
+            callback.onSuccess(createKnownRiskPage());
+          }
+        });
       }
     });
 
-    capabilityDetailsLink.setCreatePresenterFunction(new Function<Void, TaPagePresenter>() {
+    capabilityDetailsLink.setPresenterFactory(new NavigationLink.PresenterFactory() {
       @Override
-      public TaPagePresenter apply(Void input) {
-        return createCapabilityDetailsPage();
+      public void createPresenter(final AsyncCallback<TaPagePresenter> callback) {
+        GWT.runAsync(new PageLoadCallback(callback) {
+          @Override
+          public void onSuccess() {
+            callback.onSuccess(createCapabilityDetailsPage());
+          }
+        });
       }
     });
 
@@ -449,7 +516,7 @@ public class TaApplication extends Composite {
   private CapabilityDetailsPresenter createCapabilityDetailsPage() {
     CapabilityDetailsViewImpl detailsView = new CapabilityDetailsViewImpl();
     CapabilityDetailsPresenter capabilityDetailsPresenter = new CapabilityDetailsPresenter(project,
-        projectService, dataService, userService, detailsView);
+        projectService, dataService, dataStore, userService, detailsView);
     return capabilityDetailsPresenter;
   }
 
@@ -466,10 +533,24 @@ public class TaApplication extends Composite {
   private ConfigureFiltersPresenter createFiltersPage() {
     ConfigureFiltersViewImpl view = new ConfigureFiltersViewImpl();
     ConfigureFiltersPresenter filtersPresenter = new ConfigureFiltersPresenter(project, dataService,
-        projectService, view);
+        dataStore, projectService, view);
     return filtersPresenter;
   }
 
+  /** Split point callback which passes failures to download a page's code on to its caller. */
+  private abstract static class PageLoadCallback implements RunAsyncCallback {
+    private final AsyncCallback<TaPagePresenter> callback;
+
+    PageLoadCallback(AsyncCallback<TaPagePresenter> callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void onFailure(Throwable reason) {
+      callback.onFailure(reason);
+    }
+  }
+
   /**
    * Returns a generic page presenter displaying the given view and performing the given
    * action when refreshView is called.
@@ -498,28 +579,32 @@ public class TaApplication extends Composite {
       "Project Bugs",
       "The following bugs have been uploaded to your Test Analytics project.");
 
+    dataView.setPager(new ProjectDataViewImpl.Pager() {
+        @Override
+        public void loadPage(String cursor) {
+          dataStore.getBugsPage(cursor, DATA_PAGE_SIZE, null,
+              new TaCallback<DataPage<Bug>>("querying project bugs") {
+                @Override
+                public void onSuccess(DataPage<Bug> result) {
+                  List<UploadedDatum> converted = Lists.newArrayList();
+                  for (Bug item : result.getItems()) {
+                    converted.add(item);
+                  }
+                  dataView.addData(converted, result.getCursor());
+                }
+              });
+        }
+      });
+
     Function<Void, Void> onRefreshPage =
         new Function<Void, Void>() {
           @Override
           public Void apply(Void input) {
-            dataService.getProjectBugsById(getProject().getProjectId(),
-                new TaCallback<List<Bug>>("querying project bugs") {
-                  @Override
-                  public void onSuccess(List<Bug> results) {
-                    List<UploadedDatum> converted = Lists.newArrayList();
-                    for (Bug item : results) {
-                      converted.add(item);
-                    }
-                    dataView.displayData(converted);
-                  }
-                });
+            dataView.reload();
             return null;
           }
         };
 
-    // Start an initial request for project bugs.
-    onRefreshPage.apply(null);
-
     TaPagePresenter projectBugsPresenter = createPagePresenter(dataView, onRefreshPage);
     return projectBugsPresenter;
   }
@@ -532,27 +617,31 @@ public class TaApplication extends Composite {
       "Project Checkins",
       "The following checkins have been uploaded to your Test Analytics project.");
 
+    dataView.setPager(new ProjectDataViewImpl.Pager() {
+        @Override
+        public void loadPage(String cursor) {
+          dataStore.getCheckinsPage(cursor, DATA_PAGE_SIZE, null,
+              new TaCallback<DataPage<Checkin>>("querying project checkins") {
+                @Override
+                public void onSuccess(DataPage<Checkin> result) {
+                  List<UploadedDatum> converted = Lists.newArrayList();
+                  for (Checkin item : result.getItems()) {
+                    converted.add(item);
+                  }
+                  dataView.addData(converted, result.getCursor());
+                }
+              });
+        }
+      });
+
     Function<Void, Void> onRefreshPage =
         new Function<Void, Void>() {
           @Override
           public Void apply(Void input) {
-            dataService.getProjectCheckinsById(getProject().getProjectId(),
-                new TaCallback<List<Checkin>>("querying project checkins") {
-                  @Override
-                  public void onSuccess(List<Checkin> results) {
-                    List<UploadedDatum> converted = Lists.newArrayList();
-                    for (Checkin item : results) {
-                      converted.add(item);
-                    }
-                    dataView.displayData(converted);
-                  }
-                });
+            dataView.reload();
             return null;
           }
-      };
-
-    // Start an initial request for project checkins.
-    onRefreshPage.apply(null);
+        };
 
     TaPagePresenter projectCheckinsPresenter = createPagePresenter(dataView, onRefreshPage);
     return projectCheckinsPresenter;
@@ -566,31 +655,35 @@ public class TaApplication extends Composite {
         "Project Testcases",
         "The following testcases have been uploaded to your Test Analytics project.");
 
+    dataView.setPager(new ProjectDataViewImpl.Pager() {
+        @Override
+        public void loadPage(String cursor) {
+          dataStore.getTestCasesPage(cursor, DATA_PAGE_SIZE, null,
+              new TaCallback<DataPage<TestCase>>("querying project testcases") {
+                @Override
+                public void onSuccess(DataPage<TestCase> result) {
+                  List<UploadedDatum> converted = Lists.newArrayList();
+                  for (TestCase item : result.getItems()) {
+                    converted.add(item);
+                  }
+                  dataView.addData(converted, result.getCursor());
+                }
+              });
+        }
+      });
+
     Function<Void, Void> onRefreshPage =
         new Function<Void, Void>() {
           @Override
           public Void apply(Void input) {
-            dataService.getProjectTestCasesById(getProject().getProjectId(),
-                new TaCallback<List<TestCase>>("querying project testcases") {
-                  @Override
-                  public void onSuccess(List<TestCase> results) {
-                    List<UploadedDatum> converted = Lists.newArrayList();
-                    for (TestCase item : results) {
-                      converted.add(item);
-                    }
-                    dataView.displayData(converted);
-                  }
-                });
+            dataView.reload();
             return null;
           }
         };
 
-      // Start an initial request for project testcases.
-      onRefreshPage.apply(null);
-
-      TaPagePresenter projectTestcasesPresenter = createPagePresenter(dataView, onRefreshPage);
-      return projectTestcasesPresenter;
-    }
+    TaPagePresenter projectTestcasesPresenter = createPagePresenter(dataView, onRefreshPage);
+    return projectTestcasesPresenter;
+  }
 
   /**
    * Initialize the Presenter and View for the Known Risks page.
@@ -598,7 +691,7 @@ public class TaApplication extends Composite {
   private KnownRiskPresenter createKnownRiskPage() {
     KnownRiskViewImpl riskView = new KnownRiskViewImpl();
     KnownRiskPresenter knownRiskPresenter = new KnownRiskPresenter(project, projectService,
-        riskView);
+        dataService, riskView);
     return knownRiskPresenter;
   }
 }
@@ -17,6 +17,7 @@ package com.google.testing.testify.risk.frontend.client;
 
 import com.google.gwt.core.client.EntryPoint;
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.core.client.RunAsyncCallback;
 import com.google.gwt.event.logical.shared.ValueChangeEvent;
 import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.google.gwt.user.client.History;
@@ -145,8 +146,7 @@ public class TaEntryPoint implements EntryPoint {
           if (result == null) {
             displayErrorPage(PROJECT_NOT_FOUND, PROJECT_ID_NOT_FOUND_TEXT);
           } else {
-            displayProjectView(result);
-            handleUrl(targetUrl);
+            displayProjectView(result, targetUrl);
           }
         }
       });
@@ -174,19 +174,32 @@ public class TaEntryPoint implements EntryPoint {
   }
 
   /**
-   * Switches the application's view to a specific Project.
+   * Switches the application's view to a specific Project, and then navigates to the target URL.
+   * The project application is behind a split point, so the home page can be shown without
+   * downloading it.
    */
-  public void displayProjectView(Project project) {
+  public void displayProjectView(final Project project, final String targetUrl) {
     // All projects must be serialized (have a Project ID) first.
     if (project.getProjectId() == null) {
       return;
     }
 
-    GWT.log("Switching to view project " + project.getProjectId().toString());
-    currentApplicationInstance = new TaApplication(project, projectService, userService,
-        dataService);
+    GWT.runAsync(new RunAsyncCallback() {
+      @Override
+      public void onFailure(Throwable reason) {
+        displayErrorPage(ERROR_LOADING_PROJECT, ERROR_LOADING_PROJECT_TEXT);
+      }
+
+      @Override
+      public void onSuccess() {
+        GWT.log("Switching to view project " + project.getProjectId().toString());
+        currentApplicationInstance = new TaApplication(project, projectService, userService,
+            dataService);
 
-    setPageContent(currentApplicationInstance);
+        setPageContent(currentApplicationInstance);
+        handleUrl(targetUrl);
+      }
+    });
   }
 
   /**
@@ -30,15 +30,40 @@ public class WidgetsReorderedEvent extends GwtEvent<WidgetsReorderedHandler> {
   private static final Type<WidgetsReorderedHandler> TYPE = new Type<WidgetsReorderedHandler>();
 
   private final ImmutableList<Widget> widgets;
+  private final int movedIndex;
 
-  public WidgetsReorderedEvent(List<Widget> widgets) {
+  /**
+   * @param widgets the widgets, in their new order.
+   * @param moved the widget which was moved.
+   */
+  public WidgetsReorderedEvent(List<Widget> widgets, Widget moved) {
     this.widgets = ImmutableList.copyOf(widgets);
+    this.movedIndex = widgets.indexOf(moved);
   }
 
   public ImmutableList<Widget> getWidgetOrdering() {
     return widgets;
   }
 
+  /** Returns the widget which was moved, or null if it is unknown. */
+  public Widget getMovedWidget() {
+    return getWidget(movedIndex);
+  }
+
+  /** Returns the widget now just before the moved widget, or null if it moved to the top. */
+  public Widget getWidgetBeforeMoved() {
+    return getWidget(movedIndex - 1);
+  }
+
+  /** Returns the widget now just after the moved widget, or null if it moved to the bottom. */
+  public Widget getWidgetAfterMoved() {
+    return movedIndex < 0 ? null : getWidget(movedIndex + 1);
+  }
+
+  private Widget getWidget(int index) {
+    return index < 0 || index >= widgets.size() ? null : widgets.get(index);
+  }
+
   public static Type<WidgetsReorderedHandler> getType() {
     return TYPE;
   }
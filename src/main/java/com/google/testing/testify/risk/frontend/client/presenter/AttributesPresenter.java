@@ -26,7 +26,7 @@ import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.AccLabel;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Project;
-import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.UserRpcAsync;
@@ -109,10 +109,10 @@ public class AttributesPresenter extends BasePagePresenter implements Attributes
           }
         });
 
-    dataService.getSignoffsByType(project.getProjectId(), AccElementType.ATTRIBUTE,
-        new TaCallback<List<Signoff>>("loading signoff details") {
+    dataService.getSignoffMap(project.getProjectId(),
+        new TaCallback<SignoffMap>("loading signoff details") {
           @Override
-          public void onSuccess(List<Signoff> results) {
+          public void onSuccess(SignoffMap results) {
             view.setSignoffs(results);
           }
         });
@@ -180,9 +180,9 @@ public class AttributesPresenter extends BasePagePresenter implements Attributes
   }
 
   @Override
-  public void reorderAttributes(List<Long> newOrder) {
-    projectService.reorderAttributes(
-        project.getProjectId(), newOrder,
+  public void moveAttribute(long attributeId, Long beforeId, Long afterId) {
+    projectService.moveElement(
+        project.getProjectId(), AccElementType.ATTRIBUTE, attributeId, beforeId, afterId,
         new TaCallback<Void>("reordering attributes") {
           @Override
           public void onSuccess(Void result) {
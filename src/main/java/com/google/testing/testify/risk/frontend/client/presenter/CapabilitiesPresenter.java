@@ -21,16 +21,15 @@ import com.google.gwt.user.client.ui.Widget;
 import com.google.testing.testify.risk.frontend.client.TaCallback;
 import com.google.testing.testify.risk.frontend.client.event.ProjectElementAddedEvent;
 import com.google.testing.testify.risk.frontend.client.view.CapabilitiesView;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.AccLabel;
-import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Capability;
-import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.model.ProjectAccModel;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.UserRpcAsync;
 
 import java.util.Collection;
-import java.util.List;
 
 /**
  * Presenter for the CapabilitiesGrid widget.
@@ -77,36 +76,15 @@ public class CapabilitiesPresenter
         }
       });
 
-    projectService.getProjectAttributes(project.getProjectId(),
-        new TaCallback<List<Attribute>>("querying attributes") {
+    projectService.getProjectAccModel(project.getProjectId(),
+        new TaCallback<ProjectAccModel>("querying project") {
           @Override
-          public void onSuccess(List<Attribute> result) {
-            view.setAttributes(result);
-          }
-        });
-
-    projectService.getProjectComponents(project.getProjectId(),
-        new TaCallback<List<Component>>("querying components") {
-          @Override
-          public void onSuccess(List<Component> result) {
-            view.setComponents(result);
-          }
-        });
-
-    projectService.getProjectCapabilities(project.getProjectId(),
-        new TaCallback<List<Capability>>("querying capabilities") {
-          @Override
-          public void onSuccess(List<Capability> result) {
-            view.setCapabilities(result);
-          }
-        });
-
-    projectService.getLabels(project.getProjectId(),
-        new TaCallback<List<AccLabel>>("querying components") {
-          @Override
-          public void onSuccess(List<AccLabel> result) {
+          public void onSuccess(ProjectAccModel result) {
+            view.setAttributes(result.getAttributes());
+            view.setComponents(result.getComponents());
+            view.setCapabilities(result.getCapabilities());
             Collection<String> labels = Lists.newArrayList();
-            for (AccLabel l : result) {
+            for (AccLabel l : result.getLabels()) {
               labels.add(l.getLabelText());
             }
             view.setProjectLabels(labels);
@@ -138,9 +116,9 @@ public class CapabilitiesPresenter
   }
 
   @Override
-  public void reorderCapabilities(List<Long> ids) {
-    projectService.reorderCapabilities(project.getProjectId(), ids,
-        TaCallback.getNoopCallback());
+  public void moveCapability(long capabilityId, Long beforeId, Long afterId) {
+    projectService.moveElement(project.getProjectId(), AccElementType.CAPABILITY, capabilityId,
+        beforeId, afterId, TaCallback.getNoopCallback());
   }
 
   /** Returns the underlying view. */
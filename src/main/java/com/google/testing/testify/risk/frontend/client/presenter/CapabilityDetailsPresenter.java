@@ -18,23 +18,24 @@ package com.google.testing.testify.risk.frontend.client.presenter;
 import com.google.common.collect.Lists;
 import com.google.gwt.user.client.Window;
 import com.google.gwt.user.client.ui.Widget;
+import com.google.testing.testify.risk.frontend.client.ProjectDataStore;
 import com.google.testing.testify.risk.frontend.client.TaCallback;
 import com.google.testing.testify.risk.frontend.client.view.CapabilityDetailsView;
 import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.AccLabel;
-import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Bug;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.Checkin;
-import com.google.testing.testify.risk.frontend.model.Component;
+import com.google.testing.testify.risk.frontend.model.DataPage;
+import com.google.testing.testify.risk.frontend.model.DatumFilter;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.model.ProjectAccModel;
 import com.google.testing.testify.risk.frontend.model.TestCase;
 import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.UserRpcAsync;
 
 import java.util.Collection;
-import java.util.List;
 
 /**
  * Presenter for the details of a single capability.
@@ -48,18 +49,23 @@ public class CapabilityDetailsPresenter extends BasePagePresenter
   protected final ProjectRpcAsync projectService;
   protected final UserRpcAsync userService;
   protected final DataRpcAsync dataService;
+  protected final ProjectDataStore dataStore;
   protected final CapabilityDetailsView view;
 
+  /** How many data items to request at a time. */
+  private static final int PAGE_SIZE = 50;
+
   protected String pageData;
 
   private Long capabilityId;
 
   public CapabilityDetailsPresenter(Project project, ProjectRpcAsync projectService,
-      DataRpcAsync dataService, UserRpcAsync userService,
+      DataRpcAsync dataService, ProjectDataStore dataStore, UserRpcAsync userService,
       CapabilityDetailsView view) {
     this.project = project;
     this.projectService = projectService;
     this.dataService = dataService;
+    this.dataStore = dataStore;
     this.userService = userService;
     this.view = view;
 
@@ -81,90 +87,86 @@ public class CapabilityDetailsPresenter extends BasePagePresenter
             }
           }
         });
-    projectService.getProjectAttributes(projectId,
-        new TaCallback<List<Attribute>>("Querying Attributes") {
-          @Override
-          public void onSuccess(List<Attribute> result) {
-            view.setAttributes(result);
-          }
-        });
-
-    projectService.getLabels(projectId,
-        new TaCallback<List<AccLabel>>("Querying Components") {
+    projectService.getProjectAccModel(projectId,
+        new TaCallback<ProjectAccModel>("Querying project") {
           @Override
-          public void onSuccess(List<AccLabel> result) {
+          public void onSuccess(ProjectAccModel result) {
+            view.setAttributes(result.getAttributes());
+            view.setComponents(result.getComponents());
             Collection<String> labels = Lists.newArrayList();
-            for (AccLabel l : result) {
+            for (AccLabel l : result.getLabels()) {
               labels.add(l.getLabelText());
             }
             view.setProjectLabels(labels);
+            view.setCapability(result.getCapability(capabilityId));
           }
         });
 
-    projectService.getProjectComponents(projectId,
-        new TaCallback<List<Component>>("Querying Components") {
+    dataService.isSignedOff(project.getProjectId(), AccElementType.CAPABILITY, capabilityId,
+        new TaCallback<Boolean>("Getting signoff status") {
           @Override
-          public void onSuccess(List<Component> result) {
-            view.setComponents(result);
+          public void onSuccess(Boolean result) {
+            view.setSignoff(result == null ? false : result);
           }
         });
 
-    projectService.getCapabilityById(projectId, capabilityId,
-        new TaCallback<Capability>("Querying capability") {
-          @Override
-          public void onSuccess(Capability result) {
-            view.setCapability(result);
-          }
-        });
+    loadBugs(null, true);
+    loadTestCases(null, true);
+    loadCheckins(null, true);
+  }
 
-    dataService.isSignedOff(AccElementType.CAPABILITY, capabilityId,
-        new TaCallback<Boolean>("Getting signoff status") {
+  @Override
+  public void loadBugs(String cursor, final boolean assigned) {
+    dataStore.getBugsPage(cursor, PAGE_SIZE, getFilter(assigned),
+        new TaCallback<DataPage<Bug>>("Querying Bugs") {
           @Override
-          public void onSuccess(Boolean result) {
-            view.setSignoff(result == null ? false : result);
+          public void onSuccess(DataPage<Bug> result) {
+            view.addBugs(result.getItems(), result.getCursor(), assigned);
           }
         });
+  }
 
-    dataService.getProjectBugsById(projectId,
-        new TaCallback<List<Bug>>("Querying Bugs") {
+  @Override
+  public void loadTestCases(String cursor, final boolean assigned) {
+    dataStore.getTestCasesPage(cursor, PAGE_SIZE, getFilter(assigned),
+        new TaCallback<DataPage<TestCase>>("Querying Tests") {
           @Override
-          public void onSuccess(List<Bug> result) {
-            view.setBugs(result);
+          public void onSuccess(DataPage<TestCase> result) {
+            view.addTests(result.getItems(), result.getCursor(), assigned);
           }
         });
+  }
 
-    dataService.getProjectTestCasesById(projectId,
-        new TaCallback<List<TestCase>>("Querying Tests") {
+  @Override
+  public void loadCheckins(String cursor, final boolean assigned) {
+    dataStore.getCheckinsPage(cursor, PAGE_SIZE, getFilter(assigned),
+        new TaCallback<DataPage<Checkin>>("Querying Checkins") {
           @Override
-          public void onSuccess(List<TestCase> result) {
-            view.setTests(result);
+          public void onSuccess(DataPage<Checkin> result) {
+            view.addCheckins(result.getItems(), result.getCursor(), assigned);
           }
         });
+  }
 
-    dataService.getProjectCheckinsById(projectId,
-        new TaCallback<List<Checkin>>("Querying Checkins") {
-        @Override
-        public void onSuccess(List<Checkin> result) {
-          view.setCheckins(result);
-        }
-      });
+  private DatumFilter getFilter(boolean assigned) {
+    return assigned ? DatumFilter.forCapability(capabilityId) : null;
   }
 
   @Override
-  public void assignBugToCapability(long capabilityId, long bugId) {
-    dataService.updateBugAssociations(bugId, -1, -1, capabilityId,
+  public void assignBugToCapability(long capabilityId, String bugId) {
+    dataStore.updateBugAssociations(bugId, -1, -1, capabilityId,
         new TaCallback<Void>("assigning bug to capability"));
   }
 
   @Override
-  public void assignCheckinToCapability(long capabilityId, long checkinId) {
-    dataService.updateCheckinAssociations(checkinId, -1, -1, capabilityId,
+  public void assignCheckinToCapability(long capabilityId, String checkinId) {
+    dataStore.updateCheckinAssociations(checkinId, -1, -1, capabilityId,
         new TaCallback<Void>("assigning checkin to capability"));
   }
 
   @Override
-  public void assignTestCaseToCapability(long capabilityId, long testId) {
-    dataService.updateTestAssociations(testId, -1, -1, capabilityId,
+  public void assignTestCaseToCapability(long capabilityId, String testId) {
+    dataStore.updateTestAssociations(testId, -1, -1, capabilityId,
         new TaCallback<Void>("assigning test to capability"));
   }
 
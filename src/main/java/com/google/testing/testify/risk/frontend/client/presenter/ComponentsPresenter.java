@@ -26,7 +26,7 @@ import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.AccLabel;
 import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Project;
-import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.UserRpcAsync;
@@ -99,10 +99,10 @@ public class ComponentsPresenter extends BasePagePresenter
           }
         });
 
-    dataService.getSignoffsByType(project.getProjectId(), AccElementType.COMPONENT,
-        new TaCallback<List<Signoff>>("Retrieving signoff data") {
+    dataService.getSignoffMap(project.getProjectId(),
+        new TaCallback<SignoffMap>("Retrieving signoff data") {
           @Override
-          public void onSuccess(List<Signoff> results) {
+          public void onSuccess(SignoffMap results) {
             view.setSignoffs(results);
           }
         });
@@ -183,9 +183,9 @@ public class ComponentsPresenter extends BasePagePresenter
   }
 
   @Override
-  public void reorderComponents(List<Long> newOrder) {
-    projectService.reorderComponents(
-        project.getProjectId(), newOrder,
+  public void moveComponent(long componentId, Long beforeId, Long afterId) {
+    projectService.moveElement(
+        project.getProjectId(), AccElementType.COMPONENT, componentId, beforeId, afterId,
         new TaCallback<Void>("Reordering Comonents") {
           @Override
           public void onSuccess(Void result) {
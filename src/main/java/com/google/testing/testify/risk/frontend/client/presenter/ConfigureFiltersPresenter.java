@@ -16,13 +16,17 @@
 package com.google.testing.testify.risk.frontend.client.presenter;
 
 import com.google.common.collect.Maps;
+import com.google.gwt.user.client.Timer;
 import com.google.gwt.user.client.ui.Widget;
+import com.google.testing.testify.risk.frontend.client.ProjectDataStore;
 import com.google.testing.testify.risk.frontend.client.TaCallback;
 import com.google.testing.testify.risk.frontend.client.view.ConfigureFiltersView;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.Component;
+import com.google.testing.testify.risk.frontend.model.DatumType;
 import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
 import com.google.testing.testify.risk.frontend.model.Project;
 import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
@@ -38,16 +42,21 @@ import java.util.List;
 public class ConfigureFiltersPresenter extends BasePagePresenter implements TaPagePresenter,
     ConfigureFiltersView.Presenter {
 
+  /** How often to check on the progress of a reapply filters job. */
+  private static final int JOB_POLL_MILLIS = 2000;
+
   private final Project project;
   private final DataRpcAsync dataService;
+  private final ProjectDataStore dataStore;
   private final ProjectRpcAsync projectService;
   private final ConfigureFiltersView view;
 
   public ConfigureFiltersPresenter(Project project, DataRpcAsync dataService,
-      ProjectRpcAsync projectService, ConfigureFiltersView view) {
+      ProjectDataStore dataStore, ProjectRpcAsync projectService, ConfigureFiltersView view) {
 
     this.project = project;
     this.dataService = dataService;
+    this.dataStore = dataStore;
     this.projectService = projectService;
     this.view = view;
 
@@ -136,4 +145,38 @@ public class ConfigureFiltersPresenter extends BasePagePresenter implements TaPa
   public void updateFilter(Filter filterToUpdate) {
     dataService.updateFilter(filterToUpdate, TaCallback.getNoopCallback());
   }
+
+  @Override
+  public void reapplyFilters(DatumType type) {
+    dataService.startReapplyFilters(project.getProjectId(), type,
+        new TaCallback<JobStatus>("Applying filters") {
+          @Override
+          public void onSuccess(JobStatus result) {
+            showJobStatus(result);
+          }
+      });
+  }
+
+  /** Shows a job's progress, and keeps checking on it until it has finished. */
+  private void showJobStatus(final JobStatus status) {
+    view.showJobStatus(status);
+    if (status.isRunning()) {
+      Timer timer = new Timer() {
+        @Override
+        public void run() {
+          dataService.getJobStatus(status.getId(),
+              new TaCallback<JobStatus>("Checking filter progress") {
+                @Override
+                public void onSuccess(JobStatus result) {
+                  showJobStatus(result);
+                }
+            });
+        }
+      };
+      timer.schedule(JOB_POLL_MILLIS);
+    } else {
+      // The job may have assigned data, so stored pages of it are out of date.
+      dataStore.invalidate(status.getDatumType());
+    }
+  }
 }
@@ -18,6 +18,7 @@ package com.google.testing.testify.risk.frontend.client.presenter;
 import com.google.gwt.user.client.ui.Widget;
 import com.google.testing.testify.risk.frontend.client.view.RiskView;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 
 /**
@@ -28,8 +29,9 @@ import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 public class KnownRiskPresenter extends RiskPresenter implements TaPagePresenter {
 
   public KnownRiskPresenter(
-        Project project, ProjectRpcAsync projectService, RiskView view) {
-    super(project, projectService, view);
+        Project project, ProjectRpcAsync projectService, DataRpcAsync dataService,
+        RiskView view) {
+    super(project, projectService, dataService, view);
     refreshView();
   }
 
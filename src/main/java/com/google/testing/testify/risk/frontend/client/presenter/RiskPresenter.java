@@ -17,14 +17,12 @@ package com.google.testing.testify.risk.frontend.client.presenter;
 
 import com.google.testing.testify.risk.frontend.client.TaCallback;
 import com.google.testing.testify.risk.frontend.client.view.RiskView;
-import com.google.testing.testify.risk.frontend.model.Attribute;
-import com.google.testing.testify.risk.frontend.model.Capability;
-import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.model.ProjectAccModel;
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
+import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 
-import java.util.List;
-
 /**
  * Base class for Presenters surfacing views on top of Risk and/or Risk Mitigations.
  *
@@ -33,42 +31,39 @@ import java.util.List;
 public abstract class RiskPresenter extends BasePagePresenter {
 
   protected final ProjectRpcAsync projectService;
+  protected final DataRpcAsync dataService;
   protected final RiskView view;
   protected final Project project;
 
-  public RiskPresenter(Project project, ProjectRpcAsync projectService, RiskView view) {
+  public RiskPresenter(Project project, ProjectRpcAsync projectService,
+      DataRpcAsync dataService, RiskView view) {
     this.project = project;
     this.projectService = projectService;
+    this.dataService = dataService;
     this.view = view;
   }
 
   /**
-   * Refreshes the view based on data obtained from the Project Service.
+   * Refreshes the view based on data obtained from the Project and Data Services.
    */
   public void refreshBaseView() {
     final long projectId = project.getProjectId();
 
-    projectService.getProjectAttributes(projectId,
-        new TaCallback<List<Attribute>>("Querying Attributes") {
-          @Override
-          public void onSuccess(List<Attribute> result) {
-            view.setAttributes(result);
-          }
-        });
-
-    projectService.getProjectComponents(projectId,
-        new TaCallback<List<Component>>("Querying Components") {
+    projectService.getProjectAccModel(projectId,
+        new TaCallback<ProjectAccModel>("Querying project") {
           @Override
-          public void onSuccess(List<Component> result) {
-            view.setComponents(result);
+          public void onSuccess(ProjectAccModel result) {
+            view.setAttributes(result.getAttributes());
+            view.setComponents(result.getComponents());
+            view.setCapabilities(result.getCapabilities());
           }
         });
 
-    projectService.getProjectCapabilities(projectId,
-        new TaCallback<List<Capability>>("Querying Capabilities") {
+    dataService.getRiskMatrix(projectId,
+        new TaCallback<RiskMatrix>("Querying risk") {
           @Override
-          public void onSuccess(List<Capability> result) {
-            view.setCapabilities(result);
+          public void onSuccess(RiskMatrix result) {
+            view.setRiskMatrix(result);
           }
         });
   }
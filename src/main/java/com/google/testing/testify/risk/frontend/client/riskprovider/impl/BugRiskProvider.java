@@ -24,9 +24,10 @@ import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
 import com.google.testing.testify.risk.frontend.client.TaCallback;
 import com.google.testing.testify.risk.frontend.client.riskprovider.RiskProvider;
-import com.google.testing.testify.risk.frontend.model.Bug;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.CapabilityIntersectionData;
+import com.google.testing.testify.risk.frontend.model.DatumSummary;
+import com.google.testing.testify.risk.frontend.model.DatumType;
 import com.google.testing.testify.risk.frontend.shared.rpc.DataRpc;
 import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
 
@@ -46,10 +47,10 @@ import java.util.List;
  */
 public class BugRiskProvider implements RiskProvider {
 
-  private final HashSet<Bug> unassignedBugs = new HashSet<Bug>();
-  private final Multimap<Long, Bug> lookupByAttribute = HashMultimap.create();
-  private final Multimap<Long, Bug> lookupByComponent = HashMultimap.create();
-  private final Multimap<Long, Bug> lookupByCapability = HashMultimap.create();
+  private final HashSet<DatumSummary> unassignedBugs = new HashSet<DatumSummary>();
+  private final Multimap<Long, DatumSummary> lookupByAttribute = HashMultimap.create();
+  private final Multimap<Long, DatumSummary> lookupByComponent = HashMultimap.create();
+  private final Multimap<Long, DatumSummary> lookupByCapability = HashMultimap.create();
 
   // Bugs not associated with an Attribute or Component. (General risk.)
   private static final double RISK_FROM_UNASSIGNED = 0.00;
@@ -73,16 +74,17 @@ public class BugRiskProvider implements RiskProvider {
     DataRpcAsync bugService = GWT.create(DataRpc.class);
 
     long projectId = projectData.get(0).getParentComponent().getParentProjectId();
-    bugService.getProjectBugsById(projectId,
-        new TaCallback<List<Bug>>("Querying Bugs") {
+    // Only the bugs' IDs, titles, links and assignments are needed, so summaries will do.
+    bugService.getProjectDataSummaries(projectId, DatumType.BUGS,
+        new TaCallback<List<DatumSummary>>("Querying Bugs") {
           @Override
-          public void onSuccess(List<Bug> result) {
+          public void onSuccess(List<DatumSummary> result) {
             lookupByAttribute.clear();
             lookupByComponent.clear();
             lookupByCapability.clear();
             unassignedBugs.clear();
 
-            for (Bug bug : result) {
+            for (DatumSummary bug : result) {
               lookupByAttribute.put(bug.getTargetAttributeId(), bug);
               lookupByComponent.put(bug.getTargetComponentId(), bug);
               lookupByCapability.put(bug.getTargetCapabilityId(), bug);
@@ -127,22 +129,22 @@ public class BugRiskProvider implements RiskProvider {
     long attributeId = targetCell.getParentAttribute().getAttributeId();
     long componentId = targetCell.getParentComponent().getComponentId();
 
-    for (Bug bug : lookupByComponent.get(componentId)) {
+    for (DatumSummary bug : lookupByComponent.get(componentId)) {
       String linkText = "Component - " + Long.toString(bug.getExternalId()) + ": " + bug.getTitle();
-      Anchor anchor = new Anchor(linkText, bug.getBugUrl());
+      Anchor anchor = new Anchor(linkText, bug.getUrl());
       content.add(anchor);
     }
-    for (Bug bug : lookupByAttribute.get(attributeId)) {
+    for (DatumSummary bug : lookupByAttribute.get(attributeId)) {
       String linkText = "Attribute - " + Long.toString(bug.getExternalId()) + ": " + bug.getTitle();
-      Anchor anchor = new Anchor(linkText, bug.getBugUrl());
+      Anchor anchor = new Anchor(linkText, bug.getUrl());
       content.add(anchor);
     }
     for (Capability capability : targetCell.getCapabilities()) {
       long capabilityId = capability.getCapabilityId();
-      for (Bug bug : lookupByCapability.get(capabilityId)) {
+      for (DatumSummary bug : lookupByCapability.get(capabilityId)) {
         String linkText =
             "Capability - " + Long.toString(bug.getExternalId()) + ": " + bug.getTitle();
-        Anchor anchor = new Anchor(linkText, bug.getBugUrl());
+        Anchor anchor = new Anchor(linkText, bug.getUrl());
         content.add(anchor);
       }
     }
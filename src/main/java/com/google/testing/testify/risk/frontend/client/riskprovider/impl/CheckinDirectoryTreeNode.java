@@ -15,43 +15,75 @@
 
 package com.google.testing.testify.risk.frontend.client.riskprovider.impl;
 
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.testing.testify.risk.frontend.model.Checkin;
 
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Set;
+import java.util.List;
 
 /**
  * Node in a tree representing a directory hierarchy as it applies to code checkins.
  *
+ * Each node only stores the checkins made directly to its directory, as indexes into a table of
+ * checkins shared by the whole tree; the checkins under a directory are gathered from its subtree
+ * when asked for.  Directory names are shared too, so a name used in many places is only stored
+ * once.
+ *
  * @author chrsmith@google.com (Chris Smith)
  */
 public class CheckinDirectoryTreeNode {
+  private static final Splitter DIRECTORY_SPLITTER =
+      Splitter.on(CharMatcher.anyOf("/\\")).omitEmptyStrings();
+  private static final int[] NO_CHECKINS = new int[0];
+
+  /** The checkins and directory names of a whole tree. */
+  private static class CheckinTable {
+    private final List<Checkin> checkins = Lists.newArrayList();
+    private final HashMap<Checkin, Integer> checkinIndexes = Maps.newHashMap();
+    private final HashMap<String, String> directoryNames = Maps.newHashMap();
+
+    int indexOf(Checkin checkin) {
+      Integer index = checkinIndexes.get(checkin);
+      if (index == null) {
+        index = checkins.size();
+        checkins.add(checkin);
+        checkinIndexes.put(checkin, index);
+      }
+      return index;
+    }
+
+    String intern(String directoryName) {
+      String interned = directoryNames.get(directoryName);
+      if (interned == null) {
+        interned = directoryName;
+        directoryNames.put(interned, interned);
+      }
+      return interned;
+    }
+  }
+
+  private final CheckinTable table;
 
   /** The name of this directory, e.g. "alpha" */
   private final String directoryName;
 
-  /** Child directories. */
-  private final HashMap<String, CheckinDirectoryTreeNode> childDirectories =
-      new HashMap<String, CheckinDirectoryTreeNode>();
+  /** Child directories, or null if there are none. */
+  private HashMap<String, CheckinDirectoryTreeNode> childDirectories;
 
-  /**
-   * All checkins which have touched this directory or one of its children.
-   *
-   * NOTE: As you descend down the tree this will be strictly additive. For deep trees with many
-   * checkins it might be more efficent to store a parent node and walk up the tree rebuilding the
-   * set of checkins on each node.
-   */
-  private final Set<Checkin> checkins = new HashSet<Checkin>();
+  /** Indexes into the checkin table of checkins made directly to this directory. */
+  private int[] checkins = NO_CHECKINS;
+  private int checkinCount = 0;
 
   /**
    * Creates a new root directory tree node.
    */
   public CheckinDirectoryTreeNode() {
+    table = new CheckinTable();
     directoryName = "";
   }
 
@@ -59,7 +91,8 @@ public class CheckinDirectoryTreeNode {
    * Creates a new directory tree node with the given parent and directory name.
    */
   public CheckinDirectoryTreeNode(CheckinDirectoryTreeNode parent, String directoryName) {
-    this.directoryName = directoryName;
+    table = parent.table;
+    this.directoryName = table.intern(directoryName);
   }
 
   public String getDirectoryName() {
@@ -67,14 +100,35 @@ public class CheckinDirectoryTreeNode {
   }
 
   public ImmutableMap<String, CheckinDirectoryTreeNode> getChildNodes() {
-    ImmutableMap<String, CheckinDirectoryTreeNode> immutableMap =
-        ImmutableMap.copyOf(childDirectories);
-    return immutableMap;
+    if (childDirectories == null) {
+      return ImmutableMap.of();
+    }
+    return ImmutableMap.copyOf(childDirectories);
   }
 
+  /**
+   * Returns all checkins which have touched this directory or one of its children.
+   */
   public ImmutableSet<Checkin> getCheckins() {
-    ImmutableSet<Checkin> immutableSet = ImmutableSet.copyOf(checkins);
-    return immutableSet;
+    boolean[] seen = new boolean[table.checkins.size()];
+    ImmutableSet.Builder<Checkin> builder = ImmutableSet.builder();
+    collectCheckins(seen, builder);
+    return builder.build();
+  }
+
+  private void collectCheckins(boolean[] seen, ImmutableSet.Builder<Checkin> builder) {
+    for (int i = 0; i < checkinCount; i++) {
+      int index = checkins[i];
+      if (!seen[index]) {
+        seen[index] = true;
+        builder.add(table.checkins.get(index));
+      }
+    }
+    if (childDirectories != null) {
+      for (CheckinDirectoryTreeNode child : childDirectories.values()) {
+        child.collectCheckins(seen, builder);
+      }
+    }
   }
 
   /**
@@ -83,76 +137,51 @@ public class CheckinDirectoryTreeNode {
    * this.getChildNodes().get("alpha").getChildNodes().get("beta").getCheckins()
    */
   public ImmutableSet<Checkin> getCheckinsUnder(String checkinDirectory) {
-    if (checkinDirectory.trim().isEmpty()) {
-      return getCheckins();
-    }
-
-    LinkedList<String> directoryNames = getDirectoryAsLinkedList(checkinDirectory);
-
     CheckinDirectoryTreeNode node = this;
-    while (!directoryNames.isEmpty()) {
-      String directoryName = directoryNames.remove();
-      if (node.childDirectories.containsKey(directoryName)) {
-        node = node.childDirectories.get(directoryName);
-      } else {
+    for (String directoryName : DIRECTORY_SPLITTER.split(checkinDirectory.trim())) {
+      node = node.childDirectories == null ? null : node.childDirectories.get(directoryName);
+      if (node == null) {
         return ImmutableSet.of();
       }
     }
-
     return node.getCheckins();
   }
 
   /**
-   * @return the input string represented as a linked list, split by '/' or '\' characters.
+   * Adds the given checkin to the directory tree, building child nodes as necessary. Forward and
+   * back slashes both separate directories.
    */
-  private LinkedList<String> getDirectoryAsLinkedList(String checkinDirectory) {
-    // Normalize folder path separators.
-    if (checkinDirectory.indexOf('|') != -1) {
-      throw new IllegalArgumentException("The checkin directory contains an invalid character '|'");
-    }
-    checkinDirectory = checkinDirectory.replace('/', '|');
-    checkinDirectory = checkinDirectory.replace('\\', '|');
-
-    // Convert an array of directory names into a linked list for more efficent processing.
-    String[] directories = checkinDirectory.split("|");
-    LinkedList<String> list = Lists.newLinkedList();
-    for (String s : directories) {
-      list.add(s);
+  public void addCheckin(String checkinDirectory, Checkin checkin) {
+    CheckinDirectoryTreeNode node = this;
+    for (String directoryName : DIRECTORY_SPLITTER.split(checkinDirectory)) {
+      node = node.getOrCreateChild(directoryName);
     }
-    return list;
+    node.addDirectCheckin(table.indexOf(checkin));
   }
 
-  /**
-   * Adds the given checkin to the directory tree, building child nodes as necessary.
-   */
-  public void addCheckin(String checkinDirectory, Checkin checkin) {
-    LinkedList<String> directoryNames = getDirectoryAsLinkedList(checkinDirectory);
-
-    addCheckin(directoryNames, checkin);
+  private CheckinDirectoryTreeNode getOrCreateChild(String directoryName) {
+    if (childDirectories == null) {
+      childDirectories = Maps.newHashMap();
+    }
+    CheckinDirectoryTreeNode child = childDirectories.get(directoryName);
+    if (child == null) {
+      child = new CheckinDirectoryTreeNode(this, directoryName);
+      childDirectories.put(child.directoryName, child);
+    }
+    return child;
   }
 
-  /**
-   * Adds a checkin to the tree node under the given path of directory names.
-   *
-   * @param pathToCheckin List of directories left in the path. E.g. directory "foo\bar\ram" will
-   * become "foo" -> "bar -> "ram"
-   * @param checkin the checkin associated with the tree. Note that it will be attached to each
-   * node up to the root. (Since the checkin is 'under' the root.)
-   */
-  private void addCheckin(LinkedList<String> pathToCheckin, Checkin checkin) {
-    checkins.add(checkin);
-
-    if (!pathToCheckin.isEmpty()) {
-      // Get the head element and chop it from the list.
-      String nextDirectory = pathToCheckin.remove();
-
-      if (!childDirectories.containsKey(nextDirectory)) {
-        CheckinDirectoryTreeNode newChild = new CheckinDirectoryTreeNode(this, nextDirectory);
-        childDirectories.put(nextDirectory, newChild);
-      }
-
-      CheckinDirectoryTreeNode child = childDirectories.get(nextDirectory);
-      child.addCheckin(pathToCheckin, checkin);
+  private void addDirectCheckin(int index) {
+    // Repeats are skipped when the tree is read, so only the common case of adding the same
+    // checkin twice in a row is checked for here.
+    if (checkinCount > 0 && checkins[checkinCount - 1] == index) {
+      return;
+    }
+    if (checkinCount == checkins.length) {
+      int[] grown = new int[Math.max(2, checkinCount * 2)];
+      System.arraycopy(checkins, 0, grown, 0, checkinCount);
+      checkins = grown;
     }
+    checkins[checkinCount++] = index;
   }
 }
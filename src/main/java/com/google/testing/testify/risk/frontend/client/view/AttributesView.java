@@ -17,7 +17,7 @@ package com.google.testing.testify.risk.frontend.client.view;
 
 import com.google.gwt.user.client.ui.Widget;
 import com.google.testing.testify.risk.frontend.model.Attribute;
-import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 
 import java.util.Collection;
@@ -58,9 +58,12 @@ public interface AttributesView {
     public void removeAttribute(Attribute attributeToRemove);
 
     /**
-     * Reorders the project's list of Attributes.
+     * Moves an Attribute between two others in the project's list of Attributes.
+     *
+     * @param beforeId the Attribute now just before it, or null if it moved to the top.
+     * @param afterId the Attribute now just after it, or null if it moved to the bottom.
      */
-    public void reorderAttributes(List<Long> newOrder);
+    public void moveAttribute(long attributeId, Long beforeId, Long afterId);
 
     /** Get the ProjectService associated with the presenter. */
     public ProjectRpcAsync getProjectService();
@@ -85,7 +88,7 @@ public interface AttributesView {
   /**
    * Data on which elements have been signed off.
    */
-  public void setSignoffs(List<Signoff> signoffs);
+  public void setSignoffs(SignoffMap signoffs);
 
   /**
    * Updates the view to enable editing of attribute data.
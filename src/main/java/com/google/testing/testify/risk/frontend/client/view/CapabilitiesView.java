@@ -50,9 +50,12 @@ public interface CapabilitiesView {
     public void onRemoveCapability(Capability removedCapability);
 
     /**
-     * Notify the Presenter to update the order of capabilities.
+     * Notify the Presenter that a capability was moved between two others.
+     *
+     * @param beforeId the capability now just before it, or null if it moved to the top.
+     * @param afterId the capability now just after it, or null if it moved to the bottom.
      */
-    public void reorderCapabilities(List<Long> ids);
+    public void moveCapability(long capabilityId, Long beforeId, Long afterId);
     
     /**
      * Request the Presenter begin refreshing the View's Capabilities list. (From
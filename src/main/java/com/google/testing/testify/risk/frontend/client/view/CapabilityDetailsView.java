@@ -38,19 +38,35 @@ public interface CapabilityDetailsView {
    * Presenter interface for this view.
    */
   public interface Presenter extends TaPagePresenter {
-    public void assignBugToCapability(long capabilityId, long bugId);
-    public void assignCheckinToCapability(long capabilityId, long checkinId);
-    public void assignTestCaseToCapability(long capabilityId, long testId);
+    public void assignBugToCapability(long capabilityId, String bugId);
+    public void assignCheckinToCapability(long capabilityId, String checkinId);
+    public void assignTestCaseToCapability(long capabilityId, String testId);
     public void updateCapability(Capability capability);
     public void setSignoff(long capabilityId, boolean isSignedOff);
+
+    /**
+     * Requests a page of bugs, which is passed to {@link CapabilityDetailsView#addBugs}.
+     *
+     * @param cursor the cursor for the page, or null for the first page.
+     * @param assigned true for the capability's bugs, false for all of the project's bugs.
+     */
+    public void loadBugs(String cursor, boolean assigned);
+    public void loadCheckins(String cursor, boolean assigned);
+    public void loadTestCases(String cursor, boolean assigned);
   }
   
   public void setAttributes(List<Attribute> attributes);
-  public void setBugs(List<Bug> bugs);
+
+  /**
+   * Adds a page of bugs requested with {@link Presenter#loadBugs}.
+   *
+   * @param cursor the cursor for the next page, or null if this was the last page.
+   */
+  public void addBugs(List<Bug> bugs, String cursor, boolean assigned);
   public void setComponents(List<Component> components);
   public void setCapability(Capability capability);
-  public void setTests(List<TestCase> tests);
-  public void setCheckins(List<Checkin> checkins);
+  public void addTests(List<TestCase> tests, String cursor, boolean assigned);
+  public void addCheckins(List<Checkin> checkins, String cursor, boolean assigned);
   public void setSignoff(boolean signoff);
   public void setProjectLabels(Collection<String> labels);
 
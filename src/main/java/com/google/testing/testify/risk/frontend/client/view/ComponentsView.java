@@ -17,7 +17,7 @@ package com.google.testing.testify.risk.frontend.client.view;
 
 import com.google.gwt.user.client.ui.Widget;
 import com.google.testing.testify.risk.frontend.model.Component;
-import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 
 import java.util.Collection;
@@ -62,9 +62,12 @@ public interface ComponentsView {
     public void removeComponent(Component componentToRemove);
 
     /**
-     * Reorders the project's list of Components.
+     * Moves a Component between two others in the project's list of Components.
+     *
+     * @param beforeId the Component now just before it, or null if it moved to the top.
+     * @param afterId the Component now just after it, or null if it moved to the bottom.
      */
-    public void reorderComponents(List<Long> newOrder);
+    public void moveComponent(long componentId, Long beforeId, Long afterId);
   }
 
   /**
@@ -81,7 +84,7 @@ public interface ComponentsView {
 
   public void setProjectLabels(Collection<String> projectLabels);
 
-  public void setSignoffs(List<Signoff> signoffs);
+  public void setSignoffs(SignoffMap signoffs);
   /**
    * Updates the view to enable editing of component data.
    */
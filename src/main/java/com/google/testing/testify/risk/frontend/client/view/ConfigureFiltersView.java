@@ -16,7 +16,9 @@
 package com.google.testing.testify.risk.frontend.client.view;
 
 import com.google.gwt.user.client.ui.Widget;
+import com.google.testing.testify.risk.frontend.model.DatumType;
 import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
 
 import java.util.List;
 import java.util.Map;
@@ -35,6 +37,7 @@ public interface ConfigureFiltersView {
     void addFilter(Filter newFilter);
     void updateFilter(Filter filterToUpdate);
     void deleteFilter(Filter filterToDelete);
+    void reapplyFilters(DatumType type);
   }
   
   void setFilters(List<Filter> filters);
@@ -42,6 +45,7 @@ public interface ConfigureFiltersView {
   void setComponents(Map<String, Long> components);
   void setCapabilities(Map<String, Long> capabilities);
   void setPresenter(Presenter presenter);
+  void showJobStatus(JobStatus status);
   
   Widget asWidget();
 }
@@ -19,6 +19,7 @@ import com.google.gwt.user.client.ui.Widget;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.Component;
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
 
 import java.util.List;
 
@@ -44,6 +45,11 @@ public interface RiskView {
    */
   public void setCapabilities(List<Capability> capabilities);
 
+  /**
+   * Notifies the view of the project's risk, as computed by the server.
+   */
+  public void setRiskMatrix(RiskMatrix riskMatrix);
+
   /**
    * Converts the view into a GWT widget.
    */
@@ -253,6 +253,11 @@ public class AttributeViewImpl extends Composite implements AttributeView {
     signoffBox.setValue(signedOff);
   }
 
+  /** Shows how many of this Attribute's capabilities have been signed off. */
+  public void setSignedOffCapabilityCount(int count) {
+    signoffBox.setTitle(count + (count == 1 ? " capability" : " capabilities") + " signed off");
+  }
+
   /** Returns the ID of the underlying Attribute if applicable. Otherwise returns -1. */
   public long getAttributeId() {
     try {
@@ -36,8 +36,9 @@ import com.google.testing.testify.risk.frontend.client.event.WidgetsReorderedHan
 import com.google.testing.testify.risk.frontend.client.presenter.AttributePresenter;
 import com.google.testing.testify.risk.frontend.client.view.AttributesView;
 import com.google.testing.testify.risk.frontend.client.view.widgets.SortableVerticalPanel;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.Attribute;
-import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 
 import java.util.Collection;
 import java.util.List;
@@ -69,7 +70,7 @@ public class AttributesViewImpl extends Composite implements AttributesView {
   private Presenter presenter;
   private boolean editingEnabled;
   private final Collection<String> projectLabels = Lists.newArrayList();
-  private Map<Long, Boolean> signedOff = Maps.newHashMap();
+  private SignoffMap signoffs;
   private Map<Long, AttributePresenter> childPresenters = Maps.newHashMap();
 
   /**
@@ -83,13 +84,10 @@ public class AttributesViewImpl extends Composite implements AttributesView {
         new WidgetsReorderedHandler() {
           @Override
           public void onWidgetsReordered(WidgetsReorderedEvent event) {
-            List<Long> attributeIDs = Lists.newArrayList();
-            for (Widget widget : event.getWidgetOrdering()) {
-              attributeIDs.add(((AttributeViewImpl) widget).getAttributeId());
-            }
-
-            if (presenter != null) {
-              presenter.reorderAttributes(attributeIDs);
+            if (presenter != null && event.getMovedWidget() != null) {
+              presenter.moveAttribute(getAttributeId(event.getMovedWidget()),
+                  getAttributeId(event.getWidgetBeforeMoved()),
+                  getAttributeId(event.getWidgetAfterMoved()));
             }
           }
         });
@@ -128,6 +126,10 @@ public class AttributesViewImpl extends Composite implements AttributesView {
     // Don't display the new attribute widget. Instead, wait for a full refresh from the presenter.
   }
 
+  private static Long getAttributeId(Widget widget) {
+    return widget == null ? null : ((AttributeViewImpl) widget).getAttributeId();
+  }
+
   private AttributeViewImpl createAttributeWidget(Attribute attribute) {
     AttributeViewImpl attributeView = new AttributeViewImpl();
     if (editingEnabled) {
@@ -136,8 +138,7 @@ public class AttributesViewImpl extends Composite implements AttributesView {
     AttributePresenter attributePresenter = new AttributePresenter(
         attribute, attributeView, this.presenter);
     childPresenters.put(attribute.getAttributeId(), attributePresenter);
-    Boolean checked = signedOff.get(attribute.getAttributeId());
-    attributeView.setSignedOff(checked == null ? false : checked);
+    showSignoffs(attributeView);
     attributeView.setLabelSuggestions(projectLabels);
     return attributeView;
   }
@@ -177,18 +178,21 @@ public class AttributesViewImpl extends Composite implements AttributesView {
   }
 
   @Override
-  public void setSignoffs(List<Signoff> signoffs) {
-    signedOff.clear();
-    if (signoffs != null) {
-      for (Signoff s : signoffs) {
-        signedOff.put(s.getElementId(), s.getSignedOff());
-      }
-    }
+  public void setSignoffs(SignoffMap signoffs) {
+    this.signoffs = signoffs;
     for (Widget w : attributesPanel) {
-      AttributeViewImpl view = (AttributeViewImpl) w;
-      Boolean checked = signedOff.get(view.getAttributeId());
-      view.setSignedOff(checked == null ? false : checked);
+      showSignoffs((AttributeViewImpl) w);
+    }
+  }
+
+  private void showSignoffs(AttributeViewImpl view) {
+    if (signoffs == null) {
+      return;
     }
+    long id = view.getAttributeId();
+    view.setSignedOff(signoffs.isSignedOff(AccElementType.ATTRIBUTE, id));
+    view.setSignedOffCapabilityCount(
+        signoffs.getSignedOffCapabilityCount(AccElementType.ATTRIBUTE, id));
   }
 
   @Override
@@ -119,13 +119,10 @@ public class CapabilitiesViewImpl extends Composite implements CapabilitiesView
         new WidgetsReorderedHandler() {
           @Override
           public void onWidgetsReordered(WidgetsReorderedEvent event) {
-            if (presenter != null) {
-              List<Long> ids = Lists.newArrayList();
-              for (Widget w : event.getWidgetOrdering()) {
-                ids.add(((EditCapabilityWidget) w).getCapabilityId());
-              }
-
-              presenter.reorderCapabilities(ids);
+            if (presenter != null && event.getMovedWidget() != null) {
+              presenter.moveCapability(getCapabilityId(event.getMovedWidget()),
+                  getCapabilityId(event.getWidgetBeforeMoved()),
+                  getCapabilityId(event.getWidgetAfterMoved()));
             }
           }
         });
@@ -212,6 +209,10 @@ public class CapabilitiesViewImpl extends Composite implements CapabilitiesView
     }
   }
 
+  private static Long getCapabilityId(Widget widget) {
+    return widget == null ? null : ((EditCapabilityWidget) widget).getCapabilityId();
+  }
+
   private void updateCapability(Capability capability) {
     presenter.onUpdateCapability(capability);
     capabilitiesGrid.updateCapability(capability);
@@ -24,6 +24,8 @@ import com.google.gwt.event.logical.shared.ValueChangeHandler;
 import com.google.gwt.uibinder.client.UiBinder;
 import com.google.gwt.uibinder.client.UiField;
 import com.google.gwt.uibinder.client.UiHandler;
+import com.google.gwt.user.client.Window;
+import com.google.gwt.user.client.Window.ScrollEvent;
 import com.google.gwt.user.client.ui.Anchor;
 import com.google.gwt.user.client.ui.Button;
 import com.google.gwt.user.client.ui.CheckBox;
@@ -59,6 +61,8 @@ import java.util.List;
 public class CapabilityDetailsViewImpl extends Composite implements CapabilityDetailsView {
 
   private static final String HEADER_TEXT = "Details for Capability: ";
+  /** How close to the bottom of the page, in pixels, to scroll before loading more data. */
+  private static final int SCROLL_MARGIN_PX = 200;
 
   /**
    * Used to wire parent class to associated UI Binder.
@@ -94,18 +98,30 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
 
   private CapabilityDetailsView.Presenter presenter;
 
-  // TODO(jimr): Reconsider this data model.  Keeping each data item stored twice is not awesome.
   private List<Attribute> attributes;
   private List<Component> components;
-  private List<Bug> bugs;
-  private List<Bug> otherBugs = Lists.newArrayList();
-  private List<Bug> capabilityBugs = Lists.newArrayList();
-  private List<TestCase> tests;
-  private List<TestCase> otherTests = Lists.newArrayList();
-  private List<TestCase> capabilityTests = Lists.newArrayList();
-  private List<Checkin> checkins;
-  private List<Checkin> otherCheckins = Lists.newArrayList();
-  private List<Checkin> capabilityCheckins = Lists.newArrayList();
+  // Data assigned to the capability, which is loaded a page at a time as the user scrolls, and the
+  // cursor for the next page of each.  The lists are null until their first page has loaded.
+  private List<Bug> capabilityBugs;
+  private String bugCursor;
+  private List<TestCase> capabilityTests;
+  private String testCursor;
+  private List<Checkin> capabilityCheckins;
+  private String checkinCursor;
+  // Data which could be assigned to the capability.  This is only loaded once the user opens the
+  // matching "add" form, and then a page at a time with the "more" buttons.
+  private List<Bug> otherBugs;
+  private String otherBugCursor;
+  private ListBox bugOptions;
+  private Button moreBugsButton;
+  private List<TestCase> otherTests;
+  private String otherTestCursor;
+  private ListBox testOptions;
+  private Button moreTestsButton;
+  private List<Checkin> otherCheckins;
+  private String otherCheckinCursor;
+  private ListBox checkinOptions;
+  private Button moreCheckinsButton;
   private Collection<String> projectLabels = Lists.newArrayList();
 
   private Anchor addBugAnchor;
@@ -117,6 +133,12 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
   public CapabilityDetailsViewImpl() {
     initWidget(uiBinder.createAndBindUi(this));
     detailsSection.setHeaderText(HEADER_TEXT);
+    Window.addWindowScrollHandler(new Window.ScrollHandler() {
+        @Override
+        public void onWindowScroll(ScrollEvent event) {
+          loadMoreIfVisible();
+        }
+      });
   }
 
   @UiHandler("signoffBox")
@@ -148,15 +170,59 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
   }
 
   @Override
-  public void setBugs(List<Bug> bugs) {
-    this.bugs = bugs;
-    refresh();
+  public void addBugs(List<Bug> bugs, String cursor, boolean assigned) {
+    if (assigned) {
+      if (capabilityBugs == null) {
+        capabilityBugs = Lists.newArrayList();
+      }
+      capabilityBugs.addAll(bugs);
+      bugCursor = cursor;
+      if (capabilityWidget == null) {
+        refresh();
+      } else {
+        updateBugSection();
+      }
+      loadMoreIfVisible();
+    } else if (otherBugs != null) {
+      for (Bug bug : bugs) {
+        if (!isAssigned(bug)) {
+          otherBugs.add(bug);
+          addBugOption(bug);
+        }
+      }
+      otherBugCursor = cursor;
+      if (moreBugsButton != null) {
+        moreBugsButton.setVisible(cursor != null);
+      }
+    }
   }
 
   @Override
-  public void setCheckins(List<Checkin> checkins) {
-    this.checkins = checkins;
-    refresh();
+  public void addCheckins(List<Checkin> checkins, String cursor, boolean assigned) {
+    if (assigned) {
+      if (capabilityCheckins == null) {
+        capabilityCheckins = Lists.newArrayList();
+      }
+      capabilityCheckins.addAll(checkins);
+      checkinCursor = cursor;
+      if (capabilityWidget == null) {
+        refresh();
+      } else {
+        updateCheckinsSection();
+      }
+      loadMoreIfVisible();
+    } else if (otherCheckins != null) {
+      for (Checkin checkin : checkins) {
+        if (!isAssigned(checkin)) {
+          otherCheckins.add(checkin);
+          addCheckinOption(checkin);
+        }
+      }
+      otherCheckinCursor = cursor;
+      if (moreCheckinsButton != null) {
+        moreCheckinsButton.setVisible(cursor != null);
+      }
+    }
   }
 
   @Override
@@ -168,23 +234,67 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
     }
   }
 
-  private <T extends UploadedDatum> void splitData(List<T> inItems,
-      List<T> otherItems, List<T> capabilityItems) {
-    otherItems.clear();
-    capabilityItems.clear();
-    for (T item : inItems) {
-      if (capability.getCapabilityId().equals(item.getTargetCapabilityId())) {
-        capabilityItems.add(item);
+  private boolean isAssigned(UploadedDatum item) {
+    return capability != null
+        && capability.getCapabilityId().equals(item.getTargetCapabilityId());
+  }
+
+  @Override
+  public void addTests(List<TestCase> tests, String cursor, boolean assigned) {
+    if (assigned) {
+      if (capabilityTests == null) {
+        capabilityTests = Lists.newArrayList();
+      }
+      capabilityTests.addAll(tests);
+      testCursor = cursor;
+      if (capabilityWidget == null) {
+        refresh();
       } else {
-        otherItems.add(item);
+        updateTestSection();
+      }
+      loadMoreIfVisible();
+    } else if (otherTests != null) {
+      for (TestCase test : tests) {
+        if (!isAssigned(test)) {
+          otherTests.add(test);
+          addTestOption(test);
+        }
+      }
+      otherTestCursor = cursor;
+      if (moreTestsButton != null) {
+        moreTestsButton.setVisible(cursor != null);
       }
     }
   }
 
-  @Override
-  public void setTests(List<TestCase> tests) {
-    this.tests = tests;
-    refresh();
+  /**
+   * Requests the next page of the capability's data once the bottom of the page has scrolled into
+   * view.
+   */
+  private void loadMoreIfVisible() {
+    if (capabilityWidget == null || !isAttached()) {
+      return;
+    }
+    int bottom = getAbsoluteTop() + getOffsetHeight();
+    if (bottom - SCROLL_MARGIN_PX > Window.getScrollTop() + Window.getClientHeight()) {
+      return;
+    }
+    // Cursors are cleared until their page arrives, so scrolling doesn't request it again.
+    if (bugCursor != null) {
+      String cursor = bugCursor;
+      bugCursor = null;
+      presenter.loadBugs(cursor, true);
+    }
+    if (testCursor != null) {
+      String cursor = testCursor;
+      testCursor = null;
+      presenter.loadTestCases(cursor, true);
+    }
+    if (checkinCursor != null) {
+      String cursor = checkinCursor;
+      checkinCursor = null;
+      presenter.loadCheckins(cursor, true);
+    }
   }
 
   @Override
@@ -197,11 +307,8 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
   @Override
   public void refresh() {
     // Don't re-draw until all data has successfully loaded.
-    if (attributes != null && components != null && capability != null && bugs != null &&
-        tests != null && checkins != null) {
-      splitData(tests, otherTests, capabilityTests);
-      splitData(bugs, otherBugs, capabilityBugs);
-      splitData(checkins, otherCheckins, capabilityCheckins);
+    if (attributes != null && components != null && capability != null
+        && capabilityBugs != null && capabilityTests != null && capabilityCheckins != null) {
       capabilityWidget = new EditCapabilityWidget(capability);
       capabilityWidget.setLabelSuggestions(projectLabels);
       capabilityWidget.setAttributes(attributes);
@@ -253,42 +360,72 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
     components = null;
     capabilityWidget = null;
     capability = null;
-    bugs = null;
-    tests = null;
-    checkins = null;
+    capabilityBugs = null;
+    bugCursor = null;
+    capabilityTests = null;
+    testCursor = null;
+    capabilityCheckins = null;
+    checkinCursor = null;
+    otherBugs = null;
+    otherTests = null;
+    otherCheckins = null;
   }
 
-  private TestCase getTestCaseById(long id) {
-    for (TestCase test : tests) {
-      if (test.getInternalId() == id) {
+  private TestCase getTestCaseById(String id) {
+    for (TestCase test : otherTests) {
+      if (test.getInternalId().equals(id)) {
         return test;
       }
     }
     return null;
   }
 
+  private void addTestOption(TestCase test) {
+    if (testOptions != null) {
+      testOptions.addItem(test.getExternalId() + " " + test.getTitle(),
+          test.getInternalId());
+    }
+  }
+
   private Widget buildTestHeaderWidget(String header, String addText) {
-    final ListBox options = new ListBox();
-    for (TestCase test : otherTests) {
-      options.addItem(test.getExternalId() + " " + test.getTitle(),
-          String.valueOf(test.getInternalId()));
+    testOptions = new ListBox();
+    if (otherTests != null) {
+      for (TestCase test : otherTests) {
+        addTestOption(test);
+      }
     }
     VerticalPanel addForm = new VerticalPanel();
-    addForm.add(options);
+    addForm.add(testOptions);
 
     final DisclosurePanel disclosure = new DisclosurePanel();
     Button button = new Button(" Add ", new ClickHandler() {
         @Override
         public void onClick(ClickEvent event) {
-          long id = Long.parseLong((options.getValue(options.getSelectedIndex())));
+          if (testOptions.getSelectedIndex() < 0) {
+            return;
+          }
+          String id = testOptions.getValue(testOptions.getSelectedIndex());
           presenter.assignTestCaseToCapability(capability.getCapabilityId(), id);
           disclosure.setOpen(false);
           TestCase test = getTestCaseById(id);
           test.setTargetCapabilityId(capability.getCapabilityId());
-          refresh();
+          otherTests.remove(test);
+          capabilityTests.add(test);
+          updateTestSection();
         }
       });
     addForm.add(button);
+    moreTestsButton = new Button(" More ", new ClickHandler() {
+        @Override
+        public void onClick(ClickEvent event) {
+          String cursor = otherTestCursor;
+          otherTestCursor = null;
+          moreTestsButton.setVisible(false);
+          presenter.loadTestCases(cursor, false);
+        }
+      });
+    moreTestsButton.setVisible(otherTestCursor != null);
+    addForm.add(moreTestsButton);
     disclosure.setAnimationEnabled(true);
     disclosure.setOpen(false);
     disclosure.setContent(addForm);
@@ -299,6 +436,10 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
     addTestAnchor.addClickHandler(new ClickHandler() {
         @Override
         public void onClick(ClickEvent event) {
+          if (otherTests == null) {
+            otherTests = Lists.newArrayList();
+            presenter.loadTestCases(null, false);
+          }
           disclosure.setOpen(!disclosure.isOpen());
         }
       });
@@ -352,37 +493,61 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
     }
   }
 
-  private Bug getBugById(long id) {
-    for (Bug bug : bugs) {
-      if (bug.getInternalId() == id) {
+  private Bug getBugById(String id) {
+    for (Bug bug : otherBugs) {
+      if (bug.getInternalId().equals(id)) {
         return bug;
       }
     }
     return null;
   }
 
+  private void addBugOption(Bug bug) {
+    if (bugOptions != null) {
+      bugOptions.addItem(bug.getExternalId() + " " + bug.getTitle(),
+          bug.getInternalId());
+    }
+  }
+
   private Widget buildBugHeaderWidget(String header, String addText) {
-    final ListBox options = new ListBox();
-    for (Bug bug : otherBugs) {
-      options.addItem(bug.getExternalId() + " " + bug.getTitle(),
-          String.valueOf(bug.getInternalId()));
+    bugOptions = new ListBox();
+    if (otherBugs != null) {
+      for (Bug bug : otherBugs) {
+        addBugOption(bug);
+      }
     }
     VerticalPanel addForm = new VerticalPanel();
-    addForm.add(options);
+    addForm.add(bugOptions);
 
     final DisclosurePanel disclosure = new DisclosurePanel();
     Button button = new Button(" Add ", new ClickHandler() {
         @Override
         public void onClick(ClickEvent event) {
-          long id = Long.parseLong((options.getValue(options.getSelectedIndex())));
+          if (bugOptions.getSelectedIndex() < 0) {
+            return;
+          }
+          String id = bugOptions.getValue(bugOptions.getSelectedIndex());
           presenter.assignBugToCapability(capability.getCapabilityId(), id);
           disclosure.setOpen(false);
           Bug bug = getBugById(id);
           bug.setTargetCapabilityId(capability.getCapabilityId());
-          refresh();
+          otherBugs.remove(bug);
+          capabilityBugs.add(bug);
+          updateBugSection();
         }
       });
     addForm.add(button);
+    moreBugsButton = new Button(" More ", new ClickHandler() {
+        @Override
+        public void onClick(ClickEvent event) {
+          String cursor = otherBugCursor;
+          otherBugCursor = null;
+          moreBugsButton.setVisible(false);
+          presenter.loadBugs(cursor, false);
+        }
+      });
+    moreBugsButton.setVisible(otherBugCursor != null);
+    addForm.add(moreBugsButton);
     disclosure.setAnimationEnabled(true);
     disclosure.setOpen(false);
     disclosure.setContent(addForm);
@@ -393,6 +558,10 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
     addBugAnchor.addClickHandler(new ClickHandler() {
         @Override
         public void onClick(ClickEvent event) {
+          if (otherBugs == null) {
+            otherBugs = Lists.newArrayList();
+            presenter.loadBugs(null, false);
+          }
           disclosure.setOpen(!disclosure.isOpen());
         }
       });
@@ -425,37 +594,61 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
     }
   }
 
-  private Checkin getCheckinById(long id) {
-    for (Checkin checkin : checkins) {
-      if (checkin.getInternalId() == id) {
+  private Checkin getCheckinById(String id) {
+    for (Checkin checkin : otherCheckins) {
+      if (checkin.getInternalId().equals(id)) {
         return checkin;
       }
     }
     return null;
   }
 
+  private void addCheckinOption(Checkin checkin) {
+    if (checkinOptions != null) {
+      checkinOptions.addItem(checkin.getExternalId() + " " + checkin.getSummary(),
+          checkin.getInternalId());
+    }
+  }
+
   private Widget buildCheckinHeaderWidget(String header, String addText) {
-    final ListBox options = new ListBox();
-    for (Checkin checkin : otherCheckins) {
-      options.addItem(checkin.getExternalId() + " " + checkin.getSummary(),
-          String.valueOf(checkin.getInternalId()));
+    checkinOptions = new ListBox();
+    if (otherCheckins != null) {
+      for (Checkin checkin : otherCheckins) {
+        addCheckinOption(checkin);
+      }
     }
     VerticalPanel addForm = new VerticalPanel();
-    addForm.add(options);
+    addForm.add(checkinOptions);
 
     final DisclosurePanel disclosure = new DisclosurePanel();
     Button button = new Button(" Add ", new ClickHandler() {
         @Override
         public void onClick(ClickEvent event) {
-          long id = Long.parseLong((options.getValue(options.getSelectedIndex())));
+          if (checkinOptions.getSelectedIndex() < 0) {
+            return;
+          }
+          String id = checkinOptions.getValue(checkinOptions.getSelectedIndex());
           presenter.assignCheckinToCapability(capability.getCapabilityId(), id);
           disclosure.setOpen(false);
           Checkin checkin = getCheckinById(id);
           checkin.setTargetCapabilityId(capability.getCapabilityId());
-          refresh();
+          otherCheckins.remove(checkin);
+          capabilityCheckins.add(checkin);
+          updateCheckinsSection();
         }
       });
     addForm.add(button);
+    moreCheckinsButton = new Button(" More ", new ClickHandler() {
+        @Override
+        public void onClick(ClickEvent event) {
+          String cursor = otherCheckinCursor;
+          otherCheckinCursor = null;
+          moreCheckinsButton.setVisible(false);
+          presenter.loadCheckins(cursor, false);
+        }
+      });
+    moreCheckinsButton.setVisible(otherCheckinCursor != null);
+    addForm.add(moreCheckinsButton);
     disclosure.setAnimationEnabled(true);
     disclosure.setOpen(false);
     disclosure.setContent(addForm);
@@ -466,6 +659,10 @@ public class CapabilityDetailsViewImpl extends Composite implements CapabilityDe
     addCheckinAnchor.addClickHandler(new ClickHandler() {
         @Override
         public void onClick(ClickEvent event) {
+          if (otherCheckins == null) {
+            otherCheckins = Lists.newArrayList();
+            presenter.loadCheckins(null, false);
+          }
           disclosure.setOpen(!disclosure.isOpen());
         }
       });
@@ -254,6 +254,11 @@ public class ComponentViewImpl extends Composite implements ComponentView {
     signoffBox.setValue(signedOff);
   }
 
+  /** Shows how many of this Component's capabilities have been signed off. */
+  public void setSignedOffCapabilityCount(int count) {
+    signoffBox.setTitle(count + (count == 1 ? " capability" : " capabilities") + " signed off");
+  }
+
   /** Returns the ID of the underlying Component if applicable. Otherwise returns -1. */
   public long getComponentId() {
     try {
@@ -36,8 +36,9 @@ import com.google.testing.testify.risk.frontend.client.event.WidgetsReorderedHan
 import com.google.testing.testify.risk.frontend.client.presenter.ComponentPresenter;
 import com.google.testing.testify.risk.frontend.client.view.ComponentsView;
 import com.google.testing.testify.risk.frontend.client.view.widgets.SortableVerticalPanel;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.Component;
-import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 
 import java.util.Collection;
 import java.util.List;
@@ -70,7 +71,7 @@ public class ComponentsViewImpl extends Composite implements ComponentsView {
   private Presenter presenter;
   private boolean editingEnabled;
   private final Collection<String> projectLabels = Lists.newArrayList();
-  private Map<Long, Boolean> signedOff = Maps.newHashMap();
+  private SignoffMap signoffs;
   private Map<Long, ComponentPresenter> childPresenters = Maps.newHashMap();
 
   /**
@@ -84,13 +85,10 @@ public class ComponentsViewImpl extends Composite implements ComponentsView {
         new WidgetsReorderedHandler() {
           @Override
           public void onWidgetsReordered(WidgetsReorderedEvent event) {
-            List<Long> attributeIDs = Lists.newArrayList();
-            for (Widget widget : event.getWidgetOrdering()) {
-              attributeIDs.add(((ComponentViewImpl) widget).getComponentId());
-            }
-
-            if (presenter != null) {
-              presenter.reorderComponents(attributeIDs);
+            if (presenter != null && event.getMovedWidget() != null) {
+              presenter.moveComponent(getComponentId(event.getMovedWidget()),
+                  getComponentId(event.getWidgetBeforeMoved()),
+                  getComponentId(event.getWidgetAfterMoved()));
             }
           }
         });
@@ -102,13 +100,16 @@ public class ComponentsViewImpl extends Composite implements ComponentsView {
   /**
    * Returns a new Component widget to be displayed on the componentsList.
    */
+  private static Long getComponentId(Widget widget) {
+    return widget == null ? null : ((ComponentViewImpl) widget).getComponentId();
+  }
+
   private ComponentViewImpl createComponentWidget(Component component) {
     ComponentViewImpl componentView = new ComponentViewImpl();
     if (editingEnabled) {
       componentView.enableEditing();
     }
-    Boolean checked = signedOff.get(component.getComponentId());
-    componentView.setSignedOff(checked == null ? false : checked);
+    showSignoffs(componentView);
     componentView.setLabelSuggestions(projectLabels);
     ComponentPresenter componentPresenter = new ComponentPresenter(
         component, componentView, this.presenter);
@@ -180,18 +181,21 @@ public class ComponentsViewImpl extends Composite implements ComponentsView {
   }
 
   @Override
-  public void setSignoffs(List<Signoff> signoffs) {
-    signedOff.clear();
-    if (signoffs != null) {
-      for (Signoff s : signoffs) {
-        signedOff.put(s.getElementId(), s.getSignedOff());
-      }
-    }
+  public void setSignoffs(SignoffMap signoffs) {
+    this.signoffs = signoffs;
     for (Widget w : componentsPanel) {
-      ComponentViewImpl view = (ComponentViewImpl) w;
-      Boolean checked = signedOff.get(view.getComponentId());
-      view.setSignedOff(checked == null ? false : checked);
+      showSignoffs((ComponentViewImpl) w);
+    }
+  }
+
+  private void showSignoffs(ComponentViewImpl view) {
+    if (signoffs == null) {
+      return;
     }
+    long id = view.getComponentId();
+    view.setSignedOff(signoffs.isSignedOff(AccElementType.COMPONENT, id));
+    view.setSignedOffCapabilityCount(
+        signoffs.getSignedOffCapabilityCount(AccElementType.COMPONENT, id));
   }
 
   @Override
@@ -22,6 +22,7 @@ import com.google.gwt.uibinder.client.UiField;
 import com.google.gwt.uibinder.client.UiHandler;
 import com.google.gwt.user.client.ui.Button;
 import com.google.gwt.user.client.ui.Composite;
+import com.google.gwt.user.client.ui.Label;
 import com.google.gwt.user.client.ui.ListBox;
 import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
@@ -30,6 +31,7 @@ import com.google.testing.testify.risk.frontend.client.view.ConfigureFiltersView
 import com.google.testing.testify.risk.frontend.client.view.FilterView;
 import com.google.testing.testify.risk.frontend.model.DatumType;
 import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
 
 import java.util.List;
 import java.util.Map;
@@ -57,6 +59,15 @@ public class ConfigureFiltersViewImpl extends Composite implements ConfigureFilt
   @UiField
   public Button addFilterButton;
 
+  @UiField
+  public ListBox reapplyTypeBox;
+
+  @UiField
+  public Button reapplyFiltersButton;
+
+  @UiField
+  public Label reapplyStatusLabel;
+
   private List<Filter> filters;
   // These are needed as options for the Filter widgets.
   private Map<String, Long> attributes;
@@ -69,8 +80,10 @@ public class ConfigureFiltersViewImpl extends Composite implements ConfigureFilt
     initWidget(uiBinder.createAndBindUi(this));
 
     filterTypeBox.clear();
+    reapplyTypeBox.clear();
     for (DatumType type : DatumType.values()) {
       filterTypeBox.addItem(type.getPlural(), type.name());
+      reapplyTypeBox.addItem(type.getPlural(), type.name());
     }
   }
 
@@ -85,6 +98,35 @@ public class ConfigureFiltersViewImpl extends Composite implements ConfigureFilt
     }
   }
 
+  @UiHandler("reapplyFiltersButton")
+  public void handleReapplyFiltersButtonClicked(ClickEvent event) {
+    if (presenter != null) {
+      String selected = reapplyTypeBox.getValue(reapplyTypeBox.getSelectedIndex());
+      reapplyFiltersButton.setEnabled(false);
+      reapplyStatusLabel.setText("Starting...");
+      presenter.reapplyFilters(DatumType.valueOf(selected));
+    }
+  }
+
+  @Override
+  public void showJobStatus(JobStatus status) {
+    String progress = status.getItemsProcessed() + " "
+        + status.getDatumType().getPlural().toLowerCase() + " checked, "
+        + status.getItemsChanged() + " assigned";
+    switch (status.getState()) {
+      case RUNNING:
+        reapplyStatusLabel.setText("Working: " + progress + " ("
+            + Math.round(status.getItemsPerSecond()) + " per second)...");
+        break;
+      case COMPLETE:
+        reapplyStatusLabel.setText("Done: " + progress + ".");
+        break;
+      default:
+        reapplyStatusLabel.setText("Failed after " + progress + ".");
+    }
+    reapplyFiltersButton.setEnabled(!status.isRunning());
+  }
+
   @Override
   public void setFilters(List<Filter> filters) {
     this.filters = filters;
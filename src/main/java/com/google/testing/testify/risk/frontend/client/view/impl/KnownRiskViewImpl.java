@@ -26,15 +26,11 @@ import com.google.gwt.user.client.ui.HorizontalPanel;
 import com.google.gwt.user.client.ui.Label;
 import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
-import com.google.testing.testify.risk.frontend.client.riskprovider.RiskProvider;
-import com.google.testing.testify.risk.frontend.client.riskprovider.impl.BugRiskProvider;
-import com.google.testing.testify.risk.frontend.client.riskprovider.impl.CodeChurnRiskProvider;
-import com.google.testing.testify.risk.frontend.client.riskprovider.impl.StaticRiskProvider;
-import com.google.testing.testify.risk.frontend.client.riskprovider.impl.TestCoverageRiskProvider;
 import com.google.testing.testify.risk.frontend.client.view.widgets.LinkCapabilityWidget;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.CapabilityIntersectionData;
 import com.google.testing.testify.risk.frontend.model.Pair;
+import com.google.testing.testify.risk.frontend.model.RiskSource;
 
 import java.util.List;
 
@@ -47,18 +43,18 @@ import java.util.List;
 public class KnownRiskViewImpl extends RiskViewImpl {
 
   /**
-   * Stores details on a risk provider along with a checkbox indicating its state.
+   * Stores details on a risk source along with a checkbox indicating its state.
    */
   private class SourceItem {
-    private final RiskProvider provider;
+    private final RiskSource source;
     private final CheckBox checkBox;
 
-    public SourceItem(RiskProvider provider, CheckBox checkBox) {
-      this.provider = provider;
+    public SourceItem(RiskSource source, CheckBox checkBox) {
+      this.source = source;
       this.checkBox = checkBox;
     }
 
-    public RiskProvider getProvider() { return provider; }
+    public RiskSource getSource() { return source; }
     public CheckBox getCheckBox() { return checkBox; }
   }
 
@@ -108,37 +104,31 @@ public class KnownRiskViewImpl extends RiskViewImpl {
   }
 
   /**
-   * Returns a CheckBox to control the RiskProvider (changing the check state regenerates the risk
+   * Returns a CheckBox to control the RiskSource (changing the check state regenerates the risk
    * grid's colors.)
    */
-  private CheckBox getRiskProviderCheckBox(RiskProvider provider) {
-    CheckBox providerCheckBox = new CheckBox(provider.getName());
-    providerCheckBox.setValue(true);
-    providerCheckBox.addValueChangeHandler(
+  private CheckBox getRiskSourceCheckBox(RiskSource source) {
+    CheckBox sourceCheckBox = new CheckBox(source.getName());
+    sourceCheckBox.setValue(true);
+    sourceCheckBox.addValueChangeHandler(
         new ValueChangeHandler<Boolean>() {
           @Override
           public void onValueChange(ValueChangeEvent<Boolean> event) {
             refreshRiskCalculation();
           }
         });
-    return providerCheckBox;
+    return sourceCheckBox;
   }
 
   @Override
   protected void onInitialized() {
-    List<RiskProvider> providers = Lists.newArrayList(
-        new StaticRiskProvider(),
-        new BugRiskProvider(),
-        new CodeChurnRiskProvider(),
-        new TestCoverageRiskProvider());
-
     // Initialize risk sources.
     sources.clear();
     sourcesPanel.clear();
-    for (RiskProvider provider : providers) {
-      CheckBox providerCheckBox = getRiskProviderCheckBox(provider);
-      sourcesPanel.add(providerCheckBox);
-      SourceItem sourceItem = new SourceItem(provider, providerCheckBox);
+    for (RiskSource source : RiskSource.values()) {
+      CheckBox sourceCheckBox = getRiskSourceCheckBox(source);
+      sourcesPanel.add(sourceCheckBox);
+      SourceItem sourceItem = new SourceItem(source, sourceCheckBox);
       sources.add(sourceItem);
     }
 
@@ -156,18 +146,18 @@ public class KnownRiskViewImpl extends RiskViewImpl {
         return input.getCheckBox().getValue();
       }};
 
-    Function<SourceItem, RiskProvider> getProvider = new Function<SourceItem, RiskProvider>() {
+    Function<SourceItem, RiskSource> getSource = new Function<SourceItem, RiskSource>() {
       @Override
-      public RiskProvider apply(SourceItem arg0) {
-        return arg0.getProvider();
+      public RiskSource apply(SourceItem arg0) {
+        return arg0.getSource();
       }
     };
 
-    List<RiskProvider> enabled =
+    List<RiskSource> enabled =
       Lists.newArrayList(
         Iterables.transform(
             Iterables.filter(sources, getChecked),
-            getProvider));
+            getSource));
 
     refreshRiskCalculation(enabled);
   }
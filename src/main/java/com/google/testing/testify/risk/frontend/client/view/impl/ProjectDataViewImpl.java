@@ -18,6 +18,8 @@ package com.google.testing.testify.risk.frontend.client.view.impl;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.uibinder.client.UiBinder;
 import com.google.gwt.uibinder.client.UiField;
+import com.google.gwt.user.client.Window;
+import com.google.gwt.user.client.Window.ScrollEvent;
 import com.google.gwt.user.client.ui.Anchor;
 import com.google.gwt.user.client.ui.Composite;
 import com.google.gwt.user.client.ui.Grid;
@@ -28,6 +30,7 @@ import com.google.gwt.user.client.ui.Label;
 import com.google.gwt.user.client.ui.Widget;
 import com.google.testing.testify.risk.frontend.client.util.LinkUtil;
 import com.google.testing.testify.risk.frontend.client.view.widgets.PageSectionVerticalPanel;
+import com.google.testing.testify.risk.frontend.model.DatumType;
 import com.google.testing.testify.risk.frontend.model.UploadedDatum;
 
 import java.util.List;
@@ -58,10 +61,33 @@ public class ProjectDataViewImpl extends Composite {
  private static final String GRID_CELL_CSS_STYLE = "tty-DataGridCell";
  private static final String GRID_IMAGE_CELL_CSS_STYLE = "tty-DataGridImageCell";
  private static final String GRID_HEADER_CSS_STYLE = "tty-DataGridHeaderCell";
+ /** How close to the bottom of the grid, in pixels, to scroll before loading the next page. */
+ private static final int SCROLL_MARGIN_PX = 200;
+
+ /** Loads pages of data for the view. */
+ public interface Pager {
+   /**
+    * Requests a page of data, which should be passed to {@link ProjectDataViewImpl#addData}.
+    *
+    * @param cursor the cursor for the page, or null for the first page.
+    */
+   public void loadPage(String cursor);
+ }
+
+ private Pager pager;
+ private DatumType datumType;
+ private int rowCount = 0;
+ private String nextCursor;
 
  public ProjectDataViewImpl() {
    initWidget(uiBinder.createAndBindUi(this));
    dataSummary.setText("No data provided yet.");
+   Window.addWindowScrollHandler(new Window.ScrollHandler() {
+       @Override
+       public void onWindowScroll(ScrollEvent event) {
+         loadMoreIfVisible();
+       }
+     });
  }
 
  /** Sets the page header and intro text. */
@@ -70,22 +96,54 @@ public class ProjectDataViewImpl extends Composite {
    this.introText.setText(introText);
  }
 
- public void displayData(List<UploadedDatum> data) {
-   if (data.size() == 0) {
-     dataSummary.setText("No items have been uploaded.");
-     return;
-   }
-
-   UploadedDatum firstItem = data.get(0);
-   dataSummary.setText(
-     "Showing " + Integer.toString(data.size()) + " " + firstItem.getDatumType().getPlural());
+ /** Sets what to call when the next page of data is needed. */
+ public void setPager(Pager pager) {
+   this.pager = pager;
+ }
 
+ /** Discards all displayed data and requests the first page again. */
+ public void reload() {
+   rowCount = 0;
+   nextCursor = null;
    dataGrid.clear();
+   dataGrid.resize(0, 4);
+   dataSummary.setText("Loading...");
+   pager.loadPage(null);
+ }
+
+ /**
+  * Appends a page of data to the grid.
+  *
+  * @param data the items in the page.
+  * @param cursor the cursor for the following page, or null if this was the last page.
+  */
+ public void addData(List<UploadedDatum> data, String cursor) {
+   nextCursor = cursor;
+   if (rowCount == 0) {
+     if (data.size() == 0) {
+       dataSummary.setText("No items have been uploaded.");
+       return;
+     }
+     datumType = data.get(0).getDatumType();
+     setHeaders();
+   }
+
    // Header row + one for each bug x datum, Attribute, Component, Capability
-   dataGrid.resize(data.size() + 1, 4);
+   dataGrid.resize(rowCount + data.size() + 1, 4);
+   for (UploadedDatum datum : data) {
+     rowCount++;
+     setRow(rowCount, datum);
+   }
+   dataSummary.setText("Showing " + rowCount + " " + datumType.getPlural()
+       + (nextCursor == null ? "" : ", scroll down for more"));
+
+   // The page may not have filled the window, in which case there will be no scroll event.
+   loadMoreIfVisible();
+ }
 
-   // Set grid headers.
-   dataGrid.setWidget(0, 0, new Label(firstItem.getDatumType().getPlural()));
+ private void setHeaders() {
+   dataGrid.resize(1, 4);
+   dataGrid.setWidget(0, 0, new Label(datumType.getPlural()));
    dataGrid.setWidget(0, 1, new Label("Attribute"));
    dataGrid.setWidget(0, 2, new Label("Component"));
    dataGrid.setWidget(0, 3, new Label("Capability"));
@@ -94,36 +152,47 @@ public class ProjectDataViewImpl extends Composite {
    dataGrid.getWidget(0, 1).addStyleName(GRID_HEADER_CSS_STYLE);
    dataGrid.getWidget(0, 2).addStyleName(GRID_HEADER_CSS_STYLE);
    dataGrid.getWidget(0, 3).addStyleName(GRID_HEADER_CSS_STYLE);
+ }
 
-   // Fill with data.
-   for (int i = 0; i < data.size(); i++) {
-     UploadedDatum datum = data.get(i);
-
-     String host = LinkUtil.getLinkHost(datum.getLinkUrl());
-     Widget description;
-     if (host != null) {
-       HorizontalPanel panel = new HorizontalPanel();
-       Anchor anchor = new Anchor(datum.getLinkText(), datum.getLinkUrl());
-       anchor.setTarget("_blank");
-
-       Label hostLabel = new Label(host);
-       panel.add(anchor);
-       panel.add(hostLabel);
+ private void setRow(int row, UploadedDatum datum) {
+   String host = LinkUtil.getLinkHost(datum.getLinkUrl());
+   Widget description;
+   if (host != null) {
+     HorizontalPanel panel = new HorizontalPanel();
+     Anchor anchor = new Anchor(datum.getLinkText(), datum.getLinkUrl());
+     anchor.setTarget("_blank");
+
+     Label hostLabel = new Label(host);
+     panel.add(anchor);
+     panel.add(hostLabel);
+
+     description = panel;
+   } else {
+     description = new Label(datum.getLinkText() + " [" + datum.getLinkUrl() + "]");
+   }
+   description.addStyleName(GRID_CELL_CSS_STYLE);
+   description.setTitle(datum.getToolTip());
+   dataGrid.setWidget(row, 0, description);
+
+   // Display images indicating whether or not the datum is associated with project artifacts.
+   // For example, a Bug may be associated with a Component or a Testcase might validate scenarios
+   // for a given Attribute. The user can associate data with project artifacts using SuperLabels.
+   dataGrid.setWidget(row, 1, (datum.isAttachedToAttribute()) ? getX() : getCheckmark());
+   dataGrid.setWidget(row, 2, (datum.isAttachedToComponent()) ? getX() : getCheckmark());
+   dataGrid.setWidget(row, 3, (datum.isAttachedToCapability()) ? getX() : getCheckmark());
+ }
 
-       description = panel;
-     } else {
-       description = new Label(datum.getLinkText() + " [" + datum.getLinkUrl() + "]");
-     }
-     description.addStyleName(GRID_CELL_CSS_STYLE);
-     description.setTitle(datum.getToolTip());
-     dataGrid.setWidget(i + 1, 0, description);
-
-     // Display images indicating whether or not the datum is associated with project artifacts.
-     // For example, a Bug may be associated with a Component or a Testcase might validate scenarios
-     // for a given Attribute. The user can associate data with project artifacts using SuperLabels.
-     dataGrid.setWidget(i + 1, 1, (datum.isAttachedToAttribute()) ? getX() : getCheckmark());
-     dataGrid.setWidget(i + 1, 2, (datum.isAttachedToComponent()) ? getX() : getCheckmark());
-     dataGrid.setWidget(i + 1, 3, (datum.isAttachedToCapability()) ? getX() : getCheckmark());
+ /** Requests the next page if the bottom of the grid has scrolled into view. */
+ private void loadMoreIfVisible() {
+   if (nextCursor == null || pager == null || !isAttached()) {
+     return;
+   }
+   int bottom = dataGrid.getAbsoluteTop() + dataGrid.getOffsetHeight();
+   if (bottom - SCROLL_MARGIN_PX <= Window.getScrollTop() + Window.getClientHeight()) {
+     String cursor = nextCursor;
+     // Cleared until the page arrives, so scrolling doesn't request it again.
+     nextCursor = null;
+     pager.loadPage(cursor);
    }
  }
 
@@ -38,7 +38,6 @@ import com.google.gwt.user.client.ui.Label;
 import com.google.gwt.user.client.ui.SimplePanel;
 import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
-import com.google.testing.testify.risk.frontend.client.riskprovider.RiskProvider;
 import com.google.testing.testify.risk.frontend.client.view.RiskView;
 import com.google.testing.testify.risk.frontend.client.view.widgets.EasyDisclosurePanel;
 import com.google.testing.testify.risk.frontend.client.view.widgets.PageSectionVerticalPanel;
@@ -47,8 +46,11 @@ import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.CapabilityIntersectionData;
 import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Pair;
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
+import com.google.testing.testify.risk.frontend.model.RiskSource;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -68,7 +70,8 @@ public abstract class RiskViewImpl extends Composite
   private enum RequiredDataType {
     ATTRIBUTES,
     COMPONENTS,
-    CAPABILITIES
+    CAPABILITIES,
+    RISK_MATRIX
   }
 
   /**
@@ -106,13 +109,14 @@ public abstract class RiskViewImpl extends Composite
   private final HashSet<RequiredDataType> initializedDataTypes = Sets.newHashSet();
   private final ArrayList<Component> components = Lists.newArrayList();
   private final ArrayList<Attribute> attributes = Lists.newArrayList();
+  private RiskMatrix riskMatrix;
 
   private Pair<Integer, Integer> selectedCell;
 
   /**
    * Constructs a new instance of the RiskViewImpl widget. For the UI to display something, call
-   * {@link #setComponents(List)}, {@link #setAttributes(List)}, and {@link #setCapabilities(List)}
-   * next.
+   * {@link #setComponents(List)}, {@link #setAttributes(List)}, {@link #setCapabilities(List)}
+   * and {@link #setRiskMatrix(RiskMatrix)} next.
    */
   public RiskViewImpl() {
     initWidget(uiBinder.createAndBindUi(this));
@@ -170,6 +174,14 @@ public abstract class RiskViewImpl extends Composite
     initializeRiskCells();
   }
 
+  @Override
+  public void setRiskMatrix(RiskMatrix riskMatrix) {
+    this.riskMatrix = riskMatrix;
+
+    initializedDataTypes.add(RequiredDataType.RISK_MATRIX);
+    initializeRiskCells();
+  }
+
    /**
     * Called for derived classes once the risk view has been fully initilzied. (All Attributes,
     * Components, and Capabilities have been specified.)
@@ -308,40 +320,23 @@ public abstract class RiskViewImpl extends Composite
   }
 
   /**
-   * Refreshes the risk data for all cells, based on the risk provided by the passed in risk
-   * provider.
+   * Refreshes the risk data for all cells, based on the server computed risk from the given
+   * sources.
    *
-   * @param provider provider that determines risk.
+   * @param sources sources of risk to include (risk is additive).
    */
-  protected void refreshRiskCalculation(RiskProvider provider) {
-    if (provider == null) {
-      return;
-    }
-    refreshRiskCalculation(Lists.newArrayList(provider));
-  }
-
-  /**
-   * Refreshes the risk data for all cells, based on the risk provided by the passed in risk
-   * providers.
-   *
-   * @param providers providers that determines risk (risk is additive).
-   */
-  protected void refreshRiskCalculation(List<RiskProvider> providers) {
+  protected void refreshRiskCalculation(Collection<RiskSource> sources) {
     for (int cIndex = 0; cIndex < components.size(); cIndex++) {
       for (int aIndex = 0; aIndex < attributes.size(); aIndex++) {
         int row = cIndex + 1;
         int column = aIndex + 1;
-        Attribute attribute = attributes.get(aIndex);
-        Component component = components.get(cIndex);
-        Long key = Capability.getCapabilityIntersectionKey(component, attribute);
-        CapabilityIntersectionData data = dataMap.get(key);
+        long attributeId = attributes.get(aIndex).getAttributeId();
+        long componentId = components.get(cIndex).getComponentId();
 
         double risk = 0.0;
         double mitigations = 0.0;
-        // TODO(jimr): RiskProvider would be better off exposing a type instead of doing it based
-        // off the returned positive/negative.
-        for (RiskProvider provider : providers) {
-          double sourceRisk = provider.calculateRisk(data);
+        for (RiskSource source : sources) {
+          double sourceRisk = riskMatrix.getValue(source, attributeId, componentId);
           if (sourceRisk < 0) {
             mitigations += sourceRisk;
           } else {
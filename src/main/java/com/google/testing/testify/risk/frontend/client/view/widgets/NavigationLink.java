@@ -15,7 +15,7 @@
 
 package com.google.testing.testify.risk.frontend.client.view.widgets;
 
-import com.google.common.base.Function;
+import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.gwt.user.client.ui.Composite;
 import com.google.gwt.user.client.ui.DeckPanel;
 import com.google.gwt.user.client.ui.HasText;
@@ -38,6 +38,14 @@ import com.google.testing.testify.risk.frontend.client.presenter.TaPagePresenter
  */
 public class NavigationLink extends Composite implements HasText {
 
+  /**
+   * Creates the presenter for a link's page.  This is asynchronous so that the page's code can be
+   * downloaded when it is first needed, rather than with the rest of the application.
+   */
+  public interface PresenterFactory {
+    public void createPresenter(AsyncCallback<TaPagePresenter> callback);
+  }
+
   private final DeckPanel panel;
 
   // The hyper link is displayed when the control is enabled; otherwise the fake link will be.
@@ -47,7 +55,7 @@ public class NavigationLink extends Composite implements HasText {
   private long projectId;
   private String targetHistoryToken;
   private TaPagePresenter presenter;
-  private Function<Void, TaPagePresenter> createPresenterFunction;
+  private PresenterFactory presenterFactory;
 
   private static final int WIDGET_ID_ENABLED = 0;
   private static final int WIDGET_ID_DISABLED = 1;
@@ -61,10 +69,10 @@ public class NavigationLink extends Composite implements HasText {
   }
 
   public NavigationLink(String text, long projectId, String targetHistoryToken,
-      Function<Void, TaPagePresenter> createPresenterFunction) {
+      PresenterFactory presenterFactory) {
     this.targetHistoryToken = targetHistoryToken;
     this.projectId = projectId;
-    this.createPresenterFunction = createPresenterFunction;
+    this.presenterFactory = presenterFactory;
 
     panel = new DeckPanel();
     SimplePanel fakeLinkPanel = new SimplePanel();
@@ -77,15 +85,31 @@ public class NavigationLink extends Composite implements HasText {
     super.initWidget(panel);
   }
 
-  public void setCreatePresenterFunction(Function<Void, TaPagePresenter> function) {
-    this.createPresenterFunction = function;
+  public void setPresenterFactory(PresenterFactory presenterFactory) {
+    this.presenterFactory = presenterFactory;
   }
 
-  public TaPagePresenter getPresenter() {
-    if (presenter == null) {
-      presenter = createPresenterFunction.apply(null);
+  /** Passes the link's page presenter to the callback, creating it the first time. */
+  public void getPresenter(final AsyncCallback<TaPagePresenter> callback) {
+    if (presenter != null) {
+      callback.onSuccess(presenter);
+      return;
     }
-    return presenter;
+    presenterFactory.createPresenter(new AsyncCallback<TaPagePresenter>() {
+      @Override
+      public void onFailure(Throwable caught) {
+        callback.onFailure(caught);
+      }
+
+      @Override
+      public void onSuccess(TaPagePresenter result) {
+        // The link may have been followed twice while its code was loading.
+        if (presenter == null) {
+          presenter = result;
+        }
+        callback.onSuccess(presenter);
+      }
+    });
   }
 
   @Override
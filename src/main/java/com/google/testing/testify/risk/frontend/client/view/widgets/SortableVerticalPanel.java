@@ -116,7 +116,7 @@ public class SortableVerticalPanel<T extends Widget>  extends Composite
         for (int index = 0; index < verticalPanel.getWidgetCount(); index++) {
           widgetList.add(verticalPanel.getWidget(index));
         }
-        fireEvent(new WidgetsReorderedEvent(widgetList));
+        fireEvent(new WidgetsReorderedEvent(widgetList, event.getContext().draggable));
       }
 
       @Override
@@ -16,15 +16,10 @@
 package com.google.testing.testify.risk.frontend.model;
 
 import java.io.Serializable;
-
-import javax.jdo.annotations.Extension;
-import javax.jdo.annotations.IdGeneratorStrategy;
-import javax.jdo.annotations.PersistenceCapable;
-import javax.jdo.annotations.Persistent;
-import javax.jdo.annotations.PrimaryKey;
+import java.util.List;
 
 /**
- * JDO object for a Label.  Labels can be assigned to any part of an ACC model.
+ * A Label.  Labels can be assigned to any part of an ACC model.
  * A label is stored as a two-state label (essentially, a name and value pair).  This can
  * represent things like:
  *   "Priority-P4" where P4 is the value to the name Priority.
@@ -34,29 +29,23 @@ import javax.jdo.annotations.PrimaryKey;
  *
  * The entire label is not stored as one text field, but can be generated by this class using
  * the function getLabelText().  This function should be used instead of doing this manually.
+ *
+ * Labels are not entities of their own; they are stored serialized inside the element they
+ * belong to, so an element and its labels are read and written together.  The project, element
+ * type and element ID are filled in from the element when it is loaded.
  * 
  * @author jimr@google.com (Jim Reardon)
  */
-@PersistenceCapable(detachable = "true")
 public class AccLabel implements Serializable {
-  @PrimaryKey
-  @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY)
-  @Extension(vendorName = "datanucleus", key = "gae.encoded-pk", value = "true")
-  private String id;
+  /** Stored labels are deserialized with this version, so keep the fields compatible. */
+  private static final long serialVersionUID = 1L;
 
-  @Persistent
+  /** Identifies the label among its element's labels.  See {@link #assignIds}. */
+  private String id;
   private Long projectId;
-  
-  @Persistent
   private AccElementType elementType;
-
-  @Persistent
   private Long elementId;
-
-  @Persistent
   private String name;
-  
-  @Persistent
   private String value;
 
   public String getId() {
@@ -139,4 +128,26 @@ public class AccLabel implements Serializable {
   public Long getElementId() {
     return elementId;
   }
+
+  /**
+   * Gives each label without an ID one which is unique among the given labels, which should be
+   * all of one element's labels.
+   */
+  public static void assignIds(List<AccLabel> labels) {
+    long next = 1;
+    for (AccLabel label : labels) {
+      if (label.getId() != null) {
+        try {
+          next = Math.max(next, Long.parseLong(label.getId()) + 1);
+        } catch (NumberFormatException e) {
+          // Not one of ours, so it can't clash.
+        }
+      }
+    }
+    for (AccLabel label : labels) {
+      if (label.getId() == null) {
+        label.setId(String.valueOf(next++));
+      }
+    }
+  }
 }
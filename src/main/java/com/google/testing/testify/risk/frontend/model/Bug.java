@@ -21,6 +21,7 @@ import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.jdo.annotations.Extension;
 import javax.jdo.annotations.IdGeneratorStrategy;
 import javax.jdo.annotations.PersistenceCapable;
 import javax.jdo.annotations.Persistent;
@@ -34,10 +35,15 @@ import javax.jdo.annotations.PrimaryKey;
 @PersistenceCapable(detachable = "true")
 public class Bug implements Serializable, UploadedDatum {
 
-  /** Unique identifier to store the bug in App Engine. */
+  /**
+   * Encoded App Engine key of the bug.  Its key name comes from {@link DatumType#getKeyName}, so
+   * re-uploading a bug overwrites it rather than adding a copy.  Encoded keys also load bugs
+   * stored under a numeric ID before uploads were keyed by name.
+   */
   @PrimaryKey
   @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY)
-  private Long internalId;
+  @Extension(vendorName = "datanucleus", key = "gae.encoded-pk", value = "true")
+  private String internalId;
 
   /** Project ID of the project the bug belongs to. */
   @Persistent
@@ -109,7 +115,7 @@ public class Bug implements Serializable, UploadedDatum {
   }
 
   @Override
-  public void setInternalId(Long internalId) {
+  public void setInternalId(String internalId) {
     this.internalId = internalId;
   }
 
@@ -117,7 +123,7 @@ public class Bug implements Serializable, UploadedDatum {
    * @return the bug's internal ID, which is unique across all projects.
    */
   @Override
-  public Long getInternalId() {
+  public String getInternalId() {
     return internalId;
   }
 
@@ -21,7 +21,6 @@ import java.util.Iterator;
 import java.util.List;
 
 import javax.jdo.annotations.IdGeneratorStrategy;
-import javax.jdo.annotations.NotPersistent;
 import javax.jdo.annotations.PersistenceCapable;
 import javax.jdo.annotations.Persistent;
 import javax.jdo.annotations.PrimaryKey;
@@ -32,7 +31,7 @@ import javax.jdo.annotations.PrimaryKey;
  * @author jimr@google.com (Jim Reardon)
  */
 @PersistenceCapable(detachable = "true")
-public class Capability implements Serializable, HasLabels {
+public class Capability implements Serializable, HasLabels, HasDisplayOrder {
 
   private static final AccElementType ELEMENT_TYPE = AccElementType.CAPABILITY;
 
@@ -49,7 +48,8 @@ public class Capability implements Serializable, HasLabels {
   @Persistent
   private String description;
 
-  @NotPersistent
+  /** The element's labels, stored serialized in the element's own entity. */
+  @Persistent(serialized = "true", defaultFetchGroup = "true")
   private List<AccLabel> accLabels = new ArrayList<AccLabel>();
 
   /** Parent Component. */
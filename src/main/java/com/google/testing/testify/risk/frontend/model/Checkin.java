@@ -21,6 +21,7 @@ import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.jdo.annotations.Extension;
 import javax.jdo.annotations.IdGeneratorStrategy;
 import javax.jdo.annotations.PersistenceCapable;
 import javax.jdo.annotations.Persistent;
@@ -34,10 +35,14 @@ import javax.jdo.annotations.PrimaryKey;
 @PersistenceCapable(detachable = "true")
 public class Checkin implements Serializable, UploadedDatum {
 
-  /** Unique identifier to store the checkin in App Engine. */
+  /**
+   * Encoded App Engine key, named from {@link DatumType#getKeyName} so each uploaded checkin has
+   * one entity.  Checkins stored under a numeric ID by older uploads still load.
+   */
   @PrimaryKey
   @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY)
-  private Long internalId;
+  @Extension(vendorName = "datanucleus", key = "gae.encoded-pk", value = "true")
+  private String internalId;
 
   /** Project ID of the project the checkin belongs to. */
   @Persistent
@@ -64,6 +69,14 @@ public class Checkin implements Serializable, UploadedDatum {
   @Persistent
   private Set<String> directoriesTouched = new HashSet<String>();
 
+  /**
+   * Every directory touched and every parent of one, in the normal form of DirectoryPaths.  This
+   * is indexed, so the checkins under a directory can be queried directly.  Set by the server
+   * when the checkin is saved.
+   */
+  @Persistent
+  private Set<String> directoryPrefixes = new HashSet<String>();
+
   /** URL to identify view more information about the checkin. */
   @Persistent
   private String changeUrl;
@@ -89,12 +102,12 @@ public class Checkin implements Serializable, UploadedDatum {
   private Long targetCapabilityId;
 
   @Override
-  public void setInternalId(Long internalId) {
+  public void setInternalId(String internalId) {
     this.internalId = internalId;
   }
 
   @Override
-  public Long getInternalId() {
+  public String getInternalId() {
     return internalId;
   }
 
@@ -149,6 +162,14 @@ public class Checkin implements Serializable, UploadedDatum {
     directoriesTouched.remove(directory);
   }
 
+  public Set<String> getDirectoryPrefixes() {
+    return directoryPrefixes;
+  }
+
+  public void setDirectoryPrefixes(Set<String> directoryPrefixes) {
+    this.directoryPrefixes = directoryPrefixes;
+  }
+
   public void setChangeUrl(String changeUrl) {
     this.changeUrl = changeUrl;
   }
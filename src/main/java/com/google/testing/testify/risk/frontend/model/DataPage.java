@@ -0,0 +1,51 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.testing.testify.risk.frontend.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a project's uploaded data, along with the cursor to request the next page with.
+ *
+ * @param <T> the type of data.
+ */
+public class DataPage<T extends UploadedDatum> implements Serializable {
+
+  private ArrayList<T> items = new ArrayList<T>();
+  /** Web safe datastore cursor for the next page, or null if this is the last page. */
+  private String cursor;
+
+  @SuppressWarnings("unused")
+  private DataPage() { /* For serialization. */ }
+
+  public DataPage(List<T> items, String cursor) {
+    this.items.addAll(items);
+    this.cursor = cursor;
+  }
+
+  public List<T> getItems() {
+    return items;
+  }
+
+  public String getCursor() {
+    return cursor;
+  }
+
+  public boolean hasMore() {
+    return cursor != null;
+  }
+}
@@ -51,8 +51,9 @@ public class DataRequest implements Serializable {
   /**
    * List of options for this data request.  For example, an option might be:
    *   Component Path -> { Project/Component/Path }
+   * The options are stored serialized in the request's own entity.
    */
-  @Persistent(mappedBy = "dataRequest", defaultFetchGroup = "true")
+  @Persistent(serialized = "true", defaultFetchGroup = "true")
   private List<DataRequestOption> dataRequestOptions = Lists.newArrayList();
 
   public void setRequestId(Long requestId) {
@@ -17,12 +17,6 @@ package com.google.testing.testify.risk.frontend.model;
 
 import java.io.Serializable;
 
-import javax.jdo.annotations.Extension;
-import javax.jdo.annotations.IdGeneratorStrategy;
-import javax.jdo.annotations.PersistenceCapable;
-import javax.jdo.annotations.Persistent;
-import javax.jdo.annotations.PrimaryKey;
-
 /**
  * An individual configuration option for a data request.  For example, this is an example of
  * a data request option for a Bug
@@ -38,24 +32,17 @@ import javax.jdo.annotations.PrimaryKey;
  * value = "123123"
  * 
  * This would import the bugs in hotlist 123123.
+ *
+ * Options are kept in a serialized field of their DataRequest, not in entities of their own.
  * 
  * @author jimr@google.com (Jim Reardon)
  */
-@PersistenceCapable(detachable = "true")
 public class DataRequestOption implements Serializable {
-  @PrimaryKey
-  @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY)
-  @Extension(vendorName = "datanucleus", key = "gae.encoded-pk", value = "true")
-  private String id;
-  
-  @Persistent
-  private String name;
+  /** Options already in the datastore are read back with this version. */
+  private static final long serialVersionUID = 1L;
 
-  @Persistent
+  private String name;
   private String value;
-  
-  @Persistent
-  private DataRequest dataRequest;
 
   public DataRequestOption() {
   }
@@ -80,20 +67,4 @@ public class DataRequestOption implements Serializable {
   public void setValue(String value) {
     this.value = value;
   }
-
-  public String getId() {
-    return id;
-  }
-
-  public void setId(String id) {
-    this.id = id;
-  }
-
-  public DataRequest getDataRequest() {
-    return dataRequest;
-  }
-
-  public void setDataRequest(DataRequest dataRequest) {
-    this.dataRequest = dataRequest;
-  }
 }
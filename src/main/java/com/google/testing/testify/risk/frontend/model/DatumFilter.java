@@ -0,0 +1,42 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.testing.testify.risk.frontend.model;
+
+import java.io.Serializable;
+
+/**
+ * Restricts a page of uploaded data to the items assigned to a Capability.  Each restriction
+ * needs a matching index in datastore-indexes.xml.
+ */
+public class DatumFilter implements Serializable {
+
+  private Long targetCapabilityId;
+
+  @SuppressWarnings("unused")
+  private DatumFilter() { /* For serialization. */ }
+
+  private DatumFilter(Long targetCapabilityId) {
+    this.targetCapabilityId = targetCapabilityId;
+  }
+
+  /** Returns a filter for the items assigned to a Capability. */
+  public static DatumFilter forCapability(long capabilityId) {
+    return new DatumFilter(capabilityId);
+  }
+
+  public Long getTargetCapabilityId() {
+    return targetCapabilityId;
+  }
+}
@@ -0,0 +1,143 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.model;
+
+import java.io.Serializable;
+
+/**
+ * The fields of an uploaded datum which lists of data show: its IDs, title, link, state and
+ * assignment.  Summaries are read straight from the datastore, without loading and detaching the
+ * full datum, and leave out its groups, tags or directories.  Load the full datum with
+ * DataRpc#getDatum when one is needed.
+ */
+public class DatumSummary implements Serializable {
+
+  private DatumType datumType;
+  private String internalId;
+  private Long externalId;
+  private Long parentProjectId;
+  /** The bug or test case title, or the checkin summary. */
+  private String title;
+  private String url;
+  private String state;
+  private Long stateDate;
+  private Long targetAttributeId;
+  private Long targetComponentId;
+  private Long targetCapabilityId;
+
+  @SuppressWarnings("unused")
+  private DatumSummary() { /* For serialization. */ }
+
+  public DatumSummary(DatumType datumType) {
+    this.datumType = datumType;
+  }
+
+  public DatumType getDatumType() {
+    return datumType;
+  }
+
+  public String getInternalId() {
+    return internalId;
+  }
+
+  public void setInternalId(String internalId) {
+    this.internalId = internalId;
+  }
+
+  public Long getExternalId() {
+    return externalId;
+  }
+
+  public void setExternalId(Long externalId) {
+    this.externalId = externalId;
+  }
+
+  public Long getParentProjectId() {
+    return parentProjectId;
+  }
+
+  public void setParentProjectId(Long parentProjectId) {
+    this.parentProjectId = parentProjectId;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public void setUrl(String url) {
+    this.url = url;
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public void setState(String state) {
+    this.state = state;
+  }
+
+  public Long getStateDate() {
+    return stateDate;
+  }
+
+  public void setStateDate(Long stateDate) {
+    this.stateDate = stateDate;
+  }
+
+  public Long getTargetAttributeId() {
+    return targetAttributeId;
+  }
+
+  public void setTargetAttributeId(Long targetAttributeId) {
+    this.targetAttributeId = targetAttributeId;
+  }
+
+  public Long getTargetComponentId() {
+    return targetComponentId;
+  }
+
+  public void setTargetComponentId(Long targetComponentId) {
+    this.targetComponentId = targetComponentId;
+  }
+
+  public Long getTargetCapabilityId() {
+    return targetCapabilityId;
+  }
+
+  public void setTargetCapabilityId(Long targetCapabilityId) {
+    this.targetCapabilityId = targetCapabilityId;
+  }
+
+  public boolean isAttachedToAttribute() {
+    return targetAttributeId != null;
+  }
+
+  public boolean isAttachedToComponent() {
+    return targetComponentId != null;
+  }
+
+  public boolean isAttachedToCapability() {
+    return targetCapabilityId != null;
+  }
+}
@@ -58,4 +58,12 @@ public enum DatumType {
   public List<String> getFilterTypes() {
     return filterTypes;
   }
+
+  /**
+   * Returns the datastore key name of an uploaded datum of this type.  It is derived from the
+   * project and the datum's external ID, so each item of external data has exactly one entity.
+   */
+  public String getKeyName(long projectId, long externalId) {
+    return projectId + ":" + name() + ":" + externalId;
+  }
 }
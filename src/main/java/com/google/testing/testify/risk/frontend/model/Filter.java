@@ -49,7 +49,8 @@ public class Filter implements Serializable {
   @Persistent
   private String filterConjunction;
 
-  @Persistent(mappedBy = "filter", defaultFetchGroup = "true")
+  /** Stored serialized in the filter's entity, so a filter is read with a single get. */
+  @Persistent(serialized = "true", defaultFetchGroup = "true")
   private List<FilterOption> filterOptions = Lists.newArrayList();
 
   @Persistent
@@ -17,12 +17,6 @@ package com.google.testing.testify.risk.frontend.model;
 
 import java.io.Serializable;
 
-import javax.jdo.annotations.Extension;
-import javax.jdo.annotations.IdGeneratorStrategy;
-import javax.jdo.annotations.PersistenceCapable;
-import javax.jdo.annotations.Persistent;
-import javax.jdo.annotations.PrimaryKey;
-
 /**
  * An individual option for a filter.  For example, this is an example of a FilterOption that
  * could appear on a bug:
@@ -31,25 +25,18 @@ import javax.jdo.annotations.PrimaryKey;
  * value = "[security]"
  * 
  * This would match any bug that has [security] inside its title.
+ *
+ * Options are stored serialized inside their Filter, rather than as entities of their own.
  * 
  * @author jimr@google.com (Jim Reardon)
  */
-@PersistenceCapable(detachable = "true")
 public class FilterOption implements Serializable {
-  @PrimaryKey
-  @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY)
-  @Extension(vendorName = "datanucleus", key = "gae.encoded-pk", value = "true")
-  private String id;
-  
-  @Persistent
-  private String type;
+  /** The version stored options are deserialized with; keep the fields compatible. */
+  private static final long serialVersionUID = 1L;
 
-  @Persistent
+  private String type;
   private String value;
-  
-  @Persistent
-  private Filter filter;
-  
+
   public FilterOption() {
   }
 
@@ -73,20 +60,4 @@ public class FilterOption implements Serializable {
   public void setValue(String value) {
     this.value = value;
   }
-
-  public Filter getFilter() {
-    return filter;
-  }
-
-  public void setFilter(Filter filter) {
-    this.filter = filter;
-  }
-
-  public String getId() {
-    return id;
-  }
-
-  public void setId(String id) {
-    this.id = id;
-  }
 }
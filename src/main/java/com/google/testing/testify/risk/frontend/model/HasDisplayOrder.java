@@ -0,0 +1,30 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.model;
+
+/**
+ * Interface for items the user can put in order.  Items are sorted by ascending display order;
+ * the values are spaced apart so an item can be moved between two others by changing only its
+ * own display order.
+ */
+public interface HasDisplayOrder {
+
+  public Long getId();
+  public long getParentProjectId();
+  public long getDisplayOrder();
+  public void setDisplayOrder(long displayOrder);
+
+}
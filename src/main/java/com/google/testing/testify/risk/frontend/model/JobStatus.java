@@ -0,0 +1,182 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.model;
+
+import java.io.Serializable;
+
+import javax.jdo.annotations.IdGeneratorStrategy;
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * The progress of a long running background job over a project's data.  Jobs run as a chain of
+ * task queue tasks, each processing one bounded batch; the cursor stored here is where the next
+ * batch starts, so a failed task is simply retried from the last completed batch.
+ */
+@PersistenceCapable(detachable = "true")
+public class JobStatus implements Serializable {
+
+  /** The kinds of job which report their progress through a JobStatus. */
+  public enum JobType {
+    REAPPLY_FILTERS,
+    DELETE_PROJECT
+  }
+
+  /** The states of a job. */
+  public enum State {
+    RUNNING,
+    COMPLETE,
+    FAILED
+  }
+
+  @PrimaryKey
+  @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY)
+  private Long id;
+
+  @Persistent
+  private long parentProjectId;
+
+  @Persistent
+  private JobType jobType;
+
+  /** The type of data the job works on, if it only works on one type. */
+  @Persistent
+  private DatumType datumType;
+
+  @Persistent
+  private State state = State.RUNNING;
+
+  /** For jobs made of several passes over the data, the index of the current pass. */
+  @Persistent
+  private int step;
+
+  /** Web safe datastore cursor for the next batch, or null to start from the beginning. */
+  @Persistent
+  private String cursor;
+
+  @Persistent
+  private long itemsProcessed;
+
+  @Persistent
+  private long itemsChanged;
+
+  @Persistent
+  private long startTime;
+
+  @Persistent
+  private long updateTime;
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public long getParentProjectId() {
+    return parentProjectId;
+  }
+
+  public void setParentProjectId(long parentProjectId) {
+    this.parentProjectId = parentProjectId;
+  }
+
+  public JobType getJobType() {
+    return jobType;
+  }
+
+  public void setJobType(JobType jobType) {
+    this.jobType = jobType;
+  }
+
+  public DatumType getDatumType() {
+    return datumType;
+  }
+
+  public void setDatumType(DatumType datumType) {
+    this.datumType = datumType;
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public void setState(State state) {
+    this.state = state;
+  }
+
+  public boolean isRunning() {
+    return state == State.RUNNING;
+  }
+
+  public int getStep() {
+    return step;
+  }
+
+  public void setStep(int step) {
+    this.step = step;
+  }
+
+  public String getCursor() {
+    return cursor;
+  }
+
+  public void setCursor(String cursor) {
+    this.cursor = cursor;
+  }
+
+  public long getItemsProcessed() {
+    return itemsProcessed;
+  }
+
+  public long getItemsChanged() {
+    return itemsChanged;
+  }
+
+  /**
+   * Records the completion of one batch.
+   *
+   * @param processed the number of items read by the batch.
+   * @param changed the number of those items which were updated.
+   * @param now the current time, in milliseconds.
+   */
+  public void addProgress(long processed, long changed, long now) {
+    itemsProcessed += processed;
+    itemsChanged += changed;
+    updateTime = now;
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime(long startTime) {
+    this.startTime = startTime;
+    this.updateTime = startTime;
+  }
+
+  public long getUpdateTime() {
+    return updateTime;
+  }
+
+  /** The average number of items processed per second between starting and the last batch. */
+  public double getItemsPerSecond() {
+    long elapsed = updateTime - startTime;
+    return elapsed <= 0 ? 0 : itemsProcessed * 1000.0 / elapsed;
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The complete ACC model of a project: its Attributes, Components and Capabilities, each with
+ * their labels populated, along with every label used within the project.  Loaded in a single
+ * request so pages which need the whole model don't have to issue one RPC per element type.
+ */
+public class ProjectAccModel implements Serializable {
+
+  private long projectId;
+  private List<Attribute> attributes = new ArrayList<Attribute>();
+  private List<Component> components = new ArrayList<Component>();
+  private List<Capability> capabilities = new ArrayList<Capability>();
+  private List<AccLabel> labels = new ArrayList<AccLabel>();
+
+  @SuppressWarnings("unused")
+  private ProjectAccModel() { /* For serialization. */ }
+
+  public ProjectAccModel(long projectId, List<Attribute> attributes, List<Component> components,
+      List<Capability> capabilities, List<AccLabel> labels) {
+    this.projectId = projectId;
+    this.attributes = attributes;
+    this.components = components;
+    this.capabilities = capabilities;
+    this.labels = labels;
+  }
+
+  public long getProjectId() {
+    return projectId;
+  }
+
+  /** Project Attributes, in display order. */
+  public List<Attribute> getAttributes() {
+    return attributes;
+  }
+
+  /** Project Components, in display order. */
+  public List<Component> getComponents() {
+    return components;
+  }
+
+  /** Project Capabilities, in display order. */
+  public List<Capability> getCapabilities() {
+    return capabilities;
+  }
+
+  /** Every label applied to any element of the project. */
+  public List<AccLabel> getLabels() {
+    return labels;
+  }
+
+  /**
+   * Returns the Capability with the given ID, or null if this project has no such Capability.
+   */
+  public Capability getCapability(long capabilityId) {
+    for (Capability capability : capabilities) {
+      if (capability.getCapabilityId() != null && capability.getCapabilityId() == capabilityId) {
+        return capability;
+      }
+    }
+    return null;
+  }
+}
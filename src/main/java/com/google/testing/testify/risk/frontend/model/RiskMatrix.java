@@ -0,0 +1,86 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.testing.testify.risk.frontend.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The risk of every Attribute x Component cell of a project, broken down by {@link RiskSource}.
+ * Risk is positive and mitigations are negative.  This is computed on the server, so the client
+ * doesn't need to download every bug, test and checkin in order to display risk.
+ */
+public class RiskMatrix implements Serializable {
+
+  private long projectId;
+  private ArrayList<Long> attributeIds = new ArrayList<Long>();
+  private ArrayList<Long> componentIds = new ArrayList<Long>();
+
+  /** Values for each source, indexed by componentIndex * attributeCount + attributeIndex. */
+  private HashMap<RiskSource, double[]> values = new HashMap<RiskSource, double[]>();
+
+  @SuppressWarnings("unused")
+  private RiskMatrix() { /* For serialization. */ }
+
+  public RiskMatrix(long projectId, List<Long> attributeIds, List<Long> componentIds) {
+    this.projectId = projectId;
+    this.attributeIds.addAll(attributeIds);
+    this.componentIds.addAll(componentIds);
+    for (RiskSource source : RiskSource.values()) {
+      values.put(source, new double[attributeIds.size() * componentIds.size()]);
+    }
+  }
+
+  public long getProjectId() {
+    return projectId;
+  }
+
+  public List<Long> getAttributeIds() {
+    return attributeIds;
+  }
+
+  public List<Long> getComponentIds() {
+    return componentIds;
+  }
+
+  /**
+   * Returns the risk from a single source for a cell, or 0 if the matrix has no such cell.
+   */
+  public double getValue(RiskSource source, long attributeId, long componentId) {
+    int index = getIndex(attributeId, componentId);
+    return index < 0 ? 0.0 : values.get(source)[index];
+  }
+
+  /**
+   * Adds to the risk from a source for a cell.  Does nothing if the matrix has no such cell.
+   */
+  public void addValue(RiskSource source, long attributeId, long componentId, double value) {
+    int index = getIndex(attributeId, componentId);
+    if (index >= 0) {
+      values.get(source)[index] += value;
+    }
+  }
+
+  private int getIndex(long attributeId, long componentId) {
+    int aIndex = attributeIds.indexOf(attributeId);
+    int cIndex = componentIds.indexOf(componentId);
+    if (aIndex < 0 || cIndex < 0) {
+      return -1;
+    }
+    return cIndex * attributeIds.size() + aIndex;
+  }
+}
@@ -0,0 +1,129 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jdo.annotations.PersistenceCapable;
+import javax.jdo.annotations.Persistent;
+import javax.jdo.annotations.PrimaryKey;
+
+/**
+ * A project's risk and mitigation matrix as it was on one day.  Snapshots are written daily and
+ * keyed by project and day (see {@link #getKeyName}), so writing a day twice replaces it.
+ *
+ * The values are encoded against the project's previous snapshot, which for most cells is no
+ * change at all.  Every so often, and whenever the matrix changes shape, a snapshot is encoded
+ * on its own instead; that is a keyframe, and every snapshot records the day of the keyframe its
+ * chain of changes starts from.
+ */
+@PersistenceCapable(detachable = "true")
+public class RiskSnapshot implements Serializable {
+
+  @PrimaryKey
+  @Persistent
+  private String id;
+
+  @Persistent
+  private long parentProjectId;
+
+  /** Days since the epoch, in UTC. */
+  @Persistent
+  private long day;
+
+  /** The day of the keyframe this snapshot is encoded from; its own day if it is a keyframe. */
+  @Persistent
+  private long keyframeDay;
+
+  @Persistent
+  private List<Long> attributeIds = new ArrayList<Long>();
+
+  @Persistent
+  private List<Long> componentIds = new ArrayList<Long>();
+
+  /**
+   * The encoded risk of every cell, followed by the mitigation of every cell.  Cells are in the
+   * same order as a {@link RiskMatrix}.
+   */
+  @Persistent(serialized = "true")
+  private byte[] values;
+
+  @SuppressWarnings("unused")
+  private RiskSnapshot() { /* For JDO. */ }
+
+  public RiskSnapshot(long parentProjectId, long day, List<Long> attributeIds,
+      List<Long> componentIds) {
+    this.id = getKeyName(parentProjectId, day);
+    this.parentProjectId = parentProjectId;
+    this.day = day;
+    this.keyframeDay = day;
+    this.attributeIds.addAll(attributeIds);
+    this.componentIds.addAll(componentIds);
+  }
+
+  /** Returns the key name of a project's snapshot for a day. */
+  public static String getKeyName(long projectId, long day) {
+    return projectId + ":" + day;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public long getParentProjectId() {
+    return parentProjectId;
+  }
+
+  public long getDay() {
+    return day;
+  }
+
+  public long getKeyframeDay() {
+    return keyframeDay;
+  }
+
+  public void setKeyframeDay(long keyframeDay) {
+    this.keyframeDay = keyframeDay;
+  }
+
+  public boolean isKeyframe() {
+    return keyframeDay == day;
+  }
+
+  public List<Long> getAttributeIds() {
+    return attributeIds;
+  }
+
+  public List<Long> getComponentIds() {
+    return componentIds;
+  }
+
+  /** Whether or not this snapshot has the same cells as a matrix. */
+  public boolean hasSameCells(RiskMatrix matrix) {
+    return attributeIds.equals(matrix.getAttributeIds())
+        && componentIds.equals(matrix.getComponentIds());
+  }
+
+  public byte[] getValues() {
+    return values;
+  }
+
+  public void setValues(byte[] values) {
+    this.values = values;
+  }
+}
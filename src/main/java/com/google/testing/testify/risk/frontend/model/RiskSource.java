@@ -0,0 +1,36 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.testing.testify.risk.frontend.model;
+
+/**
+ * Sources of risk, or risk mitigation, which make up a project's {@link RiskMatrix}.
+ */
+public enum RiskSource {
+  INHERENT("Inherent risk"),
+  BUGS("Bugs"),
+  CODE_CHURN("Code churn"),
+  TEST_COVERAGE("Test coverage");
+
+  private final String name;
+
+  RiskSource(String name) {
+    this.name = name;
+  }
+
+  /** Returns a one or two word description of the source, eg: "Test coverage". */
+  public String getName() {
+    return name;
+  }
+}
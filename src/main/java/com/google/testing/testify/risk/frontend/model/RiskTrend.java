@@ -0,0 +1,79 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The daily risk and mitigation of a project, or of one cell of its risk matrix, over a range of
+ * days.  Days without a snapshot, or on which the cell didn't exist, are left out.
+ */
+public class RiskTrend implements Serializable {
+
+  private long projectId;
+  private Long attributeId;
+  private Long componentId;
+  /** The start of each day, in milliseconds since the epoch. */
+  private ArrayList<Long> dates = new ArrayList<Long>();
+  private ArrayList<Double> risks = new ArrayList<Double>();
+  private ArrayList<Double> mitigations = new ArrayList<Double>();
+
+  @SuppressWarnings("unused")
+  private RiskTrend() { /* For serialization. */ }
+
+  /**
+   * @param attributeId the cell's Attribute, or null for the whole project.
+   * @param componentId the cell's Component, or null for the whole project.
+   */
+  public RiskTrend(long projectId, Long attributeId, Long componentId) {
+    this.projectId = projectId;
+    this.attributeId = attributeId;
+    this.componentId = componentId;
+  }
+
+  public long getProjectId() {
+    return projectId;
+  }
+
+  public Long getAttributeId() {
+    return attributeId;
+  }
+
+  public Long getComponentId() {
+    return componentId;
+  }
+
+  public void add(long date, double risk, double mitigation) {
+    dates.add(date);
+    risks.add(risk);
+    mitigations.add(mitigation);
+  }
+
+  public List<Long> getDates() {
+    return dates;
+  }
+
+  public List<Double> getRisks() {
+    return risks;
+  }
+
+  /** Mitigations are negative. */
+  public List<Double> getMitigations() {
+    return mitigations;
+  }
+}
@@ -17,7 +17,6 @@ package com.google.testing.testify.risk.frontend.model;
 
 import java.io.Serializable;
 
-import javax.jdo.annotations.IdGeneratorStrategy;
 import javax.jdo.annotations.PersistenceCapable;
 import javax.jdo.annotations.Persistent;
 import javax.jdo.annotations.PrimaryKey;
@@ -26,15 +25,18 @@ import javax.jdo.annotations.PrimaryKey;
  * Stores a boolean that determines if a ACC member has been signed off upon.  This could be a
  * boolean on the ACC directly, but likely we will start to store much more data here -- an
  * audit trail, etc, so this will start out as a very small class in expectation to grow.
- * 
+ *
+ * A signoff's key name is derived from the element it is for (see {@link #getKeyName}), so
+ * there is at most one per element and it can be read with a get instead of a query.
+ *
  * @author jimr@google.com (Jim Reardon)
  */
 @PersistenceCapable(detachable = "true")
 public class Signoff implements Serializable {
 
   @PrimaryKey
-  @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY)
-  private Long id;
+  @Persistent
+  private String id;
 
   @Persistent
   private long parentProjectId;
@@ -48,11 +50,26 @@ public class Signoff implements Serializable {
   @Persistent
   private Boolean signedOff;
 
-  public Long getId() {
+  /**
+   * For capability signoffs, the capability's attribute and component.  These are kept up to date
+   * when the capability moves, so signoff progress can be counted without loading capabilities.
+   */
+  @Persistent
+  private Long attributeId;
+
+  @Persistent
+  private Long componentId;
+
+  /** Returns the key name of the signoff for an ACC element. */
+  public static String getKeyName(long projectId, AccElementType type, long elementId) {
+    return projectId + ":" + type.name() + ":" + elementId;
+  }
+
+  public String getId() {
     return id;
   }
 
-  public void setId(Long id) {
+  public void setId(String id) {
     this.id = id;
   }
 
@@ -87,4 +104,20 @@ public class Signoff implements Serializable {
   public void setSignedOff(Boolean signedOff) {
     this.signedOff = signedOff;
   }
+
+  public Long getAttributeId() {
+    return attributeId;
+  }
+
+  public void setAttributeId(Long attributeId) {
+    this.attributeId = attributeId;
+  }
+
+  public Long getComponentId() {
+    return componentId;
+  }
+
+  public void setComponentId(Long componentId) {
+    this.componentId = componentId;
+  }
 }
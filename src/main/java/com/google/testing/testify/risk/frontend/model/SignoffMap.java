@@ -0,0 +1,91 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.model;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Every signed off ACC element of a project, along with the number of signed off capabilities
+ * under each Attribute and Component.  This is built from a single read of the project's
+ * signoffs, so pages can show signoff progress without looking elements up one by one.
+ */
+public class SignoffMap implements Serializable {
+
+  private long projectId;
+  private HashMap<AccElementType, HashSet<Long>> signedOff =
+      new HashMap<AccElementType, HashSet<Long>>();
+  private HashMap<Long, Integer> attributeCapabilityCounts = new HashMap<Long, Integer>();
+  private HashMap<Long, Integer> componentCapabilityCounts = new HashMap<Long, Integer>();
+
+  @SuppressWarnings("unused")
+  private SignoffMap() { /* For serialization. */ }
+
+  public SignoffMap(long projectId) {
+    this.projectId = projectId;
+  }
+
+  public long getProjectId() {
+    return projectId;
+  }
+
+  /** Records a signoff.  Signoffs which are not signed off are ignored. */
+  public void add(Signoff signoff) {
+    if (signoff.getSignedOff() == null || !signoff.getSignedOff()) {
+      return;
+    }
+    HashSet<Long> ids = signedOff.get(signoff.getElementType());
+    if (ids == null) {
+      ids = new HashSet<Long>();
+      signedOff.put(signoff.getElementType(), ids);
+    }
+    ids.add(signoff.getElementId());
+
+    if (signoff.getElementType() == AccElementType.CAPABILITY) {
+      increment(attributeCapabilityCounts, signoff.getAttributeId());
+      increment(componentCapabilityCounts, signoff.getComponentId());
+    }
+  }
+
+  public boolean isSignedOff(AccElementType type, long elementId) {
+    HashSet<Long> ids = signedOff.get(type);
+    return ids != null && ids.contains(elementId);
+  }
+
+  /** Returns the number of signed off capabilities of an Attribute or Component. */
+  public int getSignedOffCapabilityCount(AccElementType type, long elementId) {
+    switch (type) {
+      case ATTRIBUTE:
+        return getCount(attributeCapabilityCounts, elementId);
+      case COMPONENT:
+        return getCount(componentCapabilityCounts, elementId);
+      default:
+        return 0;
+    }
+  }
+
+  private static void increment(HashMap<Long, Integer> counts, Long id) {
+    if (id != null) {
+      counts.put(id, getCount(counts, id) + 1);
+    }
+  }
+
+  private static int getCount(HashMap<Long, Integer> counts, Long id) {
+    Integer count = counts.get(id);
+    return count == null ? 0 : count;
+  }
+}
@@ -21,6 +21,7 @@ import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.jdo.annotations.Extension;
 import javax.jdo.annotations.IdGeneratorStrategy;
 import javax.jdo.annotations.PersistenceCapable;
 import javax.jdo.annotations.Persistent;
@@ -34,10 +35,14 @@ import javax.jdo.annotations.PrimaryKey;
 @PersistenceCapable(detachable = "true")
 public class TestCase implements Serializable, UploadedDatum {
 
-  /** Unique identifier for this test case. */
+  /**
+   * Encoded App Engine key of the test case, named from {@link DatumType#getKeyName}.  Test cases
+   * stored under a numeric ID by older uploads have encoded keys too, so they still load.
+   */
   @PrimaryKey
   @Persistent(valueStrategy = IdGeneratorStrategy.IDENTITY)
-  private Long internalId;
+  @Extension(vendorName = "datanucleus", key = "gae.encoded-pk", value = "true")
+  private String internalId;
 
   /** Project ID of the project the test case belongs to. */
   @Persistent
@@ -86,12 +91,12 @@ public class TestCase implements Serializable, UploadedDatum {
   private Long stateDate;
 
   @Override
-  public void setInternalId(Long internalId) {
+  public void setInternalId(String internalId) {
     this.internalId = internalId;
   }
 
   @Override
-  public Long getInternalId() {
+  public String getInternalId() {
     return internalId;
   }
 
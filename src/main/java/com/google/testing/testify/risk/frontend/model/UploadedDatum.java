@@ -57,8 +57,8 @@ public interface UploadedDatum {
   public Long getExternalId();
   public void setExternalId(Long externalId);
 
-  public Long getInternalId();
-  public void setInternalId(Long internalId);
+  public String getInternalId();
+  public void setInternalId(String internalId);
 
   /** Allows generic access for filtering. */
   public String getField(String field);
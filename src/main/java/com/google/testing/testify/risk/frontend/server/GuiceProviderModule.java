@@ -20,16 +20,20 @@ import com.google.inject.Inject;
 import com.google.inject.Provides;
 import com.google.inject.Singleton;
 import com.google.inject.servlet.RequestScoped;
+import com.google.testing.testify.risk.frontend.server.filter.PersistenceManagerFilter;
 import com.google.testing.testify.risk.frontend.server.service.DataService;
 import com.google.testing.testify.risk.frontend.server.service.ProjectService;
+import com.google.testing.testify.risk.frontend.server.service.RiskService;
 import com.google.testing.testify.risk.frontend.server.service.UserService;
 import com.google.testing.testify.risk.frontend.server.service.impl.DataServiceImpl;
 import com.google.testing.testify.risk.frontend.server.service.impl.ProjectServiceImpl;
+import com.google.testing.testify.risk.frontend.server.service.impl.RiskServiceImpl;
 import com.google.testing.testify.risk.frontend.server.service.impl.UserServiceImpl;
 
 import javax.jdo.JDOHelper;
 import javax.jdo.PersistenceManager;
 import javax.jdo.PersistenceManagerFactory;
+import javax.servlet.http.HttpServletRequest;
 
 /**
  * Sets up injectable classes for Guice. Items listed here can be injected into the constructors
@@ -38,9 +42,16 @@ import javax.jdo.PersistenceManagerFactory;
  * @author jimr@google.com (Jim Reardon)
  */
 public class GuiceProviderModule extends AbstractModule {
+  /**
+   * Opens the PersistenceManager which every service uses for the rest of the request.  It is
+   * closed by {@link PersistenceManagerFilter} when the request ends.
+   */
   @Provides @RequestScoped @Inject
-  PersistenceManager getPersistenceManager(PersistenceManagerFactory pmf) {
-    return pmf.getPersistenceManager();
+  PersistenceManager getPersistenceManager(PersistenceManagerFactory pmf,
+      HttpServletRequest request) {
+    PersistenceManager pm = pmf.getPersistenceManager();
+    request.setAttribute(PersistenceManagerFilter.PERSISTENCE_MANAGER, pm);
+    return pm;
   }
 
   @Provides @Singleton
@@ -52,6 +63,7 @@ public class GuiceProviderModule extends AbstractModule {
   protected void configure() {
     bind(DataService.class).to(DataServiceImpl.class);
     bind(ProjectService.class).to(ProjectServiceImpl.class);
+    bind(RiskService.class).to(RiskServiceImpl.class);
     bind(UserService.class).to(UserServiceImpl.class);
   }
 }
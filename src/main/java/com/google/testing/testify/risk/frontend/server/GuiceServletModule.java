@@ -18,12 +18,22 @@ package com.google.testing.testify.risk.frontend.server;
 import com.google.inject.servlet.ServletModule;
 import com.google.testing.testify.risk.frontend.server.api.impl.DataApiImpl;
 import com.google.testing.testify.risk.frontend.server.api.impl.UploadApiImpl;
+import com.google.testing.testify.risk.frontend.server.filter.PersistenceManagerFilter;
 import com.google.testing.testify.risk.frontend.server.filter.WhitelistFilter;
 import com.google.testing.testify.risk.frontend.server.rpc.impl.DataRpcImpl;
 import com.google.testing.testify.risk.frontend.server.rpc.impl.ProjectRpcImpl;
 import com.google.testing.testify.risk.frontend.server.rpc.impl.TestProjectCreatorRpcImpl;
 import com.google.testing.testify.risk.frontend.server.rpc.impl.UserRpcImpl;
+import com.google.testing.testify.risk.frontend.server.task.DeleteProjectTask;
+import com.google.testing.testify.risk.frontend.server.task.EmbedChildEntitiesTask;
+import com.google.testing.testify.risk.frontend.server.task.IndexCheckinDirectoriesTask;
+import com.google.testing.testify.risk.frontend.server.task.MigrateDatumKeysTask;
+import com.google.testing.testify.risk.frontend.server.task.MigrateSignoffsTask;
+import com.google.testing.testify.risk.frontend.server.task.ReapplyFiltersTask;
+import com.google.testing.testify.risk.frontend.server.task.RebalanceOrderTask;
+import com.google.testing.testify.risk.frontend.server.task.SnapshotRiskTask;
 import com.google.testing.testify.risk.frontend.server.task.UploadDataTask;
+import com.google.testing.testify.risk.frontend.server.task.VerifyRiskMatrixTask;
 
 /**
  * Guice module to inject servlets.  This maps URLs (the first part of the map) to classes (the
@@ -47,7 +57,19 @@ public class GuiceServletModule extends ServletModule {
     // Administrative tasks, migration tasks, and crons.  These must be locked down to admin
     // only rights, because they may allow user impersonation.
     serve("/_tasks/upload").with(UploadDataTask.class);
+    serve("/_tasks/verifyrisk").with(VerifyRiskMatrixTask.class);
+    serve("/_tasks/reapplyfilters").with(ReapplyFiltersTask.class);
+    serve("/_tasks/deleteproject").with(DeleteProjectTask.class);
+    serve("/_tasks/migratesignoffs").with(MigrateSignoffsTask.class);
+    serve("/_tasks/rebalanceorder").with(RebalanceOrderTask.class);
+    serve("/_tasks/indexcheckindirectories").with(IndexCheckinDirectoriesTask.class);
+    serve("/_tasks/snapshotrisk").with(SnapshotRiskTask.class);
+    serve("/_tasks/migratedatumkeys").with(MigrateDatumKeysTask.class);
+    serve("/_tasks/embedchildentities").with(EmbedChildEntitiesTask.class);
 
+    // Runs first, so it closes the request's PersistenceManager after every other filter and
+    // servlet is done with it.
+    filter("/*").through(PersistenceManagerFilter.class);
     // Do not filter special pages, like /_tasks/ or /_cron/, which are already protected as
     // admin-only through web.xml.  This allows crons/tasks to run.
     filterRegex("/[^_].*", "/$").through(WhitelistFilter.class);
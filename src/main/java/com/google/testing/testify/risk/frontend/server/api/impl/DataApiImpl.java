@@ -64,19 +64,50 @@ public class DataApiImpl extends HttpServlet {
       resp.sendError(5000);
       return;
     }
+    boolean json = "json".equals(req.getParameter("format"));
 
-    // Query all projects the current user (typically a role account) has EDIT access to.
-    List<Project> projectsUserCanEdit = projectService.queryProjectsUserHasEditAccessTo();
+    // Read the version before the requests, so a change made while they are read gives the next
+    // poll a new version.  Unchanged polls are answered without touching the datastore.
+    String eTag = getETag(dataService.getDataRequestVersion(), userService.getEmail(), json);
+    if (eTag != null) {
+      if (eTag.equals(req.getHeader("If-None-Match"))) {
+        resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return;
+      }
+      resp.setHeader("ETag", eTag);
+      // Collectors may keep the document, but must check it is current before using it.
+      resp.setHeader("Cache-Control", "private, no-cache");
+    }
 
-    // Query all data requests for those projects.
-    List<DataRequest> relevantDataRequests = Lists.newArrayList();
-    for (Project project : projectsUserCanEdit) {
-      relevantDataRequests.addAll(dataService.getProjectRequests(project.getProjectId()));
+    // Query all projects the current user (typically a role account) has EDIT access to, and
+    // all data requests for those projects.
+    List<Long> projectIds = Lists.newArrayList();
+    for (Project project : projectService.queryProjectsUserHasEditAccessTo()) {
+      projectIds.add(project.getProjectId());
     }
+    List<DataRequest> relevantDataRequests = dataService.getRequestsForProjects(projectIds);
 
-    // Generate the XML document and serve.
-    String xmlDocumentText = DataRequestDocumentGenerator.generateDocument(relevantDataRequests);
-    resp.getWriter().write(xmlDocumentText);
+    // Generate the document straight into the response.
+    resp.setCharacterEncoding("UTF-8");
+    if (json) {
+      resp.setContentType("application/json");
+      DataRequestDocumentGenerator.writeJson(relevantDataRequests, resp.getWriter());
+    } else {
+      resp.setContentType("text/xml");
+      DataRequestDocumentGenerator.writeXml(relevantDataRequests, resp.getWriter());
+    }
+  }
+
+  /**
+   * Returns the entity tag of a user's document, which changes whenever the requests in it may
+   * have; or null if the data request version is unavailable.
+   */
+  static String getETag(Long version, String email, boolean json) {
+    if (version == null) {
+      return null;
+    }
+    return "\"" + version + "-" + Integer.toHexString(email.toLowerCase().hashCode())
+        + (json ? "-json" : "-xml") + "\"";
   }
 
   @Override
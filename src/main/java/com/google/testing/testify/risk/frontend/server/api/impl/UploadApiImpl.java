@@ -21,13 +21,15 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.testing.testify.risk.frontend.server.service.UserService;
 import com.google.testing.testify.risk.frontend.server.task.UploadDataTask;
+import com.google.testing.testify.risk.frontend.server.util.JsonArrayReader;
 import com.google.testing.testify.risk.frontend.server.util.ServletUtils;
+import com.google.testing.testify.risk.frontend.server.util.SizeLimitedReader;
+import com.google.testing.testify.risk.frontend.server.util.SizeLimitedReader.SizeLimitExceededException;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.logging.Logger;
 
@@ -36,14 +38,23 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 /**
- * This servlet accepts user data (JSON encoded) and passes it off to a task which does the actual
- * processing.  {@link UploadDataTask}
+ * This servlet accepts user data (JSON encoded) and passes it off, in chunks, to tasks which do
+ * the actual processing.  {@link UploadDataTask}
+ *
+ * The uploaded JSON array is read as a stream, one item at a time, so the body is never held
+ * in memory in full.
  *
  * @author jimr@google.com (Jim Reardon)
  */
 @Singleton
 public class UploadApiImpl extends HttpServlet {
   private static final Logger LOG = Logger.getLogger(UploadApiImpl.class.getName());
+  /** The number of items processed by each upload task. */
+  private static final int CHUNK_SIZE = Integer.getInteger(
+      "com.google.testing.testify.risk.frontend.uploadchunksize", 50);
+  /** The largest request body accepted, in bytes. */
+  private static final long MAX_UPLOAD_SIZE = Long.getLong(
+      "com.google.testing.testify.risk.frontend.maxuploadsize", 32 * 1024 * 1024);
 
   private final UserService userService;
 
@@ -60,38 +71,76 @@ public class UploadApiImpl extends HttpServlet {
 
   @Override
   public void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-    BufferedReader reader = req.getReader();
-    StringBuilder input = new StringBuilder();
-    while (reader.ready()) {
-      input.append(req.getReader().readLine());
+    if (req.getContentLength() > MAX_UPLOAD_SIZE) {
+      LOG.warning("Rejecting upload of " + req.getContentLength() + " bytes.");
+      resp.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+          "Uploads are limited to " + MAX_UPLOAD_SIZE + " bytes.");
+      return;
     }
-    LOG.info("Input received: " + input.toString());
-    JSONArray json;
+
+    String email = userService.getEmail();
+    int items = 0;
+    int chunks = 0;
+    JSONArray chunk = new JSONArray();
     try {
-      json = new JSONArray(input.toString());
+      JsonArrayReader json = new JsonArrayReader(
+          new SizeLimitedReader(req.getReader(), MAX_UPLOAD_SIZE));
+      while (json.hasNext()) {
+        Object item = json.next();
+        if (isValidItem(item)) {
+          chunk.put(item);
+        } else {
+          LOG.warning("Couldn't parse item " + items + " in JSON array.");
+          resp.getOutputStream().print("<p>Couldn't parse item " + items + "</p>\n");
+        }
+        items++;
+        if (chunk.length() >= CHUNK_SIZE) {
+          enqueueChunk(chunk, email);
+          chunks++;
+          chunk = new JSONArray();
+        }
+      }
     } catch (JSONException e) {
-      LOG.warning("Couldn't parse JSON: " + e.toString());
-      error(resp, "Malformed JSON could not be parsed: " + e.toString());
+      // Items before the error have already been queued, so tell the uploader how far we got.
+      LOG.warning("Couldn't parse JSON after " + items + " items: " + e.toString());
+      if (e.getCause() instanceof SizeLimitExceededException) {
+        resp.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+            e.getCause().getMessage() + " Only the first " + items + " items were accepted.");
+      } else {
+        error(resp, "Malformed JSON could not be parsed after item " + items + ": "
+            + e.toString());
+      }
       return;
-    }
-    LOG.info("JSON received: " + json.toString());
-    JSONObject o;
-    TaskOptions task;
-    String email = userService.getEmail();
-    for (int i = 0; i < json.length(); i++) {
-      try {
-        o = json.getJSONObject(i);
-        task = TaskOptions.Builder.withUrl(UploadDataTask.URL).method(Method.POST)
-            .param("json", o.toString())
-            .param("user", email);
-        ServletUtils.queueWithRetries(UploadDataTask.QUEUE, task, "Processing data item upload");
-      } catch (JSONException e) {
-        LOG.warning("Couldn't parse item " + i + " in JSON array: " + e.toString());
-        resp.getOutputStream().print("<p>Couldn't parse item " + i + "</p>\n");
+    } finally {
+      if (chunk.length() > 0) {
+        enqueueChunk(chunk, email);
+        chunks++;
       }
+      LOG.info("Queued " + items + " items in " + chunks + " tasks.");
     }
   }
 
+  /** Returns true if the item is a bug, test or checkin which can be processed. */
+  private boolean isValidItem(Object item) {
+    if (!(item instanceof JSONObject)) {
+      return false;
+    }
+    try {
+      return UploadDataTask.parseDatum((JSONObject) item) != null;
+    } catch (JSONException e) {
+      return false;
+    }
+  }
+
+  /** Queues a chunk of items to be saved by a single {@link UploadDataTask}. */
+  private void enqueueChunk(JSONArray chunk, String email) {
+    TaskOptions task = TaskOptions.Builder.withUrl(UploadDataTask.URL).method(Method.POST)
+        .param("json", chunk.toString())
+        .param("user", email);
+    ServletUtils.queueWithRetries(UploadDataTask.QUEUE, task,
+        "Processing upload of " + chunk.length() + " items");
+  }
+
   private void error(HttpServletResponse resp, String errorText) throws IOException {
     resp.getOutputStream().print(errorText);
     resp.sendError(500);
@@ -0,0 +1,104 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.filter;
+
+import com.google.apphosting.api.ApiProxy;
+import com.google.apphosting.api.ApiProxy.ApiConfig;
+import com.google.apphosting.api.ApiProxy.ApiProxyException;
+import com.google.apphosting.api.ApiProxy.Delegate;
+import com.google.apphosting.api.ApiProxy.Environment;
+import com.google.apphosting.api.ApiProxy.LogRecord;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Counts the datastore calls made by the current thread, by sitting in front of the ApiProxy
+ * delegate which carries every App Engine API call.  Only meant for the development server.
+ */
+class DatastoreCallCounter implements Delegate<Environment> {
+
+  private static final String DATASTORE_PACKAGE = "datastore_v3";
+
+  private final Delegate<Environment> delegate;
+  private final ThreadLocal<int[]> count = new ThreadLocal<int[]>() {
+    @Override
+    protected int[] initialValue() {
+      return new int[1];
+    }
+  };
+
+  private DatastoreCallCounter(Delegate<Environment> delegate) {
+    this.delegate = delegate;
+  }
+
+  /** Puts a counter in front of the current delegate, unless one is already there. */
+  @SuppressWarnings("unchecked")
+  static synchronized DatastoreCallCounter install() {
+    Delegate<Environment> current = ApiProxy.getDelegate();
+    if (current instanceof DatastoreCallCounter) {
+      return (DatastoreCallCounter) current;
+    }
+    DatastoreCallCounter counter = new DatastoreCallCounter(current);
+    ApiProxy.setDelegate(counter);
+    return counter;
+  }
+
+  /** Starts counting the current thread's calls from zero. */
+  void reset() {
+    count.get()[0] = 0;
+  }
+
+  /** Returns the number of datastore calls the current thread made since the last reset. */
+  int getCount() {
+    return count.get()[0];
+  }
+
+  private void record(String packageName) {
+    if (DATASTORE_PACKAGE.equals(packageName)) {
+      count.get()[0]++;
+    }
+  }
+
+  @Override
+  public byte[] makeSyncCall(Environment environment, String packageName, String methodName,
+      byte[] request) throws ApiProxyException {
+    record(packageName);
+    return delegate.makeSyncCall(environment, packageName, methodName, request);
+  }
+
+  @Override
+  public Future<byte[]> makeAsyncCall(Environment environment, String packageName,
+      String methodName, byte[] request, ApiConfig apiConfig) {
+    record(packageName);
+    return delegate.makeAsyncCall(environment, packageName, methodName, request, apiConfig);
+  }
+
+  @Override
+  public void log(Environment environment, LogRecord record) {
+    delegate.log(environment, record);
+  }
+
+  @Override
+  public void flushLogs(Environment environment) {
+    delegate.flushLogs(environment);
+  }
+
+  @Override
+  public List<Thread> getRequestThreads(Environment environment) {
+    return delegate.getRequestThreads(environment);
+  }
+}
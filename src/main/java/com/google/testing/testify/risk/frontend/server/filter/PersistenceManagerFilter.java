@@ -0,0 +1,85 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.filter;
+
+import com.google.appengine.api.utils.SystemProperty;
+import com.google.inject.Singleton;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+import javax.jdo.PersistenceManager;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Closes the PersistenceManager a request used once the request is done.  The services share a
+ * single request scoped PersistenceManager, so repeated reads of the same object within a
+ * request are answered from its cache rather than the datastore.  Changes are only written when
+ * it is closed, so a service flushes it before updating any cache that depends on them.
+ *
+ * On the development server this also logs how many datastore calls each request made, which
+ * makes a loop of single reads easy to spot.
+ */
+@Singleton
+public class PersistenceManagerFilter implements Filter {
+
+  /** The request attribute which holds the request's PersistenceManager, once one is opened. */
+  public static final String PERSISTENCE_MANAGER =
+      PersistenceManagerFilter.class.getName() + ".persistenceManager";
+
+  private static final Logger log = Logger.getLogger(PersistenceManagerFilter.class.getName());
+  private DatastoreCallCounter callCounter;
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException {
+    if (callCounter != null) {
+      callCounter.reset();
+    }
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      PersistenceManager pm = (PersistenceManager) request.getAttribute(PERSISTENCE_MANAGER);
+      if (pm != null) {
+        request.removeAttribute(PERSISTENCE_MANAGER);
+        if (!pm.isClosed()) {
+          pm.close();
+        }
+      }
+      if (callCounter != null) {
+        log.info(((HttpServletRequest) request).getRequestURI() + " made "
+            + callCounter.getCount() + " datastore calls.");
+      }
+    }
+  }
+
+  @Override
+  public void destroy() {
+  }
+
+  @Override
+  public void init(FilterConfig config) {
+    if (SystemProperty.environment.value() == SystemProperty.Environment.Value.Development) {
+      callCounter = DatastoreCallCounter.install();
+    }
+  }
+}
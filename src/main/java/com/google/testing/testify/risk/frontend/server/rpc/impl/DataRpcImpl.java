@@ -21,12 +21,22 @@ import com.google.inject.Singleton;
 import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.Bug;
 import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.DataPage;
 import com.google.testing.testify.risk.frontend.model.DataRequest;
 import com.google.testing.testify.risk.frontend.model.DataSource;
+import com.google.testing.testify.risk.frontend.model.DatumFilter;
+import com.google.testing.testify.risk.frontend.model.DatumSummary;
+import com.google.testing.testify.risk.frontend.model.DatumType;
 import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
+import com.google.testing.testify.risk.frontend.model.RiskTrend;
 import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.model.UploadedDatum;
 import com.google.testing.testify.risk.frontend.server.service.DataService;
+import com.google.testing.testify.risk.frontend.server.service.RiskService;
 import com.google.testing.testify.risk.frontend.shared.rpc.DataRpc;
 
 import java.util.List;
@@ -40,10 +50,12 @@ import java.util.List;
 public class DataRpcImpl extends RemoteServiceServlet implements DataRpc {
 
   private final DataService dataService;
+  private final RiskService riskService;
 
   @Inject
-  public DataRpcImpl(DataService dataService) {
+  public DataRpcImpl(DataService dataService, RiskService riskService) {
     this.dataService = dataService;
+    this.riskService = riskService;
   }
 
   @Override
@@ -86,11 +98,23 @@ public class DataRpcImpl extends RemoteServiceServlet implements DataRpc {
     return dataService.getProjectBugsById(projectId);
   }
 
+  @Override
+  public DataPage<Bug> getProjectBugsPage(long projectId, String cursor, int limit,
+      DatumFilter filter) {
+    return dataService.getProjectBugsPage(projectId, cursor, limit, filter);
+  }
+
   @Override
   public List<Checkin> getProjectCheckinsById(long projectId) {
     return dataService.getProjectCheckinsById(projectId);
   }
 
+  @Override
+  public DataPage<Checkin> getProjectCheckinsPage(long projectId, String cursor, int limit,
+      DatumFilter filter) {
+    return dataService.getProjectCheckinsPage(projectId, cursor, limit, filter);
+  }
+
   @Override
   public List<DataRequest> getProjectRequests(long projectId) {
     return dataService.getProjectRequests(projectId);
@@ -101,14 +125,36 @@ public class DataRpcImpl extends RemoteServiceServlet implements DataRpc {
     return dataService.getProjectTestCasesById(projectId);
   }
 
+  @Override
+  public DataPage<TestCase> getProjectTestCasesPage(long projectId, String cursor, int limit,
+      DatumFilter filter) {
+    return dataService.getProjectTestCasesPage(projectId, cursor, limit, filter);
+  }
+
+  @Override
+  public RiskMatrix getRiskMatrix(long projectId) {
+    return riskService.getRiskMatrix(projectId);
+  }
+
+  @Override
+  public RiskTrend getRiskTrend(long projectId, Long attributeId, Long componentId,
+      long fromDate, long toDate) {
+    return riskService.getRiskTrend(projectId, attributeId, componentId, fromDate, toDate);
+  }
+
   @Override
   public List<Signoff> getSignoffsByType(Long projectId, AccElementType type) {
     return dataService.getSignoffsByType(projectId, type);
   }
 
   @Override
-  public Boolean isSignedOff(AccElementType type, Long elementId) {
-    return dataService.isSignedOff(type, elementId);
+  public Boolean isSignedOff(Long projectId, AccElementType type, Long elementId) {
+    return dataService.isSignedOff(projectId, type, elementId);
+  }
+
+  @Override
+  public SignoffMap getSignoffMap(long projectId) {
+    return dataService.getSignoffMap(projectId);
   }
 
   @Override
@@ -121,6 +167,26 @@ public class DataRpcImpl extends RemoteServiceServlet implements DataRpc {
     dataService.removeFilter(filter);
   }
 
+  @Override
+  public JobStatus startReapplyFilters(long projectId, DatumType type) {
+    return dataService.startReapplyFilters(projectId, type);
+  }
+
+  @Override
+  public JobStatus getJobStatus(long jobId) {
+    return dataService.getJobStatus(jobId);
+  }
+
+  @Override
+  public List<DatumSummary> getProjectDataSummaries(long projectId, DatumType type) {
+    return dataService.getProjectDataSummaries(projectId, type);
+  }
+
+  @Override
+  public UploadedDatum getDatum(DatumType type, String internalId) {
+    return dataService.getDatum(type, internalId);
+  }
+
   @Override
   public void setSignedOff(
       Long projectId, AccElementType type, Long elementId, boolean isSignedOff) {
@@ -129,13 +195,13 @@ public class DataRpcImpl extends RemoteServiceServlet implements DataRpc {
 
   @Override
   public void updateBugAssociations(
-      long bugId, long attributeId, long componentId, long capabilityId) {
+      String bugId, long attributeId, long componentId, long capabilityId) {
     dataService.updateBugAssociations(bugId, attributeId, componentId, capabilityId);
   }
 
   @Override
   public void updateCheckinAssociations(
-      long bugId, long attributeId, long componentId, long capabilityId) {
+      String bugId, long attributeId, long componentId, long capabilityId) {
     dataService.updateCheckinAssociations(bugId, attributeId, componentId, capabilityId);
   }
 
@@ -151,7 +217,7 @@ public class DataRpcImpl extends RemoteServiceServlet implements DataRpc {
 
   @Override
   public void updateTestAssociations(
-      long testCaseId, long attributeId, long componentId, long capabilityId) {
+      String testCaseId, long attributeId, long componentId, long capabilityId) {
     dataService.updateTestAssociations(testCaseId, attributeId, componentId, capabilityId);
   }
 }
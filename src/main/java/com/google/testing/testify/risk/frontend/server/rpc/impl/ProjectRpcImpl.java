@@ -18,11 +18,13 @@ package com.google.testing.testify.risk.frontend.server.rpc.impl;
 import com.google.gwt.user.server.rpc.RemoteServiceServlet;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.AccLabel;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.model.ProjectAccModel;
 import com.google.testing.testify.risk.frontend.server.service.ProjectService;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpc;
 
@@ -73,6 +75,11 @@ public class ProjectRpcImpl extends RemoteServiceServlet implements ProjectRpc {
     return projectService.getLabels(projectId);
   }
 
+  @Override
+  public ProjectAccModel getProjectAccModel(long projectId) {
+    return projectService.getProjectAccModel(projectId);
+  }
+
   @Override
   public List<Attribute> getProjectAttributes(long projectId) {
     return projectService.getProjectAttributes(projectId);
@@ -138,6 +145,12 @@ public class ProjectRpcImpl extends RemoteServiceServlet implements ProjectRpc {
     projectService.reorderComponents(projectId, newOrder);
   }
 
+  @Override
+  public void moveElement(long projectId, AccElementType type, long id, Long beforeId,
+      Long afterId) {
+    projectService.moveElement(projectId, type, id, beforeId, afterId);
+  }
+
   @Override
   public Attribute updateAttribute(Attribute attribute) {
     return projectService.updateAttribute(attribute);
@@ -18,6 +18,7 @@ package com.google.testing.testify.risk.frontend.server.rpc.impl;
 import com.google.common.collect.Lists;
 import com.google.gwt.user.server.rpc.RemoteServiceServlet;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Bug;
@@ -41,7 +42,6 @@ import java.util.List;
 import java.util.logging.Logger;
 
 import javax.jdo.PersistenceManager;
-import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.Query;
 
 /**
@@ -59,15 +59,15 @@ public class TestProjectCreatorRpcImpl extends RemoteServiceServlet
   private final ProjectService projectService;
   private final UserService userService;
   private final DataService dataService;
-  private final PersistenceManagerFactory pmf;
+  private final Provider<PersistenceManager> pmProvider;
 
   @Inject
   public TestProjectCreatorRpcImpl(ProjectService projectService, UserService userService,
-        DataService dataService, PersistenceManagerFactory pmf) {
+        DataService dataService, Provider<PersistenceManager> pmProvider) {
     this.projectService = projectService;
     this.userService = userService;
     this.dataService = dataService;
-    this.pmf = pmf;
+    this.pmProvider = pmProvider;
   }
 
   @SuppressWarnings("unchecked")
@@ -105,24 +105,20 @@ public class TestProjectCreatorRpcImpl extends RemoteServiceServlet
 
     List<DataSource> all = Lists.newArrayList(
         bugSource, testManager, perforce, issueTracker, other);
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      // Remove any data source from what we will persist if it already exists.
-      DataSource source;
-      Iterator<DataSource> i = all.iterator();
-      while (i.hasNext()) {
-        source = i.next();
-        Query query = pm.newQuery(DataSource.class);
-        query.declareParameters("String nameParam");
-        query.setFilter("name == nameParam");
-        if (((List<DataSource>) query.execute(source.getName())).size() > 0) {
-          i.remove();
-        }
+    PersistenceManager pm = pmProvider.get();
+    // Remove any data source from what we will persist if it already exists.
+    DataSource source;
+    Iterator<DataSource> i = all.iterator();
+    while (i.hasNext()) {
+      source = i.next();
+      Query query = pm.newQuery(DataSource.class);
+      query.declareParameters("String nameParam");
+      query.setFilter("name == nameParam");
+      if (((List<DataSource>) query.execute(source.getName())).size() > 0) {
+        i.remove();
       }
-      pm.makePersistentAll(all);
-    } finally {
-      pm.close();
     }
+    pm.makePersistentAll(all);
   }
 
   @Override
@@ -18,11 +18,18 @@ package com.google.testing.testify.risk.frontend.server.service;
 import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.Bug;
 import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.DataPage;
 import com.google.testing.testify.risk.frontend.model.DataRequest;
 import com.google.testing.testify.risk.frontend.model.DataSource;
+import com.google.testing.testify.risk.frontend.model.DatumFilter;
+import com.google.testing.testify.risk.frontend.model.DatumSummary;
+import com.google.testing.testify.risk.frontend.model.DatumType;
 import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
 import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.model.UploadedDatum;
 
 import java.util.List;
 
@@ -32,15 +39,28 @@ import java.util.List;
  * @author jimr@google.com (Jim Reardon)
  */
 public interface DataService {
-  public boolean isSignedOff(AccElementType type, Long elementId);
+  public boolean isSignedOff(long projectId, AccElementType type, long elementId);
   public void setSignedOff(long projectId, AccElementType type, long elementId,
       boolean isSignedOff);
 
   public List<Signoff> getSignoffsByType(long projectId, AccElementType type);
+  public SignoffMap getSignoffMap(long projectId);
 
   public List<DataSource> getDataSources();
 
   public List<DataRequest> getProjectRequests(long projectId);
+
+  /**
+   * Returns the data requests of several projects, querying as few times as possible.  This does
+   * not check access, so callers must only pass projects the user may see.
+   */
+  public List<DataRequest> getRequestsForProjects(List<Long> projectIds);
+
+  /**
+   * Returns a version number which changes whenever a data request, or the list of projects a
+   * user can edit, changes; or null if it is unavailable.
+   */
+  public Long getDataRequestVersion();
   public long addDataRequest(DataRequest request);
   public void updateDataRequest(DataRequest request);
   public void removeDataRequest(DataRequest request);
@@ -49,22 +69,37 @@ public interface DataService {
   public long addFilter(Filter filter);
   public void updateFilter(Filter filter);
   public void removeFilter(Filter filter);
+  public JobStatus startReapplyFilters(long projectId, DatumType type);
+  public boolean reapplyFiltersBatch(long jobId);
+  public void failJob(long jobId);
+  public JobStatus getJobStatus(long jobId);
+
+  public List<DatumSummary> getProjectDataSummaries(long projectId, DatumType type);
+  public UploadedDatum getDatum(DatumType type, String internalId);
 
   public List<Bug> getProjectBugsById(long projectId);
+  public DataPage<Bug> getProjectBugsPage(long projectId, String cursor, int limit,
+      DatumFilter filter);
   public void addBug(Bug bug);
   public void addBug(Bug bug, String asEmail);
-  public void updateBugAssociations(long bugId, long attributeId, long componentId,
+  public void updateBugAssociations(String bugId, long attributeId, long componentId,
       long capabilityId);
 
   public List<Checkin> getProjectCheckinsById(long projectId);
+  public DataPage<Checkin> getProjectCheckinsPage(long projectId, String cursor, int limit,
+      DatumFilter filter);
   public void addCheckin(Checkin checkin);
   public void addCheckin(Checkin checkin, String asEmail);
-  public void updateCheckinAssociations(long bugId, long attributeId, long componentId,
+  public void updateCheckinAssociations(String bugId, long attributeId, long componentId,
       long capabilityId);
 
   public List<TestCase> getProjectTestCasesById(long projectId);
+  public DataPage<TestCase> getProjectTestCasesPage(long projectId, String cursor, int limit,
+      DatumFilter filter);
   public void addTestCase(TestCase testCase);
   public void addTestCase(TestCase testCase, String asEmail);
-  public void updateTestAssociations(long testCaseId, long attributeId, long componentId,
+  public void updateTestAssociations(String testCaseId, long attributeId, long componentId,
       long capabilityId);
+
+  public int addData(List<UploadedDatum> data, String asEmail);
 }
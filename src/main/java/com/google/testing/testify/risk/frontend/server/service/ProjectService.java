@@ -15,11 +15,13 @@
 
 package com.google.testing.testify.risk.frontend.server.service;
 
+import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.AccLabel;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.model.ProjectAccModel;
 
 import java.util.List;
 
@@ -38,8 +40,10 @@ public interface ProjectService {
   public Long createProject(Project projInfo);
   public void updateProject(Project projInfo);
   public void removeProject(Project projInfo);
+  public boolean deleteProjectDataBatch(long jobId);
 
   public List<AccLabel> getLabels(long projectId);
+  public ProjectAccModel getProjectAccModel(long projectId);
 
   public List<Attribute> getProjectAttributes(long projectId);
   public Long createAttribute(Attribute attribute);
@@ -59,4 +63,7 @@ public interface ProjectService {
   public void updateCapability(Capability capability);
   public void removeCapability(Capability capability);
   public void reorderCapabilities(long projectId, List<Long> newOrder);
+  public void moveElement(long projectId, AccElementType type, long id, Long beforeId,
+      Long afterId);
+  public void rebalanceOrder(long projectId, AccElementType type);
 }
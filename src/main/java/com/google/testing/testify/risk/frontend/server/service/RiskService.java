@@ -0,0 +1,34 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.testing.testify.risk.frontend.server.service;
+
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
+import com.google.testing.testify.risk.frontend.model.RiskTrend;
+import com.google.testing.testify.risk.frontend.server.util.RiskInput;
+
+import java.util.List;
+
+/**
+ * Server service for computing project risk.
+ */
+public interface RiskService {
+  public RiskMatrix getRiskMatrix(long projectId);
+  public void invalidateRiskMatrix(long projectId);
+  public void updateRiskMatrix(long projectId, List<RiskInput> removed, List<RiskInput> added);
+  public List<String> verifyRiskMatrix(long projectId);
+  public void snapshotRiskMatrix(long projectId);
+  public RiskTrend getRiskTrend(long projectId, Long attributeId, Long componentId,
+      long fromDate, long toDate);
+}
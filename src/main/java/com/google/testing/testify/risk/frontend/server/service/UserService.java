@@ -39,6 +39,7 @@ public interface UserService {
   public ProjectAccess getAccessLevel(long projectId);
   public ProjectAccess getAccessLevel(Project project);
   public ProjectAccess getAccessLevel(long projectId, String asEmail);
+  public void invalidateAccessLevels(long projectId);
 
   public boolean hasAdministratorAccess();
   public boolean hasViewAccess(long projectId);
@@ -0,0 +1,99 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.testing.testify.risk.frontend.shared.rpc.UserRpc.ProjectAccess;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Short lived cache of resolved project access levels, keyed by project ID and email.
+ *
+ * A single RPC typically checks access to the same project several times; without this cache
+ * every check loads the Project from the datastore.  Entries expire after a few seconds, so a
+ * change made on another App Engine instance is picked up quickly.  Changes made on this instance
+ * should call {@link #invalidate(long)}.
+ */
+class AccessLevelCache {
+  private static final Logger log = Logger.getLogger(AccessLevelCache.class.getName());
+
+  private static final long DEFAULT_TIMEOUT_SECONDS = 5;
+  private static final long MAXIMUM_SIZE = 10000;
+  /** How often, in lookups, to log the cache hit rate. */
+  private static final long LOG_STATS_EVERY = 1000;
+
+  private final Cache<String, ProjectAccess> cache;
+
+  AccessLevelCache() {
+    this(Ticker.systemTicker(), Long.getLong(
+        "com.google.testing.testify.risk.frontend.accesscachetimeout", DEFAULT_TIMEOUT_SECONDS));
+  }
+
+  AccessLevelCache(Ticker ticker, long timeoutSeconds) {
+    cache = CacheBuilder.newBuilder()
+        .expireAfterWrite(timeoutSeconds, TimeUnit.SECONDS)
+        .maximumSize(MAXIMUM_SIZE)
+        .ticker(ticker)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns the cached access level, or null if there is no unexpired entry.
+   *
+   * @param projectId the project being accessed.
+   * @param email the user accessing the project, may be null.
+   * @param isAdministrator whether or not the current user is an application administrator.
+   */
+  ProjectAccess get(long projectId, String email, boolean isAdministrator) {
+    ProjectAccess access = cache.getIfPresent(getKey(projectId, email, isAdministrator));
+    CacheStats stats = cache.stats();
+    if (stats.requestCount() % LOG_STATS_EVERY == 0) {
+      log.info("Access level cache: " + stats.hitCount() + " hits, " + stats.missCount()
+          + " misses, hit rate " + stats.hitRate());
+    }
+    return access;
+  }
+
+  void put(long projectId, String email, boolean isAdministrator, ProjectAccess access) {
+    cache.put(getKey(projectId, email, isAdministrator), access);
+  }
+
+  /** Removes all cached access levels for a project, eg: after its ACLs have changed. */
+  void invalidate(long projectId) {
+    String prefix = projectId + "|";
+    Iterator<String> keys = cache.asMap().keySet().iterator();
+    while (keys.hasNext()) {
+      if (keys.next().startsWith(prefix)) {
+        keys.remove();
+      }
+    }
+  }
+
+  CacheStats getStats() {
+    return cache.stats();
+  }
+
+  private static String getKey(long projectId, String email, boolean isAdministrator) {
+    return projectId + "|" + (email == null ? "" : email) + "|" + isAdministrator;
+  }
+}
@@ -0,0 +1,51 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+
+/**
+ * Version number, kept in memcache, of the data requests served by the data API.  It changes
+ * whenever a data request is added, changed or removed, or a project's members change, so data
+ * collectors polling the API can be told nothing has changed without reading the datastore.
+ *
+ * If memcache evicts the version, it restarts from the current time in milliseconds.  Versions
+ * only go up by one per change, so a restarted version will not repeat one handed out earlier.
+ */
+class DataRequestVersion {
+  private static final String KEY = "DataRequestVersion";
+
+  private final MemcacheService memcache;
+
+  DataRequestVersion() {
+    this(MemcacheServiceFactory.getMemcacheService());
+  }
+
+  DataRequestVersion(MemcacheService memcache) {
+    this.memcache = memcache;
+  }
+
+  /** Returns the current version, or null if memcache is unavailable. */
+  Long get() {
+    return memcache.increment(KEY, 0L, System.currentTimeMillis());
+  }
+
+  /** Moves to a new version, after a change to the data requests someone may see. */
+  void increment() {
+    memcache.increment(KEY, 1L, System.currentTimeMillis());
+  }
+}
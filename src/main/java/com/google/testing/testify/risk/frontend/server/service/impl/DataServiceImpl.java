@@ -15,30 +15,56 @@
 
 package com.google.testing.testify.risk.frontend.server.service.impl;
 
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.DataPage;
 import com.google.testing.testify.risk.frontend.model.DataRequest;
 import com.google.testing.testify.risk.frontend.model.DataSource;
+import com.google.testing.testify.risk.frontend.model.DatumFilter;
+import com.google.testing.testify.risk.frontend.model.DatumSummary;
 import com.google.testing.testify.risk.frontend.model.DatumType;
 import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
+import com.google.testing.testify.risk.frontend.model.JobStatus.JobType;
+import com.google.testing.testify.risk.frontend.model.JobStatus.State;
 import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.model.TestCase;
 import com.google.testing.testify.risk.frontend.model.UploadedDatum;
+import com.google.testing.testify.risk.frontend.server.InsufficientPrivlegesException;
 import com.google.testing.testify.risk.frontend.server.service.DataService;
+import com.google.testing.testify.risk.frontend.server.service.RiskService;
 import com.google.testing.testify.risk.frontend.server.service.UserService;
+import com.google.testing.testify.risk.frontend.server.task.ReapplyFiltersTask;
+import com.google.testing.testify.risk.frontend.server.util.DirectoryPaths;
+import com.google.testing.testify.risk.frontend.server.util.FilterMatcher;
+import com.google.testing.testify.risk.frontend.server.util.RiskInput;
 import com.google.testing.testify.risk.frontend.server.util.ServletUtils;
 import com.google.testing.testify.risk.frontend.shared.util.StringUtil;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.logging.Logger;
 
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.PersistenceManager;
-import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.Query;
 
+import org.datanucleus.store.appengine.query.JDOCursorHelper;
+
 /**
  * Implementation of the DataRequestService, for tracking project requests for external
  * data. This data is also exposed via the DataRequest servlet.
@@ -49,81 +75,115 @@ import javax.jdo.Query;
 @Singleton
 public class DataServiceImpl implements DataService {
   private static final Logger log = Logger.getLogger(DataServiceImpl.class.getName());
-  private final PersistenceManagerFactory pmf;
+  /** The datastore limits the number of values in a single IN query. */
+  private static final int MAX_IN_QUERY_VALUES = 30;
+  /** The most keys read by a single batch get. */
+  private static final int MAX_BATCH_GET_KEYS = 500;
+  /** The most items returned in a single page of data. */
+  private static final int MAX_PAGE_SIZE = 500;
+  /**
+   * The fields read for a DatumSummary, in the order newSummary expects them.  Each type's title
+   * and URL fields follow.
+   */
+  private static final String SUMMARY_FIELDS = "internalId, externalId, parentProjectId, state, "
+      + "stateDate, targetAttributeId, targetComponentId, targetCapabilityId";
+  /** The number of items each batch of a reapply filters job reads. */
+  private static final int REAPPLY_BATCH_SIZE = 200;
+  private final Provider<PersistenceManager> pmProvider;
   private final UserService userService;
+  private final RiskService riskService;
+  private final FilterMatcherCache filterCache;
+  private final DataRequestVersion dataRequestVersion;
 
   /**
    * Creates a new DataServiceImpl instance.
    */
   @Inject
-  public DataServiceImpl(PersistenceManagerFactory pmf, UserService userService) {
-    this.pmf = pmf;
+  public DataServiceImpl(Provider<PersistenceManager> pmProvider, UserService userService,
+      RiskService riskService) {
+    this(pmProvider, userService, riskService, new FilterMatcherCache(), new DataRequestVersion());
+  }
+
+  DataServiceImpl(Provider<PersistenceManager> pmProvider, UserService userService,
+      RiskService riskService, FilterMatcherCache filterCache,
+      DataRequestVersion dataRequestVersion) {
+    this.pmProvider = pmProvider;
     this.userService = userService;
+    this.riskService = riskService;
+    this.filterCache = filterCache;
+    this.dataRequestVersion = dataRequestVersion;
   }
 
   @Override
-  public boolean isSignedOff(AccElementType type, Long elementId) {
-    Signoff signoff = getSignoff(type, elementId);
-    return signoff == null ? false : signoff.getSignedOff();
+  public boolean isSignedOff(long projectId, AccElementType type, long elementId) {
+    ServletUtils.requireAccess(userService.hasViewAccess(projectId));
+    PersistenceManager pm = pmProvider.get();
+    Signoff signoff = getSignoff(projectId, type, elementId, pm);
+    return signoff != null && Boolean.TRUE.equals(signoff.getSignedOff());
   }
 
   @Override
   public void setSignedOff(long projectId, AccElementType type, long elementId,
       boolean isSignedOff) {
     ServletUtils.requireAccess(userService.hasEditAccess(projectId));
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      Signoff signoff = getSignoff(type, elementId);
-      if (signoff == null) {
-        signoff = new Signoff();
-        signoff.setParentProjectId(projectId);
-        signoff.setElementType(type);
-        signoff.setElementId(elementId);
-      } else {
-        if (signoff.getParentProjectId() != projectId) {
-          ServletUtils.requireAccess(false);
-        }
-      }
-      signoff.setSignedOff(isSignedOff);
-      pm.makePersistent(signoff);
-    } finally {
-      pm.close();
+    PersistenceManager pm = pmProvider.get();
+    Signoff signoff = getSignoff(projectId, type, elementId, pm);
+    if (signoff == null) {
+      signoff = new Signoff();
+      signoff.setId(Signoff.getKeyName(projectId, type, elementId));
+      signoff.setParentProjectId(projectId);
+      signoff.setElementType(type);
+      signoff.setElementId(elementId);
     }
+    if (type == AccElementType.CAPABILITY) {
+      // Record where the capability sits, so signoff progress can be counted per Attribute and
+      // Component without loading capabilities.
+      Capability capability = pm.getObjectById(Capability.class, elementId);
+      ServletUtils.requireAccess(capability.getParentProjectId() == projectId);
+      signoff.setAttributeId(capability.getAttributeId());
+      signoff.setComponentId(capability.getComponentId());
+    }
+    signoff.setSignedOff(isSignedOff);
+    pm.makePersistent(signoff);
   }
 
   @Override
   @SuppressWarnings("unchecked")
   public List<Signoff> getSignoffsByType(long projectId, AccElementType type) {
     ServletUtils.requireAccess(userService.hasViewAccess(projectId));
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      Query query = pm.newQuery(Signoff.class);
-      query.declareParameters("AccElementType elementTypeParam, Long projectIdParam");
-      query.setFilter("elementType == elementTypeParam && parentProjectId == projectIdParam");
-      List<Signoff> results = (List<Signoff>) query.execute(type, projectId);
-      return ServletUtils.makeGwtSafe(results, pm);
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    Query query = pm.newQuery(Signoff.class);
+    query.declareParameters("AccElementType elementTypeParam, Long projectIdParam");
+    query.setFilter("elementType == elementTypeParam && parentProjectId == projectIdParam");
+    List<Signoff> results = (List<Signoff>) query.execute(type, projectId);
+    return ServletUtils.makeGwtSafe(results, pm);
   }
 
+  @Override
   @SuppressWarnings("unchecked")
-  private Signoff getSignoff(AccElementType type, Long elementId) {
-    PersistenceManager pm = pmf.getPersistenceManager();
+  public SignoffMap getSignoffMap(long projectId) {
+    ServletUtils.requireAccess(userService.hasViewAccess(projectId));
+    PersistenceManager pm = pmProvider.get();
+    Query query = pm.newQuery(Signoff.class);
+    query.declareParameters("Long projectIdParam");
+    query.setFilter("parentProjectId == projectIdParam");
+    SignoffMap signoffs = new SignoffMap(projectId);
+    for (Signoff signoff : (List<Signoff>) query.execute(projectId)) {
+      signoffs.add(signoff);
+    }
+    return signoffs;
+  }
+
+  /**
+   * Returns the signoff for an ACC element, or null if it has never been signed off.  Signoffs
+   * are keyed by their element, so this is a single get.
+   */
+  private Signoff getSignoff(long projectId, AccElementType type, long elementId,
+      PersistenceManager pm) {
     try {
-      Query query = pm.newQuery(Signoff.class);
-      query.declareParameters("AccElementType elementTypeParam, Long elementIdParam");
-      query.setFilter("elementType == elementTypeParam && elementId == elementIdParam");
-      List<Signoff> results = (List<Signoff>) query.execute(type, elementId);
-      if (results.size() > 0) {
-        Signoff signoff = results.get(0);
-        ServletUtils.requireAccess(userService.hasViewAccess(signoff.getParentProjectId()));
-        return ServletUtils.makeGwtSafe(signoff, pm);
-      } else {
-        return null;
-      }
-    } finally {
-      pm.close();
+      return pm.getObjectById(Signoff.class, Signoff.getKeyName(projectId, type, elementId));
+    } catch (JDOObjectNotFoundException e) {
+      return null;
     }
   }
 
@@ -131,20 +191,16 @@ public class DataServiceImpl implements DataService {
   @Override
   public List<DataSource> getDataSources() {
     boolean isInternal = userService.isInternalUser();
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
     List<DataSource> results = null;
     log.info("Retrieving data sources.");
-    try {
-      Query query = pm.newQuery(DataSource.class);
-      if (isInternal == false) {
-        query.setFilter("internalOnly == false");
-        log.info("Only retrieving external friendly sources, not an internal user.");
-      }
-      results = (List<DataSource>) query.execute();
-      results = ServletUtils.makeGwtSafe(results, pm);
-    } finally {
-      pm.close();
+    Query query = pm.newQuery(DataSource.class);
+    if (isInternal == false) {
+      query.setFilter("internalOnly == false");
+      log.info("Only retrieving external friendly sources, not an internal user.");
     }
+    results = (List<DataSource>) query.execute();
+    results = ServletUtils.makeGwtSafe(results, pm);
     log.info("Returning results: " + results.size());
     return results;
   }
@@ -155,23 +211,40 @@ public class DataServiceImpl implements DataService {
     ServletUtils.requireAccess(userService.hasViewAccess(projectId));
 
     log.info("Getting Data Requests for project: " + Long.toString(projectId));
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
 
     Query jdoQuery = pm.newQuery(DataRequest.class);
     jdoQuery.declareParameters("Long parentProjectParam");
     jdoQuery.setFilter("parentProjectId == parentProjectParam");
 
     List<DataRequest> results = null;
-    try {
-      List<DataRequest> returnedRequests = (List<DataRequest>) jdoQuery.execute(projectId);
-      results = ServletUtils.makeGwtSafe(returnedRequests, pm);
-    } finally {
-      pm.close();
-    }
+    List<DataRequest> returnedRequests = (List<DataRequest>) jdoQuery.execute(projectId);
+    results = ServletUtils.makeGwtSafe(returnedRequests, pm);
 
     return results;
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public List<DataRequest> getRequestsForProjects(List<Long> projectIds) {
+    log.info("Getting Data Requests for " + projectIds.size() + " projects.");
+    PersistenceManager pm = pmProvider.get();
+    List<DataRequest> results = Lists.newArrayList();
+    for (List<Long> batch : Lists.partition(projectIds, MAX_IN_QUERY_VALUES)) {
+      Query jdoQuery = pm.newQuery(DataRequest.class);
+      jdoQuery.declareParameters("java.util.List projectIdsParam");
+      jdoQuery.setFilter("projectIdsParam.contains(parentProjectId)");
+      results.addAll(ServletUtils.makeGwtSafe(
+          (List<DataRequest>) jdoQuery.execute(batch), pm));
+    }
+    return results;
+  }
+
+  @Override
+  public Long getDataRequestVersion() {
+    return dataRequestVersion.get();
+  }
+
   @Override
   public long addDataRequest(DataRequest request) {
     ServletUtils.requireAccess(userService.hasEditAccess(request.getParentProjectId()));
@@ -179,12 +252,9 @@ public class DataServiceImpl implements DataService {
     log.info("Creating new Data Request for source: " + request.getDataSourceName());
     request.setDataSourceName(request.getDataSourceName().trim());
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      pm.makePersistent(request);
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    pm.makePersistent(request);
+    dataRequestVersion.increment();
 
     return request.getRequestId();
   }
@@ -198,12 +268,9 @@ public class DataServiceImpl implements DataService {
     ServletUtils.requireAccess(userService.hasEditAccess(request.getParentProjectId()));
 
     log.info("Updating DataRequest: " + request.getRequestId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      pm.makePersistent(request);
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    pm.makePersistent(request);
+    dataRequestVersion.increment();
   }
 
   @Override
@@ -216,13 +283,10 @@ public class DataServiceImpl implements DataService {
     ServletUtils.requireAccess(userService.hasEditAccess(request.getParentProjectId()));
 
     log.info("Removing DataRequest: " + request.getRequestId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      DataRequest requestToDelete = pm.getObjectById(DataRequest.class, request.getRequestId());
-      pm.deletePersistent(requestToDelete);
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    DataRequest requestToDelete = pm.getObjectById(DataRequest.class, request.getRequestId());
+    pm.deletePersistent(requestToDelete);
+    dataRequestVersion.increment();
   }
 
   @Override
@@ -235,24 +299,28 @@ public class DataServiceImpl implements DataService {
     ServletUtils.requireAccess(userService.hasViewAccess(projectId));
 
     log.info("Getting Filters for project: " + Long.toString(projectId));
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
 
+    return ServletUtils.makeGwtSafe(queryFilters(projectId, filterType, pm), pm);
+  }
+
+  /**
+   * Queries for a project's filters without checking access.
+   *
+   * @param filterType the type of filter to return, or null for all filters.
+   */
+  @SuppressWarnings("unchecked")
+  private List<Filter> queryFilters(long projectId, DatumType filterType, PersistenceManager pm) {
     Query jdoQuery = pm.newQuery(Filter.class);
-    List<Filter> jdoResults;
-    try {
-      if (filterType == null) {
-        jdoQuery.declareParameters("Long parentProjectParam");
-        jdoQuery.setFilter("parentProjectId == parentProjectParam");
-        jdoResults = (List<Filter>) jdoQuery.execute(projectId);
-      } else {
-        jdoQuery.declareParameters("Long parentProjectParam, DatumType filterTypeParam");
-        jdoQuery.setFilter(
-            "parentProjectId == parentProjectParam && filterType == filterTypeParam");
-        jdoResults = (List<Filter>) jdoQuery.execute(projectId, filterType);
-      }
-      return ServletUtils.makeGwtSafe(jdoResults, pm);
-    } finally {
-      pm.close();
+    if (filterType == null) {
+      jdoQuery.declareParameters("Long parentProjectParam");
+      jdoQuery.setFilter("parentProjectId == parentProjectParam");
+      return (List<Filter>) jdoQuery.execute(projectId);
+    } else {
+      jdoQuery.declareParameters("Long parentProjectParam, DatumType filterTypeParam");
+      jdoQuery.setFilter(
+          "parentProjectId == parentProjectParam && filterType == filterTypeParam");
+      return (List<Filter>) jdoQuery.execute(projectId, filterType);
     }
   }
 
@@ -261,12 +329,10 @@ public class DataServiceImpl implements DataService {
     ServletUtils.requireAccess(userService.hasEditAccess(filter.getParentProjectId()));
 
     log.info("Adding filter for project: " + filter.getParentProjectId());
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      pm.makePersistent(filter);
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    pm.makePersistent(filter);
+    pm.flush();
+    filterCache.invalidate(filter.getParentProjectId());
 
     return filter.getId();
   }
@@ -280,12 +346,10 @@ public class DataServiceImpl implements DataService {
     ServletUtils.requireAccess(userService.hasEditAccess(filter.getParentProjectId()));
 
     log.info("Updating filter: " + filter.getId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      pm.makePersistent(filter);
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    pm.makePersistent(filter);
+    pm.flush();
+    filterCache.invalidate(filter.getParentProjectId());
   }
 
   @Override
@@ -298,12 +362,221 @@ public class DataServiceImpl implements DataService {
     ServletUtils.requireAccess(userService.hasEditAccess(filter.getParentProjectId()));
 
     log.info("Deleting filter: " + filter.getId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
+    Filter filterToDelete = pm.getObjectById(Filter.class, filter.getId());
+    pm.deletePersistent(filterToDelete);
+    pm.flush();
+    filterCache.invalidate(filter.getParentProjectId());
+  }
+
+  /**
+   * Starts a background job which applies a project's current filters to all of its existing
+   * data of one type.  Filters otherwise only run when a datum is first uploaded.
+   *
+   * @return the job's status, which can be polled with {@link #getJobStatus(long)}.
+   */
+  @Override
+  public JobStatus startReapplyFilters(long projectId, DatumType type) {
+    ServletUtils.requireAccess(userService.hasEditAccess(projectId));
+
+    log.info("Reapplying " + type.getSingular() + " filters for project: " + projectId);
+    JobStatus job = new JobStatus();
+    job.setParentProjectId(projectId);
+    job.setJobType(JobType.REAPPLY_FILTERS);
+    job.setDatumType(type);
+    job.setStartTime(System.currentTimeMillis());
+    PersistenceManager pm = pmProvider.get();
+    pm.makePersistent(job);
+    if (!ReapplyFiltersTask.queue(job.getId())) {
+      job.setState(State.FAILED);
+      pm.makePersistent(job);
+    }
+    return ServletUtils.makeGwtSafe(job, pm);
+  }
+
+  /**
+   * Runs the next batch of a reapply filters job.  The unassigned attribute, component and
+   * capability of each item are filled in from the filters it matches; existing assignments,
+   * whether made by hand or by an earlier filter, are left alone.  Only items which change are
+   * written, so running a batch a second time, eg: on a task retry, is harmless.
+   *
+   * Access is not checked, as this runs from an admin-only task on behalf of the user who
+   * started the job.
+   *
+   * @return true if the job has more batches to run.
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public boolean reapplyFiltersBatch(long jobId) {
+    PersistenceManager pm = pmProvider.get();
+    JobStatus job;
     try {
-      Filter filterToDelete = pm.getObjectById(Filter.class, filter.getId());
-      pm.deletePersistent(filterToDelete);
-    } finally {
-      pm.close();
+      job = pm.getObjectById(JobStatus.class, jobId);
+    } catch (JDOObjectNotFoundException e) {
+      log.warning("No such reapply filters job: " + jobId);
+      return false;
+    }
+    if (!job.isRunning()) {
+      log.warning("Not running reapply filters job: " + jobId);
+      return false;
+    }
+    long projectId = job.getParentProjectId();
+
+    Query jdoQuery = pm.newQuery(getDatumClass(job.getDatumType()));
+    jdoQuery.declareParameters("Long parentProjectParam");
+    jdoQuery.setFilter("parentProjectId == parentProjectParam");
+    jdoQuery.setRange(0, REAPPLY_BATCH_SIZE);
+    setCursor(jdoQuery, job.getCursor());
+    List<UploadedDatum> items = (List<UploadedDatum>) jdoQuery.execute(projectId);
+
+    FilterMatcher filters = getFilterMatcher(projectId, job.getDatumType(), pm);
+    List<UploadedDatum> changed = Lists.newArrayList();
+    List<RiskInput> removed = Lists.newArrayList();
+    List<RiskInput> added = Lists.newArrayList();
+    for (UploadedDatum item : items) {
+      // Filters are applied to a detached copy, so unchanged items are never written.
+      UploadedDatum copy = pm.detachCopy(item);
+      filters.apply(copy);
+      transferAssignments(item, copy, true);
+      if (!sameAssignments(item, copy)) {
+        removed.add(RiskInput.of(item));
+        added.add(RiskInput.of(copy));
+        changed.add(copy);
+      }
+    }
+    if (!changed.isEmpty()) {
+      pm.makePersistentAll(changed);
+      pm.flush();
+      riskService.updateRiskMatrix(projectId, removed, added);
+    }
+
+    String nextCursor = getNextCursor(items, REAPPLY_BATCH_SIZE);
+    job.addProgress(items.size(), changed.size(), System.currentTimeMillis());
+    job.setCursor(nextCursor);
+    if (nextCursor == null) {
+      job.setState(State.COMPLETE);
+    }
+    pm.makePersistent(job);
+    log.info("Reapply filters job " + jobId + ": " + job.getItemsProcessed() + " processed, "
+        + job.getItemsChanged() + " changed, " + job.getItemsPerSecond() + " items/s.");
+    return job.isRunning();
+  }
+
+  /**
+   * Marks a job as failed, so it is not reported as running forever, eg: when its next batch
+   * could not be queued.  Like {@link #reapplyFiltersBatch}, this is only called from tasks.
+   */
+  @Override
+  public void failJob(long jobId) {
+    PersistenceManager pm = pmProvider.get();
+    JobStatus job = pm.getObjectById(JobStatus.class, jobId);
+    job.setState(State.FAILED);
+    pm.makePersistent(job);
+  }
+
+  @Override
+  public JobStatus getJobStatus(long jobId) {
+    PersistenceManager pm = pmProvider.get();
+    JobStatus job;
+    try {
+      job = pm.getObjectById(JobStatus.class, jobId);
+    } catch (JDOObjectNotFoundException e) {
+      // Treated like a job the user can't see, so IDs can't be probed.
+      throw new InsufficientPrivlegesException("No such job: " + jobId);
+    }
+    ServletUtils.requireAccess(userService.hasViewAccess(job.getParentProjectId()));
+    return ServletUtils.makeGwtSafe(job, pm);
+  }
+
+  /**
+   * Returns summaries of all of a project's data of one type, ordered by external ID.  The
+   * datastore still returns whole entities, as the result clause is applied in memory on this
+   * SDK, but nothing is detached and only the summarized fields are sent to the client.
+   */
+  @SuppressWarnings("unchecked")
+  @Override
+  public List<DatumSummary> getProjectDataSummaries(long projectId, DatumType type) {
+    ServletUtils.requireAccess(userService.hasViewAccess(projectId));
+    log.info("Getting " + type.getSingular() + " summaries for project: " + projectId);
+    PersistenceManager pm = pmProvider.get();
+
+    Query jdoQuery = pm.newQuery(getDatumClass(type));
+    jdoQuery.setResult(SUMMARY_FIELDS + ", " + getSummaryTitleFields(type));
+    jdoQuery.declareParameters("Long parentProjectParam");
+    jdoQuery.setFilter("parentProjectId == parentProjectParam");
+    jdoQuery.setOrdering("externalId asc");
+
+    List<Object[]> rows = (List<Object[]>) jdoQuery.execute(projectId);
+    List<DatumSummary> summaries = Lists.newArrayListWithCapacity(rows.size());
+    for (Object[] row : rows) {
+      summaries.add(newSummary(type, row));
+    }
+    return summaries;
+  }
+
+  /** Returns a datum in full, such as when its summary is expanded. */
+  @Override
+  public UploadedDatum getDatum(DatumType type, String internalId) {
+    PersistenceManager pm = pmProvider.get();
+    UploadedDatum datum;
+    try {
+      datum = pm.getObjectById(getDatumClass(type), internalId);
+    } catch (JDOObjectNotFoundException e) {
+      throw new InsufficientPrivlegesException("No such " + type.getSingular() + ": " + internalId);
+    }
+    ServletUtils.requireAccess(userService.hasViewAccess(datum.getParentProjectId()));
+    return ServletUtils.makeGwtSafe(datum, pm);
+  }
+
+  /** Builds a summary from a row of {@link #SUMMARY_FIELDS} and the title fields. */
+  private DatumSummary newSummary(DatumType type, Object[] row) {
+    DatumSummary summary = new DatumSummary(type);
+    summary.setInternalId((String) row[0]);
+    summary.setExternalId((Long) row[1]);
+    summary.setParentProjectId((Long) row[2]);
+    summary.setState((String) row[3]);
+    summary.setStateDate((Long) row[4]);
+    summary.setTargetAttributeId((Long) row[5]);
+    summary.setTargetComponentId((Long) row[6]);
+    summary.setTargetCapabilityId((Long) row[7]);
+    summary.setTitle((String) row[8]);
+    summary.setUrl((String) row[9]);
+    return summary;
+  }
+
+  /** Returns the fields holding a type's title and URL. */
+  private String getSummaryTitleFields(DatumType type) {
+    switch (type) {
+      case BUGS:
+        return "title, bugUrl";
+      case TESTS:
+        return "title, testCaseUrl";
+      case CHECKINS:
+        return "summary, changeUrl";
+      default:
+        throw new IllegalArgumentException("Unknown data type: " + type);
+    }
+  }
+
+  /**
+   * Returns the internal ID of an uploaded datum: its encoded datastore key, named from
+   * {@link DatumType#getKeyName}.
+   */
+  private String getInternalId(DatumType type, long projectId, long externalId) {
+    return KeyFactory.keyToString(KeyFactory.createKey(
+        getDatumClass(type).getSimpleName(), type.getKeyName(projectId, externalId)));
+  }
+
+  private Class<? extends UploadedDatum> getDatumClass(DatumType type) {
+    switch (type) {
+      case BUGS:
+        return Bug.class;
+      case TESTS:
+        return TestCase.class;
+      case CHECKINS:
+        return Checkin.class;
+      default:
+        throw new IllegalArgumentException("Unknown data type: " + type);
     }
   }
 
@@ -313,9 +586,15 @@ public class DataServiceImpl implements DataService {
     return getProjectData(Bug.class, projectId);
   }
 
+  @Override
+  public DataPage<Bug> getProjectBugsPage(long projectId, String cursor, int limit,
+      DatumFilter filter) {
+    return getProjectDataPage(Bug.class, projectId, cursor, limit, filter);
+  }
+
   @SuppressWarnings("unchecked")
   @Override
-  public void updateBugAssociations(long bugId, long attributeId, long componentId,
+  public void updateBugAssociations(String bugId, long attributeId, long componentId,
       long capabilityId) {
     updateAssociations(Bug.class, bugId, attributeId, componentId, capabilityId);
   }
@@ -347,6 +626,12 @@ public class DataServiceImpl implements DataService {
     return getProjectData(Checkin.class, projectId);
   }
 
+  @Override
+  public DataPage<Checkin> getProjectCheckinsPage(long projectId, String cursor, int limit,
+      DatumFilter filter) {
+    return getProjectDataPage(Checkin.class, projectId, cursor, limit, filter);
+  }
+
   @Override
   public void addCheckin(Checkin checkin) {
     addCheckin(checkin, userService.getEmail());
@@ -362,13 +647,13 @@ public class DataServiceImpl implements DataService {
     log.info("Trying to add Checkin: " + checkin.getSummary());
     ServletUtils.requireAccess(userService.hasEditAccess(checkin.getParentProjectId(), asEmail));
 
-    checkin.setSummary(StringUtil.trimString(checkin.getSummary()));
+    prepareFields(checkin);
     saveOrUpdateDatum(checkin);
   }
 
   @SuppressWarnings("unchecked")
   @Override
-  public void updateCheckinAssociations(long checkinId, long attributeId, long componentId,
+  public void updateCheckinAssociations(String checkinId, long attributeId, long componentId,
       long capabilityId) {
     updateAssociations(Checkin.class, checkinId, attributeId, componentId, capabilityId);
   }
@@ -379,9 +664,15 @@ public class DataServiceImpl implements DataService {
     return getProjectData(TestCase.class, projectId);
   }
 
+  @Override
+  public DataPage<TestCase> getProjectTestCasesPage(long projectId, String cursor, int limit,
+      DatumFilter filter) {
+    return getProjectDataPage(TestCase.class, projectId, cursor, limit, filter);
+  }
+
   @SuppressWarnings("unchecked")
   @Override
-  public void updateTestAssociations(long testCaseId, long attributeId, long componentId,
+  public void updateTestAssociations(String testCaseId, long attributeId, long componentId,
       long capabilityId) {
     updateAssociations(TestCase.class, testCaseId, attributeId, componentId, capabilityId);
   }
@@ -406,11 +697,148 @@ public class DataServiceImpl implements DataService {
     saveOrUpdateDatum(test);
   }
 
+  /**
+   * Saves a batch of uploaded data, updating any items which already exist.  Access is checked
+   * once per project, each project's compiled filters are looked up once per data type, and
+   * existing items are found with one query per type rather than one per item.
+   *
+   * Unlike the single item add methods, this does not throw if the user lacks access to a
+   * project; those items are logged and skipped.
+   *
+   * @param data the items to save, which may be of mixed types and projects.
+   * @param asEmail the user to save the items as.
+   * @return the number of items saved.
+   */
+  @Override
+  public int addData(List<UploadedDatum> data, String asEmail) {
+    log.info("Trying to add " + data.size() + " items as " + asEmail);
+    Map<Long, Map<DatumType, List<UploadedDatum>>> byProject = Maps.newLinkedHashMap();
+    for (UploadedDatum datum : data) {
+      Map<DatumType, List<UploadedDatum>> byType = byProject.get(datum.getParentProjectId());
+      if (byType == null) {
+        byType = Maps.newEnumMap(DatumType.class);
+        byProject.put(datum.getParentProjectId(), byType);
+      }
+      List<UploadedDatum> items = byType.get(datum.getDatumType());
+      if (items == null) {
+        items = Lists.newArrayList();
+        byType.put(datum.getDatumType(), items);
+      }
+      items.add(datum);
+    }
+
+    int saved = 0;
+    PersistenceManager pm = pmProvider.get();
+    for (Map.Entry<Long, Map<DatumType, List<UploadedDatum>>> project : byProject.entrySet()) {
+      Long projectId = project.getKey();
+      if (projectId == null || !userService.hasEditAccess(projectId, asEmail)) {
+        log.warning("Skipping data for project " + projectId + ", " + asEmail
+            + " does not have edit access.");
+        continue;
+      }
+      List<RiskInput> removed = Lists.newArrayList();
+      List<RiskInput> added = Lists.newArrayList();
+      for (Map.Entry<DatumType, List<UploadedDatum>> items : project.getValue().entrySet()) {
+        saved += saveOrUpdateData(projectId, items.getKey(), items.getValue(), removed, added,
+            pm);
+      }
+      pm.flush();
+      riskService.updateRiskMatrix(projectId, removed, added);
+    }
+    log.info("Added " + saved + " of " + data.size() + " items.");
+    return saved;
+  }
+
+  /**
+   * Saves new data or updates existing data, all of the same type and from the same project.
+   * This is the batch equivalent of {@link #saveOrUpdateDatum(UploadedDatum)}.  Data are keyed by
+   * project and external ID, so the existing items are read with a single batch get and the
+   * whole batch is written with a single put.
+   *
+   * @param removed receives the risk inputs of the items being replaced.
+   * @param added receives the risk inputs of the items saved.
+   * @return the number of items saved.
+   */
+  @SuppressWarnings("unchecked")
+  private int saveOrUpdateData(long projectId, DatumType type, List<UploadedDatum> items,
+      List<RiskInput> removed, List<RiskInput> added, PersistenceManager pm) {
+    Class<? extends UploadedDatum> clazz = items.get(0).getClass();
+
+    // If a key appears more than once, the last item wins, just as it would if the items were
+    // saved one at a time.
+    Map<String, UploadedDatum> byKey = Maps.newLinkedHashMap();
+    int skipped = 0;
+    for (UploadedDatum datum : items) {
+      if (datum.getExternalId() == null) {
+        log.warning("Skipping " + type.getSingular() + " without an external ID.");
+        skipped++;
+        continue;
+      }
+      prepareFields(datum);
+      datum.setInternalId(getInternalId(type, projectId, datum.getExternalId()));
+      byKey.put(datum.getInternalId(), datum);
+    }
+
+    // A filter on nothing but the primary key is executed as a batch get.
+    Query jdoQuery = pm.newQuery(clazz);
+    jdoQuery.declareParameters("java.util.List keysParam");
+    jdoQuery.setFilter("keysParam.contains(internalId)");
+    Set<String> existing = Sets.newHashSet();
+    for (List<String> keys
+        : Lists.partition(Lists.newArrayList(byKey.keySet()), MAX_BATCH_GET_KEYS)) {
+      List<UploadedDatum> results = (List<UploadedDatum>) jdoQuery.execute(keys);
+      for (UploadedDatum oldDatum : results) {
+        UploadedDatum datum = byKey.get(oldDatum.getInternalId());
+        if (datum != null) {
+          existing.add(oldDatum.getInternalId());
+          removed.add(RiskInput.of(oldDatum));
+          transferAssignments(oldDatum, datum);
+        }
+      }
+    }
+
+    List<UploadedDatum> toSave = Lists.newArrayList(byKey.values());
+    FilterMatcher filters = null;
+    for (UploadedDatum datum : toSave) {
+      if (!existing.contains(datum.getInternalId())) {
+        if (filters == null) {
+          filters = getFilterMatcher(projectId, type, pm);
+        }
+        filters.apply(datum);
+      }
+    }
+
+    pm.makePersistentAll(toSave);
+    for (UploadedDatum datum : toSave) {
+      added.add(RiskInput.of(datum));
+    }
+    return items.size() - skipped;
+  }
+
+  /**
+   * Trims long fields which would otherwise be too large to store, and indexes the directories
+   * checkins touched.
+   */
+  private void prepareFields(UploadedDatum datum) {
+    if (datum instanceof Bug) {
+      Bug bug = (Bug) datum;
+      bug.setTitle(StringUtil.trimString(bug.getTitle()));
+    } else if (datum instanceof TestCase) {
+      TestCase test = (TestCase) datum;
+      test.setTitle(StringUtil.trimString(test.getTitle()));
+    } else if (datum instanceof Checkin) {
+      Checkin checkin = (Checkin) datum;
+      checkin.setSummary(StringUtil.trimString(checkin.getSummary()));
+      checkin.setDirectoryPrefixes(
+          DirectoryPaths.getPrefixes(checkin.getDirectoriesTouched()));
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private <T extends UploadedDatum> List<T> getProjectData(Class<T> clazz, long projectId) {
     ServletUtils.requireAccess(userService.hasViewAccess(projectId));
     log.info("Getting data for project: " + Long.toString(projectId));
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
 
     Query jdoQuery = pm.newQuery(clazz);
     jdoQuery.declareParameters("Long parentProjectParam");
@@ -418,90 +846,147 @@ public class DataServiceImpl implements DataService {
     jdoQuery.setOrdering("externalId asc");
 
     List<T> projectData = null;
-    try {
-      List<T> results = (List<T>) jdoQuery.execute(projectId);
-      projectData = ServletUtils.makeGwtSafe(results, pm);
-    } finally {
-      pm.close();
-    }
+    List<T> results = (List<T>) jdoQuery.execute(projectId);
+    projectData = ServletUtils.makeGwtSafe(results, pm);
     return projectData;
   }
 
   /**
-   * Saves a new datum, or updates an existing datum in the database if it already exists.
+   * Returns one page of a project's data, ordered by external ID.  Pages are read with datastore
+   * cursors, so each page costs the same however far into the data it is.
    *
-   * @param datum
+   * @param cursor the cursor returned with the previous page, or null for the first page.
+   * @param limit the maximum number of items to return, capped at {@link #MAX_PAGE_SIZE}.
+   * @param filter restricts which items are returned, or null for all of the project's items.
    */
   @SuppressWarnings("unchecked")
-  private <T extends UploadedDatum> void saveOrUpdateDatum(T datum) {
-    PersistenceManager pm = pmf.getPersistenceManager();
+  private <T extends UploadedDatum> DataPage<T> getProjectDataPage(Class<T> clazz,
+      long projectId, String cursor, int limit, DatumFilter filter) {
+    ServletUtils.requireAccess(userService.hasViewAccess(projectId));
+    if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+      limit = MAX_PAGE_SIZE;
+    }
+    log.info("Getting page of data for project: " + projectId);
+    PersistenceManager pm = pmProvider.get();
+
+    Query jdoQuery = pm.newQuery(clazz);
+    jdoQuery.setOrdering("externalId asc");
+    jdoQuery.setRange(0, limit);
+    setCursor(jdoQuery, cursor);
+
+    List<T> results;
+    if (filter != null && filter.getTargetCapabilityId() != null) {
+      jdoQuery.declareParameters("Long parentProjectParam, Long capabilityParam");
+      jdoQuery.setFilter(
+          "parentProjectId == parentProjectParam && targetCapabilityId == capabilityParam");
+      results = (List<T>) jdoQuery.execute(projectId, filter.getTargetCapabilityId());
+    } else {
+      jdoQuery.declareParameters("Long parentProjectParam");
+      jdoQuery.setFilter("parentProjectId == parentProjectParam");
+      results = (List<T>) jdoQuery.execute(projectId);
+    }
 
-    Query jdoQuery = pm.newQuery(datum.getClass());
-    jdoQuery.declareParameters("Long parentProjectParam, Long externalIdParam");
-    jdoQuery.setFilter("parentProjectId == parentProjectParam && externalId == externalIdParam");
+    return new DataPage<T>(ServletUtils.makeGwtSafe(results, pm),
+        getNextCursor(results, limit));
+  }
 
-    try {
-      // There are two ways an existing item may exist: the same primary key, or the same
-      // parent project ID and bug ID.
-      T oldDatum = null;
-      if (datum.getInternalId() != null) {
-        // If it's the same primary key, make sure it makes sense to overwrite it.  The existing
-        // bug should be non-null (we shouldn't have a pkey if it's unsaved already) and match
-        // projects.
-        oldDatum = (T) pm.getObjectById(datum.getClass(), datum.getInternalId());
-        ServletUtils.requireAccess(oldDatum != null);
-        ServletUtils.requireAccess(oldDatum.getParentProjectId() == datum.getParentProjectId());
-      } else {
-        // Try to load by a combination of project and external IDs.
-        List<T> results = (List<T>)
-            jdoQuery.execute(datum.getParentProjectId(), datum.getExternalId());
-        if (results.size() > 0) {
-          oldDatum = results.get(0);
-        }
+  /**
+   * Starts a query from a web safe cursor.  A cursor which can't be read, say one mangled by the
+   * client, starts the query from the beginning instead.
+   */
+  private void setCursor(Query jdoQuery, String cursor) {
+    if (cursor != null) {
+      Cursor start;
+      try {
+        start = Cursor.fromWebSafeString(cursor);
+      } catch (IllegalArgumentException e) {
+        log.warning("Ignoring unreadable cursor, starting from the first page: " + cursor);
+        return;
       }
-      if (oldDatum != null) {
-        datum.setInternalId(oldDatum.getInternalId());
-        transferAssignments(oldDatum, datum);
-      } else {
-        applyFilters(datum);
+      Map<String, Object> extensions = Maps.newHashMap();
+      extensions.put(JDOCursorHelper.CURSOR_EXTENSION, start);
+      jdoQuery.setExtensions(extensions);
+    }
+  }
+
+  /**
+   * Returns the web safe cursor following a query's results, or null if they were the last.  A
+   * short batch of results is the last one.
+   */
+  private String getNextCursor(List<?> results, int limit) {
+    if (results.size() == limit) {
+      Cursor next = JDOCursorHelper.getCursor(results);
+      if (next != null) {
+        return next.toWebSafeString();
       }
-      pm.makePersistent(datum);
-    } finally {
-      pm.close();
     }
+    return null;
   }
 
-  private <T extends UploadedDatum> void updateAssociations(Class<T> clazz, long internalId,
+  /**
+   * Saves a new datum, or updates an existing datum in the database if it already exists.  Data
+   * are keyed by project and external ID, so the existing datum is a single get.
+   *
+   * @param datum
+   */
+  private <T extends UploadedDatum> void saveOrUpdateDatum(T datum) {
+    if (datum.getExternalId() == null) {
+      throw new IllegalArgumentException(
+          datum.getDatumType().getSingular() + " has no external ID.");
+    }
+    datum.setInternalId(getInternalId(
+        datum.getDatumType(), datum.getParentProjectId(), datum.getExternalId()));
+    PersistenceManager pm = pmProvider.get();
+    UploadedDatum oldDatum = null;
+    try {
+      oldDatum = pm.getObjectById(datum.getClass(), datum.getInternalId());
+    } catch (JDOObjectNotFoundException e) {
+      // A new datum.
+    }
+    List<RiskInput> removed = Lists.newArrayList();
+    if (oldDatum != null) {
+      removed.add(RiskInput.of(oldDatum));
+      transferAssignments(oldDatum, datum);
+    } else {
+      getFilterMatcher(datum.getParentProjectId(), datum.getDatumType(), pm).apply(datum);
+    }
+    pm.makePersistent(datum);
+    pm.flush();
+    riskService.updateRiskMatrix(datum.getParentProjectId(), removed,
+        Lists.newArrayList(RiskInput.of(datum)));
+  }
+
+  private <T extends UploadedDatum> void updateAssociations(Class<T> clazz, String internalId,
       long attributeId, long componentId,
       long capabilityId) {
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      T datum = pm.getObjectById(clazz, internalId);
-      if (datum == null) {
-        log.info("No results when querying for datum ID: " + internalId);
-        return;
-      }
-      ServletUtils.requireAccess(userService.hasEditAccess(datum.getParentProjectId()));
+    PersistenceManager pm = pmProvider.get();
+    T datum = pm.getObjectById(clazz, internalId);
+    if (datum == null) {
+      log.info("No results when querying for datum ID: " + internalId);
+      return;
+    }
+    ServletUtils.requireAccess(userService.hasEditAccess(datum.getParentProjectId()));
 
-      boolean updated = false;
-      if (attributeId >= 0) {
-        datum.setTargetAttributeId(attributeId == 0 ? null : attributeId);
-        updated = true;
-      }
-      if (componentId >= 0) {
-        datum.setTargetComponentId(componentId == 0 ? null : componentId);
-        updated = true;
-      }
-      if (capabilityId >= 0) {
-        datum.setTargetCapabilityId(capabilityId == 0 ? null : capabilityId);
-        updated = true;
-      }
+    RiskInput before = RiskInput.of(datum);
+    boolean updated = false;
+    if (attributeId >= 0) {
+      datum.setTargetAttributeId(attributeId == 0 ? null : attributeId);
+      updated = true;
+    }
+    if (componentId >= 0) {
+      datum.setTargetComponentId(componentId == 0 ? null : componentId);
+      updated = true;
+    }
+    if (capabilityId >= 0) {
+      datum.setTargetCapabilityId(capabilityId == 0 ? null : capabilityId);
+      updated = true;
+    }
 
-      if (updated) {
-        pm.makePersistent(datum);
-      }
-    } finally {
-      pm.close();
+    if (updated) {
+      pm.makePersistent(datum);
+      pm.flush();
+      riskService.updateRiskMatrix(datum.getParentProjectId(), Lists.newArrayList(before),
+          Lists.newArrayList(RiskInput.of(datum)));
     }
   }
 
@@ -513,26 +998,52 @@ public class DataServiceImpl implements DataService {
    * @param newDatum the new item; it will have the a/c/c set from the old item.
    */
   private void transferAssignments(UploadedDatum oldDatum, UploadedDatum newDatum) {
-    if (positive(oldDatum.getTargetAttributeId()) && !positive(newDatum.getTargetAttributeId())) {
+    transferAssignments(oldDatum, newDatum, false);
+  }
+
+  /**
+   * Copies the old datum's assigned attribute, component, and capability to the new datum.
+   *
+   * @param overwrite if true, the old assignments replace the new datum's; otherwise they are
+   *     only copied where the new datum has no assignment.
+   */
+  private void transferAssignments(UploadedDatum oldDatum, UploadedDatum newDatum,
+      boolean overwrite) {
+    if (positive(oldDatum.getTargetAttributeId())
+        && (overwrite || !positive(newDatum.getTargetAttributeId()))) {
       newDatum.setTargetAttributeId(oldDatum.getTargetAttributeId());
     }
 
-    if (positive(oldDatum.getTargetComponentId()) && !positive(newDatum.getTargetComponentId())) {
+    if (positive(oldDatum.getTargetComponentId())
+        && (overwrite || !positive(newDatum.getTargetComponentId()))) {
       newDatum.setTargetComponentId(oldDatum.getTargetComponentId());
     }
 
-    if (positive(oldDatum.getTargetCapabilityId()) && !positive(newDatum.getTargetCapabilityId())) {
+    if (positive(oldDatum.getTargetCapabilityId())
+        && (overwrite || !positive(newDatum.getTargetCapabilityId()))) {
       newDatum.setTargetCapabilityId(oldDatum.getTargetCapabilityId());
     }
   }
 
-  private void applyFilters(UploadedDatum item) {
-    // TODO(jimr): This is a poor way to filter items... it's a stop-gap solution until the recently
-    // announced Full Text Search is available for the AppEngine datastore.
-    List<Filter> filters = getFiltersByType(item.getParentProjectId(), item.getDatumType());
-    for (Filter filter : filters) {
-      filter.apply(item);
-    }
+  private boolean sameAssignments(UploadedDatum a, UploadedDatum b) {
+    return Objects.equal(a.getTargetAttributeId(), b.getTargetAttributeId())
+        && Objects.equal(a.getTargetComponentId(), b.getTargetComponentId())
+        && Objects.equal(a.getTargetCapabilityId(), b.getTargetCapabilityId());
+  }
+
+  /**
+   * Returns a project's filters for one data type, compiled.  Filters are only recompiled after
+   * they change.
+   */
+  private FilterMatcher getFilterMatcher(final long projectId, final DatumType type,
+      final PersistenceManager pm) {
+    return filterCache.get(projectId, type, new Callable<FilterMatcher>() {
+        @Override
+        public FilterMatcher call() {
+          log.info("Compiling " + type.getSingular() + " filters for project: " + projectId);
+          return new FilterMatcher(type, queryFilters(projectId, type, pm));
+        }
+      });
   }
 
   private boolean positive(Long value) {
@@ -0,0 +1,83 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.testing.testify.risk.frontend.model.DatumType;
+import com.google.testing.testify.risk.frontend.server.util.FilterMatcher;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of compiled filters, keyed by project ID and data type.
+ *
+ * Compiled filters are kept in memory on each App Engine instance.  To invalidate them on every
+ * instance, each project has a filter version number in memcache, which is part of the cache
+ * key; {@link #invalidate(long)} increments it.  Should memcache evict a version number, entries
+ * still expire after a few minutes.
+ */
+class FilterMatcherCache {
+  private static final String VERSION_KEY_PREFIX = "FilterVersion:";
+  private static final long TIMEOUT_MINUTES = 10;
+  private static final long MAXIMUM_SIZE = 1000;
+
+  private final MemcacheService memcache;
+  private final Cache<String, FilterMatcher> cache;
+
+  FilterMatcherCache() {
+    this(MemcacheServiceFactory.getMemcacheService(), Ticker.systemTicker());
+  }
+
+  FilterMatcherCache(MemcacheService memcache, Ticker ticker) {
+    this.memcache = memcache;
+    cache = CacheBuilder.newBuilder()
+        .expireAfterWrite(TIMEOUT_MINUTES, TimeUnit.MINUTES)
+        .maximumSize(MAXIMUM_SIZE)
+        .ticker(ticker)
+        .build();
+  }
+
+  /**
+   * Returns the compiled filters for a project and data type, compiling them if necessary.
+   *
+   * @param loader compiles the filters on a cache miss.
+   */
+  FilterMatcher get(long projectId, DatumType type, Callable<FilterMatcher> loader) {
+    // The version is read before loading, so filters changed during the load are reloaded.
+    try {
+      return cache.get(getKey(projectId, type), loader);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Could not compile filters for project " + projectId,
+          e.getCause());
+    }
+  }
+
+  /** Removes all compiled filters for a project, eg: after one of its filters has changed. */
+  void invalidate(long projectId) {
+    memcache.increment(VERSION_KEY_PREFIX + projectId, 1L, 0L);
+  }
+
+  private String getKey(long projectId, DatumType type) {
+    Object version = memcache.get(VERSION_KEY_PREFIX + projectId);
+    return projectId + "|" + type + "|" + (version == null ? 0 : version);
+  }
+}
@@ -0,0 +1,152 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.Query.FilterOperator;
+import com.google.appengine.api.datastore.QueryResultList;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.testing.testify.risk.frontend.model.AccLabel;
+import com.google.testing.testify.risk.frontend.model.Attribute;
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.Capability;
+import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.Component;
+import com.google.testing.testify.risk.frontend.model.DataRequest;
+import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
+import com.google.testing.testify.risk.frontend.model.RiskSnapshot;
+import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.TestCase;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Deletes everything which belongs to a deleted project, one bounded batch at a time.
+ *
+ * Entities are found with keys-only queries and removed with batch deletes straight through the
+ * datastore, so nothing is loaded into JDO.  The kind being deleted and a cursor into it are kept
+ * in the job's {@link JobStatus}, so the work can be spread over many task queue tasks.  Deleting
+ * is idempotent, so repeating a batch after a failure is harmless.
+ */
+class ProjectDataDeleter {
+  private static final Logger log = Logger.getLogger(ProjectDataDeleter.class.getName());
+
+  /** The most entities read by one batch, and the most keys in one datastore delete call. */
+  static final int BATCH_SIZE = 500;
+
+  /** The kinds which belong to a project, deleted in this order. */
+  private static final List<ChildKind> CHILD_KINDS = ImmutableList.of(
+      new ChildKind(Capability.class, "parentProjectId", false),
+      new ChildKind(Attribute.class, "parentProjectId", false),
+      new ChildKind(Component.class, "parentProjectId", false),
+      // Labels are embedded in their elements now; this removes any not yet migrated.
+      new ChildKind(AccLabel.class, "projectId", false),
+      new ChildKind(Signoff.class, "parentProjectId", false),
+      new ChildKind(Bug.class, "parentProjectId", false),
+      new ChildKind(TestCase.class, "parentProjectId", false),
+      new ChildKind(Checkin.class, "parentProjectId", false),
+      // Options are embedded too, but unmigrated ones are still child entities.
+      new ChildKind(Filter.class, "parentProjectId", true),
+      new ChildKind(DataRequest.class, "parentProjectId", true),
+      // Appended, so the steps of deletions already under way keep their meaning.
+      new ChildKind(RiskSnapshot.class, "parentProjectId", false));
+
+  private final DatastoreService datastore;
+
+  ProjectDataDeleter() {
+    this(DatastoreServiceFactory.getDatastoreService());
+  }
+
+  ProjectDataDeleter(DatastoreService datastore) {
+    this.datastore = datastore;
+  }
+
+  /**
+   * Deletes the next batch of the job's project's data, and records the progress in the job.
+   *
+   * @return true if there is more to delete.
+   */
+  boolean deleteBatch(JobStatus job, long now) {
+    if (job.getStep() >= CHILD_KINDS.size()) {
+      job.setState(JobStatus.State.COMPLETE);
+      return false;
+    }
+    ChildKind kind = CHILD_KINDS.get(job.getStep());
+
+    Query query = new Query(kind.kind)
+        .addFilter(kind.projectProperty, FilterOperator.EQUAL, job.getParentProjectId())
+        .setKeysOnly();
+    FetchOptions options = FetchOptions.Builder.withLimit(BATCH_SIZE);
+    if (job.getCursor() != null) {
+      options.startCursor(Cursor.fromWebSafeString(job.getCursor()));
+    }
+    QueryResultList<Entity> results = datastore.prepare(query).asQueryResultList(options);
+
+    List<Key> keys = Lists.newArrayList();
+    for (Entity entity : results) {
+      if (kind.hasChildren) {
+        // An ancestor query returns the entity itself as well as its children.
+        Query children = new Query().setAncestor(entity.getKey()).setKeysOnly();
+        for (Entity child : datastore.prepare(children).asIterable()) {
+          keys.add(child.getKey());
+        }
+      } else {
+        keys.add(entity.getKey());
+      }
+    }
+    for (List<Key> batch : Lists.partition(keys, BATCH_SIZE)) {
+      datastore.delete(batch);
+    }
+    log.info("Deleted " + keys.size() + " " + kind.kind + " entities for project "
+        + job.getParentProjectId());
+
+    job.addProgress(results.size(), keys.size(), now);
+    if (results.size() < BATCH_SIZE) {
+      // A short batch is the last of this kind.
+      job.setStep(job.getStep() + 1);
+      job.setCursor(null);
+      if (job.getStep() >= CHILD_KINDS.size()) {
+        job.setState(JobStatus.State.COMPLETE);
+        return false;
+      }
+    } else {
+      job.setCursor(results.getCursor().toWebSafeString());
+    }
+    return true;
+  }
+
+  /** A kind of entity which belongs to a project. */
+  private static class ChildKind {
+    private final String kind;
+    private final String projectProperty;
+    private final boolean hasChildren;
+
+    public ChildKind(Class<?> clazz, String projectProperty, boolean hasChildren) {
+      this.kind = clazz.getSimpleName();
+      this.projectProperty = projectProperty;
+      this.hasChildren = hasChildren;
+    }
+  }
+}
@@ -15,32 +15,38 @@
 
 package com.google.testing.testify.risk.frontend.server.service.impl;
 
-import com.google.common.base.Function;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.AccLabel;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.Component;
+import com.google.testing.testify.risk.frontend.model.HasDisplayOrder;
 import com.google.testing.testify.risk.frontend.model.HasLabels;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
+import com.google.testing.testify.risk.frontend.model.JobStatus.JobType;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.model.ProjectAccModel;
+import com.google.testing.testify.risk.frontend.model.Signoff;
 import com.google.testing.testify.risk.frontend.server.service.ProjectService;
+import com.google.testing.testify.risk.frontend.server.service.RiskService;
 import com.google.testing.testify.risk.frontend.server.service.UserService;
+import com.google.testing.testify.risk.frontend.server.task.DeleteProjectTask;
+import com.google.testing.testify.risk.frontend.server.task.RebalanceOrderTask;
 import com.google.testing.testify.risk.frontend.server.util.ServletUtils;
 import com.google.testing.testify.risk.frontend.shared.rpc.UserRpc.ProjectAccess;
 import com.google.testing.testify.risk.frontend.shared.util.StringUtil;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.logging.Logger;
 
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.PersistenceManager;
-import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.Query;
 
 /**
@@ -53,47 +59,62 @@ import javax.jdo.Query;
 @Singleton
 public class ProjectServiceImpl implements ProjectService {
   private static final Logger log = Logger.getLogger(ProjectServiceImpl.class.getName());
-  private final PersistenceManagerFactory pmf;
+  /**
+   * The spacing between display orders written by a reorder or rebalance.  Moving an item only
+   * rewrites that item, taking the midpoint of its new neighbours, so about twenty moves into the
+   * same spot fit before the list needs respacing.
+   */
+  static final long ORDER_GAP = 1L << 20;
+  /** A move which leaves less room than this beside the item queues a background rebalance. */
+  private static final long MIN_ORDER_GAP = 16;
+  private final Provider<PersistenceManager> pmProvider;
   private final UserService userService;
+  private final RiskService riskService;
+  private final ProjectDataDeleter dataDeleter;
+  private final DataRequestVersion dataRequestVersion;
 
   /**
-   * Creates a new ProjectServiceImpl instance. Internally all methods will use the
-   * PersistanceManager associated with JDOHelper.getPersistenceManagerFactory (meaning
-   * jdoconfig.xml).
+   * Creates a new ProjectServiceImpl instance. Internally all methods use the request's
+   * PersistenceManager, which is shared with the other services and closed by
+   * {@link com.google.testing.testify.risk.frontend.server.filter.PersistenceManagerFilter}
+   * when the request ends.
    */
   @Inject
-  public ProjectServiceImpl(PersistenceManagerFactory pmf, UserService userService) {
-    this.pmf = pmf;
+  public ProjectServiceImpl(Provider<PersistenceManager> pmProvider, UserService userService,
+      RiskService riskService) {
+    this(pmProvider, userService, riskService, new ProjectDataDeleter(), new DataRequestVersion());
+  }
+
+  ProjectServiceImpl(Provider<PersistenceManager> pmProvider, UserService userService,
+      RiskService riskService, ProjectDataDeleter dataDeleter,
+      DataRequestVersion dataRequestVersion) {
+    this.pmProvider = pmProvider;
     this.userService = userService;
+    this.riskService = riskService;
+    this.dataDeleter = dataDeleter;
+    this.dataRequestVersion = dataRequestVersion;
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   public List<Project> query(String query) {
     log.info("Querying: " + query);
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
 
     // TODO(jimr): this currently does not do a query, it just returns all public projects.
-    Query jdoQuery = pm.newQuery(Project.class);
-    jdoQuery.setOrdering("projectId asc");
-
-    List<Project> results = null;
-    try {
-      List<Project> returnedProjects = (List<Project>) jdoQuery.execute();
-      List<Project> safeToDisplayProjs = Lists.newArrayList();
-
-      for (Project returnedProject : returnedProjects) {
-        if (userService.hasViewAccess(returnedProject)) {
-          safeToDisplayProjs.add(returnedProject);
-        }
+    String email = userService.getEmail();
+    Map<Long, Project> projects;
+    if (email != null && userService.hasAdministratorAccess()) {
+      projects = queryAllProjects(pm);
+    } else {
+      projects = queryProjectsWhere("isPubliclyVisible", "Boolean", true, pm);
+      if (email != null) {
+        projects.putAll(queryMemberProjects(email, false, pm));
       }
-
-      results = ServletUtils.makeGwtSafe(safeToDisplayProjs, pm);
-      populateCachedAccess(results);
-    } finally {
-      pm.close();
     }
 
+    List<Project> results =
+        ServletUtils.makeGwtSafe(Lists.newArrayList(projects.values()), pm);
+    populateCachedAccess(results);
     return results;
   }
 
@@ -108,9 +129,9 @@ public class ProjectServiceImpl implements ProjectService {
   }
 
   /**
-   * Retrieves the list of projects relevant to the currently logged in user.
+   * Retrieves the list of projects relevant to the currently logged in user.  These are the
+   * projects which grant the user explicit access, and any starred projects the user may view.
    */
-  @SuppressWarnings("unchecked")
   @Override
   public List<Project> queryUserProjects() {
     if (!userService.isUserLoggedIn()) {
@@ -119,39 +140,26 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     log.info("Querying user projects.");
-    PersistenceManager pm = pmf.getPersistenceManager();
-
-    Query jdoQuery = pm.newQuery(Project.class);
-    jdoQuery.setOrdering("projectId asc");
-
-    List<Project> results = null;
-    try {
-      List<Long> starredProjects = userService.getStarredProjects();
-
-      List<Project> returnedProjects = (List<Project>) jdoQuery.execute();
-      List<Project> projectsToReturn = Lists.newArrayList();
-
-      for (Project returnedProject : returnedProjects) {
-        // Only returns the projects that are either:
-        // * Starred by the user and have access (implicit or explicit).
-        // * Granted VIEW or EDIT access explicitly. (Ignore public projects.)
-        ProjectAccess access = userService.getAccessLevel(returnedProject);
-
-        // If explicit, add it. Otherwise, check starred access (and implicit access).
-        if (access.hasAccess(ProjectAccess.EXPLICIT_VIEW_ACCESS)) {
-          projectsToReturn.add(returnedProject);
-        } else if (access.hasAccess(ProjectAccess.VIEW_ACCESS)
-            && starredProjects.contains(returnedProject.getProjectId())) {
-          projectsToReturn.add(returnedProject);
+    PersistenceManager pm = pmProvider.get();
+    Map<Long, Project> projects;
+    if (userService.hasAdministratorAccess()) {
+      // Administrators have explicit access to every project.
+      projects = queryAllProjects(pm);
+    } else {
+      projects = queryMemberProjects(userService.getEmail(), false, pm);
+      for (Long projectId : userService.getStarredProjects()) {
+        if (!projects.containsKey(projectId)) {
+          Project starred = getProjectIfExists(projectId, pm);
+          if (starred != null && userService.hasViewAccess(starred)) {
+            projects.put(projectId, starred);
+          }
         }
       }
-
-      results = ServletUtils.makeGwtSafe(projectsToReturn, pm);
-      populateCachedAccess(results);
-    } finally {
-      pm.close();
     }
 
+    List<Project> results =
+        ServletUtils.makeGwtSafe(Lists.newArrayList(projects.values()), pm);
+    populateCachedAccess(results);
     return results;
   }
 
@@ -162,35 +170,89 @@ public class ProjectServiceImpl implements ProjectService {
   public List<Project> queryProjectsUserHasEditAccessTo() {
     ServletUtils.requireAccess(userService.isUserLoggedIn());
 
-    // Start with all starred projects and those granting explicit access.
-    List<Project> projects = queryUserProjects();
-    List<Project> projectsToReturn = Lists.newArrayList();
+    PersistenceManager pm = pmProvider.get();
+    Map<Long, Project> projects;
+    if (userService.hasAdministratorAccess()) {
+      projects = queryAllProjects(pm);
+    } else {
+      projects = queryMemberProjects(userService.getEmail(), true, pm);
+    }
+
+    List<Project> results =
+        ServletUtils.makeGwtSafe(Lists.newArrayList(projects.values()), pm);
+    populateCachedAccess(results);
+    return results;
+  }
 
+  /**
+   * Returns the projects which list the user as an owner, editor or, optionally, viewer.
+   *
+   * The datastore indexes a list property under each of its values, so the owner, editor and
+   * viewer lists already form a membership index: each query reads only the user's projects,
+   * however many projects there are.  The index is kept up to date by the datastore whenever a
+   * project is saved or deleted.
+   *
+   * @param editorsOnly if true, only projects the user may edit are returned.
+   * @return the projects, ordered by ID.
+   */
+  private Map<Long, Project> queryMemberProjects(String email, boolean editorsOnly,
+      PersistenceManager pm) {
+    Map<Long, Project> projects = queryProjectsWhere("projectOwners", "String", email, pm);
+    projects.putAll(queryProjectsWhere("projectEditors", "String", email, pm));
+    if (!editorsOnly) {
+      projects.putAll(queryProjectsWhere("projectViewers", "String", email, pm));
+    }
+    return projects;
+  }
+
+  /**
+   * Returns the projects with a field equal to a value, ordered by ID.  For a list field, the
+   * projects with the value anywhere in the list are returned.
+   */
+  @SuppressWarnings("unchecked")
+  private Map<Long, Project> queryProjectsWhere(String fieldName, String parameterType,
+      Object value, PersistenceManager pm) {
+    Query jdoQuery = pm.newQuery(Project.class);
+    jdoQuery.declareParameters(parameterType + " valueParam");
+    jdoQuery.setFilter(fieldName + " == valueParam");
+    return byId((List<Project>) jdoQuery.execute(value));
+  }
+
+  /** Returns every project.  Only used for application administrators, who may see them all. */
+  @SuppressWarnings("unchecked")
+  private Map<Long, Project> queryAllProjects(PersistenceManager pm) {
+    Query jdoQuery = pm.newQuery(Project.class);
+    return byId((List<Project>) jdoQuery.execute());
+  }
+
+  private Map<Long, Project> byId(List<Project> projects) {
+    Map<Long, Project> map = Maps.newTreeMap();
     for (Project project : projects) {
-      if (userService.hasEditAccess(project)) {
-        projectsToReturn.add(project);
-      }
+      map.put(project.getProjectId(), project);
     }
+    return map;
+  }
 
-    populateCachedAccess(projectsToReturn);
-    return projectsToReturn;
+  private Project getProjectIfExists(long projectId, PersistenceManager pm) {
+    try {
+      return pm.getObjectById(Project.class, projectId);
+    } catch (JDOObjectNotFoundException e) {
+      log.info("Ignoring deleted project: " + projectId);
+      return null;
+    }
   }
 
   @Override
   public Project getProjectById(long id) {
     log.info("Getting project: " + Long.toString(id));
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      Project retrievedProject = pm.getObjectById(Project.class, id);
-      // Don't disclose that the project even exists if they don't have view access.
-      if (retrievedProject != null && userService.hasViewAccess(retrievedProject)) {
-        retrievedProject = ServletUtils.makeGwtSafe(retrievedProject, pm);
-        populateCachedAccess(retrievedProject);
-        return retrievedProject;
-      }
-    } finally {
-      pm.close();
+    PersistenceManager pm = pmProvider.get();
+    Project retrievedProject = pm.getObjectById(Project.class, id);
+    // Don't disclose that the project even exists if they don't have view access.
+    if (retrievedProject != null && userService.hasViewAccess(retrievedProject)) {
+      retrievedProject = ServletUtils.makeGwtSafe(retrievedProject, pm);
+      populateCachedAccess(retrievedProject);
+      return retrievedProject;
     }
     return null;
   }
@@ -200,25 +262,21 @@ public class ProjectServiceImpl implements ProjectService {
   public Project getProjectByName(String name) {
     log.info("Getting project with name: " + name);
 
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
 
     Query jdoQuery = pm.newQuery(Project.class);
     jdoQuery.declareParameters("String projectNameParam");
     jdoQuery.setFilter("name == projectNameParam");
 
-    try {
-      List<Project> returnedProjects = (List<Project>) jdoQuery.execute(name);
-      log.info(String.format("Found %s projects with name %s", returnedProjects.size(), name));
-
-      for (Project target : returnedProjects) {
-        if (userService.hasViewAccess(target)) {
-          target = ServletUtils.makeGwtSafe(target, pm);
-          populateCachedAccess(target);
-          return target;
-        }
+    List<Project> returnedProjects = (List<Project>) jdoQuery.execute(name);
+    log.info(String.format("Found %s projects with name %s", returnedProjects.size(), name));
+
+    for (Project target : returnedProjects) {
+      if (userService.hasViewAccess(target)) {
+        target = ServletUtils.makeGwtSafe(target, pm);
+        populateCachedAccess(target);
+        return target;
       }
-    } finally {
-      pm.close();
     }
     return null;
   }
@@ -234,14 +292,10 @@ public class ProjectServiceImpl implements ProjectService {
           "You can only create a project with a null ID.");
     }
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      // Automatically add the current user as an OWNER for the project.
-      projInfo.addProjectOwner(userService.getEmail());
-      pm.makePersistent(projInfo);
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    // Automatically add the current user as an OWNER for the project.
+    projInfo.addProjectOwner(userService.getEmail());
+    pm.makePersistent(projInfo);
 
     return projInfo.getProjectId();
   }
@@ -255,59 +309,59 @@ public class ProjectServiceImpl implements ProjectService {
     ServletUtils.requireAccess(userService.hasEditAccess(projInfo.getProjectId()));
 
     log.info("Updating Project: " + projInfo.getProjectId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
     Project oldProject;
-    try {
-      oldProject = pm.getObjectById(Project.class, projInfo.getProjectId());
-      List<String> oldOwners = oldProject.getProjectOwners();
-      List<String> oldEditors = oldProject.getProjectEditors();
-      List<String> oldViewers = oldProject.getProjectViewers();
-
-      // If they're not an owner, keep the old list of owners around.
-      if (!userService.hasOwnerAccess(projInfo.getProjectId())) {
-        projInfo.setIsPubliclyVisible(oldProject.getIsPubliclyVisible());
-        projInfo.setProjectOwners(oldProject.getProjectOwners());
-      }
-
-      pm.makePersistent(projInfo);
+    oldProject = pm.getObjectById(Project.class, projInfo.getProjectId());
+    List<String> oldOwners = oldProject.getProjectOwners();
+    List<String> oldEditors = oldProject.getProjectEditors();
+    List<String> oldViewers = oldProject.getProjectViewers();
+
+    // If they're not an owner, keep the old list of owners around.
+    if (!userService.hasOwnerAccess(projInfo.getProjectId())) {
+      projInfo.setIsPubliclyVisible(oldProject.getIsPubliclyVisible());
+      projInfo.setProjectOwners(oldProject.getProjectOwners());
+    }
 
-      log.info("Notifying users of any changes to access level");
-      String from = userService.getEmail();
-      List<String> added = StringUtil.subtractList(projInfo.getProjectOwners(),
-          oldOwners);
-      if (added.size() > 0) {
-        ServletUtils.notifyAddedAccess(from, added, "owner", projInfo.getName(),
-            projInfo.getProjectId().toString());
-      }
-      List<String> removed = StringUtil.subtractList(oldOwners, projInfo.getProjectOwners());
-      if (removed.size() > 0) {
-          ServletUtils.notifyRemovedAccess(from, removed, "owner", projInfo.getName(),
-            projInfo.getProjectId().toString());
-      }
+    pm.makePersistent(projInfo);
+    pm.flush();
+    userService.invalidateAccessLevels(projInfo.getProjectId());
+    // The project's editors may have changed, and with them who sees its data requests.
+    dataRequestVersion.increment();
+
+    log.info("Notifying users of any changes to access level");
+    String from = userService.getEmail();
+    List<String> added = StringUtil.subtractList(projInfo.getProjectOwners(),
+        oldOwners);
+    if (added.size() > 0) {
+      ServletUtils.notifyAddedAccess(from, added, "owner", projInfo.getName(),
+          projInfo.getProjectId().toString());
+    }
+    List<String> removed = StringUtil.subtractList(oldOwners, projInfo.getProjectOwners());
+    if (removed.size() > 0) {
+        ServletUtils.notifyRemovedAccess(from, removed, "owner", projInfo.getName(),
+          projInfo.getProjectId().toString());
+    }
 
-      added = StringUtil.subtractList(projInfo.getProjectEditors(), oldEditors);
-      if (added.size() > 0) {
-        ServletUtils.notifyAddedAccess(from, added, "editor", projInfo.getName(),
-            projInfo.getProjectId().toString());
-      }
-      removed = StringUtil.subtractList(oldEditors, projInfo.getProjectEditors());
-      if (removed.size() > 0) {
-        ServletUtils.notifyRemovedAccess(from, removed, "editor", projInfo.getName(),
-            projInfo.getProjectId().toString());
-      }
+    added = StringUtil.subtractList(projInfo.getProjectEditors(), oldEditors);
+    if (added.size() > 0) {
+      ServletUtils.notifyAddedAccess(from, added, "editor", projInfo.getName(),
+          projInfo.getProjectId().toString());
+    }
+    removed = StringUtil.subtractList(oldEditors, projInfo.getProjectEditors());
+    if (removed.size() > 0) {
+      ServletUtils.notifyRemovedAccess(from, removed, "editor", projInfo.getName(),
+          projInfo.getProjectId().toString());
+    }
 
-      added = StringUtil.subtractList(projInfo.getProjectViewers(), oldViewers);
-      if (added.size() > 0) {
-        ServletUtils.notifyAddedAccess(from, added, "viewer", projInfo.getName(),
-            projInfo.getProjectId().toString());
-      }
-      removed = StringUtil.subtractList(oldViewers, projInfo.getProjectViewers());
-      if (removed.size() > 0) {
-        ServletUtils.notifyRemovedAccess(from, removed, "viewer", projInfo.getName(),
-            projInfo.getProjectId().toString());
-      }
-    } finally {
-      pm.close();
+    added = StringUtil.subtractList(projInfo.getProjectViewers(), oldViewers);
+    if (added.size() > 0) {
+      ServletUtils.notifyAddedAccess(from, added, "viewer", projInfo.getName(),
+          projInfo.getProjectId().toString());
+    }
+    removed = StringUtil.subtractList(oldViewers, projInfo.getProjectViewers());
+    if (removed.size() > 0) {
+      ServletUtils.notifyRemovedAccess(from, removed, "viewer", projInfo.getName(),
+          projInfo.getProjectId().toString());
     }
   }
 
@@ -319,170 +373,155 @@ public class ProjectServiceImpl implements ProjectService {
     }
     ServletUtils.requireAccess(userService.hasOwnerAccess(projInfo.getProjectId()));
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      Project projToDelete = pm.getObjectById(Project.class, projInfo.getProjectId());
-
-      // TODO(jimr): This delete could succeed but successive removes might fail, leaving dangling
-      // data.  We should retry or do something to assure complete destruction.
-
-      // TODO(jimr): Undo?
-      pm.deletePersistent(projToDelete);
-
-      // Delete any child attributes, components, or capabilities.
-      removeObjectsWithFieldValue(pm, Attribute.class, "parentProjectId", projInfo.getProjectId());
-      removeObjectsWithFieldValue(pm, Component.class, "parentProjectId", projInfo.getProjectId());
-      removeObjectsWithFieldValue(pm, Capability.class, "parentProjectId", projInfo.getProjectId());
+    PersistenceManager pm = pmProvider.get();
+    Project projToDelete = pm.getObjectById(Project.class, projInfo.getProjectId());
+
+    // TODO(jimr): Undo?
+    pm.deletePersistent(projToDelete);
+    pm.flush();
+    userService.invalidateAccessLevels(projInfo.getProjectId());
+    riskService.invalidateRiskMatrix(projInfo.getProjectId());
+    dataRequestVersion.increment();
+
+    // The project is gone as soon as its entity is.  Everything which belonged to it is
+    // deleted in the background, as there may be far too much to delete in this request.
+    JobStatus job = new JobStatus();
+    job.setParentProjectId(projInfo.getProjectId());
+    job.setJobType(JobType.DELETE_PROJECT);
+    job.setStartTime(System.currentTimeMillis());
+    pm.makePersistent(job);
+    if (!DeleteProjectTask.queue(job.getId())) {
+      job.setState(JobStatus.State.FAILED);
+      pm.makePersistent(job);
+    }
+  }
 
-      // TODO(chrsmith): What about enabled data providers? For example, bugs or checkin data
-      // associated with this project? We need to clear those out as well.
-    } finally {
-      pm.close();
+  /**
+   * Deletes the next batch of data belonging to a deleted project.  Access is not checked, as
+   * this runs from an admin-only task on behalf of the owner who deleted the project.
+   *
+   * @return true if the job has more batches to run.
+   */
+  @Override
+  public boolean deleteProjectDataBatch(long jobId) {
+    PersistenceManager pm = pmProvider.get();
+    JobStatus job = pm.getObjectById(JobStatus.class, jobId);
+    if (job == null || !job.isRunning()) {
+      log.warning("Not running delete project job: " + jobId);
+      return false;
+    }
+    boolean more = dataDeleter.deleteBatch(job, System.currentTimeMillis());
+    pm.makePersistent(job);
+    if (!more) {
+      log.info("Deleted all data for project " + job.getParentProjectId() + ": "
+          + job.getItemsChanged() + " entities.");
     }
+    return more;
   }
 
-  @SuppressWarnings("unchecked")
+  /**
+   * Returns every label in a project.  Labels are stored inside their elements, so this reads the
+   * project's elements.
+   */
   @Override
   public List<AccLabel> getLabels(long projectId) {
-    ServletUtils.requireAccess(userService.hasViewAccess(projectId));
-
     log.info("Getting labels for project: " + Long.toString(projectId));
-    PersistenceManager pm = pmf.getPersistenceManager();
-
-    Query jdoQuery = pm.newQuery(AccLabel.class);
-    jdoQuery.setFilter("projectId == projectIdParam");
-    jdoQuery.declareParameters("Long projectIdParam");
-
-    try {
-      List<AccLabel> labels = (List<AccLabel>) jdoQuery.execute(projectId);
-      return ServletUtils.makeGwtSafe(labels, pm);
-    } finally {
-      pm.close();
-    }
+    return getProjectAccModel(projectId).getLabels();
   }
 
+  /**
+   * Loads the entire ACC model for a project.  Each element's labels are stored in the element
+   * itself, so this is one query per element type.
+   */
   @SuppressWarnings("unchecked")
   @Override
-  public List<Attribute> getProjectAttributes(long projectId) {
+  public ProjectAccModel getProjectAccModel(long projectId) {
     ServletUtils.requireAccess(userService.hasViewAccess(projectId));
 
-    log.info("Getting Attributes for project: " + Long.toString(projectId));
-    PersistenceManager pm = pmf.getPersistenceManager();
+    log.info("Getting ACC model for project: " + Long.toString(projectId));
+    PersistenceManager pm = pmProvider.get();
 
-    Query jdoQuery = pm.newQuery(Attribute.class);
-    jdoQuery.setFilter("parentProjectId == parentProjectParam");
-    jdoQuery.setOrdering("displayOrder asc");
-    jdoQuery.declareParameters("Long parentProjectParam");
+    List<Attribute> attributes = ServletUtils.makeGwtSafe(
+        (List<Attribute>) newElementQuery(Attribute.class, pm).execute(projectId), pm);
+    List<Component> components = ServletUtils.makeGwtSafe(
+        (List<Component>) newElementQuery(Component.class, pm).execute(projectId), pm);
+    List<Capability> capabilities = ServletUtils.makeGwtSafe(
+        (List<Capability>) newElementQuery(Capability.class, pm).execute(projectId), pm);
 
-    try {
-      List<Attribute> returnedAttributes = (List<Attribute>) jdoQuery.execute(projectId);
-      returnedAttributes = ServletUtils.makeGwtSafe(returnedAttributes, pm);
-      populateLabels(returnedAttributes, pm);
-      return returnedAttributes;
-    } finally {
-      pm.close();
-    }
+    List<AccLabel> labels = Lists.newArrayList();
+    labels.addAll(attachLabels(attributes));
+    labels.addAll(attachLabels(components));
+    labels.addAll(attachLabels(capabilities));
+
+    return new ProjectAccModel(projectId, attributes, components, capabilities, labels);
   }
 
-  /**
-   * Populates labels for a HasLabels item.
-   *
-   * @param <T> An object that HasLabels.
-   * @param item The item to get labels for.
-   * @param pm A persistence manager object.
-   */
-  private <T extends HasLabels> void populateLabels(T item, PersistenceManager pm) {
-    item.setAccLabels(getLabelsForItem(item, pm));
+  /** Returns a query for all elements of the given type within a project, in display order. */
+  private Query newElementQuery(Class<? extends HasLabels> clazz, PersistenceManager pm) {
+    Query query = pm.newQuery(clazz);
+    query.setFilter("parentProjectId == parentProjectParam");
+    query.setOrdering("displayOrder asc");
+    query.declareParameters("Long parentProjectParam");
+    return query;
   }
 
   /**
-   * Populates labels for a list of HasLabels items.  All items MUST be for the same project
-   * and of the same type (ie, all Attributes).
-   *
-   * IMPORTANT: you probably want to detach your object before calling this.
-   *
-   * @param <T> An object that HasLabels.
-   * @param items The items to get labels for.
-   * @param pm A persistence manager object.
+   * Fills in the project, element type and element ID of an item's labels, which are stored
+   * without them.  The labels are copied to a plain list, which can be sent to the client.
    */
-  @SuppressWarnings("unchecked")
-  private <T extends HasLabels> void populateLabels(List<T> items, PersistenceManager pm) {
-    if (items.size() > 0) {
-      Map<Long, T> idToItem = Maps.newHashMap();
-      for (T item : items) {
-        idToItem.put(item.getId(), item);
-      }
-      T item = items.get(0);
-      AccElementType type = item.getElementType();
-      Long parentProjectId = item.getParentProjectId();
-      Query query = pm.newQuery(AccLabel.class);
-      query.declareParameters("AccElementType elementTypeParam, Long projectIdParam");
-      query.setFilter("elementType == elementTypeParam && projectId == projectIdParam");
-      List<AccLabel> labels = (List<AccLabel>) query.execute(type, parentProjectId);
-      log.info("Found labels: " + labels.size());
-
-      for (AccLabel label : labels) {
-        item = idToItem.get(label.getElementId());
-        if (item != null) {
-          log.info("Putting label where it belongs: " + label.getLabelText());
-          item.addLabel(label);
-        }
-      }
+  private void attachLabels(HasLabels item) {
+    List<AccLabel> labels = item.getAccLabels() == null
+        ? Lists.<AccLabel>newArrayList() : Lists.newArrayList(item.getAccLabels());
+    for (AccLabel label : labels) {
+      label.setProjectId(item.getParentProjectId());
+      label.setElementType(item.getElementType());
+      label.setElementId(item.getId());
     }
-  }
-
-  @SuppressWarnings("unchecked")
-  private <T extends HasLabels> List<AccLabel> getLabelsForItem(T item, PersistenceManager pm) {
-    Query query = pm.newQuery(AccLabel.class);
-    query.declareParameters(
-        "AccElementType elementTypeParam, Long elementIdParam, Long projectIdParam");
-    query.setFilter("elementType == elementTypeParam && elementId == elementIdParam && "
-        + "projectId == projectIdParam");
-    List<AccLabel> labels = (List<AccLabel>) query.execute(item.getElementType(), item.getId(),
-        item.getParentProjectId());
-    // This constructs a new, real list -- the list returned by the above execution is a lazy-loaded
-    // streaming query.  That doesn't serialize.
-    return Lists.newArrayList(labels);
+    item.setAccLabels(labels);
   }
 
   /**
-   * Saves labels for an item.
-   *
-   * This is not extremely necessary, but for simplicity ('always call persistLabels') it's here.
+   * Fills in the labels of each of a list of items.
    *
-   * @param <T> An object that HasLabels.
-   * @param item The item to save the labels for.
-   * @param pm A persistence mananger.
+   * @return all of the items' labels.
    */
-  private <T extends HasLabels> void persistLabels(T item, PersistenceManager pm) {
-    List<AccLabel> toDelete = Lists.newArrayList();
-    Set<String> newLabelKeys = Sets.newHashSet();
-    for (AccLabel label : item.getAccLabels()) {
-      if (label.getId() != null) {
-        newLabelKeys.add(label.getId());
-      }
-    }
-
-    List<AccLabel> currentLabels = getLabelsForItem(item, pm);
-    for (AccLabel label : currentLabels) {
-      if (!newLabelKeys.contains(label.getId())) {
-        toDelete.add(label);
-      }
+  private List<AccLabel> attachLabels(List<? extends HasLabels> items) {
+    List<AccLabel> labels = Lists.newArrayList();
+    for (HasLabels item : items) {
+      attachLabels(item);
+      labels.addAll(item.getAccLabels());
     }
-    pm.deletePersistentAll(toDelete);
-    // And add the new ones.
-    pm.makePersistentAll(item.getAccLabels());
+    return labels;
   }
 
+  @SuppressWarnings("unchecked")
+  @Override
+  public List<Attribute> getProjectAttributes(long projectId) {
+    ServletUtils.requireAccess(userService.hasViewAccess(projectId));
+
+    log.info("Getting Attributes for project: " + Long.toString(projectId));
+    PersistenceManager pm = pmProvider.get();
 
-  private <T extends HasLabels> void updateLabelElementIds(T item, Long id) {
-    for (AccLabel label : item.getAccLabels()) {
-      label.setElementId(id);
-    }
+    Query jdoQuery = pm.newQuery(Attribute.class);
+    jdoQuery.setFilter("parentProjectId == parentProjectParam");
+    jdoQuery.setOrdering("displayOrder asc");
+    jdoQuery.declareParameters("Long parentProjectParam");
+
+    List<Attribute> returnedAttributes = (List<Attribute>) jdoQuery.execute(projectId);
+    returnedAttributes = ServletUtils.makeGwtSafe(returnedAttributes, pm);
+    attachLabels(returnedAttributes);
+    return returnedAttributes;
   }
 
-  private <T extends HasLabels> void deleteLabels(T item, PersistenceManager pm) {
-    pm.deletePersistentAll(item.getAccLabels());
+  /**
+   * Readies an item's labels to be stored in the item, giving new labels their IDs.  The item
+   * and its labels are then written with a single put.
+   */
+  private void prepareLabels(HasLabels item) {
+    if (item.getAccLabels() == null) {
+      item.setAccLabels(Lists.<AccLabel>newArrayList());
+    }
+    AccLabel.assignIds(item.getAccLabels());
   }
 
   @Override
@@ -497,20 +536,11 @@ public class ProjectServiceImpl implements ProjectService {
     log.info("Creating new Attribute with name: " + attribute.getName());
     attribute.setName(attribute.getName().trim());
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      pm.makePersistent(attribute);
-
-      // If we have labels, update their element ID now that we have an ID.
-      if (attribute.getAccLabels().size() > 0) {
-        pm.close();
-        updateLabelElementIds(attribute, attribute.getAttributeId());
-        pm = pmf.getPersistenceManager();
-        persistLabels(attribute, pm);
-      }
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    prepareLabels(attribute);
+    pm.makePersistent(attribute);
+    pm.flush();
+    riskService.invalidateRiskMatrix(attribute.getParentProjectId());
 
     return attribute.getAttributeId();
   }
@@ -526,24 +556,21 @@ public class ProjectServiceImpl implements ProjectService {
     ServletUtils.requireAccess(userService.hasEditAccess(attribute.getParentProjectId()));
 
     log.info("Updating Attribute: " + attribute.getAttributeId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      Attribute oldAttribute = pm.getObjectById(Attribute.class, attribute.getAttributeId());
-      if (oldAttribute.getParentProjectId() != attribute.getParentProjectId()) {
-        log.severe("Possible attack -- attribute sent in and attribute being overwritten had"
-            + " different project IDs.");
-        ServletUtils.requireAccess(false);
-      }
-
-      persistLabels(attribute, pm);
-      pm.makePersistent(attribute);
-      attribute = ServletUtils.makeGwtSafe(attribute, pm);
-      populateLabels(attribute, pm);
-      attribute.setAccLabels(ServletUtils.makeGwtSafe(attribute.getAccLabels(), pm));
-      return attribute;
-    } finally {
-      pm.close();
+    PersistenceManager pm = pmProvider.get();
+    Attribute oldAttribute = pm.getObjectById(Attribute.class, attribute.getAttributeId());
+    if (oldAttribute.getParentProjectId() != attribute.getParentProjectId()) {
+      log.severe("Possible attack -- attribute sent in and attribute being overwritten had"
+          + " different project IDs.");
+      ServletUtils.requireAccess(false);
     }
+
+    prepareLabels(attribute);
+    pm.makePersistent(attribute);
+    pm.flush();
+    riskService.invalidateRiskMatrix(attribute.getParentProjectId());
+    attribute = ServletUtils.makeGwtSafe(attribute, pm);
+    attachLabels(attribute);
+    return attribute;
   }
 
   @Override
@@ -554,42 +581,25 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     log.info("Removing Attribute: " + attribute.getAttributeId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      Attribute attributeToDelete = pm.getObjectById(Attribute.class, attribute.getAttributeId());
-      ServletUtils.requireAccess(userService.hasEditAccess(attributeToDelete.getParentProjectId()));
-
-      pm.deletePersistent(attributeToDelete);
-      deleteLabels(attribute, pm);
-
-      // Delete any child capabilities.
-      removeObjectsWithFieldValue(pm, Capability.class, "attributeId", attribute.getAttributeId());
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    Attribute attributeToDelete = pm.getObjectById(Attribute.class, attribute.getAttributeId());
+    ServletUtils.requireAccess(userService.hasEditAccess(attributeToDelete.getParentProjectId()));
+
+    pm.deletePersistent(attributeToDelete);
+
+    // Delete any child capabilities, and their signoffs.
+    removeObjectsWithFieldValue(pm, Capability.class, "attributeId", attribute.getAttributeId());
+    removeObjectsWithFieldValue(pm, Signoff.class, "attributeId", attribute.getAttributeId());
+    deleteSignoff(attributeToDelete.getParentProjectId(), AccElementType.ATTRIBUTE,
+        attribute.getAttributeId(), pm);
+    pm.flush();
+    riskService.invalidateRiskMatrix(attributeToDelete.getParentProjectId());
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   public void reorderAttributes(long projectId, List<Long> newOrdering) {
     log.info("Reordering Attributes for project: " + Long.toString(projectId));
-    Function<Attribute, Long> getId = new Function<Attribute, Long>() {
-      @Override
-      public Long apply(Attribute input) {
-        return input.getAttributeId();
-      }
-    };
-    Setter<Attribute> setId = new Setter<Attribute>() {
-      @Override
-      public boolean apply(Attribute input, long value) {
-        if (input.getDisplayOrder() != value) {
-          input.setDisplayOrder(value);
-          return true;
-        }
-        return false;
-      }
-    };
-    setOrder(projectId, Attribute.class, newOrdering, getId, setId);
+    setOrder(projectId, Attribute.class, newOrdering);
   }
 
   @SuppressWarnings("unchecked")
@@ -598,21 +608,17 @@ public class ProjectServiceImpl implements ProjectService {
     ServletUtils.requireAccess(userService.hasViewAccess(projectId));
 
     log.info("Getting Components for project: " + Long.toString(projectId));
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
 
     Query jdoQuery = pm.newQuery(Component.class);
     jdoQuery.setFilter("parentProjectId == parentProjectParam");
     jdoQuery.setOrdering("displayOrder asc");
     jdoQuery.declareParameters("Long parentProjectParam");
 
-    try {
-      List<Component> returnedComponents = (List<Component>) jdoQuery.execute(projectId);
-      returnedComponents = ServletUtils.makeGwtSafe(returnedComponents, pm);
-      populateLabels(returnedComponents, pm);
-      return returnedComponents;
-    } finally {
-      pm.close();
-    }
+    List<Component> returnedComponents = (List<Component>) jdoQuery.execute(projectId);
+    returnedComponents = ServletUtils.makeGwtSafe(returnedComponents, pm);
+    attachLabels(returnedComponents);
+    return returnedComponents;
   }
 
   @Override
@@ -627,20 +633,11 @@ public class ProjectServiceImpl implements ProjectService {
     log.info("Creating new Component with name: " + component.getName());
     component.setName(component.getName().trim());
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      pm.makePersistent(component);
-
-      // If we have labels, update their element ID now that we have an ID.
-      if (component.getAccLabels().size() > 0) {
-        pm.close();
-        updateLabelElementIds(component, component.getId());
-        pm = pmf.getPersistenceManager();
-        persistLabels(component, pm);
-      }
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    prepareLabels(component);
+    pm.makePersistent(component);
+    pm.flush();
+    riskService.invalidateRiskMatrix(component.getParentProjectId());
 
     return component.getComponentId();
   }
@@ -656,24 +653,21 @@ public class ProjectServiceImpl implements ProjectService {
     ServletUtils.requireAccess(userService.hasEditAccess(component.getParentProjectId()));
 
     log.info("Updating Component: " + component.getComponentId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      Component oldComponent = pm.getObjectById(Component.class, component.getComponentId());
-      if (oldComponent.getParentProjectId() != component.getParentProjectId()) {
-        log.severe("Possible attack -- component sent in and component being overwritten had"
-            + " different project IDs.");
-        ServletUtils.requireAccess(false);
-      }
-
-      persistLabels(component, pm);
-      pm.makePersistent(component);
-      component = ServletUtils.makeGwtSafe(component, pm);
-      populateLabels(component, pm);
-      component.setAccLabels(ServletUtils.makeGwtSafe(component.getAccLabels(), pm));
-      return component;
-    } finally {
-      pm.close();
+    PersistenceManager pm = pmProvider.get();
+    Component oldComponent = pm.getObjectById(Component.class, component.getComponentId());
+    if (oldComponent.getParentProjectId() != component.getParentProjectId()) {
+      log.severe("Possible attack -- component sent in and component being overwritten had"
+          + " different project IDs.");
+      ServletUtils.requireAccess(false);
     }
+
+    prepareLabels(component);
+    pm.makePersistent(component);
+    pm.flush();
+    riskService.invalidateRiskMatrix(component.getParentProjectId());
+    component = ServletUtils.makeGwtSafe(component, pm);
+    attachLabels(component);
+    return component;
   }
 
   @Override
@@ -684,103 +678,174 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     log.info("Removing Component: " + component.getComponentId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      Component componentToDelete = pm.getObjectById(Component.class, component.getComponentId());
-      ServletUtils.requireAccess(userService.hasEditAccess(componentToDelete.getParentProjectId()));
-
-      pm.deletePersistent(componentToDelete);
-      deleteLabels(componentToDelete, pm);
-
-      // Delete any child capabilities.
-      removeObjectsWithFieldValue(pm, Capability.class, "componentId", component.getComponentId());
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    Component componentToDelete = pm.getObjectById(Component.class, component.getComponentId());
+    ServletUtils.requireAccess(userService.hasEditAccess(componentToDelete.getParentProjectId()));
+
+    pm.deletePersistent(componentToDelete);
+
+    // Delete any child capabilities, and their signoffs.
+    removeObjectsWithFieldValue(pm, Capability.class, "componentId", component.getComponentId());
+    removeObjectsWithFieldValue(pm, Signoff.class, "componentId", component.getComponentId());
+    deleteSignoff(componentToDelete.getParentProjectId(), AccElementType.COMPONENT,
+        component.getComponentId(), pm);
+    pm.flush();
+    riskService.invalidateRiskMatrix(componentToDelete.getParentProjectId());
   }
 
   @SuppressWarnings("unchecked")
-  private <T> void setOrder(long projectId, Class<T> clazz, List<Long> order,
-      Function<T, Long> getId, Setter<T> applyOrder) {
+  private <T extends HasDisplayOrder> void setOrder(long projectId, Class<T> clazz,
+      List<Long> order) {
     log.info("setOrder executing with " + order.size() + " items passed in.");
     ServletUtils.requireAccess(userService.hasEditAccess(projectId));
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      Query jdoQuery = pm.newQuery(clazz);
-      jdoQuery.setFilter("parentProjectId == parentProjectParam");
-      jdoQuery.declareParameters("Long parentProjectParam");
-      List<T> items = (List<T>) jdoQuery.execute(projectId);
-
-      Map<Long, Integer> lookup = Maps.newHashMap();
-      for (int i = 0; i < order.size(); i++) {
-        Long id = order.get(i);
-        lookup.put(id, i);
-      }
-      for (T item : items) {
-        Long id = getId.apply(item);
-        Integer newIndex = lookup.get(id);
-        if (newIndex != null) {
-          if (applyOrder.apply(item, newIndex)) {
-            pm.makePersistent(item);
-          }
-        } else {
-          log.warning("Project contains item not covered in new ordering - ID: " + id);
+    PersistenceManager pm = pmProvider.get();
+    Query jdoQuery = pm.newQuery(clazz);
+    jdoQuery.setFilter("parentProjectId == parentProjectParam");
+    jdoQuery.declareParameters("Long parentProjectParam");
+    List<T> items = (List<T>) jdoQuery.execute(projectId);
+
+    Map<Long, Integer> lookup = Maps.newHashMap();
+    for (int i = 0; i < order.size(); i++) {
+      Long id = order.get(i);
+      lookup.put(id, i);
+    }
+    List<T> changed = Lists.newArrayList();
+    for (T item : items) {
+      Long id = item.getId();
+      Integer newIndex = lookup.get(id);
+      if (newIndex != null) {
+        if (item.getDisplayOrder() != newIndex * ORDER_GAP) {
+          item.setDisplayOrder(newIndex * ORDER_GAP);
+          changed.add(item);
         }
+      } else {
+        log.warning("Project contains item not covered in new ordering - ID: " + id);
       }
-    } finally {
-      pm.close();
     }
+    pm.makePersistentAll(changed);
     log.info("setOrder complete");
   }
 
   @Override
   public void reorderCapabilities(long projectId, List<Long> newOrdering) {
     log.info("Reordering capabilities for project: " + Long.toString(projectId));
-    Function<Capability, Long> getId = new Function<Capability, Long>() {
-      @Override
-      public Long apply(Capability input) {
-        return input.getCapabilityId();
-      }
-    };
-    Setter<Capability> setId = new Setter<Capability>() {
-      @Override
-      public boolean apply(Capability input, long value) {
-        if (input.getDisplayOrder() != value) {
-          input.setDisplayOrder(value);
-          return true;
-        }
-        return false;
-      }
-    };
-    setOrder(projectId, Capability.class, newOrdering, getId, setId);
+    setOrder(projectId, Capability.class, newOrdering);
   }
 
-  @SuppressWarnings("unchecked")
   @Override
   public void reorderComponents(long projectId, List<Long> newOrdering) {
     log.info("Reordering Components for project: " + Long.toString(projectId));
-    Function<Component, Long> getId = new Function<Component, Long>() {
-      @Override
-      public Long apply(Component input) {
-        return input.getComponentId();
+    setOrder(projectId, Component.class, newOrdering);
+  }
+
+  @Override
+  public void moveElement(long projectId, AccElementType type, long id, Long beforeId,
+      Long afterId) {
+    log.info("Moving " + type + " " + id + " between " + beforeId + " and " + afterId);
+    ServletUtils.requireAccess(userService.hasEditAccess(projectId));
+    Class<? extends HasDisplayOrder> clazz = getOrderedClass(type);
+
+    PersistenceManager pm = pmProvider.get();
+    HasDisplayOrder item = getOrderedItem(projectId, clazz, id, pm);
+    HasDisplayOrder before = getOrderedItem(projectId, clazz, beforeId, pm);
+    HasDisplayOrder after = getOrderedItem(projectId, clazz, afterId, pm);
+    Long order = getOrderBetween(before, after);
+    if (order == null) {
+      // There is no room left between the neighbours, so respace the whole list now.  The
+      // neighbours are the same instances as the rebalanced items, so see the new orders.
+      rebalanceOrder(projectId, clazz, pm);
+      order = getOrderBetween(before, after);
+      if (order == null) {
+        log.warning("Neighbours are out of order, ignoring move of " + type + " " + id);
+        return;
       }
-    };
-    Setter<Component> setId = new Setter<Component>() {
-      @Override
-      public boolean apply(Component input, long value) {
-        if (input.getDisplayOrder() != value) {
-          input.setDisplayOrder(value);
-          return true;
-        }
-        return false;
+    } else if ((before != null && order - before.getDisplayOrder() < MIN_ORDER_GAP)
+        || (after != null && after.getDisplayOrder() - order < MIN_ORDER_GAP)) {
+      // Running low on room; respace in the background before the next move runs out.
+      RebalanceOrderTask.queue(projectId, type);
+    }
+    item.setDisplayOrder(order);
+    pm.makePersistent(item);
+  }
+
+  @Override
+  public void rebalanceOrder(long projectId, AccElementType type) {
+    PersistenceManager pm = pmProvider.get();
+    rebalanceOrder(projectId, getOrderedClass(type), pm);
+  }
+
+  /**
+   * Respaces the display orders of a project's items ORDER_GAP apart, keeping their order.  Only
+   * items whose display order changes are written.
+   */
+  @SuppressWarnings("unchecked")
+  private void rebalanceOrder(long projectId, Class<? extends HasDisplayOrder> clazz,
+      PersistenceManager pm) {
+    Query jdoQuery = pm.newQuery(clazz);
+    jdoQuery.setFilter("parentProjectId == parentProjectParam");
+    jdoQuery.setOrdering("displayOrder asc");
+    jdoQuery.declareParameters("Long parentProjectParam");
+    List<HasDisplayOrder> items = (List<HasDisplayOrder>) jdoQuery.execute(projectId);
+
+    List<HasDisplayOrder> changed = Lists.newArrayList();
+    for (int i = 0; i < items.size(); i++) {
+      HasDisplayOrder item = items.get(i);
+      if (item.getDisplayOrder() != i * ORDER_GAP) {
+        item.setDisplayOrder(i * ORDER_GAP);
+        changed.add(item);
       }
-    };
-    setOrder(projectId, Component.class, newOrdering, getId, setId);
+    }
+    pm.makePersistentAll(changed);
+    log.info("Rebalanced " + clazz.getSimpleName() + " order for project " + projectId + ", "
+        + changed.size() + " of " + items.size() + " items changed.");
+  }
+
+  /**
+   * Returns a display order between two neighbouring items, either of which may be null at the
+   * ends of the list; or null if there is no room between them.
+   */
+  static Long getOrderBetween(HasDisplayOrder before, HasDisplayOrder after) {
+    if (before == null && after == null) {
+      return 0L;
+    } else if (before == null) {
+      return after.getDisplayOrder() - ORDER_GAP;
+    } else if (after == null) {
+      return before.getDisplayOrder() + ORDER_GAP;
+    }
+    long low = before.getDisplayOrder();
+    long high = after.getDisplayOrder();
+    if (high - low < 2) {
+      return null;
+    }
+    return low + (high - low) / 2;
   }
 
-  private interface Setter<F> {
-    boolean apply(F input, long value);
+  /** Returns a project's item, or null if the ID is null. */
+  private HasDisplayOrder getOrderedItem(long projectId, Class<? extends HasDisplayOrder> clazz,
+      Long id, PersistenceManager pm) {
+    if (id == null) {
+      return null;
+    }
+    HasDisplayOrder item = pm.getObjectById(clazz, id);
+    if (item.getParentProjectId() != projectId) {
+      log.severe("Possible attack -- moving an item relative to another project's item.");
+      ServletUtils.requireAccess(false);
+    }
+    return item;
+  }
+
+  private Class<? extends HasDisplayOrder> getOrderedClass(AccElementType type) {
+    switch (type) {
+      case ATTRIBUTE:
+        return Attribute.class;
+      case COMPONENT:
+        return Component.class;
+      case CAPABILITY:
+        return Capability.class;
+      default:
+        throw new IllegalArgumentException("Unknown element type: " + type);
+    }
   }
 
   @Override
@@ -789,25 +854,21 @@ public class ProjectServiceImpl implements ProjectService {
     ServletUtils.requireAccess(userService.hasViewAccess(projectId));
     log.info("Getting capability for project by id: " + Long.toString(projectId) + ", "
         + Long.toString(capabilityId));
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
 
     Query jdoQuery = pm.newQuery(Capability.class);
     jdoQuery.setFilter(
         "parentProjectId == parentProjectParam && capabilityId == capabilityIdParam");
     jdoQuery.declareParameters("Long parentProjectParam, Long capabilityIdParam");
-    try {
-      List<Capability> results = (List<Capability>) jdoQuery.execute(
-          projectId, capabilityId);
-      if (results.size() > 0) {
-        Capability c = results.get(0);
-        c = ServletUtils.makeGwtSafe(c, pm);
-        populateLabels(c, pm);
-        return c;
-      } else {
-        return null;
-      }
-    } finally {
-      pm.close();
+    List<Capability> results = (List<Capability>) jdoQuery.execute(
+        projectId, capabilityId);
+    if (results.size() > 0) {
+      Capability c = results.get(0);
+      c = ServletUtils.makeGwtSafe(c, pm);
+      attachLabels(c);
+      return c;
+    } else {
+      return null;
     }
   }
 
@@ -817,21 +878,17 @@ public class ProjectServiceImpl implements ProjectService {
     ServletUtils.requireAccess(userService.hasViewAccess(projectId));
 
     log.info("Getting Capabilities for project: " + Long.toString(projectId));
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
 
     Query jdoQuery = pm.newQuery(Capability.class);
     jdoQuery.setFilter("parentProjectId == parentProjectParam");
     jdoQuery.setOrdering("displayOrder asc");
     jdoQuery.declareParameters("Long parentProjectParam");
 
-    try {
-      List<Capability> returnedCapabilities = (List<Capability>) jdoQuery.execute(projectId);
-      returnedCapabilities = ServletUtils.makeGwtSafe(returnedCapabilities, pm);
-      populateLabels(returnedCapabilities, pm);
-      return returnedCapabilities;
-    } finally {
-      pm.close();
-    }
+    List<Capability> returnedCapabilities = (List<Capability>) jdoQuery.execute(projectId);
+    returnedCapabilities = ServletUtils.makeGwtSafe(returnedCapabilities, pm);
+    attachLabels(returnedCapabilities);
+    return returnedCapabilities;
   }
 
   @Override
@@ -846,22 +903,14 @@ public class ProjectServiceImpl implements ProjectService {
     log.info("Creating new Capability with name: " + capability.getName());
     capability.setName(capability.getName().trim());
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      pm.makePersistent(capability);
-      capability = ServletUtils.makeGwtSafe(capability, pm);
-
-      // If we have labels, update their element ID now that we have an ID.
-      if (capability.getAccLabels().size() > 0) {
-        pm.close();
-        updateLabelElementIds(capability, capability.getId());
-        pm = pmf.getPersistenceManager();
-        persistLabels(capability, pm);
-      }
-      return capability;
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    prepareLabels(capability);
+    pm.makePersistent(capability);
+    pm.flush();
+    riskService.invalidateRiskMatrix(capability.getParentProjectId());
+    capability = ServletUtils.makeGwtSafe(capability, pm);
+    attachLabels(capability);
+    return capability;
   }
 
   @Override
@@ -875,20 +924,23 @@ public class ProjectServiceImpl implements ProjectService {
     ServletUtils.requireAccess(userService.hasEditAccess(capability.getParentProjectId()));
 
     log.info("Updating capability: " + capability.getCapabilityId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      Capability oldCapability = pm.getObjectById(Capability.class, capability.getCapabilityId());
-      if (oldCapability.getParentProjectId() != capability.getParentProjectId()) {
-        log.severe("Possible attack -- capability sent in and capability being overwritten had"
-            + " different project IDs.");
-        ServletUtils.requireAccess(false);
-      }
+    PersistenceManager pm = pmProvider.get();
+    Capability oldCapability = pm.getObjectById(Capability.class, capability.getCapabilityId());
+    if (oldCapability.getParentProjectId() != capability.getParentProjectId()) {
+      log.severe("Possible attack -- capability sent in and capability being overwritten had"
+          + " different project IDs.");
+      ServletUtils.requireAccess(false);
+    }
 
-      pm.makePersistent(capability);
-      persistLabels(capability, pm);
-    } finally {
-      pm.close();
+    if (oldCapability.getAttributeId() != capability.getAttributeId()
+        || oldCapability.getComponentId() != capability.getComponentId()) {
+      moveSignoff(capability, pm);
     }
+
+    prepareLabels(capability);
+    pm.makePersistent(capability);
+    pm.flush();
+    riskService.invalidateRiskMatrix(capability.getParentProjectId());
   }
 
   @Override
@@ -899,16 +951,43 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     log.info("Removing Capability: " + capability.getCapabilityId().toString());
-    PersistenceManager pm = pmf.getPersistenceManager();
+    PersistenceManager pm = pmProvider.get();
+    Capability capabilityToDelete = pm.getObjectById(
+                                        Capability.class, capability.getCapabilityId());
+    ServletUtils.requireAccess(userService.hasEditAccess(
+        capabilityToDelete.getParentProjectId()));
+    pm.deletePersistent(capabilityToDelete);
+    deleteSignoff(capabilityToDelete.getParentProjectId(), AccElementType.CAPABILITY,
+        capabilityToDelete.getCapabilityId(), pm);
+    pm.flush();
+    riskService.invalidateRiskMatrix(capabilityToDelete.getParentProjectId());
+  }
+
+  /** Deletes the signoff of an ACC element, if it has one. */
+  private void deleteSignoff(long projectId, AccElementType type, long elementId,
+      PersistenceManager pm) {
+    try {
+      pm.deletePersistent(pm.getObjectById(Signoff.class,
+          Signoff.getKeyName(projectId, type, elementId)));
+    } catch (JDOObjectNotFoundException e) {
+      // Never signed off, nothing to delete.
+    }
+  }
+
+  /**
+   * Updates the Attribute and Component stored on a capability's signoff, if it has one, after
+   * the capability has moved.
+   */
+  private void moveSignoff(Capability capability, PersistenceManager pm) {
     try {
-      Capability capabilityToDelete = pm.getObjectById(
-                                          Capability.class, capability.getCapabilityId());
-      ServletUtils.requireAccess(userService.hasEditAccess(
-          capabilityToDelete.getParentProjectId()));
-      pm.deletePersistent(capabilityToDelete);
-      deleteLabels(capabilityToDelete, pm);
-    } finally {
-      pm.close();
+      Signoff signoff = pm.getObjectById(Signoff.class, Signoff.getKeyName(
+          capability.getParentProjectId(), AccElementType.CAPABILITY,
+          capability.getCapabilityId()));
+      signoff.setAttributeId(capability.getAttributeId());
+      signoff.setComponentId(capability.getComponentId());
+      pm.makePersistent(signoff);
+    } catch (JDOObjectNotFoundException e) {
+      // Never signed off, nothing to update.
     }
   }
 
@@ -0,0 +1,482 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.appengine.api.memcache.Expiration;
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.api.memcache.MemcacheService.IdentifiableValue;
+import com.google.appengine.api.memcache.MemcacheService.SetPolicy;
+import com.google.appengine.api.memcache.MemcacheServiceFactory;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.model.AccLabel;
+import com.google.testing.testify.risk.frontend.model.Attribute;
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.Capability;
+import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.Component;
+import com.google.testing.testify.risk.frontend.model.DatumType;
+import com.google.testing.testify.risk.frontend.model.HasLabels;
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
+import com.google.testing.testify.risk.frontend.model.RiskSnapshot;
+import com.google.testing.testify.risk.frontend.model.RiskSource;
+import com.google.testing.testify.risk.frontend.model.RiskTrend;
+import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.server.service.RiskService;
+import com.google.testing.testify.risk.frontend.server.service.UserService;
+import com.google.testing.testify.risk.frontend.server.util.DirectoryPaths;
+import com.google.testing.testify.risk.frontend.server.util.RiskEngine;
+import com.google.testing.testify.risk.frontend.server.util.RiskInput;
+import com.google.testing.testify.risk.frontend.server.util.ServletUtils;
+import com.google.testing.testify.risk.frontend.server.util.SnapshotEncoding;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+/**
+ * Implementation of RiskService.  Risk matrices are computed by {@link RiskEngine} and cached in
+ * memcache.  Changes to bugs and tests update the cached matrix in place through
+ * {@link #updateRiskMatrix}, so uploads don't force a recompute over all of a project's data.
+ * Changes to the ACC elements themselves change the shape of the matrix, and must call
+ * {@link #invalidateRiskMatrix(long)} instead.
+ *
+ * Code churn is cached apart from the rest of the matrix, and only for a while, as it counts the
+ * checkins of the last few days.  It is computed from the "Path-" labels of Components and
+ * Capabilities, with one query per path against the directory prefixes indexed on each
+ * checkin.
+ *
+ * A {@link RiskSnapshot} of every project's matrix is written daily, from which
+ * {@link #getRiskTrend} reads how risk has changed over time.
+ */
+@Singleton
+public class RiskServiceImpl implements RiskService {
+  private static final Logger log = Logger.getLogger(RiskServiceImpl.class.getName());
+  private static final String CACHE_KEY_PREFIX = "RiskMatrix:";
+  private static final String CHURN_CACHE_KEY_PREFIX = "CodeChurn:";
+  private static final long DEFAULT_CHURN_DAYS = 30;
+  private static final int CHURN_CACHE_SECONDS = 60 * 60;
+  /**
+   * How long a cached matrix lives.  Updates keep it current, so this only bounds how long a
+   * matrix which somehow missed an update can be served.
+   */
+  private static final int MATRIX_CACHE_SECONDS = 24 * 60 * 60;
+  /**
+   * Cached in place of a matrix while one is computed.  Updates which find it delete it, so the
+   * matrix being computed, which may have been read before their data was written, is not
+   * cached.
+   */
+  private static final String COMPUTING = "computing";
+  /** How long the placeholder lives, should the request computing the matrix die. */
+  private static final int COMPUTING_SECONDS = 60;
+  /** How often, in days, a snapshot is encoded on its own rather than against the day before. */
+  private static final long KEYFRAME_DAYS = 7;
+  /** How many times to retry a cached matrix update which raced with another update. */
+  private static final int UPDATE_ATTEMPTS = 3;
+
+  private final Provider<PersistenceManager> pmProvider;
+  private final UserService userService;
+  private final RiskEngine riskEngine = new RiskEngine();
+  /** How many days of checkins count towards code churn. */
+  private final long churnDays = Long.getLong(
+      "com.google.testing.testify.risk.frontend.churndays", DEFAULT_CHURN_DAYS);
+
+  @Inject
+  public RiskServiceImpl(Provider<PersistenceManager> pmProvider, UserService userService) {
+    this.pmProvider = pmProvider;
+    this.userService = userService;
+  }
+
+  @Override
+  public RiskMatrix getRiskMatrix(long projectId) {
+    ServletUtils.requireAccess(userService.hasViewAccess(projectId));
+    return loadRiskMatrix(projectId);
+  }
+
+  /** Returns a project's risk matrix, code churn included, without checking access. */
+  private RiskMatrix loadRiskMatrix(long projectId) {
+    MemcacheService memcache = MemcacheServiceFactory.getMemcacheService();
+    String key = getCacheKey(projectId);
+    Object cached = memcache.get(key);
+    RiskMatrix matrix;
+    if (cached instanceof RiskMatrix) {
+      matrix = (RiskMatrix) cached;
+    } else {
+      // Claim the entry before reading any data, so an update written while the matrix is
+      // computed clears the claim and the possibly stale result is not cached.
+      memcache.put(key, COMPUTING, Expiration.byDeltaSeconds(COMPUTING_SECONDS),
+          SetPolicy.ADD_ONLY_IF_NOT_PRESENT);
+      IdentifiableValue claim = memcache.getIdentifiable(key);
+      matrix = computeRiskMatrix(projectId);
+      if (claim != null && COMPUTING.equals(claim.getValue())) {
+        memcache.putIfUntouched(key, claim, matrix,
+            Expiration.byDeltaSeconds(MATRIX_CACHE_SECONDS));
+      }
+    }
+
+    RiskMatrix churn = (RiskMatrix) memcache.get(getChurnCacheKey(projectId));
+    if (churn == null) {
+      churn = computeCodeChurn(projectId, matrix.getAttributeIds(), matrix.getComponentIds());
+      memcache.put(getChurnCacheKey(projectId), churn,
+          Expiration.byDeltaSeconds(CHURN_CACHE_SECONDS));
+    }
+    for (long attributeId : matrix.getAttributeIds()) {
+      for (long componentId : matrix.getComponentIds()) {
+        matrix.addValue(RiskSource.CODE_CHURN, attributeId, componentId,
+            churn.getValue(RiskSource.CODE_CHURN, attributeId, componentId));
+      }
+    }
+    return matrix;
+  }
+
+  @Override
+  public void invalidateRiskMatrix(long projectId) {
+    MemcacheServiceFactory.getMemcacheService().deleteAll(
+        Lists.newArrayList(getCacheKey(projectId), getChurnCacheKey(projectId)));
+  }
+
+  @Override
+  public void updateRiskMatrix(long projectId, List<RiskInput> removed, List<RiskInput> added) {
+    if (removed.isEmpty() && added.isEmpty()) {
+      return;
+    }
+    MemcacheService memcache = MemcacheServiceFactory.getMemcacheService();
+    if (hasCheckins(removed) || hasCheckins(added)) {
+      memcache.delete(getChurnCacheKey(projectId));
+    }
+    String key = getCacheKey(projectId);
+    Map<Long, Capability> capabilities = null;
+    for (int attempt = 0; attempt < UPDATE_ATTEMPTS; attempt++) {
+      IdentifiableValue cached = memcache.getIdentifiable(key);
+      if (cached == null) {
+        // Nothing to update; the next request computes the matrix from scratch.
+        return;
+      }
+      if (!(cached.getValue() instanceof RiskMatrix)) {
+        // A matrix is being computed, perhaps from data read before this change.  Dropping the
+        // placeholder keeps that matrix out of the cache.
+        memcache.delete(key);
+        return;
+      }
+      if (capabilities == null) {
+        capabilities = getCapabilities(projectId);
+      }
+      RiskMatrix matrix = (RiskMatrix) cached.getValue();
+      for (RiskInput input : removed) {
+        riskEngine.applyRiskInput(matrix, input, capabilities, -1);
+      }
+      for (RiskInput input : added) {
+        riskEngine.applyRiskInput(matrix, input, capabilities, 1);
+      }
+      if (memcache.putIfUntouched(key, cached, matrix,
+          Expiration.byDeltaSeconds(MATRIX_CACHE_SECONDS))) {
+        return;
+      }
+    }
+    log.warning("Could not update risk matrix for project " + projectId + ", invalidating.");
+    memcache.delete(key);
+  }
+
+  /**
+   * Recomputes the risk matrix from scratch and compares it with the cached, incrementally
+   * updated, one.  The freshly computed matrix replaces the cached one.  This does not check
+   * access, and is only exposed through admin-only tasks.
+   */
+  @Override
+  public List<String> verifyRiskMatrix(long projectId) {
+    MemcacheService memcache = MemcacheServiceFactory.getMemcacheService();
+    Object cachedValue = memcache.get(getCacheKey(projectId));
+    RiskMatrix computed = computeRiskMatrix(projectId);
+    memcache.put(getCacheKey(projectId), computed,
+        Expiration.byDeltaSeconds(MATRIX_CACHE_SECONDS));
+    if (!(cachedValue instanceof RiskMatrix)) {
+      log.info("No cached risk matrix for project " + projectId + " to verify.");
+      return Lists.newArrayList();
+    }
+    List<String> differences = RiskEngine.diff(computed, (RiskMatrix) cachedValue);
+    for (String difference : differences) {
+      log.warning("Risk matrix for project " + projectId + " is inconsistent. " + difference);
+    }
+    return differences;
+  }
+
+  /**
+   * Writes today's snapshot of a project's risk matrix.  This does not check access, and is only
+   * exposed through admin-only tasks.
+   */
+  @Override
+  public void snapshotRiskMatrix(long projectId) {
+    long today = TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis());
+    RiskMatrix matrix = loadRiskMatrix(projectId);
+    long[] values = getSnapshotValues(matrix);
+
+    PersistenceManager pm = pmProvider.get();
+    RiskSnapshot snapshot = new RiskSnapshot(projectId, today, matrix.getAttributeIds(),
+        matrix.getComponentIds());
+    RiskSnapshot previous = getLatestSnapshot(projectId, today - 1, pm);
+    long[] previousValues = null;
+    if (previous != null && previous.hasSameCells(matrix)
+        && today - previous.getKeyframeDay() < KEYFRAME_DAYS) {
+      previousValues = decodeSnapshots(
+          getSnapshots(projectId, previous.getKeyframeDay(), previous.getDay(), pm), null, 0);
+    }
+    if (previousValues != null) {
+      snapshot.setKeyframeDay(previous.getKeyframeDay());
+    }
+    snapshot.setValues(SnapshotEncoding.encode(values, previousValues));
+    pm.makePersistent(snapshot);
+    log.info("Wrote " + (snapshot.isKeyframe() ? "keyframe" : "delta") + " risk snapshot for "
+        + "project " + projectId + ", " + snapshot.getValues().length + " bytes.");
+  }
+
+  @Override
+  public RiskTrend getRiskTrend(long projectId, Long attributeId, Long componentId,
+      long fromDate, long toDate) {
+    ServletUtils.requireAccess(userService.hasViewAccess(projectId));
+    long fromDay = TimeUnit.MILLISECONDS.toDays(fromDate);
+    long toDay = TimeUnit.MILLISECONDS.toDays(toDate);
+
+    RiskTrend trend = new RiskTrend(projectId, attributeId, componentId);
+    PersistenceManager pm = pmProvider.get();
+    // Decoding has to start from the keyframe before the first day asked for.
+    RiskSnapshot first = getLatestSnapshot(projectId, fromDay, pm);
+    long startDay = first == null ? fromDay : first.getKeyframeDay();
+    decodeSnapshots(getSnapshots(projectId, startDay, toDay, pm), trend, fromDay);
+    return trend;
+  }
+
+  /** The risk of every cell followed by the mitigation of every cell, in fixed point. */
+  private long[] getSnapshotValues(RiskMatrix matrix) {
+    List<Long> attributeIds = matrix.getAttributeIds();
+    List<Long> componentIds = matrix.getComponentIds();
+    int cells = attributeIds.size() * componentIds.size();
+    long[] values = new long[2 * cells];
+    for (int cIndex = 0; cIndex < componentIds.size(); cIndex++) {
+      for (int aIndex = 0; aIndex < attributeIds.size(); aIndex++) {
+        double risk = 0.0;
+        double mitigation = 0.0;
+        for (RiskSource source : RiskSource.values()) {
+          double value = matrix.getValue(source, attributeIds.get(aIndex),
+              componentIds.get(cIndex));
+          if (value < 0) {
+            mitigation += value;
+          } else {
+            risk += value;
+          }
+        }
+        int index = cIndex * attributeIds.size() + aIndex;
+        values[index] = SnapshotEncoding.toFixed(risk);
+        values[cells + index] = SnapshotEncoding.toFixed(mitigation);
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Decodes a run of snapshots, in order, which starts with a keyframe.
+   *
+   * @param trend receives each decoded day from fromDay on, or null.
+   * @return the values of the last snapshot, or null if there were none.
+   */
+  private long[] decodeSnapshots(List<RiskSnapshot> snapshots, RiskTrend trend, long fromDay) {
+    long[] values = null;
+    for (RiskSnapshot snapshot : snapshots) {
+      int length = 2 * snapshot.getAttributeIds().size() * snapshot.getComponentIds().size();
+      if (snapshot.isKeyframe()) {
+        values = SnapshotEncoding.decode(snapshot.getValues(), null, length);
+      } else if (values != null && values.length == length) {
+        values = SnapshotEncoding.decode(snapshot.getValues(), values, length);
+      } else {
+        log.warning("Missing the snapshots before risk snapshot " + snapshot.getId());
+        values = null;
+        continue;
+      }
+      if (trend != null && snapshot.getDay() >= fromDay) {
+        addToTrend(trend, snapshot, values);
+      }
+    }
+    return values;
+  }
+
+  /** Adds the risk of the trend's cell, or of every cell if it has none, on a snapshot's day. */
+  private void addToTrend(RiskTrend trend, RiskSnapshot snapshot, long[] values) {
+    List<Long> attributeIds = snapshot.getAttributeIds();
+    List<Long> componentIds = snapshot.getComponentIds();
+    int cells = attributeIds.size() * componentIds.size();
+    long risk = 0;
+    long mitigation = 0;
+    boolean found = false;
+    for (int cIndex = 0; cIndex < componentIds.size(); cIndex++) {
+      for (int aIndex = 0; aIndex < attributeIds.size(); aIndex++) {
+        if ((trend.getAttributeId() == null
+                || trend.getAttributeId().equals(attributeIds.get(aIndex)))
+            && (trend.getComponentId() == null
+                || trend.getComponentId().equals(componentIds.get(cIndex)))) {
+          int index = cIndex * attributeIds.size() + aIndex;
+          risk += values[index];
+          mitigation += values[cells + index];
+          found = true;
+        }
+      }
+    }
+    if (found || (trend.getAttributeId() == null && trend.getComponentId() == null)) {
+      trend.add(TimeUnit.DAYS.toMillis(snapshot.getDay()), SnapshotEncoding.fromFixed(risk),
+          SnapshotEncoding.fromFixed(mitigation));
+    }
+  }
+
+  /** Returns a project's last snapshot on or before a day, or null if there is none. */
+  @SuppressWarnings("unchecked")
+  private RiskSnapshot getLatestSnapshot(long projectId, long day, PersistenceManager pm) {
+    Query query = pm.newQuery(RiskSnapshot.class);
+    query.declareParameters("Long projectParam, Long dayParam");
+    query.setFilter("parentProjectId == projectParam && day <= dayParam");
+    query.setOrdering("day desc");
+    query.setRange(0, 1);
+    List<RiskSnapshot> results = (List<RiskSnapshot>) query.execute(projectId, day);
+    return results.isEmpty() ? null : results.get(0);
+  }
+
+  /** Returns a project's snapshots from one day to another, inclusive, in order. */
+  @SuppressWarnings("unchecked")
+  private List<RiskSnapshot> getSnapshots(long projectId, long fromDay, long toDay,
+      PersistenceManager pm) {
+    Query query = pm.newQuery(RiskSnapshot.class);
+    query.declareParameters("Long projectParam, Long fromParam, Long toParam");
+    query.setFilter("parentProjectId == projectParam && day >= fromParam && day <= toParam");
+    query.setOrdering("day asc");
+    return (List<RiskSnapshot>) query.execute(projectId, fromDay, toDay);
+  }
+
+  /** Loads the project's capabilities, by ID. */
+  @SuppressWarnings("unchecked")
+  private Map<Long, Capability> getCapabilities(long projectId) {
+    PersistenceManager pm = pmProvider.get();
+    List<Capability> results = ServletUtils.makeGwtSafe(
+        (List<Capability>) newProjectQuery(Capability.class, pm).execute(projectId), pm);
+    Map<Long, Capability> capabilities = Maps.newHashMap();
+    for (Capability capability : results) {
+      capabilities.put(capability.getCapabilityId(), capability);
+    }
+    return capabilities;
+  }
+
+  @SuppressWarnings("unchecked")
+  private RiskMatrix computeRiskMatrix(long projectId) {
+    log.info("Computing risk matrix for project: " + projectId);
+    long start = System.currentTimeMillis();
+    PersistenceManager pm = pmProvider.get();
+    RiskMatrix matrix = riskEngine.computeRisk(projectId,
+        (List<Attribute>) newProjectQuery(Attribute.class, pm).execute(projectId),
+        (List<Component>) newProjectQuery(Component.class, pm).execute(projectId),
+        (List<Capability>) newProjectQuery(Capability.class, pm).execute(projectId),
+        (List<Bug>) newProjectQuery(Bug.class, pm).execute(projectId),
+        (List<TestCase>) newProjectQuery(TestCase.class, pm).execute(projectId));
+    log.info("Computed risk matrix in " + (System.currentTimeMillis() - start) + "ms");
+    return matrix;
+  }
+
+  /**
+   * Computes the code churn of every cell, returned as a matrix with only code churn filled in.
+   */
+  @SuppressWarnings("unchecked")
+  private RiskMatrix computeCodeChurn(long projectId, List<Long> attributeIds,
+      List<Long> componentIds) {
+    RiskMatrix churn = new RiskMatrix(projectId, attributeIds, componentIds);
+    PersistenceManager pm = pmProvider.get();
+    // Labels are stored in their elements, so the paths come from the elements themselves.
+    List<Component> components =
+        (List<Component>) newProjectQuery(Component.class, pm).execute(projectId);
+    List<Capability> capabilities =
+        (List<Capability>) newProjectQuery(Capability.class, pm).execute(projectId);
+    Multimap<Long, String> componentPaths = getPaths(components);
+    Multimap<Long, String> capabilityPaths = getPaths(capabilities);
+    if (componentPaths.isEmpty() && capabilityPaths.isEmpty()) {
+      return churn;
+    }
+
+    long since = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(churnDays);
+    Query checkinQuery = pm.newQuery(Checkin.class);
+    checkinQuery.setResult("internalId");
+    checkinQuery.declareParameters(
+        "Long parentProjectParam, String pathParam, Long sinceParam");
+    checkinQuery.setFilter("parentProjectId == parentProjectParam"
+        + " && directoryPrefixes == pathParam && stateDate >= sinceParam");
+    Set<String> paths = Sets.newHashSet(componentPaths.values());
+    paths.addAll(capabilityPaths.values());
+    Multimap<String, String> checkinsByPath = HashMultimap.create();
+    for (String path : paths) {
+      checkinsByPath.putAll(path, (List<String>) checkinQuery.execute(projectId, path, since));
+    }
+
+    riskEngine.addCodeChurn(churn, capabilities, componentPaths, capabilityPaths,
+        checkinsByPath);
+    log.info("Computed code churn for project " + projectId + " from " + paths.size()
+        + " paths.");
+    return churn;
+  }
+
+  /** Returns the normalized paths of each element's "Path-" labels, by element ID. */
+  private Multimap<Long, String> getPaths(List<? extends HasLabels> elements) {
+    Multimap<Long, String> paths = HashMultimap.create();
+    for (HasLabels element : elements) {
+      if (element.getAccLabels() == null) {
+        continue;
+      }
+      for (AccLabel label : element.getAccLabels()) {
+        String path = DirectoryPaths.getPath(label);
+        if (path != null) {
+          paths.put(element.getId(), path);
+        }
+      }
+    }
+    return paths;
+  }
+
+  private static boolean hasCheckins(List<RiskInput> inputs) {
+    for (RiskInput input : inputs) {
+      if (input.getType() == DatumType.CHECKINS) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Query newProjectQuery(Class<?> clazz, PersistenceManager pm) {
+    Query query = pm.newQuery(clazz);
+    query.declareParameters("Long parentProjectParam");
+    query.setFilter("parentProjectId == parentProjectParam");
+    return query;
+  }
+
+  private static String getCacheKey(long projectId) {
+    return CACHE_KEY_PREFIX + projectId;
+  }
+
+  private static String getChurnCacheKey(long projectId) {
+    return CHURN_CACHE_KEY_PREFIX + projectId;
+  }
+}
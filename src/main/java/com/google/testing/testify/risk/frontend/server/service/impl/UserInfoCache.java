@@ -0,0 +1,90 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.testing.testify.risk.frontend.model.UserInfo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Short lived cache of detached UserInfo records, keyed by App Engine user ID.
+ *
+ * The whitelist filter looks up the current user's UserInfo on every request; with this cache it
+ * only reads the datastore once per user per timeout.  Users without a UserInfo record are cached
+ * too, as an absent value.  Changes made on this instance, eg: starring a project, should call
+ * {@link #invalidate(String)}; changes made elsewhere, such as whitelisting a user through the
+ * datastore admin console, are picked up when the entry expires.
+ */
+class UserInfoCache {
+  private static final Logger log = Logger.getLogger(UserInfoCache.class.getName());
+
+  private static final long DEFAULT_TIMEOUT_SECONDS = 60;
+  private static final long MAXIMUM_SIZE = 10000;
+  /** How often, in lookups, to log the cache hit rate. */
+  private static final long LOG_STATS_EVERY = 1000;
+
+  private final Cache<String, Optional<UserInfo>> cache;
+
+  UserInfoCache() {
+    this(Ticker.systemTicker(), Long.getLong(
+        "com.google.testing.testify.risk.frontend.userinfocachetimeout",
+        DEFAULT_TIMEOUT_SECONDS));
+  }
+
+  UserInfoCache(Ticker ticker, long timeoutSeconds) {
+    cache = CacheBuilder.newBuilder()
+        .expireAfterWrite(timeoutSeconds, TimeUnit.SECONDS)
+        .maximumSize(MAXIMUM_SIZE)
+        .ticker(ticker)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns the cached UserInfo, which is absent if the user has no UserInfo record; or null if
+   * there is no unexpired entry.
+   */
+  Optional<UserInfo> get(String userId) {
+    Optional<UserInfo> userInfo = cache.getIfPresent(userId);
+    CacheStats stats = cache.stats();
+    if (stats.requestCount() % LOG_STATS_EVERY == 0) {
+      log.info("User info cache: " + stats.hitCount() + " hits, " + stats.missCount()
+          + " misses, hit rate " + stats.hitRate());
+    }
+    return userInfo;
+  }
+
+  /**
+   * @param userInfo a detached copy of the user's UserInfo, or null if the user has none.
+   */
+  void put(String userId, UserInfo userInfo) {
+    cache.put(userId, Optional.fromNullable(userInfo));
+  }
+
+  void invalidate(String userId) {
+    cache.invalidate(userId);
+  }
+
+  CacheStats getStats() {
+    return cache.stats();
+  }
+}
@@ -19,8 +19,10 @@ import com.google.appengine.api.users.User;
 import com.google.appengine.api.users.UserServiceFactory;
 import com.google.appengine.api.utils.SystemProperty;
 import com.google.appengine.api.utils.SystemProperty.Environment.Value;
+import com.google.common.base.Optional;
 import com.google.common.collect.Lists;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
 import com.google.inject.Singleton;
 import com.google.testing.testify.risk.frontend.model.LoginStatus;
 import com.google.testing.testify.risk.frontend.model.Project;
@@ -32,7 +34,6 @@ import java.util.List;
 import java.util.logging.Logger;
 
 import javax.jdo.PersistenceManager;
-import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.Query;
 
 /**
@@ -49,12 +50,14 @@ public class UserServiceImpl implements UserService {
       Boolean.valueOf(System.getProperty("com.google.testing.testify.risk.frontend.whitelisting"));
 
   private static final Logger log = Logger.getLogger(UserServiceImpl.class.getName());
-  private final PersistenceManagerFactory pmf;
+  private final Provider<PersistenceManager> pmProvider;
   private final com.google.appengine.api.users.UserService userService;
+  private final AccessLevelCache accessCache = new AccessLevelCache();
+  private final UserInfoCache userInfoCache = new UserInfoCache();
 
   @Inject
-  public UserServiceImpl(PersistenceManagerFactory pmf) {
-    this.pmf = pmf;
+  public UserServiceImpl(Provider<PersistenceManager> pmProvider) {
+    this.pmProvider = pmProvider;
     // TODO(jimr): Inject this.
     this.userService = UserServiceFactory.getUserService();
   }
@@ -80,7 +83,7 @@ public class UserServiceImpl implements UserService {
     if (isInternalUser()) {
       return true;
     }
-    UserInfo user = getCurrentUserInfo(pmf.getPersistenceManager(), false);
+    UserInfo user = getCachedUserInfo();
     if (user == null) {
       return false;
     }
@@ -157,7 +160,9 @@ public class UserServiceImpl implements UserService {
 
   @Override
   public boolean hasAccess(ProjectAccess accessLevel, long projectId, String asEmail) {
-    return hasAccess(accessLevel, getProject(projectId), asEmail);
+    ProjectAccess accessHas = getAccessLevel(projectId, asEmail);
+    log.fine("Access has: " + accessHas.name() + " Access desired: " + accessLevel.name());
+    return accessHas.hasAccess(accessLevel);
   }
 
   private boolean hasAccess(ProjectAccess accessLevel, Project project, String asEmail) {
@@ -167,13 +172,13 @@ public class UserServiceImpl implements UserService {
     }
 
     ProjectAccess accessHas = getAccessLevel(project, asEmail);
-    log.info("Access has: " + accessHas.name() + " Access desired: " + accessLevel.name());
+    log.fine("Access has: " + accessHas.name() + " Access desired: " + accessLevel.name());
     return accessHas.hasAccess(accessLevel);
   }
 
   @Override
   public ProjectAccess getAccessLevel(long projectId) {
-    return getAccessLevel(getProject(projectId), getEmail());
+    return getAccessLevel(projectId, getEmail());
   }
 
   @Override
@@ -183,7 +188,18 @@ public class UserServiceImpl implements UserService {
 
   @Override
   public ProjectAccess getAccessLevel(long projectId, String asEmail) {
-    return getAccessLevel(getProject(projectId), asEmail);
+    boolean isAdministrator = asEmail != null && hasAdministratorAccess();
+    ProjectAccess access = accessCache.get(projectId, asEmail, isAdministrator);
+    if (access == null) {
+      access = getAccessLevel(getProject(projectId), asEmail);
+      accessCache.put(projectId, asEmail, isAdministrator, access);
+    }
+    return access;
+  }
+
+  @Override
+  public void invalidateAccessLevels(long projectId) {
+    accessCache.invalidate(projectId);
   }
 
   private ProjectAccess getAccessLevel(Project project, String asEmail) {
@@ -219,19 +235,14 @@ public class UserServiceImpl implements UserService {
   public List<Long> getStarredProjects() {
     log.info("Getting starred projects for current user.");
 
-    PersistenceManager pm = pmf.getPersistenceManager();
     List<Long> starredProjects = Lists.newArrayList();
-    try {
-      UserInfo userInfo = getCurrentUserInfo(pm, true);
+    UserInfo userInfo = getCachedUserInfo();
 
-      // Copy list items over since we cannot return the server-side list type to client-side code.
-      if (userInfo != null) {
-        for (long projectId : userInfo.getStarredProjects()) {
-          starredProjects.add(projectId);
-        }
+    // Copy list items over since we cannot return the server-side list type to client-side code.
+    if (userInfo != null) {
+      for (long projectId : userInfo.getStarredProjects()) {
+        starredProjects.add(projectId);
       }
-    } finally  {
-      pm.close();
     }
 
     return starredProjects;
@@ -241,15 +252,13 @@ public class UserServiceImpl implements UserService {
   public void starProject(long projectId) {
     log.info("Starring project: " + projectId);
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      UserInfo userInfo = getCurrentUserInfo(pm, true);
-      if (userInfo != null) {
-        userInfo.starProject(projectId);
-        pm.makePersistent(userInfo);
-      }
-    } finally  {
-      pm.close();
+    PersistenceManager pm = pmProvider.get();
+    UserInfo userInfo = getCurrentUserInfo(pm, true);
+    if (userInfo != null) {
+      userInfo.starProject(projectId);
+      pm.makePersistent(userInfo);
+      pm.flush();
+      userInfoCache.invalidate(userInfo.getUserId());
     }
   }
 
@@ -257,15 +266,13 @@ public class UserServiceImpl implements UserService {
   public void unstarProject(long projectId) {
     log.info("Unstarring project: " + projectId);
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      UserInfo userInfo = getCurrentUserInfo(pm, true);
-      if (userInfo != null) {
-        userInfo.unstarProject(projectId);
-        pm.makePersistent(userInfo);
-      }
-    } finally  {
-      pm.close();
+    PersistenceManager pm = pmProvider.get();
+    UserInfo userInfo = getCurrentUserInfo(pm, true);
+    if (userInfo != null) {
+      userInfo.unstarProject(projectId);
+      pm.makePersistent(userInfo);
+      pm.flush();
+      userInfoCache.invalidate(userInfo.getUserId());
     }
   }
 
@@ -276,6 +283,34 @@ public class UserServiceImpl implements UserService {
     return env.equals(SystemProperty.Environment.Value.Development);
   }
 
+  /**
+   * Returns a detached copy of the currently logged in user's UserInfo, from the cache if possible.
+   * Unlike {@link #getCurrentUserInfo(PersistenceManager, boolean)}, no UserInfo is created for a
+   * user who doesn't have one.
+   *
+   * @return the user's info, or null if the user is not logged in or has no UserInfo.
+   */
+  private UserInfo getCachedUserInfo() {
+    User appEngineUser = userService.getCurrentUser();
+    if (appEngineUser == null) {
+      return null;
+    }
+
+    String userId = appEngineUser.getUserId();
+    Optional<UserInfo> cached = userInfoCache.get(userId);
+    if (cached != null) {
+      return cached.orNull();
+    }
+
+    PersistenceManager pm = pmProvider.get();
+    UserInfo user = getCurrentUserInfo(pm, false);
+    if (user != null) {
+      user = pm.detachCopy(user);
+    }
+    userInfoCache.put(userId, user);
+    return user;
+  }
+
   /**
    * Returns all information Testify knows about the currently logged in user. If the logged in user
    * is not currently in Testify, a new UserInfo entry will be created. Also, will return null if
@@ -361,13 +396,9 @@ public class UserServiceImpl implements UserService {
   private Project getProject(long id) {
     // TODO(jimr): To reduce this code duplication, project loading should be done at a lower level
     // so that object can be injected both here and into project service.
-    log.info("Getting project: " + Long.toString(id));
+    log.fine("Getting project: " + Long.toString(id));
 
-    PersistenceManager pm = pmf.getPersistenceManager();
-    try {
-      return pm.getObjectById(Project.class, id);
-    } finally {
-      pm.close();
-    }
+    PersistenceManager pm = pmProvider.get();
+    return pm.getObjectById(Project.class, id);
   }
 }
@@ -0,0 +1,176 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.datastore.Cursor;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.QueryResultList;
+import com.google.appengine.api.taskqueue.TaskOptions;
+import com.google.appengine.api.taskqueue.TaskOptions.Method;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.testing.testify.risk.frontend.server.util.ServletUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Base of the migration tasks, which rewrite every entity of one or more kinds through the
+ * low-level datastore API.  Each task reads one batch of one kind, lets the subclass decide what
+ * to write and remove, and queues the next batch, moving on to the next kind when a kind is
+ * done.  A migration is requested once, by hand, after deploying the change which needs it.
+ *
+ * The expected data are:
+ *   - kind (optional, the kind being migrated; the first kind if missing)
+ *   - cursor (optional, where the batch starts)
+ */
+public abstract class BatchMigrationTask extends HttpServlet {
+  private static final Logger LOG = Logger.getLogger(BatchMigrationTask.class.getName());
+
+  public static final String QUEUE = "migration";
+
+  private static final int DEFAULT_BATCH_SIZE = 100;
+
+  private final String url;
+  private final List<String> kinds;
+  private final int batchSize;
+
+  protected BatchMigrationTask(String url, List<String> kinds) {
+    this(url, kinds, DEFAULT_BATCH_SIZE);
+  }
+
+  BatchMigrationTask(String url, List<String> kinds, int batchSize) {
+    this.url = url;
+    this.kinds = ImmutableList.copyOf(kinds);
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  public void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    doPost(req, resp);
+  }
+
+  @Override
+  public void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    // Bad parameters are logged without an error response, which would only cause the task to
+    // be retried.
+    String kind = req.getParameter("kind");
+    if (kind == null) {
+      kind = kinds.get(0);
+    } else if (!kinds.contains(kind)) {
+      LOG.severe("Unknown kind for " + url + ": " + kind);
+      return;
+    }
+    Cursor cursor = null;
+    if (req.getParameter("cursor") != null) {
+      try {
+        cursor = Cursor.fromWebSafeString(req.getParameter("cursor"));
+      } catch (IllegalArgumentException e) {
+        LOG.severe("Invalid cursor for " + url + ": " + req.getParameter("cursor"));
+        return;
+      }
+    }
+
+    Position next = runBatch(kind, cursor);
+    if (next != null) {
+      TaskOptions task = TaskOptions.Builder.withUrl(url).method(Method.POST)
+          .param("kind", next.kind);
+      if (next.cursor != null) {
+        task.param("cursor", next.cursor.toWebSafeString());
+      }
+      ServletUtils.queueWithRetries(QUEUE, task, "Migration " + url);
+    } else {
+      LOG.info("Migration " + url + " finished.");
+    }
+  }
+
+  /**
+   * Migrates the batch of a kind which starts at a cursor.
+   *
+   * @return where the next batch starts, or null if this was the last.
+   */
+  Position runBatch(String kind, Cursor cursor) throws IOException {
+    DatastoreService datastore = DatastoreServiceFactory.getDatastoreService();
+    FetchOptions options = FetchOptions.Builder.withLimit(batchSize);
+    if (cursor != null) {
+      options.startCursor(cursor);
+    }
+    QueryResultList<Entity> results =
+        datastore.prepare(new Query(kind)).asQueryResultList(options);
+
+    Changes changes = new Changes();
+    migrate(kind, results, datastore, changes);
+    // Write the new entities before removing the old ones, so a failure part way through loses
+    // nothing; the batch is simply migrated again on retry.
+    datastore.put(changes.puts);
+    datastore.delete(changes.deletes);
+    LOG.info("Migrated " + results.size() + " " + kind + " entities: wrote "
+        + changes.puts.size() + ", removed " + changes.deletes.size() + ".");
+
+    if (results.size() == batchSize) {
+      return new Position(kind, results.getCursor());
+    }
+    int nextKind = kinds.indexOf(kind) + 1;
+    return nextKind < kinds.size() ? new Position(kinds.get(nextKind), null) : null;
+  }
+
+  /**
+   * Decides what a batch writes and removes.  Anything written by an earlier attempt at the
+   * same batch may already be in the datastore.
+   *
+   * @param kind the kind of the entities in the batch.
+   * @param batch the entities read.
+   * @param datastore for reading any other entities needed.
+   * @param changes collects the entities to write and the keys to remove.
+   */
+  protected abstract void migrate(String kind, List<Entity> batch, DatastoreService datastore,
+      Changes changes) throws IOException;
+
+  /** The entities a batch writes, and the keys it removes once they are written. */
+  protected static class Changes {
+    private final List<Entity> puts = Lists.newArrayList();
+    private final List<Key> deletes = Lists.newArrayList();
+
+    public void put(Entity entity) {
+      puts.add(entity);
+    }
+
+    public void delete(Key key) {
+      deletes.add(key);
+    }
+  }
+
+  /** Where a batch starts. */
+  static class Position {
+    final String kind;
+    final Cursor cursor;
+
+    Position(String kind, Cursor cursor) {
+      this.kind = kind;
+      this.cursor = cursor;
+    }
+  }
+}
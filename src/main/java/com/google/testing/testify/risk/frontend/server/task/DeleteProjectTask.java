@@ -0,0 +1,79 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.taskqueue.TaskOptions;
+import com.google.appengine.api.taskqueue.TaskOptions.Method;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.server.service.ProjectService;
+import com.google.testing.testify.risk.frontend.server.util.ServletUtils;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * This task deletes one batch of a deleted project's data, then queues itself to run the next
+ * batch until everything which belonged to the project is gone.  Progress is checkpointed in the
+ * job's JobStatus after every batch, so if a batch fails the task queue's retry resumes from the
+ * last completed batch.
+ *
+ * The expected data are:
+ *   - jobId (the JobStatus of the job to continue)
+ */
+@Singleton
+public class DeleteProjectTask extends HttpServlet {
+  private static final Logger LOG = Logger.getLogger(DeleteProjectTask.class.getName());
+
+  public static final String QUEUE = "jobs";
+  public static final String URL = "/_tasks/deleteproject";
+
+  private final ProjectService projectService;
+
+  @Inject
+  public DeleteProjectTask(ProjectService projectService) {
+    this.projectService = projectService;
+  }
+
+  /** Queues the next batch of a job. */
+  public static boolean queue(long jobId) {
+    TaskOptions task = TaskOptions.Builder.withUrl(URL).method(Method.POST)
+        .param("jobId", Long.toString(jobId));
+    return ServletUtils.queueWithRetries(QUEUE, task, "Delete project job " + jobId);
+  }
+
+  @Override
+  public void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    long jobId;
+    try {
+      jobId = Long.parseLong(req.getParameter("jobId"));
+    } catch (NumberFormatException e) {
+      // No error response, which would only cause the task to be retried.
+      LOG.severe("Invalid job ID: " + req.getParameter("jobId"));
+      return;
+    }
+
+    if (projectService.deleteProjectDataBatch(jobId)) {
+      queue(jobId);
+    } else {
+      LOG.info("Delete project job finished: " + jobId);
+    }
+  }
+}
@@ -0,0 +1,235 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.datastore.Blob;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Query;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
+import com.google.testing.testify.risk.frontend.model.AccLabel;
+import com.google.testing.testify.risk.frontend.model.Attribute;
+import com.google.testing.testify.risk.frontend.model.Capability;
+import com.google.testing.testify.risk.frontend.model.Component;
+import com.google.testing.testify.risk.frontend.model.DataRequestOption;
+import com.google.testing.testify.risk.frontend.model.FilterOption;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Migration task which moves AccLabel, FilterOption and DataRequestOption entities, written
+ * before they were embedded, into the serialized fields of the entities they belong to.  Labels
+ * go to their Attribute, Component or Capability; options to their parent Filter or
+ * DataRequest, in their original order.  Each child is deleted once its parent is written, and
+ * children whose parent no longer exists are just deleted.  The parents keep a list of the
+ * children embedded in them, which is only read by this task.
+ */
+@Singleton
+public class EmbedChildEntitiesTask extends BatchMigrationTask {
+  private static final Logger LOG = Logger.getLogger(EmbedChildEntitiesTask.class.getName());
+
+  public static final String URL = "/_tasks/embedchildentities";
+
+  private static final String LABEL_KIND = AccLabel.class.getSimpleName();
+  private static final String FILTER_OPTION_KIND = FilterOption.class.getSimpleName();
+  private static final String REQUEST_OPTION_KIND = DataRequestOption.class.getSimpleName();
+
+  private static final List<String> KINDS =
+      ImmutableList.of(LABEL_KIND, FILTER_OPTION_KIND, REQUEST_OPTION_KIND);
+
+  /** Property of a parent listing the children embedded in it. */
+  private static final String EMBEDDED_PROPERTY = "embeddedChildKeys";
+
+  public EmbedChildEntitiesTask() {
+    super(URL, KINDS);
+  }
+
+  EmbedChildEntitiesTask(int batchSize) {
+    super(URL, KINDS, batchSize);
+  }
+
+  @Override
+  protected void migrate(String kind, List<Entity> batch, DatastoreService datastore,
+      Changes changes) throws IOException {
+    Map<Key, List<Entity>> byParent = Maps.newLinkedHashMap();
+    for (Entity child : batch) {
+      Key parent = getParentKey(kind, child);
+      if (parent == null) {
+        LOG.info("Dropping " + kind + " without a parent: " + child.getKey());
+        changes.delete(child.getKey());
+        continue;
+      }
+      List<Entity> children = byParent.get(parent);
+      if (children == null) {
+        children = Lists.newArrayList();
+        byParent.put(parent, children);
+      }
+      children.add(child);
+    }
+    if (!LABEL_KIND.equals(kind)) {
+      // Options are numbered across their parent's whole list, so all of a parent's options are
+      // embedded together, including any a later batch would have read.
+      for (Map.Entry<Key, List<Entity>> entry : byParent.entrySet()) {
+        entry.setValue(datastore.prepare(new Query(kind, entry.getKey()))
+            .asList(FetchOptions.Builder.withDefaults()));
+      }
+    }
+    for (List<Entity> children : byParent.values()) {
+      for (Entity child : children) {
+        changes.delete(child.getKey());
+      }
+    }
+
+    for (Entity parent : datastore.get(byParent.keySet()).values()) {
+      embed(kind, parent, byParent.get(parent.getKey()));
+      changes.put(parent);
+    }
+  }
+
+  /** Returns the key of the entity a child belongs to, or null if it doesn't say. */
+  private Key getParentKey(String kind, Entity child) {
+    if (!LABEL_KIND.equals(kind)) {
+      // Options were owned by their parent, so are in its entity group.
+      return child.getParent();
+    }
+    String elementType = (String) child.getProperty("elementType");
+    Long elementId = (Long) child.getProperty("elementId");
+    if (elementType == null || elementId == null) {
+      return null;
+    }
+    switch (AccElementType.valueOf(elementType)) {
+      case ATTRIBUTE:
+        return KeyFactory.createKey(Attribute.class.getSimpleName(), elementId);
+      case COMPONENT:
+        return KeyFactory.createKey(Component.class.getSimpleName(), elementId);
+      case CAPABILITY:
+        return KeyFactory.createKey(Capability.class.getSimpleName(), elementId);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Adds children to the serialized field of their parent.  The keys of the children embedded
+   * are recorded on the parent, so children embedded by an earlier attempt at a batch are
+   * skipped on retry, while children which are equal but distinct are all kept.
+   */
+  private void embed(String kind, Entity parent, List<Entity> children) throws IOException {
+    List<String> embedded = getEmbeddedKeys(parent);
+    List<Entity> added = Lists.newArrayList();
+    for (Entity child : children) {
+      String key = KeyFactory.keyToString(child.getKey());
+      if (!embedded.contains(key)) {
+        embedded.add(key);
+        added.add(child);
+      }
+    }
+
+    if (LABEL_KIND.equals(kind)) {
+      List<AccLabel> labels = readList(parent, "accLabels");
+      for (Entity child : added) {
+        AccLabel label = new AccLabel();
+        label.setName((String) child.getProperty("name"));
+        label.setValue((String) child.getProperty("value"));
+        labels.add(label);
+      }
+      AccLabel.assignIds(labels);
+      writeList(parent, "accLabels", labels);
+    } else if (FILTER_OPTION_KIND.equals(kind)) {
+      List<FilterOption> filterOptions = readList(parent, "filterOptions");
+      for (Entity child : sortByIndex(added, "filterOptions_INTEGER_IDX")) {
+        filterOptions.add(new FilterOption(
+            (String) child.getProperty("type"), (String) child.getProperty("value")));
+      }
+      writeList(parent, "filterOptions", filterOptions);
+    } else {
+      List<DataRequestOption> requestOptions = readList(parent, "dataRequestOptions");
+      for (Entity child : sortByIndex(added, "dataRequestOptions_INTEGER_IDX")) {
+        requestOptions.add(new DataRequestOption(
+            (String) child.getProperty("name"), (String) child.getProperty("value")));
+      }
+      writeList(parent, "dataRequestOptions", requestOptions);
+    }
+    parent.setUnindexedProperty(EMBEDDED_PROPERTY, embedded);
+  }
+
+  /** Returns the keys, as strings, of the children already embedded in a parent. */
+  @SuppressWarnings("unchecked")
+  private List<String> getEmbeddedKeys(Entity parent) {
+    List<String> keys = (List<String>) parent.getProperty(EMBEDDED_PROPERTY);
+    return keys == null ? Lists.<String>newArrayList() : Lists.newArrayList(keys);
+  }
+
+  /** Returns children in the order of their position in the parent's list. */
+  private List<Entity> sortByIndex(List<Entity> children, final String indexProperty) {
+    List<Entity> sorted = Lists.newArrayList(children);
+    Collections.sort(sorted, new Comparator<Entity>() {
+      @Override
+      public int compare(Entity a, Entity b) {
+        return Long.valueOf(getIndex(a)).compareTo(getIndex(b));
+      }
+
+      private long getIndex(Entity child) {
+        Long index = (Long) child.getProperty(indexProperty);
+        return index == null ? Long.MAX_VALUE : index;
+      }
+    });
+    return sorted;
+  }
+
+  /** Reads a serialized list field, as JDO stores it, or an empty list if it isn't set. */
+  @SuppressWarnings("unchecked")
+  private <T> List<T> readList(Entity parent, String property) throws IOException {
+    Blob blob = (Blob) parent.getProperty(property);
+    if (blob == null) {
+      return Lists.newArrayList();
+    }
+    ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(blob.getBytes()));
+    try {
+      return Lists.newArrayList((List<T>) in.readObject());
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Unreadable " + property + " in " + parent.getKey(), e);
+    } finally {
+      in.close();
+    }
+  }
+
+  /** Writes a list the way JDO stores a serialized field. */
+  private <T> void writeList(Entity parent, String property, List<T> list) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(new ArrayList<T>(list));
+    out.close();
+    parent.setUnindexedProperty(property, new Blob(bytes.toByteArray()));
+  }
+}
@@ -0,0 +1,61 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.server.util.DirectoryPaths;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Migration task which fills in the directory prefixes of Checkins saved before they were
+ * indexed, so they count towards code churn.  Checkins are rewritten in place, and only if their
+ * prefixes are missing or out of date.
+ */
+@Singleton
+public class IndexCheckinDirectoriesTask extends BatchMigrationTask {
+
+  public static final String URL = "/_tasks/indexcheckindirectories";
+
+  public IndexCheckinDirectoriesTask() {
+    super(URL, ImmutableList.of(Checkin.class.getSimpleName()));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  protected void migrate(String kind, List<Entity> batch, DatastoreService datastore,
+      Changes changes) {
+    for (Entity checkin : batch) {
+      Collection<String> directories = (Collection<String>) checkin.getProperty(
+          "directoriesTouched");
+      Set<String> prefixes = DirectoryPaths.getPrefixes(
+          directories == null ? Lists.<String>newArrayList() : directories);
+      Collection<String> existing = (Collection<String>) checkin.getProperty("directoryPrefixes");
+      if (existing == null || !prefixes.equals(Sets.newHashSet(existing))) {
+        checkin.setProperty("directoryPrefixes", Lists.newArrayList(prefixes));
+        changes.put(checkin);
+      }
+    }
+  }
+}
@@ -0,0 +1,124 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.DatumType;
+import com.google.testing.testify.risk.frontend.model.TestCase;
+
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Migration task which re-keys Bugs, TestCases and Checkins written before uploaded data were
+ * keyed by project and external ID.  Each old entity is copied to an entity with the key name
+ * from {@link DatumType#getKeyName}, and then deleted.  Where uploads had duplicated an item, the
+ * copies are merged into one, keeping any Attribute, Component or Capability assigned to either.
+ * An item uploaded again since deploying already has an entity under its new key; that entity
+ * is kept, and only gains the assignments it lacks.  Items without an external ID cannot be
+ * keyed, and are left under their old keys.
+ *
+ * Old entities still load until this has run, but uploads look items up by their new key, so a
+ * re-uploaded item is listed twice until it is merged here.
+ */
+@Singleton
+public class MigrateDatumKeysTask extends BatchMigrationTask {
+  private static final Logger LOG = Logger.getLogger(MigrateDatumKeysTask.class.getName());
+
+  public static final String URL = "/_tasks/migratedatumkeys";
+
+  private static final String[] ASSIGNMENTS =
+      {"targetAttributeId", "targetComponentId", "targetCapabilityId"};
+  private static final Map<String, DatumType> TYPES = Maps.newLinkedHashMap();
+  static {
+    TYPES.put(Bug.class.getSimpleName(), DatumType.BUGS);
+    TYPES.put(TestCase.class.getSimpleName(), DatumType.TESTS);
+    TYPES.put(Checkin.class.getSimpleName(), DatumType.CHECKINS);
+  }
+
+  public MigrateDatumKeysTask() {
+    super(URL, ImmutableList.copyOf(TYPES.keySet()));
+  }
+
+  MigrateDatumKeysTask(int batchSize) {
+    super(URL, ImmutableList.copyOf(TYPES.keySet()), batchSize);
+  }
+
+  @Override
+  protected void migrate(String kind, List<Entity> batch, DatastoreService datastore,
+      Changes changes) {
+    DatumType type = TYPES.get(kind);
+    Map<Key, Entity> migrated = Maps.newLinkedHashMap();
+    int unkeyed = 0;
+    for (Entity old : batch) {
+      if (old.getKey().getName() != null) {
+        // Already keyed by project and external ID.
+        continue;
+      }
+      Long projectId = (Long) old.getProperty("parentProjectId");
+      Long externalId = (Long) old.getProperty("externalId");
+      if (projectId == null || externalId == null) {
+        unkeyed++;
+        continue;
+      }
+      changes.delete(old.getKey());
+      Entity datum = new Entity(
+          KeyFactory.createKey(kind, type.getKeyName(projectId, externalId)));
+      datum.setPropertiesFrom(old);
+      mergeAssignments(migrated.get(datum.getKey()), datum);
+      migrated.put(datum.getKey(), datum);
+    }
+    if (unkeyed > 0) {
+      LOG.warning("Left " + unkeyed + " " + type.getPlural() + " without an external ID under "
+          + "their old keys.");
+    }
+
+    // An entity already under the new key was uploaded since deploying, or migrated from a
+    // duplicate by an earlier batch.  Either way its fields are at least as new as the old
+    // entity's, so it only gains the assignments it lacks.
+    Map<Key, Entity> existing = datastore.get(migrated.keySet());
+    for (Entity datum : migrated.values()) {
+      Entity current = existing.get(datum.getKey());
+      if (current == null) {
+        changes.put(datum);
+      } else {
+        mergeAssignments(datum, current);
+        changes.put(current);
+      }
+    }
+  }
+
+  /** Copies each assignment of one copy of an item to another copy which has none. */
+  private void mergeAssignments(Entity from, Entity to) {
+    if (from == null) {
+      return;
+    }
+    for (String property : ASSIGNMENTS) {
+      if (to.getProperty(property) == null && from.getProperty(property) != null) {
+        to.setProperty(property, from.getProperty(property));
+      }
+    }
+  }
+}
@@ -0,0 +1,99 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
+import com.google.testing.testify.risk.frontend.model.Capability;
+import com.google.testing.testify.risk.frontend.model.Signoff;
+
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Migration task which re-keys Signoff entities written before signoffs were keyed by their
+ * element.  Each old signoff is copied to an entity with the key name from
+ * {@link Signoff#getKeyName}, filling in the capability's Attribute and Component for capability
+ * signoffs, and then deleted.  Capability signoffs whose capability no longer exists are just
+ * deleted, as are old signoffs whose element has been signed off under its new key since deploy.
+ */
+@Singleton
+public class MigrateSignoffsTask extends BatchMigrationTask {
+  private static final Logger LOG = Logger.getLogger(MigrateSignoffsTask.class.getName());
+
+  public static final String URL = "/_tasks/migratesignoffs";
+
+  private static final String KIND = Signoff.class.getSimpleName();
+
+  public MigrateSignoffsTask() {
+    super(URL, ImmutableList.of(KIND));
+  }
+
+  @Override
+  protected void migrate(String kind, List<Entity> batch, DatastoreService datastore,
+      Changes changes) {
+    Map<Key, Entity> migrated = Maps.newHashMap();
+    for (Entity old : batch) {
+      if (old.getKey().getName() != null) {
+        // Already keyed by element.
+        continue;
+      }
+      Entity signoff = rekey(old, datastore);
+      if (signoff != null) {
+        migrated.put(signoff.getKey(), signoff);
+      }
+      changes.delete(old.getKey());
+    }
+
+    // A signoff written under the new key since deploy is newer than the old one.
+    Map<Key, Entity> existing = datastore.get(migrated.keySet());
+    for (Entity signoff : migrated.values()) {
+      if (!existing.containsKey(signoff.getKey())) {
+        changes.put(signoff);
+      }
+    }
+  }
+
+  /** Returns the re-keyed copy of an old signoff, or null if it should just be deleted. */
+  private Entity rekey(Entity old, DatastoreService datastore) {
+    long projectId = (Long) old.getProperty("parentProjectId");
+    AccElementType type = AccElementType.valueOf((String) old.getProperty("elementType"));
+    long elementId = (Long) old.getProperty("elementId");
+
+    Entity signoff = new Entity(KIND, Signoff.getKeyName(projectId, type, elementId));
+    signoff.setPropertiesFrom(old);
+    if (type == AccElementType.CAPABILITY) {
+      try {
+        Entity capability = datastore.get(
+            KeyFactory.createKey(Capability.class.getSimpleName(), elementId));
+        signoff.setProperty("attributeId", capability.getProperty("attributeId"));
+        signoff.setProperty("componentId", capability.getProperty("componentId"));
+      } catch (EntityNotFoundException e) {
+        LOG.info("Dropping signoff of deleted capability " + elementId);
+        return null;
+      }
+    }
+    return signoff;
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.taskqueue.TaskOptions;
+import com.google.appengine.api.taskqueue.TaskOptions.Method;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.server.service.DataService;
+import com.google.testing.testify.risk.frontend.server.util.ServletUtils;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * This task runs one batch of a "reapply filters" job, then queues itself to run the next batch
+ * until the job is complete.  Progress is checkpointed in the job's JobStatus after every batch,
+ * so if a batch fails the task queue's retry resumes from the last completed batch.
+ *
+ * The expected data are:
+ *   - jobId (the JobStatus of the job to continue)
+ */
+@Singleton
+public class ReapplyFiltersTask extends HttpServlet {
+  private static final Logger LOG = Logger.getLogger(ReapplyFiltersTask.class.getName());
+
+  public static final String QUEUE = "jobs";
+  public static final String URL = "/_tasks/reapplyfilters";
+
+  private final DataService dataService;
+
+  @Inject
+  public ReapplyFiltersTask(DataService dataService) {
+    this.dataService = dataService;
+  }
+
+  /** Queues the next batch of a job. */
+  public static boolean queue(long jobId) {
+    TaskOptions task = TaskOptions.Builder.withUrl(URL).method(Method.POST)
+        .param("jobId", Long.toString(jobId));
+    return ServletUtils.queueWithRetries(QUEUE, task, "Reapply filters job " + jobId);
+  }
+
+  @Override
+  public void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    long jobId;
+    try {
+      jobId = Long.parseLong(req.getParameter("jobId"));
+    } catch (NumberFormatException e) {
+      // No error response, which would only cause the task to be retried.
+      LOG.severe("Invalid job ID: " + req.getParameter("jobId"));
+      return;
+    }
+
+    if (dataService.reapplyFiltersBatch(jobId)) {
+      if (!queue(jobId)) {
+        // Otherwise the job would show as running forever.
+        LOG.severe("Could not queue the next batch of reapply filters job " + jobId);
+        dataService.failJob(jobId);
+      }
+    } else {
+      LOG.info("Reapply filters job finished: " + jobId);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.taskqueue.TaskOptions;
+import com.google.appengine.api.taskqueue.TaskOptions.Method;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
+import com.google.testing.testify.risk.frontend.server.service.ProjectService;
+import com.google.testing.testify.risk.frontend.server.util.ServletUtils;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * This task respaces the display orders of a project's Attributes, Components or Capabilities,
+ * so there is room to move items between their neighbours again.  It is queued when a move
+ * leaves little room, and is safe to run any number of times.
+ *
+ * The expected data are:
+ *   - projectId (the project to rebalance)
+ *   - type (the AccElementType to rebalance)
+ */
+@Singleton
+public class RebalanceOrderTask extends HttpServlet {
+  private static final Logger LOG = Logger.getLogger(RebalanceOrderTask.class.getName());
+
+  public static final String QUEUE = "jobs";
+  public static final String URL = "/_tasks/rebalanceorder";
+
+  private final ProjectService projectService;
+
+  @Inject
+  public RebalanceOrderTask(ProjectService projectService) {
+    this.projectService = projectService;
+  }
+
+  /** Queues a rebalance of one type of a project's items. */
+  public static boolean queue(long projectId, AccElementType type) {
+    TaskOptions task = TaskOptions.Builder.withUrl(URL).method(Method.POST)
+        .param("projectId", Long.toString(projectId))
+        .param("type", type.name());
+    return ServletUtils.queueWithRetries(QUEUE, task,
+        "Rebalance " + type + " order for project " + projectId);
+  }
+
+  @Override
+  public void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    long projectId;
+    AccElementType type;
+    try {
+      projectId = Long.parseLong(req.getParameter("projectId"));
+      type = AccElementType.valueOf(String.valueOf(req.getParameter("type")));
+    } catch (IllegalArgumentException e) {
+      // No error response, which would only cause the task to be retried.
+      LOG.severe("Invalid rebalance request, projectId: " + req.getParameter("projectId")
+          + " type: " + req.getParameter("type"));
+      return;
+    }
+
+    projectService.rebalanceOrder(projectId, type);
+  }
+}
@@ -0,0 +1,95 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.taskqueue.TaskOptions;
+import com.google.appengine.api.taskqueue.TaskOptions.Method;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.server.service.RiskService;
+import com.google.testing.testify.risk.frontend.server.util.ServletUtils;
+
+import java.io.IOException;
+import java.util.logging.Logger;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * This task writes the daily risk snapshot of a project.  Run without a project, as it is daily
+ * by cron, it queues a task for every project instead.
+ *
+ * The expected data are:
+ *   - projectId (optional, the project to snapshot)
+ */
+@Singleton
+public class SnapshotRiskTask extends HttpServlet {
+  private static final Logger LOG = Logger.getLogger(SnapshotRiskTask.class.getName());
+
+  public static final String QUEUE = "jobs";
+  public static final String URL = "/_tasks/snapshotrisk";
+
+  private final RiskService riskService;
+
+  @Inject
+  public SnapshotRiskTask(RiskService riskService) {
+    this.riskService = riskService;
+  }
+
+  /** Queues the snapshot of a project. */
+  public static boolean queue(long projectId) {
+    TaskOptions task = TaskOptions.Builder.withUrl(URL).method(Method.POST)
+        .param("projectId", Long.toString(projectId));
+    return ServletUtils.queueWithRetries(QUEUE, task, "Snapshot risk of project " + projectId);
+  }
+
+  @Override
+  public void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    doPost(req, resp);
+  }
+
+  @Override
+  public void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    String projectId = req.getParameter("projectId");
+    if (projectId == null) {
+      queueAllProjects();
+      return;
+    }
+    try {
+      riskService.snapshotRiskMatrix(Long.parseLong(projectId));
+    } catch (NumberFormatException e) {
+      // No error response, which would only cause the task to be retried.
+      LOG.severe("Invalid project ID: " + projectId);
+    }
+  }
+
+  private void queueAllProjects() {
+    Query query = new Query(Project.class.getSimpleName()).setKeysOnly();
+    int queued = 0;
+    for (Entity project
+        : DatastoreServiceFactory.getDatastoreService().prepare(query).asIterable()) {
+      if (queue(project.getKey().getId())) {
+        queued++;
+      }
+    }
+    LOG.info("Queued risk snapshots of " + queued + " projects.");
+  }
+}
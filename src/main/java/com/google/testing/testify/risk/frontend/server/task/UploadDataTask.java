@@ -15,19 +15,23 @@
 
 package com.google.testing.testify.risk.frontend.server.task;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.testing.testify.risk.frontend.model.Bug;
 import com.google.testing.testify.risk.frontend.model.Checkin;
 import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.model.UploadedDatum;
 import com.google.testing.testify.risk.frontend.server.service.DataService;
 import com.google.testing.testify.risk.frontend.shared.util.StringUtil;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.logging.Logger;
 
 import javax.servlet.http.HttpServlet;
@@ -35,11 +39,11 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 /**
- * This task processes a individual item to be uploaded (ie, one bug or one test) and inserts
- * it into the data store.
+ * This task processes a chunk of items to be uploaded (ie, bugs or tests) and inserts them into
+ * the data store in one batch.
  *
  * The expected data are:
- *   - json (the json of ONE data item: bug, test, checkin)
+ *   - json (a json array of data items: bug, test, checkin; or the json of ONE data item)
  *   - user (the user to insert on behalf of)
  *
  * @author jimr@google.com (Jim Reardon)
@@ -65,52 +69,15 @@ public class UploadDataTask extends HttpServlet {
   }
 
   @Override
-  public void doPost(HttpServletRequest req, HttpServletResponse resp) {
+  public void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
     String user = req.getParameter("user");
     String jsonString = req.getParameter("json");
+    JSONArray json;
     try {
-      // TODO(jimr): add impersonation of user in string user.
-      JSONObject json = new JSONObject(jsonString);
-      JSONObject item;
-      if (json.has("bug")) {
-        item = json.getJSONObject("bug");
-        Bug bug = new Bug();
-        bug.setParentProjectId(item.getLong("projectId"));
-        bug.setExternalId(item.getLong("bugId"));
-        bug.setTitle(item.getString("title"));
-        bug.setPath(item.getString("path"));
-        bug.setSeverity(item.getLong("severity"));
-        bug.setPriority(item.getLong("priority"));
-        bug.setBugGroups(Sets.newHashSet(StringUtil.csvToList(item.getString("groups"))));
-        bug.setBugUrl(item.getString("url"));
-        bug.setState(item.getString("status"));
-        bug.setStateDate(item.getLong("statusDate"));
-        dataService.addBug(bug);
-      } else if (json.has("test")) {
-        item = json.getJSONObject("test");
-        TestCase test = new TestCase();
-        test.setParentProjectId(item.getLong("projectId"));
-        test.setExternalId(item.getLong("testId"));
-        test.setTitle(item.getString("title"));
-        test.setTags(Sets.newHashSet(StringUtil.csvToList(item.getString("tags"))));
-        test.setTestCaseUrl(item.getString("url"));
-        test.setState(item.getString("result"));
-        test.setStateDate(item.getLong("resultDate"));
-        dataService.addTestCase(test);
-      } else if (json.has("checkin")) {
-        item = json.getJSONObject("checkin");
-        Checkin checkin = new Checkin();
-        checkin.setParentProjectId(item.getLong("projectId"));
-        checkin.setExternalId(item.getLong("checkinId"));
-        checkin.setSummary(item.getString("summary"));
-        checkin.setDirectoriesTouched(
-            Sets.newHashSet(StringUtil.csvToList(item.getString("directories"))));
-        checkin.setChangeUrl(item.getString("url"));
-        checkin.setState(item.getString("state"));
-        checkin.setStateDate(item.getLong("stateDate"));
-        dataService.addCheckin(checkin);
+      if (jsonString.trim().startsWith("[")) {
+        json = new JSONArray(jsonString);
       } else {
-        LOG.severe("No applicable data found for json: " + json.toString());
+        json = new JSONArray().put(new JSONObject(jsonString));
       }
     } catch (JSONException e) {
       // We don't issue a 500 or similar response code here to prevent retries, which would have
@@ -118,6 +85,73 @@ public class UploadDataTask extends HttpServlet {
       LOG.severe("Couldn't parse input JSON: " + jsonString);
       return;
     }
+
+    List<UploadedDatum> data = Lists.newArrayList();
+    for (int i = 0; i < json.length(); i++) {
+      try {
+        UploadedDatum datum = parseDatum(json.getJSONObject(i));
+        if (datum == null) {
+          LOG.severe("No applicable data found for json: " + json.get(i).toString());
+        } else {
+          data.add(datum);
+        }
+      } catch (JSONException e) {
+        LOG.severe("Couldn't parse item " + i + " of input JSON: " + e.toString());
+      }
+    }
+
+    int saved = data.isEmpty() ? 0 : dataService.addData(data, user);
+    int failed = json.length() - saved;
+    LOG.info("Processed upload chunk: " + saved + " saved, " + failed + " failed.");
+    resp.getWriter().print(saved + " saved, " + failed + " failed");
+  }
+
+  /**
+   * Parses the JSON of one data item.
+   *
+   * @return the bug, test or checkin; or null if the JSON is not any of those.
+   */
+  public static UploadedDatum parseDatum(JSONObject json) throws JSONException {
+    JSONObject item;
+    if (json.has("bug")) {
+      item = json.getJSONObject("bug");
+      Bug bug = new Bug();
+      bug.setParentProjectId(item.getLong("projectId"));
+      bug.setExternalId(item.getLong("bugId"));
+      bug.setTitle(item.getString("title"));
+      bug.setPath(item.getString("path"));
+      bug.setSeverity(item.getLong("severity"));
+      bug.setPriority(item.getLong("priority"));
+      bug.setBugGroups(Sets.newHashSet(StringUtil.csvToList(item.getString("groups"))));
+      bug.setBugUrl(item.getString("url"));
+      bug.setState(item.getString("status"));
+      bug.setStateDate(item.getLong("statusDate"));
+      return bug;
+    } else if (json.has("test")) {
+      item = json.getJSONObject("test");
+      TestCase test = new TestCase();
+      test.setParentProjectId(item.getLong("projectId"));
+      test.setExternalId(item.getLong("testId"));
+      test.setTitle(item.getString("title"));
+      test.setTags(Sets.newHashSet(StringUtil.csvToList(item.getString("tags"))));
+      test.setTestCaseUrl(item.getString("url"));
+      test.setState(item.getString("result"));
+      test.setStateDate(item.getLong("resultDate"));
+      return test;
+    } else if (json.has("checkin")) {
+      item = json.getJSONObject("checkin");
+      Checkin checkin = new Checkin();
+      checkin.setParentProjectId(item.getLong("projectId"));
+      checkin.setExternalId(item.getLong("checkinId"));
+      checkin.setSummary(item.getString("summary"));
+      checkin.setDirectoriesTouched(
+          Sets.newHashSet(StringUtil.csvToList(item.getString("directories"))));
+      checkin.setChangeUrl(item.getString("url"));
+      checkin.setState(item.getString("state"));
+      checkin.setStateDate(item.getLong("stateDate"));
+      return checkin;
+    }
+    return null;
   }
 
   private void error(HttpServletResponse resp, String errorText) throws IOException {
@@ -0,0 +1,76 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.testing.testify.risk.frontend.server.service.RiskService;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.logging.Logger;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * This task rebuilds a project's risk matrix from scratch and compares it against the cached,
+ * incrementally updated, matrix.  Any differences are logged and returned, and the rebuilt matrix
+ * replaces the cached one.
+ *
+ * The expected data are:
+ *   - projectId (the project to verify)
+ */
+@Singleton
+public class VerifyRiskMatrixTask extends HttpServlet {
+  private static final Logger LOG = Logger.getLogger(VerifyRiskMatrixTask.class.getName());
+
+  public static final String URL = "/_tasks/verifyrisk";
+
+  private final RiskService riskService;
+
+  @Inject
+  public VerifyRiskMatrixTask(RiskService riskService) {
+    this.riskService = riskService;
+  }
+
+  @Override
+  public void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    doPost(req, resp);
+  }
+
+  @Override
+  public void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    long projectId;
+    try {
+      projectId = Long.parseLong(req.getParameter("projectId"));
+    } catch (NumberFormatException e) {
+      resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "projectId is required.");
+      return;
+    }
+
+    LOG.info("Verifying risk matrix for project: " + projectId);
+    List<String> differences = riskService.verifyRiskMatrix(projectId);
+    resp.setContentType("text/plain");
+    PrintWriter writer = resp.getWriter();
+    writer.println(differences.size() + " differences");
+    for (String difference : differences) {
+      writer.println(difference);
+    }
+  }
+}
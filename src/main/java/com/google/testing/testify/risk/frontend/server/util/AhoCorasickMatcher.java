@@ -0,0 +1,132 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds which of a fixed set of strings occur in a piece of text, in a single pass over the text.
+ * This is the Aho-Corasick algorithm: the patterns are compiled into a trie, with each node
+ * linked to the node for its longest proper suffix, so matching never has to back up.
+ *
+ * Instances are immutable once built, and safe to share between threads.
+ */
+public class AhoCorasickMatcher {
+  private static final int ROOT = 0;
+
+  private final int patternCount;
+  /** Child nodes of each node, by character. */
+  private final List<Map<Character, Integer>> children = Lists.newArrayList();
+  /** For each node, the node for the longest proper suffix of its string which is in the trie. */
+  private int[] failure;
+  /** For each node, every pattern which ends there, including through its failure links. */
+  private int[][] outputs;
+
+  /**
+   * Compiles a set of patterns.
+   *
+   * @param patterns the strings to look for.  Matches are reported by index into this list.
+   */
+  public AhoCorasickMatcher(List<String> patterns) {
+    patternCount = patterns.size();
+    List<List<Integer>> nodeOutputs = Lists.newArrayList();
+    newNode(nodeOutputs);
+    for (int i = 0; i < patterns.size(); i++) {
+      String pattern = patterns.get(i);
+      int node = ROOT;
+      for (int j = 0; j < pattern.length(); j++) {
+        Integer child = children.get(node).get(pattern.charAt(j));
+        if (child == null) {
+          child = newNode(nodeOutputs);
+          children.get(node).put(pattern.charAt(j), child);
+        }
+        node = child;
+      }
+      nodeOutputs.get(node).add(i);
+    }
+    buildFailureLinks(nodeOutputs);
+  }
+
+  private int newNode(List<List<Integer>> nodeOutputs) {
+    children.add(Maps.<Character, Integer>newHashMap());
+    nodeOutputs.add(Lists.<Integer>newArrayList());
+    return children.size() - 1;
+  }
+
+  /** Links each node to its longest suffix, breadth first so that suffixes are linked first. */
+  private void buildFailureLinks(List<List<Integer>> nodeOutputs) {
+    failure = new int[children.size()];
+    LinkedList<Integer> queue = Lists.newLinkedList();
+    queue.addAll(children.get(ROOT).values());
+    while (!queue.isEmpty()) {
+      int node = queue.removeFirst();
+      for (Map.Entry<Character, Integer> child : children.get(node).entrySet()) {
+        failure[child.getValue()] = node == ROOT ? ROOT : step(failure[node], child.getKey());
+        nodeOutputs.get(child.getValue()).addAll(nodeOutputs.get(failure[child.getValue()]));
+        queue.addLast(child.getValue());
+      }
+    }
+
+    outputs = new int[children.size()][];
+    for (int node = 0; node < children.size(); node++) {
+      List<Integer> nodeOutput = nodeOutputs.get(node);
+      outputs[node] = new int[nodeOutput.size()];
+      for (int i = 0; i < nodeOutput.size(); i++) {
+        outputs[node][i] = nodeOutput.get(i);
+      }
+    }
+  }
+
+  /** Follows the trie from a node on a character, falling back along failure links. */
+  private int step(int node, char c) {
+    while (true) {
+      Integer child = children.get(node).get(c);
+      if (child != null) {
+        return child;
+      }
+      if (node == ROOT) {
+        return ROOT;
+      }
+      node = failure[node];
+    }
+  }
+
+  /**
+   * Finds which patterns occur in the text.
+   *
+   * @return for each pattern, by index, whether or not the text contains it.
+   */
+  public boolean[] match(String text) {
+    boolean[] found = new boolean[patternCount];
+    // Empty patterns end at the root, and are contained in every string.
+    for (int pattern : outputs[ROOT]) {
+      found[pattern] = true;
+    }
+    int node = ROOT;
+    for (int i = 0; i < text.length(); i++) {
+      node = step(node, text.charAt(i));
+      for (int pattern : outputs[node]) {
+        found[pattern] = true;
+      }
+    }
+    return found;
+  }
+}
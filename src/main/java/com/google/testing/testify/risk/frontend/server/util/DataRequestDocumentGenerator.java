@@ -15,96 +15,151 @@
 
 package com.google.testing.testify.risk.frontend.server.util;
 
-import com.google.common.collect.HashMultimap;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.testing.testify.risk.frontend.model.DataRequest;
 import com.google.testing.testify.risk.frontend.model.DataRequestOption;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
+import org.json.JSONException;
+import org.json.JSONWriter;
 
+import java.io.IOException;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.List;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
- * Generates an XML document for external data collectors.
+ * Generates an XML or JSON document for external data collectors.  Documents are written
+ * straight to the output as they are generated, rather than built in memory first.
+ *
+ * Both formats hold the same data: the requests grouped by project, then by data source, with
+ * each data source listing the name and value of every request parameter.
  *
  * @author chrsmith@google.com (Chris Smith)
  */
 public class DataRequestDocumentGenerator {
+  private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
   private DataRequestDocumentGenerator() {}  // COV_NF_LINE
 
   /**
    * Returns an XML document describing the data requests.
    */
   public static String generateDocument(List<DataRequest> allDataRequests) {
+    StringWriter writer = new StringWriter();
     try {
-      DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
-      Document document = docBuilder.newDocument();
+      writeXml(allDataRequests, writer);
+      // COV_NF_START
+    } catch (IOException e) {
+      return "Error writing document.";
+    }
+    // COV_NF_END
+    return writer.toString();
+  }
 
-      Element documentRoot = document.createElement("TestAnalytics");
-      document.appendChild(documentRoot);
+  /**
+   * Writes an XML document describing the data requests.
+   */
+  public static void writeXml(List<DataRequest> allDataRequests, Writer out) throws IOException {
+    try {
+      XMLStreamWriter xml = XML_OUTPUT_FACTORY.createXMLStreamWriter(out);
+      xml.writeStartDocument("UTF-8", "1.0");
+      if (allDataRequests.isEmpty()) {
+        xml.writeEmptyElement("TestAnalytics");
+      } else {
+        xml.writeStartElement("TestAnalytics");
+        writeXmlProjects(allDataRequests, xml);
+        xml.writeEndElement();
+      }
+      xml.writeEndDocument();
+      xml.flush();
+    } catch (XMLStreamException e) {
+      throw new IOException("Error writing XML document: " + e.getMessage());
+    }
+  }
+
+  private static void writeXmlProjects(List<DataRequest> allDataRequests, XMLStreamWriter xml)
+      throws XMLStreamException {
+    // Group all requests by their parent project.
+    Multimap<Long, DataRequest> requestsByProject = getRequestsByProject(allDataRequests);
+    for (Long projectId : requestsByProject.keySet()) {
+      xml.writeStartElement("DataRequests");
+      xml.writeAttribute("ProjectID", Long.toString(projectId));
+
+      // Group project requests by data source.
+      Collection<DataRequest> projectRequests = requestsByProject.get(projectId);
+      Multimap<String, DataRequest> requestsBySource = getRequestsByDataSource(projectRequests);
+      for (String sourceName : requestsBySource.keySet()) {
+        List<DataRequestOption> options = Lists.newArrayList();
+        for (DataRequest request : requestsBySource.get(sourceName)) {
+          options.addAll(request.getDataRequestOptions());
+        }
+        if (options.isEmpty()) {
+          xml.writeEmptyElement("DataRequest");
+          xml.writeAttribute("Type", sourceName);
+          continue;
+        }
+        xml.writeStartElement("DataRequest");
+        xml.writeAttribute("Type", sourceName);
+
+        // Write out the configuration parameter strings for the data source.
+        for (DataRequestOption option : options) {
+          xml.writeStartElement("Parameter");
+          xml.writeAttribute("Name", option.getName());
+          xml.writeCharacters(option.getValue());
+          xml.writeEndElement();
+        }
+        xml.writeEndElement();
+      }
+      xml.writeEndElement();
+    }
+  }
+
+  /**
+   * Writes a JSON document describing the data requests.
+   */
+  public static void writeJson(List<DataRequest> allDataRequests, Writer out) throws IOException {
+    try {
+      JSONWriter json = new JSONWriter(out);
+      json.object().key("TestAnalytics").array();
 
-      // Group all requests by their parent project.
       Multimap<Long, DataRequest> requestsByProject = getRequestsByProject(allDataRequests);
       for (Long projectId : requestsByProject.keySet()) {
-        Element projectElement = document.createElement("DataRequests");
-        projectElement.setAttribute("ProjectID", Long.toString(projectId));
-        documentRoot.appendChild(projectElement);
+        json.object().key("ProjectID").value(projectId.longValue()).key("DataRequests").array();
 
-        // Group project requests by data source.
         Collection<DataRequest> projectRequests = requestsByProject.get(projectId);
         Multimap<String, DataRequest> requestsBySource = getRequestsByDataSource(projectRequests);
         for (String sourceName : requestsBySource.keySet()) {
-          Element dataSourceElement = document.createElement("DataRequest");
-          dataSourceElement.setAttribute("Type", sourceName);
-          projectElement.appendChild(dataSourceElement);
-
-          // Write out the configuration parameter strings for the data source.
+          json.object().key("Type").value(sourceName).key("Parameters").array();
           for (DataRequest request : requestsBySource.get(sourceName)) {
             for (DataRequestOption option : request.getDataRequestOptions()) {
-              Element dataSourceParameter = document.createElement("Parameter");
-              dataSourceParameter.setAttribute("Name", option.getName());
-              dataSourceParameter.appendChild(document.createTextNode(option.getValue()));
-              dataSourceElement.appendChild(dataSourceParameter);
+              json.object()
+                  .key("Name").value(option.getName())
+                  .key("Value").value(option.getValue())
+                  .endObject();
             }
           }
+          json.endArray().endObject();
         }
+        json.endArray().endObject();
       }
 
-      // Now dump the document in memory to a string.
-      Transformer transformer = TransformerFactory.newInstance().newTransformer();
-      DOMSource source = new DOMSource(document);
-      StreamResult result = new javax.xml.transform.stream.StreamResult(new StringWriter());
-
-      transformer.transform(source, result);
-      return result.getWriter().toString();
-      // COV_NF_START
-    } catch (TransformerConfigurationException tce) {
-      return "Error in transformer configuration.";
-    } catch (TransformerException te) {
-      return "Error transforming document.";
-    } catch (ParserConfigurationException pce) {
-      return "Error in parser configuration.";
+      json.endArray().endObject();
+      out.flush();
+    } catch (JSONException e) {
+      throw new IOException("Error writing JSON document: " + e.getMessage());
     }
-    // COV_NF_END
   }
 
   private static Multimap<Long, DataRequest> getRequestsByProject(
       Collection<DataRequest> requests) {
-    Multimap<Long, DataRequest> requestsByProject = HashMultimap.create();
+    Multimap<Long, DataRequest> requestsByProject = LinkedHashMultimap.create();
     for (DataRequest request : requests) {
       requestsByProject.put(request.getParentProjectId(), request);
     }
@@ -113,7 +168,7 @@ public class DataRequestDocumentGenerator {
 
   private static Multimap<String, DataRequest> getRequestsByDataSource(
       Collection<DataRequest> requests) {
-    Multimap<String, DataRequest> requestsBySource = HashMultimap.create();
+    Multimap<String, DataRequest> requestsBySource = LinkedHashMultimap.create();
     for (DataRequest request : requests) {
       requestsBySource.put(request.getDataSourceName(), request);
     }
@@ -0,0 +1,74 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.testing.testify.risk.frontend.model.AccLabel;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Utilities for the directory paths that connect checkins to the ACC model.  Components and
+ * Capabilities declare the code they cover with "Path-" labels, eg: "Path-//depot/project/ui".
+ * Checkins store every prefix of the directories they touched, so the checkins under a path can
+ * be found with an equality query.  Both sides are normalized the same way: separated by '/',
+ * with no empty segments, so "//depot\project/ui/" becomes "depot/project/ui".
+ */
+public class DirectoryPaths {
+  /** The name of labels which hold a directory path. */
+  public static final String PATH_LABEL = "Path";
+
+  private static final Splitter SPLITTER =
+      Splitter.on(CharMatcher.anyOf("/\\")).trimResults().omitEmptyStrings();
+  private static final Joiner JOINER = Joiner.on('/');
+
+  private DirectoryPaths() {}
+
+  /** Returns a path in normal form; the empty string for the root. */
+  public static String normalize(String path) {
+    return JOINER.join(SPLITTER.split(path));
+  }
+
+  /**
+   * Returns every directory, and every parent of every directory, in normal form.  The root is
+   * not included, as it would match every checkin.
+   */
+  public static Set<String> getPrefixes(Collection<String> directories) {
+    Set<String> prefixes = Sets.newHashSet();
+    for (String directory : directories) {
+      List<String> segments = Lists.newArrayList(SPLITTER.split(directory));
+      for (int i = 1; i <= segments.size(); i++) {
+        prefixes.add(JOINER.join(segments.subList(0, i)));
+      }
+    }
+    return prefixes;
+  }
+
+  /** Returns the normalized path of a "Path-" label, or null if it isn't one. */
+  public static String getPath(AccLabel label) {
+    if (!PATH_LABEL.equals(label.getName()) || label.getValue() == null) {
+      return null;
+    }
+    String path = normalize(label.getValue());
+    return path.isEmpty() ? null : path;
+  }
+}
@@ -0,0 +1,163 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.testing.testify.risk.frontend.model.DatumType;
+import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.FilterOption;
+import com.google.testing.testify.risk.frontend.model.UploadedDatum;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All of a project's filters for one data type, compiled so that an uploaded datum can be
+ * matched against every filter at once.  The option values for each datum field are compiled
+ * into one {@link AhoCorasickMatcher}, so each field is read and scanned only once per datum
+ * however many filters there are.
+ *
+ * Applying a FilterMatcher has the same effect as calling {@link Filter#apply} for each filter in
+ * order.  It holds no references to the filters, so it is safe to cache.
+ */
+public class FilterMatcher {
+
+  private final DatumType type;
+  /** The distinct option values for each datum field. */
+  private final Map<String, List<String>> patterns = Maps.newHashMap();
+  private final Map<String, AhoCorasickMatcher> matchers = Maps.newHashMap();
+  private final List<CompiledFilter> filters = Lists.newArrayList();
+
+  /**
+   * Compiles filters.
+   *
+   * @param type the type of data the filters apply to.
+   * @param filters the filters, in the order they should be applied.
+   */
+  public FilterMatcher(DatumType type, List<Filter> filters) {
+    this.type = type;
+    for (Filter filter : filters) {
+      if (filter.getFilterType() != type) {
+        throw new IllegalArgumentException("Data types do not match; compiling "
+            + type.getPlural() + " filters but received a " + filter.getTitle());
+      }
+      // Filters without options or targets never do anything.
+      if (filter.getFilterOptions().size() < 1 || (filter.getTargetAttributeId() == null
+          && filter.getTargetComponentId() == null && filter.getTargetCapabilityId() == null)) {
+        continue;
+      }
+      this.filters.add(new CompiledFilter(filter));
+    }
+    for (Map.Entry<String, List<String>> field : patterns.entrySet()) {
+      matchers.put(field.getKey(), new AhoCorasickMatcher(field.getValue()));
+    }
+  }
+
+  /**
+   * Returns the index of a value among the patterns for a field, adding it if it's new.  An
+   * option without a value can never match, and gets -1.
+   */
+  private int getPatternIndex(String field, String value) {
+    List<String> fieldPatterns = patterns.get(field);
+    if (fieldPatterns == null) {
+      fieldPatterns = Lists.newArrayList();
+      patterns.put(field, fieldPatterns);
+    }
+    if (value == null) {
+      return -1;
+    }
+    int index = fieldPatterns.indexOf(value);
+    if (index < 0) {
+      fieldPatterns.add(value);
+      index = fieldPatterns.size() - 1;
+    }
+    return index;
+  }
+
+  /** Assigns the datum to the targets of every filter it matches. */
+  public void apply(UploadedDatum item) {
+    if (item.getDatumType() != type) {
+      throw new IllegalArgumentException("Data types do not match; I filter "
+          + type.getPlural() + " but received a " + item.getDatumType().getSingular());
+    }
+    if (filters.isEmpty()) {
+      return;
+    }
+
+    // Which patterns each field contains, or null if the datum doesn't have the field.
+    Map<String, boolean[]> found = Maps.newHashMap();
+    for (Map.Entry<String, AhoCorasickMatcher> matcher : matchers.entrySet()) {
+      String value = item.getField(matcher.getKey());
+      found.put(matcher.getKey(), value == null ? null : matcher.getValue().match(value));
+    }
+    for (CompiledFilter filter : filters) {
+      filter.apply(item, found);
+    }
+  }
+
+  /** A filter, with each option replaced by the index of its value in the field's patterns. */
+  private class CompiledFilter {
+    private final boolean matchAny;
+    private final Long targetAttributeId;
+    private final Long targetComponentId;
+    private final Long targetCapabilityId;
+    private final String[] fields;
+    private final int[] patternIndexes;
+
+    CompiledFilter(Filter filter) {
+      matchAny = "any".equals(filter.getFilterConjunction());
+      targetAttributeId = filter.getTargetAttributeId();
+      targetComponentId = filter.getTargetComponentId();
+      targetCapabilityId = filter.getTargetCapabilityId();
+      List<FilterOption> options = filter.getFilterOptions();
+      fields = new String[options.size()];
+      patternIndexes = new int[options.size()];
+      for (int i = 0; i < options.size(); i++) {
+        fields[i] = options.get(i).getType();
+        patternIndexes[i] = getPatternIndex(fields[i], options.get(i).getValue());
+      }
+    }
+
+    void apply(UploadedDatum item, Map<String, boolean[]> found) {
+      boolean matchesAny = false;
+      boolean matchesAll = true;
+      for (int i = 0; i < fields.length; i++) {
+        boolean[] fieldFound = found.get(fields[i]);
+        // Options on fields the datum doesn't have are ignored.
+        if (fieldFound != null) {
+          if (patternIndexes[i] >= 0 && fieldFound[patternIndexes[i]]) {
+            matchesAny = true;
+          } else {
+            matchesAll = false;
+          }
+        }
+      }
+
+      if (matchesAll || (matchAny && matchesAny)) {
+        if (targetAttributeId != null) {
+          item.setTargetAttributeId(targetAttributeId);
+        }
+        if (targetComponentId != null) {
+          item.setTargetComponentId(targetComponentId);
+        }
+        if (targetCapabilityId != null) {
+          item.setTargetCapabilityId(targetCapabilityId);
+        }
+      }
+    }
+  }
+}
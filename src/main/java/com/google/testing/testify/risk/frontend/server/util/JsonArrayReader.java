@@ -0,0 +1,103 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+
+import java.io.Reader;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the elements of a JSON array one at a time from a stream, so that an array of any size
+ * can be processed without holding all of it in memory.  Only the element currently being read
+ * is ever materialized.
+ *
+ * Usage:
+ *   JsonArrayReader items = new JsonArrayReader(reader);
+ *   while (items.hasNext()) {
+ *     Object item = items.next();
+ *   }
+ */
+public class JsonArrayReader {
+
+  private final JSONTokener tokener;
+  private boolean started = false;
+  private boolean finished = false;
+  private boolean hasPending = false;
+
+  /**
+   * @param reader the stream to read from, which must contain a JSON array.
+   * @throws JSONException if the stream does not start with a JSON array.
+   */
+  public JsonArrayReader(Reader reader) throws JSONException {
+    tokener = new JSONTokener(reader);
+    if (tokener.nextClean() != '[') {
+      throw tokener.syntaxError("A JSON array must start with '['");
+    }
+  }
+
+  /**
+   * Returns true if the array has another element.
+   *
+   * @throws JSONException if the array is malformed or the stream ends before the array does.
+   */
+  public boolean hasNext() throws JSONException {
+    if (hasPending) {
+      return true;
+    }
+    if (finished) {
+      return false;
+    }
+
+    char c = tokener.nextClean();
+    if (started) {
+      if (c == ']') {
+        finished = true;
+        return false;
+      }
+      if (c != ',') {
+        throw tokener.syntaxError("Expected ',' or ']'");
+      }
+      c = tokener.nextClean();
+    }
+    started = true;
+
+    switch (c) {
+      case 0:
+        throw tokener.syntaxError("A JSON array must end with ']'");
+      case ']':
+        finished = true;
+        return false;
+      default:
+        tokener.back();
+        hasPending = true;
+        return true;
+    }
+  }
+
+  /**
+   * Reads the next element of the array, eg: a JSONObject.
+   *
+   * @throws JSONException if the element is malformed.
+   */
+  public Object next() throws JSONException {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    hasPending = false;
+    return tokener.nextValue();
+  }
+}
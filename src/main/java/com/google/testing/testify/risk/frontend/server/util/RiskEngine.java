@@ -0,0 +1,345 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
+import com.google.testing.testify.risk.frontend.model.Attribute;
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.Capability;
+import com.google.testing.testify.risk.frontend.model.Component;
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
+import com.google.testing.testify.risk.frontend.model.RiskSource;
+import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.shared.util.RiskUtil;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes a project's {@link RiskMatrix}.  This is a port of the client side risk providers
+ * (StaticRiskProvider, BugRiskProvider and TestCoverageRiskProvider) so that risk can be computed
+ * once on the server instead of in every browser which views it.
+ *
+ * A matrix can be computed from scratch with {@link #computeRisk}, or kept up to date as data
+ * changes with {@link #applyRiskInput}.  The two must agree; {@link #diff} reports where they
+ * don't.  Code churn only counts recent checkins, so it changes as time passes; it is added
+ * separately, with {@link #addCodeChurn}.
+ */
+public class RiskEngine {
+  // Bugs not associated with an Attribute or Component. (General risk.)
+  static final double RISK_FROM_UNASSIGNED_BUG = 0.00;
+  // Bugs associated with the Attribute.
+  static final double RISK_FROM_ATTRIBUTE_BUG = 0.25;
+  // Bugs associated with the Component.
+  static final double RISK_FROM_COMPONENT_BUG = 0.25;
+  // Bugs associated with the Capability.
+  static final double RISK_FROM_CAPABILITY_BUG = 1.0;
+  // Test coverage mitigates risk, so this is negative.
+  static final double RISK_FROM_TEST = -0.15;
+  // Recent checkins under a path of the Component or one of the Capabilities.
+  static final double RISK_FROM_CHECKIN = 0.20;
+  // Incremental updates accumulate floating point error; smaller differences are ignored.
+  private static final double TOLERANCE = 0.0001;
+
+  /**
+   * Computes the risk of every Attribute x Component cell in a project.
+   *
+   * @param projectId the project.
+   * @param attributes all of the project's Attributes.
+   * @param components all of the project's Components.
+   * @param capabilities all of the project's Capabilities.
+   * @param bugs all of the project's bugs.
+   * @param tests all of the project's test cases.
+   * @return the risk matrix.
+   */
+  public RiskMatrix computeRisk(long projectId, List<Attribute> attributes,
+      List<Component> components, List<Capability> capabilities, List<Bug> bugs,
+      List<TestCase> tests) {
+    List<Long> attributeIds = Lists.newArrayList();
+    for (Attribute attribute : attributes) {
+      attributeIds.add(attribute.getAttributeId());
+    }
+    List<Long> componentIds = Lists.newArrayList();
+    for (Component component : components) {
+      componentIds.add(component.getComponentId());
+    }
+    RiskMatrix matrix = new RiskMatrix(projectId, attributeIds, componentIds);
+
+    Multimap<Long, Capability> capabilitiesByCell = HashMultimap.create();
+    for (Capability capability : capabilities) {
+      capabilitiesByCell.put(capability.getCapabilityIntersectionKey(), capability);
+    }
+
+    BugLookup bugLookup = new BugLookup(bugs);
+    TestLookup testLookup = new TestLookup(tests);
+    for (Attribute attribute : attributes) {
+      for (Component component : components) {
+        long attributeId = attribute.getAttributeId();
+        long componentId = component.getComponentId();
+        Iterable<Capability> cell = capabilitiesByCell.get(
+            Capability.getCapabilityIntersectionKey(component, attribute));
+        matrix.addValue(RiskSource.INHERENT, attributeId, componentId, inherentRisk(cell));
+        matrix.addValue(RiskSource.BUGS, attributeId, componentId,
+            bugLookup.risk(attributeId, componentId, cell));
+        matrix.addValue(RiskSource.TEST_COVERAGE, attributeId, componentId,
+            testLookup.risk(attributeId, componentId, cell));
+      }
+    }
+    return matrix;
+  }
+
+  /**
+   * Adds a single datum's contribution to risk to an existing matrix, or removes it if
+   * {@code sign} is negative.  To update a matrix after a datum changes, remove the RiskInput
+   * taken before the change and add the one taken after it.
+   *
+   * @param matrix the matrix to update.
+   * @param input what the datum is assigned to.
+   * @param capabilities the project's Capabilities, by ID.
+   * @param sign 1 to add the datum, -1 to remove it.
+   */
+  public void applyRiskInput(RiskMatrix matrix, RiskInput input,
+      Map<Long, Capability> capabilities, int sign) {
+    switch (input.getType()) {
+      case BUGS:
+        applyBug(matrix, input, capabilities, sign);
+        break;
+      case TESTS:
+        applyTest(matrix, input, capabilities, sign);
+        break;
+      default:
+        // Checkins contribute through addCodeChurn.
+        break;
+    }
+  }
+
+  private void applyBug(RiskMatrix matrix, RiskInput input, Map<Long, Capability> capabilities,
+      int sign) {
+    for (long attributeId : matrix.getAttributeIds()) {
+      for (long componentId : matrix.getComponentIds()) {
+        double risk = 0.0;
+        if (input.isUnassigned()) {
+          risk += RISK_FROM_UNASSIGNED_BUG;
+        }
+        if (input.getAttributeIds().contains(attributeId)) {
+          risk += RISK_FROM_ATTRIBUTE_BUG;
+        }
+        if (input.getComponentIds().contains(componentId)) {
+          risk += RISK_FROM_COMPONENT_BUG;
+        }
+        if (isInCell(input, capabilities, attributeId, componentId)) {
+          risk += RISK_FROM_CAPABILITY_BUG;
+        }
+        if (risk != 0.0) {
+          matrix.addValue(RiskSource.BUGS, attributeId, componentId, sign * risk);
+        }
+      }
+    }
+  }
+
+  /** A test case mitigates risk once in every cell it covers any part of. */
+  private void applyTest(RiskMatrix matrix, RiskInput input, Map<Long, Capability> capabilities,
+      int sign) {
+    for (long attributeId : matrix.getAttributeIds()) {
+      for (long componentId : matrix.getComponentIds()) {
+        if (input.getAttributeIds().contains(attributeId)
+            || input.getComponentIds().contains(componentId)
+            || isInCell(input, capabilities, attributeId, componentId)) {
+          matrix.addValue(RiskSource.TEST_COVERAGE, attributeId, componentId,
+              sign * RISK_FROM_TEST);
+        }
+      }
+    }
+  }
+
+  /** Whether or not any of the input's Capabilities belongs to the given cell. */
+  private boolean isInCell(RiskInput input, Map<Long, Capability> capabilities, long attributeId,
+      long componentId) {
+    for (Long capabilityId : input.getCapabilityIds()) {
+      Capability capability = capabilities.get(capabilityId);
+      if (capability != null && capability.getAttributeId() == attributeId
+          && capability.getComponentId() == componentId) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Adds code churn to a matrix.  Each cell's churn is based on the number of distinct checkins
+   * under the paths of its Component and of its Capabilities.
+   *
+   * @param matrix the matrix to add to.
+   * @param capabilities all of the project's Capabilities.
+   * @param componentPaths the normalized paths of the Components, by Component ID.
+   * @param capabilityPaths the normalized paths of the Capabilities, by Capability ID.
+   * @param checkinsByPath the keys of the recent checkins under each path.
+   */
+  public void addCodeChurn(RiskMatrix matrix, Collection<Capability> capabilities,
+      Multimap<Long, String> componentPaths, Multimap<Long, String> capabilityPaths,
+      Multimap<String, String> checkinsByPath) {
+    // Checkins under the Capabilities' paths, by Attribute and Component.
+    Table<Long, Long, Set<String>> cellCheckins = HashBasedTable.create();
+    for (Capability capability : capabilities) {
+      for (String path : capabilityPaths.get(capability.getCapabilityId())) {
+        Set<String> checkins =
+            cellCheckins.get(capability.getAttributeId(), capability.getComponentId());
+        if (checkins == null) {
+          checkins = Sets.newHashSet();
+          cellCheckins.put(capability.getAttributeId(), capability.getComponentId(), checkins);
+        }
+        checkins.addAll(checkinsByPath.get(path));
+      }
+    }
+
+    for (long componentId : matrix.getComponentIds()) {
+      Set<String> componentCheckins = Sets.newHashSet();
+      for (String path : componentPaths.get(componentId)) {
+        componentCheckins.addAll(checkinsByPath.get(path));
+      }
+      for (long attributeId : matrix.getAttributeIds()) {
+        Set<String> checkins = Sets.newHashSet(componentCheckins);
+        if (cellCheckins.contains(attributeId, componentId)) {
+          checkins.addAll(cellCheckins.get(attributeId, componentId));
+        }
+        if (!checkins.isEmpty()) {
+          matrix.addValue(RiskSource.CODE_CHURN, attributeId, componentId,
+              RISK_FROM_CHECKIN * checkins.size());
+        }
+      }
+    }
+  }
+
+  /**
+   * Compares two risk matrices, eg: one computed from scratch against one maintained
+   * incrementally.
+   *
+   * @return a description of each cell which differs; empty if the matrices agree.
+   */
+  public static List<String> diff(RiskMatrix expected, RiskMatrix actual) {
+    List<String> differences = Lists.newArrayList();
+    if (!Sets.newHashSet(expected.getAttributeIds()).equals(
+            Sets.newHashSet(actual.getAttributeIds()))
+        || !Sets.newHashSet(expected.getComponentIds()).equals(
+            Sets.newHashSet(actual.getComponentIds()))) {
+      differences.add("Attributes or Components differ: expected " + expected.getAttributeIds()
+          + " x " + expected.getComponentIds() + ", was " + actual.getAttributeIds() + " x "
+          + actual.getComponentIds());
+      return differences;
+    }
+    for (RiskSource source : RiskSource.values()) {
+      for (long attributeId : expected.getAttributeIds()) {
+        for (long componentId : expected.getComponentIds()) {
+          double expectedValue = expected.getValue(source, attributeId, componentId);
+          double actualValue = actual.getValue(source, attributeId, componentId);
+          if (Math.abs(expectedValue - actualValue) > TOLERANCE) {
+            differences.add(source.getName() + " at Attribute " + attributeId + ", Component "
+                + componentId + ": expected " + expectedValue + ", was " + actualValue);
+          }
+        }
+      }
+    }
+    return differences;
+  }
+
+  /** Risk associated with the Capabilities themselves. */
+  private double inherentRisk(Iterable<Capability> cell) {
+    double risk = 0.0;
+    for (Capability capability : cell) {
+      risk += RiskUtil.determineRisk(capability);
+    }
+    return risk;
+  }
+
+  /** Bugs, by what they are assigned to. */
+  private static class BugLookup {
+    private final Multimap<Long, Bug> byAttribute = HashMultimap.create();
+    private final Multimap<Long, Bug> byComponent = HashMultimap.create();
+    private final Multimap<Long, Bug> byCapability = HashMultimap.create();
+    private int unassigned = 0;
+
+    BugLookup(List<Bug> bugs) {
+      for (Bug bug : bugs) {
+        byAttribute.put(bug.getTargetAttributeId(), bug);
+        byComponent.put(bug.getTargetComponentId(), bug);
+        byCapability.put(bug.getTargetCapabilityId(), bug);
+        if (bug.getTargetAttributeId() == null && bug.getTargetComponentId() == null
+            && bug.getTargetCapabilityId() == null) {
+          unassigned++;
+        }
+      }
+    }
+
+    /**
+     * Risk from outstanding bugs, based solely on bug count.  Bugs attached to Attributes or
+     * Components add risk to the whole Attribute and the whole Component.
+     */
+    double risk(long attributeId, long componentId, Iterable<Capability> cell) {
+      double risk = RISK_FROM_UNASSIGNED_BUG * unassigned;
+      risk += RISK_FROM_ATTRIBUTE_BUG * byAttribute.get(attributeId).size();
+      risk += RISK_FROM_COMPONENT_BUG * byComponent.get(componentId).size();
+      for (Capability capability : cell) {
+        risk += RISK_FROM_CAPABILITY_BUG * byCapability.get(capability.getCapabilityId()).size();
+      }
+      return risk;
+    }
+  }
+
+  /** Test cases, by the "Attribute:ID", "Component:ID" and "Capability:ID" tags on them. */
+  private static class TestLookup {
+    private final Multimap<Long, TestCase> byAttribute = HashMultimap.create();
+    private final Multimap<Long, TestCase> byComponent = HashMultimap.create();
+    private final Multimap<Long, TestCase> byCapability = HashMultimap.create();
+
+    TestLookup(List<TestCase> tests) {
+      for (TestCase test : tests) {
+        RiskInput input = RiskInput.of(test);
+        for (Long id : input.getAttributeIds()) {
+          byAttribute.put(id, test);
+        }
+        for (Long id : input.getComponentIds()) {
+          byComponent.put(id, test);
+        }
+        for (Long id : input.getCapabilityIds()) {
+          byCapability.put(id, test);
+        }
+      }
+    }
+
+    /** Mitigation from the distinct test cases which cover any part of the cell. */
+    double risk(long attributeId, long componentId, Iterable<Capability> cell) {
+      Set<Long> testIds = Sets.newHashSet();
+      addExternalIds(byAttribute.get(attributeId), testIds);
+      addExternalIds(byComponent.get(componentId), testIds);
+      for (Capability capability : cell) {
+        addExternalIds(byCapability.get(capability.getCapabilityId()), testIds);
+      }
+      return RISK_FROM_TEST * testIds.size();
+    }
+
+    private void addExternalIds(Iterable<TestCase> tests, Set<Long> ids) {
+      for (TestCase test : tests) {
+        ids.add(test.getExternalId());
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.testing.testify.risk.frontend.model.DatumType;
+import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.model.UploadedDatum;
+
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * The parts of an uploaded datum which contribute to a project's risk: what the datum is assigned
+ * to.  Bugs are assigned through their target Attribute, Component and Capability; test cases
+ * through their "Attribute:ID", "Component:ID" and "Capability:ID" tags.
+ *
+ * This is a snapshot, so it can be taken before a datum is modified and used afterwards to remove
+ * the datum's old contribution from a risk matrix.
+ */
+public class RiskInput {
+  private static final Logger log = Logger.getLogger(RiskInput.class.getName());
+
+  private final DatumType type;
+  private final Set<Long> attributeIds;
+  private final Set<Long> componentIds;
+  private final Set<Long> capabilityIds;
+
+  private RiskInput(DatumType type, Set<Long> attributeIds, Set<Long> componentIds,
+      Set<Long> capabilityIds) {
+    this.type = type;
+    this.attributeIds = attributeIds;
+    this.componentIds = componentIds;
+    this.capabilityIds = capabilityIds;
+  }
+
+  /** Takes a snapshot of what the datum is currently assigned to. */
+  public static RiskInput of(UploadedDatum datum) {
+    if (datum instanceof TestCase) {
+      return fromTags((TestCase) datum);
+    }
+    return new RiskInput(datum.getDatumType(), idSet(datum.getTargetAttributeId()),
+        idSet(datum.getTargetComponentId()), idSet(datum.getTargetCapabilityId()));
+  }
+
+  private static RiskInput fromTags(TestCase test) {
+    ImmutableSet.Builder<Long> attributeIds = ImmutableSet.builder();
+    ImmutableSet.Builder<Long> componentIds = ImmutableSet.builder();
+    ImmutableSet.Builder<Long> capabilityIds = ImmutableSet.builder();
+    for (String tag : test.getTags()) {
+      String[] parts = tag.split(":");
+      if (parts.length != 2) {
+        continue;
+      }
+      try {
+        if (parts[0].equals("Attribute")) {
+          attributeIds.add(Long.parseLong(parts[1]));
+        } else if (parts[0].equals("Capability")) {
+          capabilityIds.add(Long.parseLong(parts[1]));
+        } else if (parts[0].equals("Component")) {
+          componentIds.add(Long.parseLong(parts[1]));
+        }
+      } catch (NumberFormatException e) {
+        log.warning("Malformed tag '" + tag + "' on test case: " + test.getTitle());
+      }
+    }
+    return new RiskInput(DatumType.TESTS, attributeIds.build(), componentIds.build(),
+        capabilityIds.build());
+  }
+
+  private static Set<Long> idSet(Long id) {
+    return id == null ? ImmutableSet.<Long>of() : ImmutableSet.of(id);
+  }
+
+  public DatumType getType() {
+    return type;
+  }
+
+  public Set<Long> getAttributeIds() {
+    return attributeIds;
+  }
+
+  public Set<Long> getComponentIds() {
+    return componentIds;
+  }
+
+  public Set<Long> getCapabilityIds() {
+    return capabilityIds;
+  }
+
+  /** Whether or not this is assigned to nothing at all. */
+  public boolean isUnassigned() {
+    return attributeIds.isEmpty() && componentIds.isEmpty() && capabilityIds.isEmpty();
+  }
+}
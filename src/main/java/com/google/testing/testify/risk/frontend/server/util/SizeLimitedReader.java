@@ -0,0 +1,86 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A reader which fails once more than a maximum number of characters have been read from it.
+ * Used to bound the size of request bodies which are processed as a stream.
+ */
+public class SizeLimitedReader extends FilterReader {
+
+  /** Thrown when a read would go past the maximum size. */
+  public static class SizeLimitExceededException extends IOException {
+    public SizeLimitExceededException(long maxSize) {
+      super("Input is larger than the maximum size of " + maxSize + " characters.");
+    }
+  }
+
+  private final long maxSize;
+  private long count = 0;
+  private long mark = 0;
+
+  public SizeLimitedReader(Reader in, long maxSize) {
+    super(in);
+    this.maxSize = maxSize;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int c = super.read();
+    if (c != -1) {
+      increment(1);
+    }
+    return c;
+  }
+
+  @Override
+  public int read(char[] buffer, int offset, int length) throws IOException {
+    int read = super.read(buffer, offset, length);
+    if (read > 0) {
+      increment(read);
+    }
+    return read;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = super.skip(n);
+    increment(skipped);
+    return skipped;
+  }
+
+  @Override
+  public void mark(int readAheadLimit) throws IOException {
+    super.mark(readAheadLimit);
+    mark = count;
+  }
+
+  @Override
+  public void reset() throws IOException {
+    super.reset();
+    count = mark;
+  }
+
+  private void increment(long n) throws SizeLimitExceededException {
+    count += n;
+    if (count > maxSize) {
+      throw new SizeLimitExceededException(maxSize);
+    }
+  }
+}
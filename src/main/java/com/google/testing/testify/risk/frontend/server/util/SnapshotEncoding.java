@@ -0,0 +1,118 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Compact encoding of risk snapshot values.  Values are fixed point, in thousandths, and each is
+ * stored as its change from the same value in the previous snapshot: a zigzag varint, so small
+ * changes either way take a single byte.  A run of unchanged values is stored as a zero followed
+ * by the length of the run, so a day on which nothing changed costs a few bytes however large
+ * the matrix.
+ */
+public class SnapshotEncoding {
+  private static final double SCALE = 1000.0;
+
+  private SnapshotEncoding() {}
+
+  /** Converts a risk value to fixed point. */
+  public static long toFixed(double value) {
+    return Math.round(value * SCALE);
+  }
+
+  public static double fromFixed(long value) {
+    return value / SCALE;
+  }
+
+  /**
+   * @param values the values to encode.
+   * @param previous the previous snapshot's values, the same length as values; or null to encode
+   *     the values on their own.
+   */
+  public static byte[] encode(long[] values, long[] previous) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int i = 0;
+    while (i < values.length) {
+      long delta = values[i] - (previous == null ? 0 : previous[i]);
+      if (delta != 0) {
+        writeVarint(out, zigzag(delta));
+        i++;
+      } else {
+        int run = 0;
+        while (i < values.length && values[i] == (previous == null ? 0 : previous[i])) {
+          run++;
+          i++;
+        }
+        writeVarint(out, 0);
+        writeVarint(out, run);
+      }
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * @param data the encoded values.
+   * @param previous the values data was encoded against, or null if it was encoded on its own.
+   * @param length the number of values.
+   */
+  public static long[] decode(byte[] data, long[] previous, int length) {
+    long[] values = new long[length];
+    if (previous != null) {
+      System.arraycopy(previous, 0, values, 0, length);
+    }
+    int[] position = {0};
+    int i = 0;
+    while (i < length) {
+      long encoded = readVarint(data, position);
+      if (encoded == 0) {
+        // Unchanged values are already in place.
+        i += (int) readVarint(data, position);
+      } else {
+        values[i++] += unzigzag(encoded);
+      }
+    }
+    return values;
+  }
+
+  private static long zigzag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unzigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeVarint(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  private static long readVarint(byte[] data, int[] position) {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = data[position[0]++];
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+}
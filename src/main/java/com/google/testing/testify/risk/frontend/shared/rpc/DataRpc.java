@@ -20,11 +20,20 @@ import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
 import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.Bug;
 import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.DataPage;
 import com.google.testing.testify.risk.frontend.model.DataRequest;
 import com.google.testing.testify.risk.frontend.model.DataSource;
+import com.google.testing.testify.risk.frontend.model.DatumFilter;
+import com.google.testing.testify.risk.frontend.model.DatumSummary;
+import com.google.testing.testify.risk.frontend.model.DatumType;
 import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
+import com.google.testing.testify.risk.frontend.model.RiskTrend;
 import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.model.UploadedDatum;
 
 import java.util.List;
 
@@ -40,7 +49,8 @@ public interface DataRpc extends RemoteService {
   public void setSignedOff(Long projectId, AccElementType type, Long elementId,
       boolean isSignedOff);
   public List<Signoff> getSignoffsByType(Long projectId, AccElementType type);
-  public Boolean isSignedOff(AccElementType type, Long elementId);
+  public Boolean isSignedOff(Long projectId, AccElementType type, Long elementId);
+  public SignoffMap getSignoffMap(long projectId);
   public List<DataRequest> getProjectRequests(long projectId);
   public long addDataRequest(DataRequest request);
   public void updateDataRequest(DataRequest request);
@@ -50,19 +60,34 @@ public interface DataRpc extends RemoteService {
   public long addFilter(Filter filter);
   public void updateFilter(Filter filter);
   public void removeFilter(Filter filter);
+  public JobStatus startReapplyFilters(long projectId, DatumType type);
+  public JobStatus getJobStatus(long jobId);
+
+  public List<DatumSummary> getProjectDataSummaries(long projectId, DatumType type);
+  public UploadedDatum getDatum(DatumType type, String internalId);
 
   public List<Bug> getProjectBugsById(long projectId);
+  public DataPage<Bug> getProjectBugsPage(long projectId, String cursor, int limit,
+      DatumFilter filter);
   public void addBug(Bug bug);
-  public void updateBugAssociations(long bugId, long attributeId, long componentId,
+  public void updateBugAssociations(String bugId, long attributeId, long componentId,
       long capabilityId);
 
   public List<Checkin> getProjectCheckinsById(long projectId);
+  public DataPage<Checkin> getProjectCheckinsPage(long projectId, String cursor, int limit,
+      DatumFilter filter);
   public void addCheckin(Checkin checkin);
-  public void updateCheckinAssociations(long bugId, long attributeId, long componentId,
+  public void updateCheckinAssociations(String bugId, long attributeId, long componentId,
       long capabilityId);
 
   public List<TestCase> getProjectTestCasesById(long projectId);
-  public void updateTestAssociations(long testCaseId, long attributeId, long componentId,
+  public DataPage<TestCase> getProjectTestCasesPage(long projectId, String cursor, int limit,
+      DatumFilter filter);
+  public void updateTestAssociations(String testCaseId, long attributeId, long componentId,
       long capabilityId);
   public void addTestCase(TestCase testCase);
+
+  public RiskMatrix getRiskMatrix(long projectId);
+  public RiskTrend getRiskTrend(long projectId, Long attributeId, Long componentId,
+      long fromDate, long toDate);
 }
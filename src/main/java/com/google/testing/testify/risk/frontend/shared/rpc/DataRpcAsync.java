@@ -19,11 +19,20 @@ import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.Bug;
 import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.DataPage;
 import com.google.testing.testify.risk.frontend.model.DataRequest;
 import com.google.testing.testify.risk.frontend.model.DataSource;
+import com.google.testing.testify.risk.frontend.model.DatumFilter;
+import com.google.testing.testify.risk.frontend.model.DatumSummary;
+import com.google.testing.testify.risk.frontend.model.DatumType;
 import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
+import com.google.testing.testify.risk.frontend.model.RiskTrend;
 import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.model.UploadedDatum;
 
 import java.util.List;
 
@@ -37,7 +46,9 @@ public interface DataRpcAsync {
 
   public void setSignedOff(Long projectId, AccElementType type, Long elementId, boolean isSignedOff,
       AsyncCallback<Void> callback);
-  public void isSignedOff(AccElementType type, Long elementId, AsyncCallback<Boolean> callback);
+  public void isSignedOff(Long projectId, AccElementType type, Long elementId,
+      AsyncCallback<Boolean> callback);
+  public void getSignoffMap(long projectId, AsyncCallback<SignoffMap> callback);
   public void getSignoffsByType(Long projectId, AccElementType type,
       AsyncCallback<List<Signoff>> callback);
 
@@ -50,20 +61,36 @@ public interface DataRpcAsync {
   public void addFilter(Filter filter, AsyncCallback<Long> callback);
   public void updateFilter(Filter filter, AsyncCallback<Void> callback);
   public void removeFilter(Filter filter, AsyncCallback<Void> callback);
+  public void startReapplyFilters(long projectId, DatumType type,
+      AsyncCallback<JobStatus> callback);
+  public void getJobStatus(long jobId, AsyncCallback<JobStatus> callback);
+
+  public void getProjectDataSummaries(long projectId, DatumType type,
+      AsyncCallback<List<DatumSummary>> callback);
+  public void getDatum(DatumType type, String internalId, AsyncCallback<UploadedDatum> callback);
 
   public void getProjectBugsById(long projectId, AsyncCallback<List<Bug>> callback);
-  public void updateBugAssociations(long bugId, long attributeId, long componentId,
+  public void getProjectBugsPage(long projectId, String cursor, int limit, DatumFilter filter,
+      AsyncCallback<DataPage<Bug>> callback);
+  public void updateBugAssociations(String bugId, long attributeId, long componentId,
       long capabilityId, AsyncCallback<Void> callback);
   public void addBug(Bug bug, AsyncCallback<Void> callback);
 
   public void getProjectCheckinsById(long projectId, AsyncCallback<List<Checkin>> callback);
-  public void updateCheckinAssociations(long checkinId, long attributeId, long componentId,
+  public void getProjectCheckinsPage(long projectId, String cursor, int limit,
+      DatumFilter filter, AsyncCallback<DataPage<Checkin>> callback);
+  public void updateCheckinAssociations(String checkinId, long attributeId, long componentId,
       long capabilityId, AsyncCallback<Void> callback);
   public void addCheckin(Checkin checkin, AsyncCallback<Void> callback);
 
   public void getProjectTestCasesById(long projectId, AsyncCallback<List<TestCase>> callback);
-  public void updateTestAssociations(long testCaseId, long attributeId, long componentId,
+  public void getProjectTestCasesPage(long projectId, String cursor, int limit,
+      DatumFilter filter, AsyncCallback<DataPage<TestCase>> callback);
+  public void updateTestAssociations(String testCaseId, long attributeId, long componentId,
       long capabilityId, AsyncCallback<Void> callback);
   public void addTestCase(TestCase testCase, AsyncCallback<Void> callback);
 
+  public void getRiskMatrix(long projectId, AsyncCallback<RiskMatrix> callback);
+  public void getRiskTrend(long projectId, Long attributeId, Long componentId, long fromDate,
+      long toDate, AsyncCallback<RiskTrend> callback);
 }
\ No newline at end of file
@@ -17,11 +17,13 @@ package com.google.testing.testify.risk.frontend.shared.rpc;
 
 import com.google.gwt.user.client.rpc.RemoteService;
 import com.google.gwt.user.client.rpc.RemoteServiceRelativePath;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.AccLabel;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.model.ProjectAccModel;
 
 import java.util.List;
 
@@ -41,6 +43,7 @@ public interface ProjectRpc extends RemoteService {
   public void removeProject(Project project);
 
   public List<AccLabel> getLabels(long projectId);
+  public ProjectAccModel getProjectAccModel(long projectId);
 
   public List<Attribute> getProjectAttributes(long projectId);
   public Long createAttribute(Attribute attribute);
@@ -60,4 +63,15 @@ public interface ProjectRpc extends RemoteService {
   public void updateCapability(Capability capability);
   public void removeCapability(Capability capability);
   public void reorderCapabilities(long projectId, List<Long> newOrder);
+
+  /**
+   * Moves an Attribute, Component or Capability between two others, writing only the moved item.
+   *
+   * @param beforeId the item which will come just before the moved item, or null if it moves to
+   *     the top.
+   * @param afterId the item which will come just after the moved item, or null if it moves to the
+   *     bottom.
+   */
+  public void moveElement(long projectId, AccElementType type, long id, Long beforeId,
+      Long afterId);
 }
@@ -16,11 +16,13 @@
 package com.google.testing.testify.risk.frontend.shared.rpc;
 
 import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.AccLabel;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.model.ProjectAccModel;
 
 import java.util.List;
 
@@ -39,6 +41,7 @@ public interface ProjectRpcAsync {
   public void removeProject(Project projInfo, AsyncCallback<Void> callback);
 
   public void getLabels(long projectId, AsyncCallback<List<AccLabel>> callback);
+  public void getProjectAccModel(long projectId, AsyncCallback<ProjectAccModel> callback);
 
   public void getProjectAttributes(long projectId, AsyncCallback<List<Attribute>> callback);
   public void createAttribute(Attribute attribute, AsyncCallback<Long> callback);
@@ -60,4 +63,7 @@ public interface ProjectRpcAsync {
   public void removeCapability(Capability capability, AsyncCallback<Void> callback);
   public void reorderCapabilities(long projectId, List<Long> newOrder,
       AsyncCallback<Void> callback);
+
+  public void moveElement(long projectId, AccElementType type, long id, Long beforeId,
+      Long afterId, AsyncCallback<Void> callback);
 }
@@ -45,6 +45,8 @@ public class ClientTests extends TestSuite {
     suite.addTestSuite(ComponentsPresenterTest.class);
     suite.addTestSuite(ProjectSettingsPresenterTest.class);
 
+    suite.addTestSuite(ProjectDataStoreTest.class);
+
     suite.addTestSuite(CheckinDirectoryTreeNodeTest.class);
     suite.addTestSuite(StaticRiskProviderTest.class);
 
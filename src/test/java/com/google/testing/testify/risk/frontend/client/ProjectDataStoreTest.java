@@ -0,0 +1,111 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.client;
+
+import com.google.common.collect.Lists;
+import com.google.gwt.event.shared.SimpleEventBus;
+import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.testing.testify.risk.frontend.client.event.ProjectChangedEvent;
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.DataPage;
+import com.google.testing.testify.risk.frontend.model.DatumFilter;
+import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
+import com.google.testing.testify.risk.frontend.testing.EasyMockUtils;
+
+import junit.framework.TestCase;
+
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+
+/**
+ * Unit tests for the ProjectDataStore type.
+ */
+public class ProjectDataStoreTest extends TestCase {
+
+  private final DataRpcAsync dataService = EasyMock.createMock(DataRpcAsync.class);
+  private final SimpleEventBus eventBus = new SimpleEventBus();
+  private final DataPage<Bug> page = new DataPage<Bug>(Lists.<Bug>newArrayList(), null);
+  private ProjectDataStore store;
+
+  @Override
+  public void setUp() {
+    store = new ProjectDataStore(42L, dataService, eventBus);
+  }
+
+  @SuppressWarnings("unchecked")
+  public void testRequestsInFlightAreShared() {
+    Capture<AsyncCallback<DataPage<Bug>>> loaded = new Capture<AsyncCallback<DataPage<Bug>>>();
+    dataService.getProjectBugsPage(EasyMock.eq(42L), EasyMock.<String>isNull(), EasyMock.eq(50),
+        EasyMock.<DatumFilter>isNull(), EasyMock.capture(loaded));
+    AsyncCallback<DataPage<Bug>> first = EasyMock.createMock(AsyncCallback.class);
+    AsyncCallback<DataPage<Bug>> second = EasyMock.createMock(AsyncCallback.class);
+    first.onSuccess(page);
+    second.onSuccess(page);
+
+    EasyMock.replay(dataService, first, second);
+    store.getBugsPage(null, 50, null, first);
+    store.getBugsPage(null, 50, null, second);
+    loaded.getValue().onSuccess(page);
+    EasyMock.verify(dataService, first, second);
+  }
+
+  @SuppressWarnings("unchecked")
+  public void testLoadedPagesAreReused() {
+    expectBugsPageLoad();
+    AsyncCallback<DataPage<Bug>> later = EasyMock.createMock(AsyncCallback.class);
+    later.onSuccess(page);
+
+    EasyMock.replay(dataService, later);
+    store.getBugsPage(null, 50, null, new TaCallback<DataPage<Bug>>("test"));
+    store.getBugsPage(null, 50, null, later);
+    EasyMock.verify(dataService, later);
+  }
+
+  @SuppressWarnings("unchecked")
+  public void testWritesInvalidateTheirType() {
+    expectBugsPageLoad();
+    dataService.updateBugAssociations(EasyMock.eq("1:BUGS:7"), EasyMock.eq(-1L), EasyMock.eq(-1L),
+        EasyMock.eq(3L), EasyMock.isA(AsyncCallback.class));
+    EasyMockUtils.setLastAsyncCallbackSuccessWithResult(null);
+    expectBugsPageLoad();
+
+    EasyMock.replay(dataService);
+    store.getBugsPage(null, 50, null, new TaCallback<DataPage<Bug>>("test"));
+    store.updateBugAssociations("1:BUGS:7", -1L, -1L, 3L, TaCallback.getNoopCallback());
+    store.getBugsPage(null, 50, null, new TaCallback<DataPage<Bug>>("test"));
+    EasyMock.verify(dataService);
+  }
+
+  public void testProjectChangesInvalidateEverything() {
+    expectBugsPageLoad();
+    expectBugsPageLoad();
+
+    EasyMock.replay(dataService);
+    store.getBugsPage(null, 50, null, new TaCallback<DataPage<Bug>>("test"));
+    eventBus.fireEvent(new ProjectChangedEvent(new Project()));
+    store.getBugsPage(null, 50, null, new TaCallback<DataPage<Bug>>("test"));
+    EasyMock.verify(dataService);
+  }
+
+  /** Expects the first page of bugs to be requested, and returns it straight away. */
+  @SuppressWarnings("unchecked")
+  private void expectBugsPageLoad() {
+    dataService.getProjectBugsPage(EasyMock.eq(42L), EasyMock.<String>isNull(), EasyMock.eq(50),
+        EasyMock.<DatumFilter>isNull(), EasyMock.isA(AsyncCallback.class));
+    EasyMockUtils.setLastAsyncCallbackSuccessWithResult(page);
+  }
+}
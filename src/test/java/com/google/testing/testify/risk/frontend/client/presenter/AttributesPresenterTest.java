@@ -21,10 +21,9 @@ import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.testing.testify.risk.frontend.client.event.ProjectElementAddedEvent;
 import com.google.testing.testify.risk.frontend.client.event.ProjectHasNoElementsEvent;
 import com.google.testing.testify.risk.frontend.client.view.AttributesView;
-import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Project;
-import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.UserRpcAsync;
@@ -55,7 +54,7 @@ public class AttributesPresenterTest extends TestCase {
     DataRpcAsync dataService = EasyMock.createMock(DataRpcAsync.class);
 
     ArrayList<Attribute> attributes = Lists.newArrayList();
-    ArrayList<Signoff> signoffs = Lists.newArrayList();
+    SignoffMap signoffs = new SignoffMap(42L);
     Collection<String> labels = Lists.newArrayList();
 
     Project parentProject = new Project();
@@ -69,8 +68,7 @@ public class AttributesPresenterTest extends TestCase {
     mockProjService.getLabels(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(labels);
 
-    dataService.getSignoffsByType(EasyMock.eq(42L), EasyMock.eq(AccElementType.ATTRIBUTE),
-        EasyMock.isA(AsyncCallback.class));
+    dataService.getSignoffMap(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(signoffs);
     mockView.setPresenter((AttributesView.Presenter) EasyMock.anyObject());
     mockView.enableEditing();
@@ -96,7 +94,7 @@ public class AttributesPresenterTest extends TestCase {
     DataRpcAsync dataService = EasyMock.createMock(DataRpcAsync.class);
 
     ArrayList<Attribute> attributes = new ArrayList<Attribute>();
-    ArrayList<Signoff> signoffs = new ArrayList<Signoff>();
+    SignoffMap signoffs = new SignoffMap(42L);
     Collection<String> labels = Lists.newArrayList();
 
     Project parentProject = new Project();
@@ -107,8 +105,7 @@ public class AttributesPresenterTest extends TestCase {
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(false);
     mockProjService.getProjectAttributes(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(attributes);
-    dataService.getSignoffsByType(EasyMock.eq(42L), EasyMock.eq(AccElementType.ATTRIBUTE),
-        EasyMock.isA(AsyncCallback.class));
+    dataService.getSignoffMap(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(signoffs);
     mockProjService.getLabels(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(labels);
@@ -134,8 +131,7 @@ public class AttributesPresenterTest extends TestCase {
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(false);
     mockProjService.getProjectAttributes(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(attributes);
-    dataService.getSignoffsByType(EasyMock.eq(42L), EasyMock.eq(AccElementType.ATTRIBUTE),
-        EasyMock.isA(AsyncCallback.class));
+    dataService.getSignoffMap(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(signoffs);
     mockProjService.getLabels(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(labels);
@@ -170,7 +166,7 @@ public class AttributesPresenterTest extends TestCase {
     Attribute att = new Attribute();
     att.setAttributeId(42L);
     attributes.add(att);
-    ArrayList<Signoff> signoffs = new ArrayList<Signoff>();
+    SignoffMap signoffs = new SignoffMap(42L);
     Collection<String> labels = Lists.newArrayList();
 
     Project parentProject = new Project();
@@ -180,8 +176,7 @@ public class AttributesPresenterTest extends TestCase {
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(true);
     mockProjService.getProjectAttributes(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(attributes);
-    dataService.getSignoffsByType(EasyMock.eq(42L), EasyMock.eq(AccElementType.ATTRIBUTE),
-        EasyMock.isA(AsyncCallback.class));
+    dataService.getSignoffMap(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(signoffs);
     mockProjService.getLabels(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(labels);
@@ -203,7 +198,7 @@ public class AttributesPresenterTest extends TestCase {
     SimpleEventBus mockEventBus = EasyMock.createMock(SimpleEventBus.class);
     UserRpcAsync securityService = EasyMock.createMock(UserRpcAsync.class);
     DataRpcAsync dataService = EasyMock.createMock(DataRpcAsync.class);
-    ArrayList<Signoff> signoffs = new ArrayList<Signoff>();
+    SignoffMap signoffs = new SignoffMap(42L);
     Collection<String> labels = Lists.newArrayList();
 
     ArrayList<Attribute> attributes = new ArrayList<Attribute>();
@@ -218,8 +213,7 @@ public class AttributesPresenterTest extends TestCase {
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(false);
     mockProjService.getProjectAttributes(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(attributes);
-    dataService.getSignoffsByType(EasyMock.eq(42L), EasyMock.eq(AccElementType.ATTRIBUTE),
-        EasyMock.isA(AsyncCallback.class));
+    dataService.getSignoffMap(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(signoffs);
     mockProjService.getLabels(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(labels);
@@ -241,8 +235,7 @@ public class AttributesPresenterTest extends TestCase {
     securityService.hasEditAccess(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(false);
     mockProjService.getProjectAttributes(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
-    dataService.getSignoffsByType(EasyMock.eq(42L), EasyMock.eq(AccElementType.ATTRIBUTE),
-        EasyMock.isA(AsyncCallback.class));
+    dataService.getSignoffMap(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(signoffs);
     mockProjService.getLabels(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(labels);
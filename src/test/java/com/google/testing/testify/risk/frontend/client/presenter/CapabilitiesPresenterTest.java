@@ -19,10 +19,12 @@ import com.google.common.collect.Lists;
 import com.google.gwt.event.shared.SimpleEventBus;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.testing.testify.risk.frontend.client.view.CapabilitiesView;
+import com.google.testing.testify.risk.frontend.model.AccLabel;
 import com.google.testing.testify.risk.frontend.model.Attribute;
 import com.google.testing.testify.risk.frontend.model.Capability;
 import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.model.ProjectAccModel;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.UserRpcAsync;
 import com.google.testing.testify.risk.frontend.testing.EasyMockUtils;
@@ -60,17 +62,10 @@ public class CapabilitiesPresenterTest extends TestCase {
     securityService.hasEditAccess(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(true);
 
-    projectService.getProjectAttributes(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
-    EasyMockUtils.setLastAsyncCallbackSuccessWithResult(capabilities);
-
-    projectService.getProjectComponents(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
-    EasyMockUtils.setLastAsyncCallbackSuccessWithResult(components);
-
-    projectService.getProjectCapabilities(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
-    EasyMockUtils.setLastAsyncCallbackSuccessWithResult(capabilities);
-
-    projectService.getLabels(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
-    EasyMockUtils.setLastAsyncCallbackSuccessWithResult(labels);
+    ProjectAccModel model = new ProjectAccModel(42L, attributes, components, capabilities,
+        new ArrayList<AccLabel>());
+    projectService.getProjectAccModel(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
+    EasyMockUtils.setLastAsyncCallbackSuccessWithResult(model);
 
     mockView.setEditable(true);
     mockView.setPresenter(EasyMock.isA(CapabilitiesPresenter.class));
@@ -20,10 +20,9 @@ import com.google.gwt.event.shared.SimpleEventBus;
 import com.google.gwt.user.client.rpc.AsyncCallback;
 import com.google.testing.testify.risk.frontend.client.view.ComponentsView;
 import com.google.testing.testify.risk.frontend.client.view.ComponentsView.Presenter;
-import com.google.testing.testify.risk.frontend.model.AccElementType;
 import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Project;
-import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
 import com.google.testing.testify.risk.frontend.shared.rpc.DataRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.ProjectRpcAsync;
 import com.google.testing.testify.risk.frontend.shared.rpc.UserRpcAsync;
@@ -56,7 +55,7 @@ public class ComponentsPresenterTest extends TestCase {
     DataRpcAsync dataService = EasyMock.createMock(DataRpcAsync.class);
 
     List<Component> components = new ArrayList<Component>();
-    List<Signoff> signoffs = new ArrayList<Signoff>();
+    SignoffMap signoffs = new SignoffMap(42L);
     Collection<String> labels = Lists.newArrayList();
 
     Project parentProject = new Project();
@@ -67,8 +66,7 @@ public class ComponentsPresenterTest extends TestCase {
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(true);
     mockProjService.getProjectComponents(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(components);
-    dataService.getSignoffsByType(EasyMock.eq(42L), EasyMock.eq(AccElementType.COMPONENT),
-        EasyMock.isA(AsyncCallback.class));
+    dataService.getSignoffMap(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(signoffs);
     mockProjService.getLabels(EasyMock.eq(42L), EasyMock.isA(AsyncCallback.class));
     EasyMockUtils.setLastAsyncCallbackSuccessWithResult(labels);
@@ -109,6 +109,30 @@ public class CheckinDirectoryTreeNodeTest extends TestCase {
     assertEquals(1, delta.size());
   }
 
+  public void testCheckinInSeveralDirectoriesIsCountedOnce() {
+    CheckinDirectoryTreeNode root = new CheckinDirectoryTreeNode();
+    Checkin checkin = new Checkin();
+    root.addCheckin("alpha/beta", checkin);
+    root.addCheckin("alpha/gamma", checkin);
+    root.addCheckin("alpha", checkin);
+
+    assertEquals(1, root.getCheckinsUnder("alpha").size());
+    assertEquals(1, root.getCheckins().size());
+    assertEquals(1, root.getCheckinsUnder("alpha/gamma").size());
+  }
+
+  public void testChildNodes() {
+    CheckinDirectoryTreeNode root = getTestTree1();
+
+    CheckinDirectoryTreeNode alpha = root.getChildNodes().get("alpha");
+    assertEquals("alpha", alpha.getDirectoryName());
+    assertEquals(1, alpha.getChildNodes().size());
+    CheckinDirectoryTreeNode beta = alpha.getChildNodes().get("beta");
+    assertEquals(2, beta.getChildNodes().size());
+    assertEquals(4, beta.getCheckins().size());
+    assertTrue(beta.getChildNodes().get("gamma").getChildNodes().isEmpty());
+  }
+
   public void testLookup() {
     // Verify looking up non-existant nodes results in an empty set of checkins.
     CheckinDirectoryTreeNode root = getTestTree1();
@@ -50,13 +50,13 @@ public class BasicFieldsTest extends TestCase {
     assertNull(signoff.getElementId());
     assertNull(signoff.getElementType());
     assertNull(signoff.getSignedOff());
-    signoff.setId(123L);
+    signoff.setId(Signoff.getKeyName(555L, AccElementType.ATTRIBUTE, 877L));
     signoff.setParentProjectId(555L);
     signoff.setElementId(877L);
     signoff.setElementType(AccElementType.ATTRIBUTE);
     signoff.setSignedOff(true);
     assertTrue(signoff.getSignedOff().booleanValue());
-    assertEquals(123L, signoff.getId().longValue());
+    assertEquals("555:ATTRIBUTE:877", signoff.getId());
     assertEquals(555L, signoff.getParentProjectId());
     assertEquals(877L, signoff.getElementId().longValue());
     assertEquals(AccElementType.ATTRIBUTE, signoff.getElementType());
@@ -51,8 +51,8 @@ public class BugTest extends TestCase {
     testBug.setExternalId(123L);
     assertEquals(123, testBug.getExternalId().longValue());
     assertEquals(null, testBug.getInternalId());
-    testBug.setInternalId(456L);
-    assertEquals(456, testBug.getInternalId().longValue());
+    testBug.setInternalId("1:BUGS:456");
+    assertEquals("1:BUGS:456", testBug.getInternalId());
     assertTrue(testBug.getToolTip().contains("bug is attached"));
     assertTrue(testBug.getToolTip().contains("group2"));
     assertEquals(null, testBug.getTitle());
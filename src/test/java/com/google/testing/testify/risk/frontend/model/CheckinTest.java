@@ -48,8 +48,8 @@ public class CheckinTest extends TestCase {
     assertEquals("Checkin #123", testCheckin.getLinkText());
     assertEquals(123, testCheckin.getExternalId().longValue());
     assertEquals(null, testCheckin.getInternalId());
-    testCheckin.setInternalId(456L);
-    assertEquals(456, testCheckin.getInternalId().longValue());
+    testCheckin.setInternalId("1:CHECKINS:456");
+    assertEquals("1:CHECKINS:456", testCheckin.getInternalId());
     assertTrue(testCheckin.getToolTip().contains("directories were touched"));
     assertTrue(testCheckin.getToolTip().contains("group2"));
     assertEquals(null, testCheckin.getSummary());
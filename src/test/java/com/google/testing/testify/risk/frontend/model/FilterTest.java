@@ -31,10 +31,8 @@ public class FilterTest extends TestCase {
     filter.setId(123L);
     filter.setFilterConjunction("and");
     FilterOption option = new FilterOption();
-    option.setId("fo1");
     option.setType("Title");
     option.setValue("search");
-    option.setFilter(filter);
     filter.setFilterOptions(Lists.newArrayList(option));
     filter.setParentProjectId(86L);
 
@@ -51,10 +49,8 @@ public class FilterTest extends TestCase {
     assertEquals("and", filter.getFilterConjunction());
     assertEquals(1, filter.getFilterOptions().size());
     option = filter.getFilterOptions().get(0);
-    assertEquals("fo1", option.getId());
     assertEquals("Title", option.getType());
     assertEquals("search", option.getValue());
-    assertEquals(filter, option.getFilter());
     assertEquals(86L, filter.getParentProjectId());
     assertEquals(54L, filter.getTargetAttributeId().longValue());
     assertEquals(99L, filter.getTargetCapabilityId().longValue());
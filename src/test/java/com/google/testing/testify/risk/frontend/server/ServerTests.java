@@ -26,8 +26,19 @@ import com.google.testing.testify.risk.frontend.model.FailureRateTest;
 import com.google.testing.testify.risk.frontend.model.FilterTest;
 import com.google.testing.testify.risk.frontend.model.ProjectTest;
 import com.google.testing.testify.risk.frontend.model.UserImpactTest;
+import com.google.testing.testify.risk.frontend.server.service.impl.AccessLevelCacheTest;
+import com.google.testing.testify.risk.frontend.server.service.impl.DataServiceImplTest;
+import com.google.testing.testify.risk.frontend.server.service.impl.FilterMatcherCacheTest;
+import com.google.testing.testify.risk.frontend.server.service.impl.ProjectDataDeleterTest;
 import com.google.testing.testify.risk.frontend.server.service.impl.ProjectServiceImplTest;
+import com.google.testing.testify.risk.frontend.server.service.impl.UserInfoCacheTest;
+import com.google.testing.testify.risk.frontend.server.util.AhoCorasickMatcherTest;
 import com.google.testing.testify.risk.frontend.server.util.DataRequestDocumentGeneratorTest;
+import com.google.testing.testify.risk.frontend.server.util.DirectoryPathsTest;
+import com.google.testing.testify.risk.frontend.server.util.FilterMatcherTest;
+import com.google.testing.testify.risk.frontend.server.util.JsonArrayReaderTest;
+import com.google.testing.testify.risk.frontend.server.util.RiskEngineTest;
+import com.google.testing.testify.risk.frontend.server.util.SnapshotEncodingTest;
 import com.google.testing.testify.risk.frontend.shared.util.RiskUtilTest;
 import com.google.testing.testify.risk.frontend.shared.util.StringUtilTest;
 
@@ -57,9 +68,20 @@ public class ServerTests extends TestSuite {
     suite.addTestSuite(ProjectTest.class);
     suite.addTestSuite(UserImpactTest.class);
 
+    suite.addTestSuite(AccessLevelCacheTest.class);
+    suite.addTestSuite(DataServiceImplTest.class);
+    suite.addTestSuite(FilterMatcherCacheTest.class);
+    suite.addTestSuite(ProjectDataDeleterTest.class);
     suite.addTestSuite(ProjectServiceImplTest.class);
+    suite.addTestSuite(UserInfoCacheTest.class);
 
+    suite.addTestSuite(AhoCorasickMatcherTest.class);
     suite.addTestSuite(DataRequestDocumentGeneratorTest.class);
+    suite.addTestSuite(DirectoryPathsTest.class);
+    suite.addTestSuite(FilterMatcherTest.class);
+    suite.addTestSuite(JsonArrayReaderTest.class);
+    suite.addTestSuite(RiskEngineTest.class);
+    suite.addTestSuite(SnapshotEncodingTest.class);
 
     suite.addTestSuite(RiskUtilTest.class);
     suite.addTestSuite(StringUtilTest.class);
@@ -0,0 +1,70 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.filter;
+
+import junit.framework.TestCase;
+
+import org.easymock.EasyMock;
+
+import javax.jdo.JDOFatalDataStoreException;
+import javax.jdo.PersistenceManager;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Tests for the {@link PersistenceManagerFilter}.
+ */
+public class PersistenceManagerFilterTest extends TestCase {
+
+  private final HttpServletRequest request = EasyMock.createMock(HttpServletRequest.class);
+  private final HttpServletResponse response = EasyMock.createMock(HttpServletResponse.class);
+  private final FilterChain chain = EasyMock.createMock(FilterChain.class);
+  private final PersistenceManager pm = EasyMock.createMock(PersistenceManager.class);
+  private final PersistenceManagerFilter filter = new PersistenceManagerFilter();
+
+  @Override
+  public void setUp() throws Exception {
+    chain.doFilter(request, response);
+    EasyMock.expect(request.getAttribute(PersistenceManagerFilter.PERSISTENCE_MANAGER))
+        .andReturn(pm);
+    request.removeAttribute(PersistenceManagerFilter.PERSISTENCE_MANAGER);
+    EasyMock.expect(pm.isClosed()).andReturn(false);
+  }
+
+  public void testDoFilter_closesPersistenceManager() throws Exception {
+    pm.close();
+
+    EasyMock.replay(request, response, chain, pm);
+    filter.doFilter(request, response, chain);
+    EasyMock.verify(request, response, chain, pm);
+  }
+
+  public void testDoFilter_failedCloseIsReported() throws Exception {
+    // Writes are made when the PersistenceManager is closed, so a failure must fail the request.
+    pm.close();
+    EasyMock.expectLastCall().andThrow(new JDOFatalDataStoreException("Write failed"));
+
+    EasyMock.replay(request, response, chain, pm);
+    try {
+      filter.doFilter(request, response, chain);
+      fail("Expected a JDOFatalDataStoreException.");
+    } catch (JDOFatalDataStoreException e) {
+      // Expected.
+    }
+    EasyMock.verify(request, response, chain, pm);
+  }
+}
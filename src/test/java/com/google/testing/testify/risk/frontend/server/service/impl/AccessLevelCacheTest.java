@@ -0,0 +1,86 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.common.base.Ticker;
+import com.google.testing.testify.risk.frontend.shared.rpc.UserRpc.ProjectAccess;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for AccessLevelCache.
+ */
+public class AccessLevelCacheTest extends TestCase {
+
+  private FakeTicker ticker;
+  private AccessLevelCache cache;
+
+  @Override
+  public void setUp() {
+    ticker = new FakeTicker();
+    cache = new AccessLevelCache(ticker, 5);
+  }
+
+  public void testMissThenHit() {
+    assertNull(cache.get(1, "a@example", false));
+    cache.put(1, "a@example", false, ProjectAccess.EDIT_ACCESS);
+    assertEquals(ProjectAccess.EDIT_ACCESS, cache.get(1, "a@example", false));
+    assertEquals(1, cache.getStats().hitCount());
+    assertEquals(1, cache.getStats().missCount());
+  }
+
+  public void testKeyedByEmailAndAdministrator() {
+    cache.put(1, "a@example", false, ProjectAccess.EDIT_ACCESS);
+    cache.put(1, null, false, ProjectAccess.VIEW_ACCESS);
+    assertNull(cache.get(1, "b@example", false));
+    assertNull(cache.get(1, "a@example", true));
+    assertNull(cache.get(2, "a@example", false));
+    assertEquals(ProjectAccess.VIEW_ACCESS, cache.get(1, null, false));
+  }
+
+  public void testExpires() {
+    cache.put(1, "a@example", false, ProjectAccess.OWNER_ACCESS);
+    ticker.advance(4);
+    assertEquals(ProjectAccess.OWNER_ACCESS, cache.get(1, "a@example", false));
+    ticker.advance(2);
+    assertNull(cache.get(1, "a@example", false));
+  }
+
+  public void testInvalidateOnlyRemovesProject() {
+    cache.put(1, "a@example", false, ProjectAccess.OWNER_ACCESS);
+    cache.put(1, "b@example", false, ProjectAccess.EDIT_ACCESS);
+    cache.put(11, "a@example", false, ProjectAccess.VIEW_ACCESS);
+    cache.invalidate(1);
+    assertNull(cache.get(1, "a@example", false));
+    assertNull(cache.get(1, "b@example", false));
+    assertEquals(ProjectAccess.VIEW_ACCESS, cache.get(11, "a@example", false));
+  }
+
+  private static class FakeTicker extends Ticker {
+    private long nanos = 0;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    public void advance(long seconds) {
+      nanos += TimeUnit.SECONDS.toNanos(seconds);
+    }
+  }
+}
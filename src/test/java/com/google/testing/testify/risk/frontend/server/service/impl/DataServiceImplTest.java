@@ -0,0 +1,537 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.inject.Provider;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.Capability;
+import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.DataPage;
+import com.google.testing.testify.risk.frontend.model.DataRequest;
+import com.google.testing.testify.risk.frontend.model.DatumFilter;
+import com.google.testing.testify.risk.frontend.model.DatumSummary;
+import com.google.testing.testify.risk.frontend.model.DatumType;
+import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
+import com.google.testing.testify.risk.frontend.model.JobStatus.JobType;
+import com.google.testing.testify.risk.frontend.model.Signoff;
+import com.google.testing.testify.risk.frontend.model.SignoffMap;
+import com.google.testing.testify.risk.frontend.model.UploadedDatum;
+import com.google.testing.testify.risk.frontend.server.InsufficientPrivlegesException;
+import com.google.testing.testify.risk.frontend.server.service.DataService;
+import com.google.testing.testify.risk.frontend.server.service.RiskService;
+import com.google.testing.testify.risk.frontend.server.service.UserService;
+import com.google.testing.testify.risk.frontend.server.util.RiskInput;
+
+import junit.framework.TestCase;
+
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+
+import java.util.List;
+
+import javax.jdo.JDOObjectNotFoundException;
+import javax.jdo.PersistenceManager;
+import javax.jdo.Query;
+
+/**
+ * Tests for DataServiceImpl.
+ */
+public class DataServiceImplTest extends TestCase {
+
+  @SuppressWarnings("unchecked")
+  private final Provider<PersistenceManager> pmProvider = EasyMock.createMock(Provider.class);
+  private final PersistenceManager pm = EasyMock.createMock(PersistenceManager.class);
+  private final UserService userService = EasyMock.createMock(UserService.class);
+  private final RiskService riskService = EasyMock.createMock(RiskService.class);
+  private final MemcacheService memcache = EasyMock.createNiceMock(MemcacheService.class);
+  private DataService service;
+  // Keys can only be encoded with an App Engine environment.
+  private final LocalServiceTestHelper helper = new LocalServiceTestHelper();
+
+  @Override
+  public void setUp() {
+    helper.setUp();
+    pmProvider.get();
+    EasyMock.expectLastCall().andReturn(pm);
+
+    service = new DataServiceImpl(pmProvider, userService, riskService,
+        new FilterMatcherCache(memcache, Ticker.systemTicker()), new DataRequestVersion(memcache));
+  }
+
+  @Override
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  public void testAddData_skipsProjectsWithoutAccess() {
+    List<UploadedDatum> data = Lists.<UploadedDatum>newArrayList(newBug(1, 10), newBug(1, 11));
+    EasyMock.expect(userService.hasEditAccess(1L, "a@example")).andReturn(false);
+
+    EasyMock.replay(pmProvider, pm, userService, riskService);
+    assertEquals(0, service.addData(data, "a@example"));
+    EasyMock.verify(pmProvider, pm, userService, riskService);
+  }
+
+  public void testAddData_updatesExistingAndFiltersNew() {
+    Bug existing = newBug(1, 10);
+    existing.setInternalId(encodedKey("Bug", "1:BUGS:10"));
+    existing.setTargetAttributeId(7L);
+    Bug updated = newBug(1, 10);
+    Bug added = newBug(1, 11);
+    List<UploadedDatum> data = Lists.<UploadedDatum>newArrayList(updated, added);
+
+    EasyMock.expect(userService.hasEditAccess(1L, "a@example")).andReturn(true);
+    Query bugQuery = EasyMock.createNiceMock(Query.class);
+    EasyMock.expect(pm.newQuery(Bug.class)).andReturn(bugQuery);
+    EasyMock.expect(bugQuery.execute(Lists.newArrayList(
+        encodedKey("Bug", "1:BUGS:10"), encodedKey("Bug", "1:BUGS:11"))))
+        .andReturn(Lists.newArrayList(existing));
+    Query filterQuery = EasyMock.createNiceMock(Query.class);
+    EasyMock.expect(pm.newQuery(Filter.class)).andReturn(filterQuery);
+    EasyMock.expect(filterQuery.execute(EasyMock.anyObject(), EasyMock.anyObject()))
+        .andReturn(Lists.newArrayList());
+    pm.makePersistentAll(EasyMock.eq(Lists.newArrayList(updated, added)));
+    EasyMock.expectLastCall().andReturn(null);
+    pm.flush();
+
+    Capture<List<RiskInput>> removed = new Capture<List<RiskInput>>();
+    Capture<List<RiskInput>> addedInputs = new Capture<List<RiskInput>>();
+    riskService.updateRiskMatrix(EasyMock.eq(1L), EasyMock.capture(removed),
+        EasyMock.capture(addedInputs));
+    EasyMock.expectLastCall();
+
+    EasyMock.replay(pmProvider, pm, userService, riskService, memcache, bugQuery, filterQuery);
+    assertEquals(2, service.addData(data, "a@example"));
+    EasyMock.verify(pmProvider, pm, userService, riskService, bugQuery, filterQuery);
+
+    assertEquals(encodedKey("Bug", "1:BUGS:10"), updated.getInternalId());
+    assertEquals(7L, updated.getTargetAttributeId().longValue());
+    assertEquals(encodedKey("Bug", "1:BUGS:11"), added.getInternalId());
+    assertNull(added.getTargetAttributeId());
+    // The old bug's contribution is removed, and both bugs' contributions are added.
+    assertEquals(1, removed.getValue().size());
+    assertEquals(Sets.newHashSet(7L), removed.getValue().get(0).getAttributeIds());
+    assertEquals(2, addedInputs.getValue().size());
+  }
+
+  public void testAddData_indexesCheckinDirectories() {
+    Checkin checkin = new Checkin();
+    checkin.setParentProjectId(1L);
+    checkin.setExternalId(10L);
+    checkin.setSummary("Fix login");
+    checkin.addDirectoryTouched("//depot/ui/login/");
+
+    EasyMock.expect(userService.hasEditAccess(1L, "a@example")).andReturn(true);
+    Query checkinQuery = EasyMock.createNiceMock(Query.class);
+    EasyMock.expect(pm.newQuery(Checkin.class)).andReturn(checkinQuery);
+    EasyMock.expect(checkinQuery.execute(
+        Lists.newArrayList(encodedKey("Checkin", "1:CHECKINS:10"))))
+        .andReturn(Lists.newArrayList());
+    Query filterQuery = EasyMock.createNiceMock(Query.class);
+    EasyMock.expect(pm.newQuery(Filter.class)).andReturn(filterQuery);
+    EasyMock.expect(filterQuery.execute(EasyMock.anyObject(), EasyMock.anyObject()))
+        .andReturn(Lists.newArrayList());
+    EasyMock.expect(pm.makePersistentAll(EasyMock.anyObject(List.class))).andReturn(null);
+    pm.flush();
+    riskService.updateRiskMatrix(EasyMock.eq(1L), EasyMock.<List<RiskInput>>anyObject(),
+        EasyMock.<List<RiskInput>>anyObject());
+    EasyMock.expectLastCall();
+
+    EasyMock.replay(pmProvider, pm, userService, riskService, checkinQuery, filterQuery);
+    assertEquals(1, service.addData(Lists.<UploadedDatum>newArrayList(checkin), "a@example"));
+    EasyMock.verify(pmProvider, pm, userService, riskService);
+
+    assertEquals(Sets.newHashSet("depot", "depot/ui", "depot/ui/login"),
+        checkin.getDirectoryPrefixes());
+  }
+
+  public void testAddFilter_invalidatesCompiledFilters() {
+    Filter filter = new Filter();
+    filter.setParentProjectId(1L);
+    filter.setFilterType(DatumType.BUGS);
+    filter.setId(2L);
+    EasyMock.expect(userService.hasEditAccess(1L)).andReturn(true);
+    EasyMock.expect(pm.makePersistent(filter)).andReturn(filter);
+    pm.flush();
+    MemcacheService strictMemcache = EasyMock.createMock(MemcacheService.class);
+    EasyMock.expect(strictMemcache.increment("FilterVersion:1", 1L, 0L)).andReturn(1L);
+    service = new DataServiceImpl(pmProvider, userService, riskService,
+        new FilterMatcherCache(strictMemcache, Ticker.systemTicker()),
+        new DataRequestVersion(strictMemcache));
+
+    EasyMock.replay(pmProvider, pm, userService, riskService, strictMemcache);
+    service.addFilter(filter);
+    EasyMock.verify(pmProvider, pm, userService, riskService, strictMemcache);
+  }
+
+  public void testAddDataRequest_changesDataRequestVersion() {
+    DataRequest request = new DataRequest();
+    request.setParentProjectId(1L);
+    request.setDataSourceName(" GoogleCodeBugs ");
+    request.setRequestId(2L);
+    EasyMock.expect(userService.hasEditAccess(1L)).andReturn(true);
+    EasyMock.expect(pm.makePersistent(request)).andReturn(request);
+    MemcacheService strictMemcache = EasyMock.createMock(MemcacheService.class);
+    EasyMock.expect(strictMemcache.increment(EasyMock.eq("DataRequestVersion"), EasyMock.eq(1L),
+        EasyMock.anyLong())).andReturn(5L);
+    service = new DataServiceImpl(pmProvider, userService, riskService,
+        new FilterMatcherCache(strictMemcache, Ticker.systemTicker()),
+        new DataRequestVersion(strictMemcache));
+
+    EasyMock.replay(pmProvider, pm, userService, riskService, strictMemcache);
+    service.addDataRequest(request);
+    EasyMock.verify(pmProvider, pm, userService, riskService, strictMemcache);
+
+    assertEquals("GoogleCodeBugs", request.getDataSourceName());
+  }
+
+  public void testGetRequestsForProjects_batchesQueries() {
+    List<Long> projectIds = Lists.newArrayList();
+    for (long i = 0; i < 31; i++) {
+      projectIds.add(i);
+    }
+    DataRequest first = new DataRequest();
+    DataRequest second = new DataRequest();
+    Query firstQuery = EasyMock.createNiceMock(Query.class);
+    Query secondQuery = EasyMock.createNiceMock(Query.class);
+    EasyMock.expect(pm.newQuery(DataRequest.class)).andReturn(firstQuery);
+    EasyMock.expect(pm.newQuery(DataRequest.class)).andReturn(secondQuery);
+    EasyMock.expect(firstQuery.execute(projectIds.subList(0, 30)))
+        .andReturn(Lists.newArrayList(first));
+    EasyMock.expect(secondQuery.execute(projectIds.subList(30, 31)))
+        .andReturn(Lists.newArrayList(second));
+    EasyMock.expect(pm.detachCopy(first)).andReturn(first);
+    EasyMock.expect(pm.detachCopy(second)).andReturn(second);
+
+    EasyMock.replay(pmProvider, pm, userService, riskService, firstQuery, secondQuery);
+    assertEquals(Lists.newArrayList(first, second), service.getRequestsForProjects(projectIds));
+    EasyMock.verify(pmProvider, pm, userService, riskService, firstQuery, secondQuery);
+  }
+
+  public void testGetProjectBugsPage_filtersByCapability() {
+    EasyMock.expect(userService.hasViewAccess(1L)).andReturn(true);
+    Query bugQuery = EasyMock.createMock(Query.class);
+    EasyMock.expect(pm.newQuery(Bug.class)).andReturn(bugQuery);
+    bugQuery.setOrdering("externalId asc");
+    bugQuery.setRange(0, 2);
+    bugQuery.declareParameters("Long parentProjectParam, Long capabilityParam");
+    bugQuery.setFilter(
+        "parentProjectId == parentProjectParam && targetCapabilityId == capabilityParam");
+    Bug bug = newBug(1, 10);
+    EasyMock.expect(bugQuery.execute(1L, 3L)).andReturn(Lists.newArrayList(bug));
+    Bug detached = newBug(1, 10);
+    EasyMock.expect(pm.detachCopy(bug)).andReturn(detached);
+
+    EasyMock.replay(pmProvider, pm, userService, riskService, bugQuery);
+    DataPage<Bug> page = service.getProjectBugsPage(1L, null, 2, DatumFilter.forCapability(3L));
+    EasyMock.verify(pmProvider, pm, userService, riskService, bugQuery);
+
+    // Fewer items than the limit were returned, so this is the last page.
+    assertEquals(Lists.newArrayList(detached), page.getItems());
+    assertFalse(page.hasMore());
+  }
+
+  public void testGetProjectBugsPage_badCursorStartsFromFirstPage() {
+    EasyMock.expect(userService.hasViewAccess(1L)).andReturn(true);
+    // A strict mock: no cursor extension may be set.
+    Query bugQuery = EasyMock.createMock(Query.class);
+    EasyMock.expect(pm.newQuery(Bug.class)).andReturn(bugQuery);
+    bugQuery.setOrdering("externalId asc");
+    bugQuery.setRange(0, 2);
+    bugQuery.declareParameters("Long parentProjectParam");
+    bugQuery.setFilter("parentProjectId == parentProjectParam");
+    EasyMock.expect(bugQuery.execute(1L)).andReturn(Lists.newArrayList());
+
+    EasyMock.replay(pmProvider, pm, userService, riskService, bugQuery);
+    DataPage<Bug> page = service.getProjectBugsPage(1L, "not a cursor!", 2, null);
+    EasyMock.verify(pmProvider, pm, userService, riskService, bugQuery);
+
+    assertTrue(page.getItems().isEmpty());
+  }
+
+  public void testGetProjectDataSummaries_readsOnlySummaryFields() {
+    EasyMock.expect(userService.hasViewAccess(1L)).andReturn(true);
+    Query checkinQuery = EasyMock.createNiceMock(Query.class);
+    EasyMock.expect(pm.newQuery(Checkin.class)).andReturn(checkinQuery);
+    Capture<String> result = new Capture<String>();
+    checkinQuery.setResult(EasyMock.capture(result));
+    Object[] row =
+        {"1:CHECKINS:10", 10L, 1L, "Submitted", 2000L, null, 7L, null, "Fix login", "http://cl/10"};
+    List<Object[]> rows = Lists.newArrayList();
+    rows.add(row);
+    EasyMock.expect(checkinQuery.execute(1L)).andReturn(rows);
+
+    EasyMock.replay(pmProvider, pm, userService, riskService, checkinQuery);
+    List<DatumSummary> summaries = service.getProjectDataSummaries(1L, DatumType.CHECKINS);
+    EasyMock.verify(pmProvider, pm, userService, riskService, checkinQuery);
+
+    assertTrue(result.getValue().endsWith("summary, changeUrl"));
+    assertEquals(1, summaries.size());
+    DatumSummary summary = summaries.get(0);
+    assertEquals(DatumType.CHECKINS, summary.getDatumType());
+    assertEquals("1:CHECKINS:10", summary.getInternalId());
+    assertEquals(10L, summary.getExternalId().longValue());
+    assertEquals("Fix login", summary.getTitle());
+    assertEquals("http://cl/10", summary.getUrl());
+    assertFalse(summary.isAttachedToAttribute());
+    assertTrue(summary.isAttachedToComponent());
+  }
+
+  public void testGetDatum_missingDatumIsDenied() {
+    EasyMock.expect(pm.getObjectById(Bug.class, "1:BUGS:10"))
+        .andThrow(new JDOObjectNotFoundException());
+
+    EasyMock.replay(pmProvider, pm, userService, riskService);
+    try {
+      service.getDatum(DatumType.BUGS, "1:BUGS:10");
+      fail("Expected an InsufficientPrivlegesException.");
+    } catch (InsufficientPrivlegesException e) {
+      // Expected.
+    }
+    EasyMock.verify(pmProvider, pm, userService, riskService);
+  }
+
+  public void testGetDatum_requiresViewAccess() {
+    Bug bug = newBug(1, 10);
+    EasyMock.expect(pm.getObjectById(Bug.class, "1:BUGS:10")).andReturn(bug);
+    EasyMock.expect(userService.hasViewAccess(1L)).andReturn(false);
+
+    EasyMock.replay(pmProvider, pm, userService, riskService);
+    try {
+      service.getDatum(DatumType.BUGS, "1:BUGS:10");
+      fail("Expected an InsufficientPrivlegesException.");
+    } catch (InsufficientPrivlegesException e) {
+      // Expected.
+    }
+    EasyMock.verify(pmProvider, pm, userService, riskService);
+  }
+
+  public void testReapplyFiltersBatch_onlyWritesUnassignedMatches() {
+    JobStatus job = new JobStatus();
+    job.setId(9L);
+    job.setParentProjectId(1L);
+    job.setJobType(JobType.REAPPLY_FILTERS);
+    job.setDatumType(DatumType.BUGS);
+    job.setStartTime(1000);
+    EasyMock.expect(pm.getObjectById(JobStatus.class, 9L)).andReturn(job);
+
+    Bug unassigned = newBug(1, 10);
+    unassigned.setTitle("Crash on start");
+    Bug assigned = newBug(1, 11);
+    assigned.setTitle("Crash on exit");
+    assigned.setTargetAttributeId(3L);
+    Bug unmatched = newBug(1, 12);
+    Query bugQuery = EasyMock.createNiceMock(Query.class);
+    EasyMock.expect(pm.newQuery(Bug.class)).andReturn(bugQuery);
+    EasyMock.expect(bugQuery.execute(1L))
+        .andReturn(Lists.newArrayList(unassigned, assigned, unmatched));
+    Bug unassignedCopy = copyOf(unassigned);
+    EasyMock.expect(pm.detachCopy(unassigned)).andReturn(unassignedCopy);
+    EasyMock.expect(pm.detachCopy(assigned)).andReturn(copyOf(assigned));
+    EasyMock.expect(pm.detachCopy(unmatched)).andReturn(copyOf(unmatched));
+
+    Filter filter = new Filter();
+    filter.setParentProjectId(1L);
+    filter.setFilterType(DatumType.BUGS);
+    filter.setFilterConjunction("any");
+    filter.setTargetAttributeId(7L);
+    filter.addFilterOption("Title", "Crash");
+    Query filterQuery = EasyMock.createNiceMock(Query.class);
+    EasyMock.expect(pm.newQuery(Filter.class)).andReturn(filterQuery);
+    EasyMock.expect(filterQuery.execute(EasyMock.anyObject(), EasyMock.anyObject()))
+        .andReturn(Lists.newArrayList(filter));
+
+    pm.makePersistentAll(EasyMock.eq(Lists.newArrayList(unassignedCopy)));
+    EasyMock.expectLastCall().andReturn(null);
+    pm.flush();
+    Capture<List<RiskInput>> added = new Capture<List<RiskInput>>();
+    riskService.updateRiskMatrix(EasyMock.eq(1L), EasyMock.<List<RiskInput>>anyObject(),
+        EasyMock.capture(added));
+    EasyMock.expectLastCall();
+    EasyMock.expect(pm.makePersistent(job)).andReturn(job);
+
+    EasyMock.replay(pmProvider, pm, userService, riskService, memcache, bugQuery, filterQuery);
+    // Fewer items than a full batch were read, so the job is complete.
+    assertFalse(service.reapplyFiltersBatch(9L));
+    EasyMock.verify(pmProvider, pm, userService, riskService, bugQuery, filterQuery);
+
+    assertEquals(7L, unassignedCopy.getTargetAttributeId().longValue());
+    assertEquals(Sets.newHashSet(7L), added.getValue().get(0).getAttributeIds());
+    assertEquals(JobStatus.State.COMPLETE, job.getState());
+    assertEquals(3, job.getItemsProcessed());
+    assertEquals(1, job.getItemsChanged());
+    assertNull(job.getCursor());
+  }
+
+  public void testReapplyFiltersBatch_stopsFinishedJob() {
+    JobStatus job = new JobStatus();
+    job.setState(JobStatus.State.COMPLETE);
+    EasyMock.expect(pm.getObjectById(JobStatus.class, 9L)).andReturn(job);
+
+    EasyMock.replay(pmProvider, pm, userService, riskService);
+    assertFalse(service.reapplyFiltersBatch(9L));
+    EasyMock.verify(pmProvider, pm, userService, riskService);
+  }
+
+  public void testReapplyFiltersBatch_stopsMissingJob() {
+    EasyMock.expect(pm.getObjectById(JobStatus.class, 9L))
+        .andThrow(new JDOObjectNotFoundException());
+
+    EasyMock.replay(pmProvider, pm, userService, riskService);
+    assertFalse(service.reapplyFiltersBatch(9L));
+    EasyMock.verify(pmProvider, pm, userService, riskService);
+  }
+
+  public void testFailJob_marksJobFailed() {
+    JobStatus job = new JobStatus();
+    EasyMock.expect(pm.getObjectById(JobStatus.class, 9L)).andReturn(job);
+    EasyMock.expect(pm.makePersistent(job)).andReturn(job);
+
+    EasyMock.replay(pmProvider, pm, userService, riskService);
+    service.failJob(9L);
+    EasyMock.verify(pmProvider, pm, userService, riskService);
+
+    assertEquals(JobStatus.State.FAILED, job.getState());
+  }
+
+  public void testGetJobStatus_missingJobIsDenied() {
+    EasyMock.expect(pm.getObjectById(JobStatus.class, 9L))
+        .andThrow(new JDOObjectNotFoundException());
+
+    EasyMock.replay(pmProvider, pm, userService, riskService);
+    try {
+      service.getJobStatus(9L);
+      fail("Expected an InsufficientPrivlegesException.");
+    } catch (InsufficientPrivlegesException e) {
+      // Expected.
+    }
+    EasyMock.verify(pmProvider, pm, userService, riskService);
+  }
+
+  public void testUpdateBugAssociations_writesBeforeUpdatingRisk() {
+    // One strict control, so the order of calls across the datastore and risk matrix is checked.
+    IMocksControl control = EasyMock.createStrictControl();
+    PersistenceManager orderedPm = control.createMock(PersistenceManager.class);
+    RiskService orderedRiskService = control.createMock(RiskService.class);
+    EasyMock.reset(pmProvider);
+    EasyMock.expect(pmProvider.get()).andReturn(orderedPm);
+    service = new DataServiceImpl(pmProvider, userService, orderedRiskService,
+        new FilterMatcherCache(memcache, Ticker.systemTicker()), new DataRequestVersion(memcache));
+
+    Bug bug = newBug(1, 10);
+    EasyMock.expect(userService.hasEditAccess(1L)).andReturn(true);
+    EasyMock.expect(orderedPm.getObjectById(Bug.class, "1:BUGS:10")).andReturn(bug);
+    EasyMock.expect(orderedPm.makePersistent(bug)).andReturn(bug);
+    orderedPm.flush();
+    orderedRiskService.updateRiskMatrix(EasyMock.eq(1L), EasyMock.<List<RiskInput>>anyObject(),
+        EasyMock.<List<RiskInput>>anyObject());
+    EasyMock.expectLastCall();
+
+    EasyMock.replay(pmProvider, userService);
+    control.replay();
+    service.updateBugAssociations("1:BUGS:10", 2L, -1L, -1L);
+    EasyMock.verify(pmProvider, userService);
+    control.verify();
+
+    assertEquals(2L, bug.getTargetAttributeId().longValue());
+  }
+
+  public void testSetSignedOff_recordsCapabilityParents() {
+    EasyMock.expect(userService.hasEditAccess(1L)).andReturn(true);
+    EasyMock.expect(pm.getObjectById(Signoff.class, "1:CAPABILITY:5"))
+        .andThrow(new JDOObjectNotFoundException());
+    EasyMock.expect(pm.getObjectById(Capability.class, 5L)).andReturn(new Capability(1L, 2L, 3L));
+    Capture<Signoff> saved = new Capture<Signoff>();
+    EasyMock.expect(pm.makePersistent(EasyMock.capture(saved))).andReturn(null);
+
+    EasyMock.replay(pmProvider, pm, userService, riskService);
+    service.setSignedOff(1L, AccElementType.CAPABILITY, 5L, true);
+    EasyMock.verify(pmProvider, pm, userService, riskService);
+
+    assertEquals("1:CAPABILITY:5", saved.getValue().getId());
+    assertTrue(saved.getValue().getSignedOff());
+    assertEquals(2L, saved.getValue().getAttributeId().longValue());
+    assertEquals(3L, saved.getValue().getComponentId().longValue());
+  }
+
+  public void testGetSignoffMap_countsCapabilitiesInOneQuery() {
+    EasyMock.expect(userService.hasViewAccess(1L)).andReturn(true);
+    Query signoffQuery = EasyMock.createNiceMock(Query.class);
+    EasyMock.expect(pm.newQuery(Signoff.class)).andReturn(signoffQuery);
+    EasyMock.expect(signoffQuery.execute(1L)).andReturn(Lists.newArrayList(
+        newSignoff(AccElementType.ATTRIBUTE, 2L, true),
+        newCapabilitySignoff(5L, 2L, 3L, true),
+        newCapabilitySignoff(6L, 2L, 4L, true),
+        newCapabilitySignoff(7L, 2L, 3L, false)));
+
+    EasyMock.replay(pmProvider, pm, userService, riskService, signoffQuery);
+    SignoffMap signoffs = service.getSignoffMap(1L);
+    EasyMock.verify(pmProvider, pm, userService, riskService, signoffQuery);
+
+    assertTrue(signoffs.isSignedOff(AccElementType.ATTRIBUTE, 2L));
+    assertTrue(signoffs.isSignedOff(AccElementType.CAPABILITY, 5L));
+    assertFalse(signoffs.isSignedOff(AccElementType.CAPABILITY, 7L));
+    assertFalse(signoffs.isSignedOff(AccElementType.COMPONENT, 3L));
+    assertEquals(2, signoffs.getSignedOffCapabilityCount(AccElementType.ATTRIBUTE, 2L));
+    assertEquals(1, signoffs.getSignedOffCapabilityCount(AccElementType.COMPONENT, 3L));
+    assertEquals(0, signoffs.getSignedOffCapabilityCount(AccElementType.COMPONENT, 8L));
+  }
+
+  private Signoff newSignoff(AccElementType type, long elementId, boolean signedOff) {
+    Signoff signoff = new Signoff();
+    signoff.setParentProjectId(1L);
+    signoff.setElementType(type);
+    signoff.setElementId(elementId);
+    signoff.setSignedOff(signedOff);
+    return signoff;
+  }
+
+  private Signoff newCapabilitySignoff(long capabilityId, long attributeId, long componentId,
+      boolean signedOff) {
+    Signoff signoff = newSignoff(AccElementType.CAPABILITY, capabilityId, signedOff);
+    signoff.setAttributeId(attributeId);
+    signoff.setComponentId(componentId);
+    return signoff;
+  }
+
+  private Bug copyOf(Bug bug) {
+    Bug copy = newBug(bug.getParentProjectId(), bug.getExternalId());
+    copy.setTitle(bug.getTitle());
+    copy.setTargetAttributeId(bug.getTargetAttributeId());
+    return copy;
+  }
+
+  private String encodedKey(String kind, String name) {
+    return KeyFactory.keyToString(KeyFactory.createKey(kind, name));
+  }
+
+  private Bug newBug(long projectId, long externalId) {
+    Bug bug = new Bug();
+    bug.setParentProjectId(projectId);
+    bug.setExternalId(externalId);
+    bug.setTitle("Bug " + externalId);
+    return bug;
+  }
+}
@@ -0,0 +1,86 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.appengine.api.memcache.MemcacheService;
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.testing.testify.risk.frontend.model.DatumType;
+import com.google.testing.testify.risk.frontend.model.Filter;
+import com.google.testing.testify.risk.frontend.server.util.FilterMatcher;
+
+import junit.framework.TestCase;
+
+import org.easymock.EasyMock;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Tests for FilterMatcherCache.
+ */
+public class FilterMatcherCacheTest extends TestCase {
+
+  private MemcacheService memcache;
+  private FilterMatcherCache cache;
+  private int loads;
+
+  @Override
+  public void setUp() {
+    memcache = EasyMock.createMock(MemcacheService.class);
+    cache = new FilterMatcherCache(memcache, Ticker.systemTicker());
+    loads = 0;
+  }
+
+  public void testLoadsOncePerVersion() {
+    EasyMock.expect(memcache.get("FilterVersion:1")).andReturn(null).times(2);
+    EasyMock.expect(memcache.get("FilterVersion:1")).andReturn(1L);
+    EasyMock.replay(memcache);
+
+    FilterMatcher matcher = cache.get(1, DatumType.BUGS, newLoader());
+    assertSame(matcher, cache.get(1, DatumType.BUGS, newLoader()));
+    assertNotSame(matcher, cache.get(1, DatumType.BUGS, newLoader()));
+    assertEquals(2, loads);
+    EasyMock.verify(memcache);
+  }
+
+  public void testKeyedByType() {
+    EasyMock.expect(memcache.get("FilterVersion:1")).andReturn(null).times(2);
+    EasyMock.replay(memcache);
+
+    assertNotSame(cache.get(1, DatumType.BUGS, newLoader()),
+        cache.get(1, DatumType.TESTS, newLoader()));
+    assertEquals(2, loads);
+    EasyMock.verify(memcache);
+  }
+
+  public void testInvalidateIncrementsVersion() {
+    EasyMock.expect(memcache.increment("FilterVersion:1", 1L, 0L)).andReturn(1L);
+    EasyMock.replay(memcache);
+
+    cache.invalidate(1);
+    EasyMock.verify(memcache);
+  }
+
+  private Callable<FilterMatcher> newLoader() {
+    return new Callable<FilterMatcher>() {
+      @Override
+      public FilterMatcher call() {
+        loads++;
+        return new FilterMatcher(DatumType.BUGS, Lists.<Filter>newArrayList());
+      }
+    };
+  }
+}
@@ -0,0 +1,142 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.FetchOptions;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.PreparedQuery;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.api.datastore.QueryResultList;
+import com.google.apphosting.api.ApiProxy;
+import com.google.apphosting.api.ApiProxy.Environment;
+import com.google.common.collect.Lists;
+import com.google.testing.testify.risk.frontend.model.JobStatus;
+
+import junit.framework.TestCase;
+
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Tests for ProjectDataDeleter.
+ */
+public class ProjectDataDeleterTest extends TestCase {
+
+  private final DatastoreService datastore = EasyMock.createMock(DatastoreService.class);
+  private final ProjectDataDeleter deleter = new ProjectDataDeleter(datastore);
+
+  @Override
+  public void setUp() {
+    // Datastore keys need an application ID.
+    Environment environment = EasyMock.createNiceMock(Environment.class);
+    EasyMock.expect(environment.getAppId()).andReturn("test").anyTimes();
+    EasyMock.expect(environment.getRequestNamespace()).andReturn("").anyTimes();
+    EasyMock.expect(environment.getAttributes())
+        .andReturn(new HashMap<String, Object>()).anyTimes();
+    EasyMock.replay(environment);
+    ApiProxy.setEnvironmentForCurrentThread(environment);
+  }
+
+  @Override
+  public void tearDown() {
+    ApiProxy.clearEnvironmentForCurrentThread();
+  }
+
+  public void testShortBatchMovesToNextKind() {
+    JobStatus job = newJob(0);
+    Key first = KeyFactory.createKey("Capability", 10);
+    Key second = KeyFactory.createKey("Capability", 11);
+    Capture<Query> query = new Capture<Query>();
+    expectQuery(query, new Entity(first), new Entity(second));
+    datastore.delete(Lists.newArrayList(first, second));
+
+    EasyMock.replay(datastore);
+    assertTrue(deleter.deleteBatch(job, 2000));
+    EasyMock.verify(datastore);
+
+    assertEquals("Capability", query.getValue().getKind());
+    assertTrue(query.getValue().isKeysOnly());
+    assertEquals(1, job.getStep());
+    assertNull(job.getCursor());
+    assertEquals(2, job.getItemsProcessed());
+    assertEquals(2000, job.getUpdateTime());
+  }
+
+  public void testDeletesOwnedChildren() {
+    // Filters own their options.
+    JobStatus job = newJob(8);
+    Key filter = KeyFactory.createKey("Filter", 10);
+    Key option = KeyFactory.createKey(filter, "FilterOption", 20);
+    Capture<Query> query = new Capture<Query>();
+    expectQuery(query, new Entity(filter));
+    Capture<Query> ancestorQuery = new Capture<Query>();
+    PreparedQuery prepared = EasyMock.createMock(PreparedQuery.class);
+    EasyMock.expect(datastore.prepare(EasyMock.capture(ancestorQuery))).andReturn(prepared);
+    EasyMock.expect(prepared.asIterable())
+        .andReturn(Lists.newArrayList(new Entity(filter), new Entity(option)));
+    datastore.delete(Lists.newArrayList(filter, option));
+
+    EasyMock.replay(datastore, prepared);
+    assertTrue(deleter.deleteBatch(job, 2000));
+    EasyMock.verify(datastore, prepared);
+
+    assertEquals("Filter", query.getValue().getKind());
+    assertEquals(filter, ancestorQuery.getValue().getAncestor());
+    assertEquals(1, job.getItemsProcessed());
+    assertEquals(2, job.getItemsChanged());
+  }
+
+  public void testLastKindCompletesJob() {
+    JobStatus job = newJob(10);
+    Capture<Query> query = new Capture<Query>();
+    expectQuery(query);
+
+    EasyMock.replay(datastore);
+    assertFalse(deleter.deleteBatch(job, 2000));
+    EasyMock.verify(datastore);
+
+    assertEquals("RiskSnapshot", query.getValue().getKind());
+    assertEquals(JobStatus.State.COMPLETE, job.getState());
+  }
+
+  private JobStatus newJob(int step) {
+    JobStatus job = new JobStatus();
+    job.setParentProjectId(1L);
+    job.setJobType(JobStatus.JobType.DELETE_PROJECT);
+    job.setStartTime(1000);
+    job.setStep(step);
+    return job;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void expectQuery(Capture<Query> query, Entity... results) {
+    PreparedQuery prepared = EasyMock.createMock(PreparedQuery.class);
+    QueryResultList<Entity> resultList = EasyMock.createMock(QueryResultList.class);
+    List<Entity> entities = Lists.newArrayList(results);
+    EasyMock.expect(datastore.prepare(EasyMock.capture(query))).andReturn(prepared);
+    EasyMock.expect(prepared.asQueryResultList(EasyMock.<FetchOptions>anyObject()))
+        .andReturn(resultList);
+    EasyMock.expect(resultList.iterator()).andReturn(entities.iterator());
+    EasyMock.expect(resultList.size()).andReturn(entities.size()).anyTimes();
+    EasyMock.replay(prepared, resultList);
+  }
+}
@@ -16,8 +16,16 @@
 package com.google.testing.testify.risk.frontend.server.service.impl;
 
 import com.google.common.collect.Lists;
+import com.google.inject.Provider;
+import com.google.testing.testify.risk.frontend.model.AccElementType;
+import com.google.testing.testify.risk.frontend.model.AccLabel;
+import com.google.testing.testify.risk.frontend.model.Attribute;
+import com.google.testing.testify.risk.frontend.model.Capability;
+import com.google.testing.testify.risk.frontend.model.Component;
 import com.google.testing.testify.risk.frontend.model.Project;
+import com.google.testing.testify.risk.frontend.model.ProjectAccModel;
 import com.google.testing.testify.risk.frontend.server.service.ProjectService;
+import com.google.testing.testify.risk.frontend.server.service.RiskService;
 import com.google.testing.testify.risk.frontend.server.service.UserService;
 import com.google.testing.testify.risk.frontend.server.service.impl.ProjectServiceImpl;
 import com.google.testing.testify.risk.frontend.shared.rpc.UserRpc.ProjectAccess;
@@ -28,8 +36,8 @@ import org.easymock.EasyMock;
 
 import java.util.List;
 
+import javax.jdo.JDOObjectNotFoundException;
 import javax.jdo.PersistenceManager;
-import javax.jdo.PersistenceManagerFactory;
 import javax.jdo.Query;
 
 /**
@@ -40,51 +48,53 @@ import javax.jdo.Query;
 public class ProjectServiceImplTest extends TestCase {
 
   // Common mocks.
-  private final PersistenceManagerFactory pmf =
-    EasyMock.createMock(PersistenceManagerFactory.class);
+  @SuppressWarnings("unchecked")
+  private final Provider<PersistenceManager> pmProvider = EasyMock.createMock(Provider.class);
   private final PersistenceManager pm = EasyMock.createMock(PersistenceManager.class);
   private final UserService userService = EasyMock.createMock(UserService.class);
+  private final RiskService riskService = EasyMock.createNiceMock(RiskService.class);
   private ProjectService service;
 
   @Override
   public void setUp() {
     // Typical calls.
-    pmf.getPersistenceManager();
+    pmProvider.get();
     EasyMock.expectLastCall().andReturn(pm);
 
-    service = new ProjectServiceImpl(pmf, userService);
+    EasyMock.replay(riskService);
+    service = new ProjectServiceImpl(pmProvider, userService, riskService);
   }
 
-  public void testQueryOnlyReturnsViewProjects() {
-    List<Project> projects = Lists.newArrayList(
-        newProject("yes 1", 1),
-        newProject("no 1", 2),
-        newProject("yes 2", 3),
-        newProject("yes 3", 4),
-        newProject("no 2", 5));
-
-    // Query.
-    Query query = expectQuery(Project.class);
-    expectOrdering(query, "projectId asc");
-    expectExecute(query, projects);
+  public void testQuery_publicAndMemberProjects() {
+    Project p1 = newProject("public", 1);
+    Project p2 = newProject("owned", 2);
+    Project p4 = newProject("public and viewed", 4);
+    EasyMock.expect(userService.getEmail()).andReturn("a@example");
+    EasyMock.expect(userService.hasAdministratorAccess()).andReturn(false);
+    Query publicQuery = expectProjectsWhere("isPubliclyVisible", true, p4, p1);
+    Query owners = expectProjectsWhere("projectOwners", "a@example", p2);
+    Query editors = expectProjectsWhere("projectEditors", "a@example");
+    Query viewers = expectProjectsWhere("projectViewers", "a@example", p4);
+    expectReturned(p1, p2, p4);
+
+    EasyMock.replay(pmProvider, pm, userService);
+    List<Project> actual = service.query("");
+    EasyMock.verify(pmProvider, pm, userService, publicQuery, owners, editors, viewers);
 
-    for (Project p : projects) {
-      boolean result = p.getName().startsWith("yes");
-      EasyMock.expect(userService.hasViewAccess(p)).andReturn(result);
-      if (result) {
-        EasyMock.expect(pm.detachCopy(p)).andReturn(p);
-        EasyMock.expect(userService.getAccessLevel(p)).andReturn(ProjectAccess.EDIT_ACCESS);
-      }
-    }
+    assertEquals(Lists.newArrayList(p1, p2, p4), actual);
+  }
 
-    EasyMock.replay(pmf, pm, userService, query);
+  public void testQuery_notLoggedInOnlyPublic() {
+    Project p3 = newProject("public", 3);
+    EasyMock.expect(userService.getEmail()).andReturn(null);
+    Query publicQuery = expectProjectsWhere("isPubliclyVisible", true, p3);
+    expectReturned(p3);
 
+    EasyMock.replay(pmProvider, pm, userService);
     List<Project> actual = service.query("");
-    assertEquals(actual.size(), 3);
-    assertEquals(actual.get(0).getName(), "yes 1");
-    assertEquals(actual.get(1).getName(), "yes 2");
-    assertEquals(actual.get(2).getName(), "yes 3");
-    EasyMock.verify(pmf, pm, userService, query);
+    EasyMock.verify(pmProvider, pm, userService, publicQuery);
+
+    assertEquals(Lists.newArrayList(p3), actual);
   }
 
   public void testQueryUserProjects_notLoggedIn() {
@@ -92,265 +102,151 @@ public class ProjectServiceImplTest extends TestCase {
     EasyMock.expectLastCall().andReturn(false);
 
     // Override the setUp actions.  Those are used in almost all cases, just not this one.
-    EasyMock.reset(pmf);
-    EasyMock.replay(userService, pmf, pm);
+    EasyMock.reset(pmProvider);
+    EasyMock.replay(userService, pmProvider, pm);
     List<Project> actual = service.queryUserProjects();
     assertEquals(actual.size(), 0);
-    EasyMock.verify(userService, pmf, pm);
+    EasyMock.verify(userService, pmProvider, pm);
   }
 
   public void testQueryUserProjects_empty() {
-    userService.isUserLoggedIn();
-    EasyMock.expectLastCall().andReturn(true);
-
-    // DB query.
-    Query query = expectQuery(Project.class);
-    expectOrdering(query, "projectId asc");
-    expectExecute(query, Lists.<Project>newArrayList());
-
-    // Getting starred query.
+    expectMemberQueries();
+    expectProjectsWhere("projectOwners", "a@example");
+    expectProjectsWhere("projectEditors", "a@example");
+    expectProjectsWhere("projectViewers", "a@example");
     expectGetStarred(Lists.<Long>newArrayList());
 
-    // Actual call.
-    EasyMock.replay(pmf, pm, userService, query);
+    EasyMock.replay(pmProvider, pm, userService);
     List<Project> actual = service.queryUserProjects();
     assertEquals(actual.size(), 0);
-    EasyMock.verify(pmf, pm, userService, query);
+    EasyMock.verify(pmProvider, pm, userService);
   }
 
-  public void testQueryProjects_noAccess() {
-    List<Project> projects = Lists.newArrayList(
-        newProject("no1 access", 1),
-        newProject("view access", 2),
-        newProject("no2 access", 3),
-        newProject("no3 access", 4),
-        newProject("view2 access", 5));
-
-    userService.isUserLoggedIn();
-    EasyMock.expectLastCall().andReturn(true);
-
-    // DB query.
-    Query query = expectQuery(Project.class);
-    expectOrdering(query, "projectId asc");
-    expectExecute(query, projects);
-
-    EasyMock.expect(userService.getAccessLevel(projects.get(0))).andReturn(ProjectAccess.NO_ACCESS);
-    EasyMock.expect(userService.getAccessLevel(projects.get(1))).andReturn(
-        ProjectAccess.VIEW_ACCESS);
-    EasyMock.expect(userService.getAccessLevel(projects.get(2))).andReturn(
-        ProjectAccess.NO_ACCESS);
-    EasyMock.expect(userService.getAccessLevel(projects.get(3))).andReturn(
-        ProjectAccess.NO_ACCESS);
-    EasyMock.expect(userService.getAccessLevel(projects.get(4))).andReturn(
-        ProjectAccess.VIEW_ACCESS);
-
-    // Getting starred query.
+  public void testQueryUserProjects_members() {
+    Project owned = newProject("owner access", 5);
+    Project edited = newProject("edit access", 4);
+    Project viewed = newProject("explicit view access", 3);
+    expectMemberQueries();
+    expectProjectsWhere("projectOwners", "a@example", owned);
+    expectProjectsWhere("projectEditors", "a@example", edited);
+    expectProjectsWhere("projectViewers", "a@example", viewed);
     expectGetStarred(Lists.<Long>newArrayList());
+    expectReturned(viewed, edited, owned);
 
-    // Actual call.
-    EasyMock.replay(pmf, pm, userService, query);
+    EasyMock.replay(pmProvider, pm, userService);
     List<Project> actual = service.queryUserProjects();
-    assertEquals(actual.size(), 0);
-    EasyMock.verify(pmf, pm, userService, query);
-  }
-
-  public void testQueryProjects_noStarred() {
-    List<Project> projects = Lists.newArrayList(
-        newProject("no access", 1),
-        newProject("view access", 2),
-        newProject("explicit view access", 3),
-        newProject("edit access", 4),
-        newProject("owner access", 5));
+    EasyMock.verify(pmProvider, pm, userService);
 
-    userService.isUserLoggedIn();
-    EasyMock.expectLastCall().andReturn(true);
-
-    // DB query.
-    Query query = expectQuery(Project.class);
-    expectOrdering(query, "projectId asc");
-    expectExecute(query, projects);
-
-    expectProjectCheck(projects.get(0), ProjectAccess.NO_ACCESS, false);
-    expectProjectCheck(projects.get(1), ProjectAccess.VIEW_ACCESS, false);
-    expectProjectCheck(projects.get(2), ProjectAccess.EXPLICIT_VIEW_ACCESS, true);
-    expectProjectCheck(projects.get(3), ProjectAccess.EDIT_ACCESS, true);
-    expectProjectCheck(projects.get(4), ProjectAccess.OWNER_ACCESS, true);
-
-    // Getting starred query.
-    expectGetStarred(Lists.<Long>newArrayList());
+    assertEquals(Lists.newArrayList(viewed, edited, owned), actual);
+  }
 
-    // Actual call.
-    EasyMock.replay(pmf, pm, userService, query);
+  public void testQueryUserProjects_starredWithAccess() {
+    Project starred = newProject("view access", 2);
+    Project viewed = newProject("explicit view access", 3);
+    expectMemberQueries();
+    expectProjectsWhere("projectOwners", "a@example");
+    expectProjectsWhere("projectEditors", "a@example");
+    expectProjectsWhere("projectViewers", "a@example", viewed);
+    // Project 3 is already known, so only the other starred project is loaded.
+    expectGetStarred(Lists.newArrayList(2L, 3L));
+    EasyMock.expect(pm.getObjectById(Project.class, 2L)).andReturn(starred);
+    EasyMock.expect(userService.hasViewAccess(starred)).andReturn(true);
+    expectReturned(starred, viewed);
+
+    EasyMock.replay(pmProvider, pm, userService);
     List<Project> actual = service.queryUserProjects();
-    assertEquals(actual.size(), 3);
-    assertEquals(actual.get(0).getProjectId().longValue(), 3);
-    assertEquals(actual.get(1).getProjectId().longValue(), 4);
-    assertEquals(actual.get(2).getProjectId().longValue(), 5);
-    EasyMock.verify(pmf, pm, userService, query);
-  }
+    EasyMock.verify(pmProvider, pm, userService);
 
-  private void expectProjectCheck(Project p, ProjectAccess access, boolean willReturn) {
-    EasyMock.expect(userService.getAccessLevel(p)).andReturn(access);
-    if (willReturn) {
-      EasyMock.expect(pm.detachCopy(p)).andReturn(p);
-      EasyMock.expect(userService.getAccessLevel(p)).andReturn(access);
-    }
+    assertEquals(Lists.newArrayList(starred, viewed), actual);
   }
 
-  public void testQueryProjects_starredWithAccess() {
-    List<Project> projects = Lists.newArrayList(
-        newProject("no access", 1),
-        newProject("view access", 2),
-        newProject("explicit view access", 3),
-        newProject("edit access", 4),
-        newProject("owner access", 5));
-
-    userService.isUserLoggedIn();
-    EasyMock.expectLastCall().andReturn(true);
-
-    // DB query.
-    Query query = expectQuery(Project.class);
-    expectOrdering(query, "projectId asc");
-    expectExecute(query, projects);
-
-    expectProjectCheck(projects.get(0), ProjectAccess.NO_ACCESS, false);
-    expectProjectCheck(projects.get(1), ProjectAccess.VIEW_ACCESS, true);
-    expectProjectCheck(projects.get(2), ProjectAccess.EXPLICIT_VIEW_ACCESS, true);
-    expectProjectCheck(projects.get(3), ProjectAccess.EDIT_ACCESS, true);
-    expectProjectCheck(projects.get(4), ProjectAccess.OWNER_ACCESS, true);
-
-    // Getting starred query.
-    expectGetStarred(Lists.newArrayList(2L));
-
-    // Actual call.
-    EasyMock.replay(pmf, pm, userService, query);
+  public void testQueryUserProjects_starredWithoutAccess() {
+    Project starred = newProject("no access", 1);
+    expectMemberQueries();
+    expectProjectsWhere("projectOwners", "a@example");
+    expectProjectsWhere("projectEditors", "a@example");
+    expectProjectsWhere("projectViewers", "a@example");
+    expectGetStarred(Lists.newArrayList(1L, 9L));
+    EasyMock.expect(pm.getObjectById(Project.class, 1L)).andReturn(starred);
+    EasyMock.expect(userService.hasViewAccess(starred)).andReturn(false);
+    // Project 9 has been deleted.
+    EasyMock.expect(pm.getObjectById(Project.class, 9L))
+        .andThrow(new JDOObjectNotFoundException());
+
+    EasyMock.replay(pmProvider, pm, userService);
     List<Project> actual = service.queryUserProjects();
-    assertEquals(actual.size(), 4);
-    assertEquals(actual.get(0).getProjectId().longValue(), 2);
-    assertEquals(actual.get(1).getProjectId().longValue(), 3);
-    assertEquals(actual.get(2).getProjectId().longValue(), 4);
-    assertEquals(actual.get(3).getProjectId().longValue(), 5);
-    EasyMock.verify(pmf, pm, userService, query);
-  }
-
-  public void testQueryProjects_starredWithoutAccess() {
-    List<Project> projects = Lists.newArrayList(
-        newProject("no access", 1),
-        newProject("view access", 2),
-        newProject("explicit view access", 3),
-        newProject("edit access", 4),
-        newProject("owner access", 5));
+    EasyMock.verify(pmProvider, pm, userService);
 
-    userService.isUserLoggedIn();
-    EasyMock.expectLastCall().andReturn(true);
+    assertEquals(0, actual.size());
+  }
 
-    // DB query.
+  public void testQueryUserProjects_administratorSeesAll() {
+    Project p1 = newProject("one", 1);
+    Project p2 = newProject("two", 2);
+    EasyMock.expect(userService.isUserLoggedIn()).andReturn(true);
+    EasyMock.expect(userService.hasAdministratorAccess()).andReturn(true);
     Query query = expectQuery(Project.class);
-    expectOrdering(query, "projectId asc");
-    expectExecute(query, projects);
+    expectExecute(query, Lists.newArrayList(p2, p1));
+    expectReturned(p1, p2);
 
-    expectProjectCheck(projects.get(0), ProjectAccess.NO_ACCESS, false);
-    expectProjectCheck(projects.get(1), ProjectAccess.VIEW_ACCESS, false);
-    expectProjectCheck(projects.get(2), ProjectAccess.EXPLICIT_VIEW_ACCESS, true);
-    expectProjectCheck(projects.get(3), ProjectAccess.EDIT_ACCESS, true);
-    expectProjectCheck(projects.get(4), ProjectAccess.OWNER_ACCESS, true);
-
-    // Getting starred query.
-    expectGetStarred(Lists.newArrayList(1L));
-
-    // Actual call.
-    EasyMock.replay(pmf, pm, userService, query);
+    EasyMock.replay(pmProvider, pm, userService, query);
     List<Project> actual = service.queryUserProjects();
-    assertEquals(actual.size(), 3);
-    assertEquals(actual.get(0).getProjectId().longValue(), 3);
-    assertEquals(actual.get(1).getProjectId().longValue(), 4);
-    assertEquals(actual.get(2).getProjectId().longValue(), 5);
-    EasyMock.verify(pmf, pm, userService, query);
-  }
-
-  public void testQueryProjectsEdit_some() {
-    List<Project> projects = Lists.newArrayList(
-        newProject("no1 access", 1),
-        newProject("view access", 2),
-        newProject("edit access", 3),
-        newProject("no2 access", 4),
-        newProject("explicit view access", 5),
-        newProject("owner access", 6));
+    EasyMock.verify(pmProvider, pm, userService, query);
 
-    userService.isUserLoggedIn();
-    EasyMock.expectLastCall().andReturn(true);
-    userService.isUserLoggedIn();
-    EasyMock.expectLastCall().andReturn(true);
+    assertEquals(Lists.newArrayList(p1, p2), actual);
+  }
 
-    // DB query.
-    Query query = expectQuery(Project.class);
-    expectOrdering(query, "projectId asc");
-    expectExecute(query, projects);
-
-    expectProjectCheck(projects.get(0), ProjectAccess.NO_ACCESS, false);
-    expectProjectCheck(projects.get(1), ProjectAccess.VIEW_ACCESS, true);
-    expectProjectCheck(projects.get(2), ProjectAccess.EDIT_ACCESS, true);
-    expectProjectCheck(projects.get(3), ProjectAccess.NO_ACCESS, false);
-    expectProjectCheck(projects.get(4), ProjectAccess.EXPLICIT_VIEW_ACCESS, true);
-    expectProjectCheck(projects.get(5), ProjectAccess.OWNER_ACCESS, true);
-
-    // Getting starred query.
-    expectGetStarred(Lists.newArrayList(1L, 2L));
-
-    // Checking edit access.
-    EasyMock.expect(userService.hasEditAccess(projects.get(1))).andReturn(false);
-    EasyMock.expect(userService.hasEditAccess(projects.get(2))).andReturn(true);
-    EasyMock.expect(userService.hasEditAccess(projects.get(4))).andReturn(false);
-    EasyMock.expect(userService.hasEditAccess(projects.get(5))).andReturn(true);
-
-    EasyMock.expect(userService.getAccessLevel(projects.get(2))).andReturn(null);
-    EasyMock.expect(userService.getAccessLevel(projects.get(5))).andReturn(null);
-
-    // Actual call.
-    EasyMock.replay(pmf, pm, userService, query);
+  public void testQueryProjectsEdit_ownersAndEditors() {
+    Project owned = newProject("owner access", 6);
+    Project edited = newProject("edit access", 3);
+    expectMemberQueries();
+    expectProjectsWhere("projectOwners", "a@example", owned);
+    expectProjectsWhere("projectEditors", "a@example", edited);
+    expectReturned(edited, owned);
+
+    EasyMock.replay(pmProvider, pm, userService);
     List<Project> actual = service.queryProjectsUserHasEditAccessTo();
-    assertEquals(actual.size(), 2);
-    assertEquals(actual.get(0).getProjectId().longValue(), 3L);
-    assertEquals(actual.get(1).getProjectId().longValue(), 6L);
-    EasyMock.verify(pmf, pm, userService, query);
+    EasyMock.verify(pmProvider, pm, userService);
+
+    assertEquals(Lists.newArrayList(edited, owned), actual);
   }
 
   public void testQueryProjectsEdit_none() {
-    List<Project> projects = Lists.newArrayList(
-        newProject("no1 access", 1),
-        newProject("view access", 2),
-        newProject("no2 access", 3),
-        newProject("explicit view access", 4),
-        newProject("view2 access", 5));
-
-    userService.isUserLoggedIn();
-    EasyMock.expectLastCall().andReturn(true);
-    userService.isUserLoggedIn();
-    EasyMock.expectLastCall().andReturn(true);
+    expectMemberQueries();
+    expectProjectsWhere("projectOwners", "a@example");
+    expectProjectsWhere("projectEditors", "a@example");
 
-    // DB query.
-    Query query = expectQuery(Project.class);
-    expectOrdering(query, "projectId asc");
-    expectExecute(query, projects);
+    EasyMock.replay(pmProvider, pm, userService);
+    List<Project> actual = service.queryProjectsUserHasEditAccessTo();
+    EasyMock.verify(pmProvider, pm, userService);
 
-    expectProjectCheck(projects.get(0), ProjectAccess.NO_ACCESS, false);
-    expectProjectCheck(projects.get(1), ProjectAccess.VIEW_ACCESS, true);
-    expectProjectCheck(projects.get(2), ProjectAccess.NO_ACCESS, false);
-    expectProjectCheck(projects.get(3), ProjectAccess.EXPLICIT_VIEW_ACCESS, true);
-    expectProjectCheck(projects.get(4), ProjectAccess.VIEW_ACCESS, false);
+    assertEquals(0, actual.size());
+  }
 
-    // Getting starred query.
-    expectGetStarred(Lists.newArrayList(1L, 2L));
+  /** Expects a logged in, non-administrator user, whose projects are queried. */
+  private void expectMemberQueries() {
+    EasyMock.expect(userService.isUserLoggedIn()).andReturn(true);
+    EasyMock.expect(userService.hasAdministratorAccess()).andReturn(false);
+    EasyMock.expect(userService.getEmail()).andReturn("a@example");
+  }
 
-    // Checking edit access.
-    EasyMock.expect(userService.hasEditAccess(projects.get(1))).andReturn(false);
-    EasyMock.expect(userService.hasEditAccess(projects.get(3))).andReturn(false);
+  /** Expects a query for the projects with a field equal to a value. */
+  private Query expectProjectsWhere(String fieldName, Object value, Project... results) {
+    Query query = EasyMock.createMock(Query.class);
+    EasyMock.expect(pm.newQuery(Project.class)).andReturn(query);
+    query.declareParameters(EasyMock.<String>anyObject());
+    query.setFilter(fieldName + " == valueParam");
+    EasyMock.expect(query.execute(value)).andReturn(Lists.newArrayList(results));
+    EasyMock.replay(query);
+    return query;
+  }
 
-    // Actual call.
-    EasyMock.replay(pmf, pm, userService, query);
-    List<Project> actual = service.queryProjectsUserHasEditAccessTo();
-    assertEquals(actual.size(), 0);
-    EasyMock.verify(pmf, pm, userService, query);
+  /** Expects projects to be returned to the user. */
+  private void expectReturned(Project... projects) {
+    for (Project p : projects) {
+      EasyMock.expect(pm.detachCopy(p)).andReturn(p);
+      EasyMock.expect(userService.getAccessLevel(p)).andReturn(ProjectAccess.VIEW_ACCESS);
+    }
   }
 
   public void testGetProjectById_withAccess() {
@@ -361,13 +257,11 @@ public class ProjectServiceImplTest extends TestCase {
 
     EasyMock.expect(pm.getObjectById(Project.class, id)).andReturn(project);
     EasyMock.expect(userService.hasViewAccess(project)).andReturn(true);
-    pm.close();
-    EasyMock.expectLastCall();
     EasyMock.expect(pm.detachCopy(project)).andReturn(project);
     EasyMock.expect(userService.getAccessLevel(project)).andReturn(null);
-    EasyMock.replay(userService, pmf, pm);
+    EasyMock.replay(userService, pmProvider, pm);
     Project actual = service.getProjectById(id);
-    EasyMock.verify(userService, pmf, pm);
+    EasyMock.verify(userService, pmProvider, pm);
 
     assertEquals(actual.getProjectId().longValue(), id);
     assertEquals(actual.getName(), "Hello There 123");
@@ -381,24 +275,20 @@ public class ProjectServiceImplTest extends TestCase {
 
     EasyMock.expect(pm.getObjectById(Project.class, id)).andReturn(project);
     EasyMock.expect(userService.hasViewAccess(project)).andReturn(false);
-    pm.close();
-    EasyMock.expectLastCall();
 
-    EasyMock.replay(userService, pmf, pm);
+    EasyMock.replay(userService, pmProvider, pm);
     Project actual = service.getProjectById(id);
-    EasyMock.verify(userService, pmf, pm);
+    EasyMock.verify(userService, pmProvider, pm);
 
     assertEquals(actual, null);
   }
 
   public void testGetProjectById_nx() {
     EasyMock.expect(pm.getObjectById(Project.class, 123L)).andReturn(null);
-    pm.close();
-    EasyMock.expectLastCall();
 
-    EasyMock.replay(userService, pmf, pm);
+    EasyMock.replay(userService, pmProvider, pm);
     Project actual = service.getProjectById(123L);
-    EasyMock.verify(userService, pmf, pm);
+    EasyMock.verify(userService, pmProvider, pm);
 
     assertEquals(actual, null);
   }
@@ -420,9 +310,9 @@ public class ProjectServiceImplTest extends TestCase {
 
     EasyMock.expect(pm.detachCopy(project)).andReturn(project);
     EasyMock.expect(userService.getAccessLevel(project)).andReturn(null);
-    EasyMock.replay(userService, pmf, pm, query);
+    EasyMock.replay(userService, pmProvider, pm, query);
     Project actual = service.getProjectByName("Hello There 123");
-    EasyMock.verify(userService, pmf, pm, query);
+    EasyMock.verify(userService, pmProvider, pm, query);
 
     assertEquals(actual.getName(), "Hello There 123");
     assertEquals(actual.getProjectId().longValue(), 123L);
@@ -443,9 +333,9 @@ public class ProjectServiceImplTest extends TestCase {
 
     EasyMock.expect(userService.hasViewAccess(project)).andReturn(false);
 
-    EasyMock.replay(userService, pmf, pm, query);
+    EasyMock.replay(userService, pmProvider, pm, query);
     Project actual = service.getProjectByName("Hello There 123");
-    EasyMock.verify(userService, pmf, pm, query);
+    EasyMock.verify(userService, pmProvider, pm, query);
 
     assertEquals(actual, null);
   }
@@ -472,9 +362,9 @@ public class ProjectServiceImplTest extends TestCase {
 
     EasyMock.expect(pm.detachCopy(project2)).andReturn(project2);
     EasyMock.expect(userService.getAccessLevel(project2)).andReturn(null);
-    EasyMock.replay(userService, pmf, pm, query);
+    EasyMock.replay(userService, pmProvider, pm, query);
     Project actual = service.getProjectByName("Has a Dupe");
-    EasyMock.verify(userService, pmf, pm, query);
+    EasyMock.verify(userService, pmProvider, pm, query);
 
     assertEquals(actual.getName(), "Has a Dupe");
     assertEquals(actual.getProjectId().longValue(), 124L);
@@ -490,13 +380,144 @@ public class ProjectServiceImplTest extends TestCase {
     EasyMock.expectLastCall();
     expectExecute(query, projects, "Hello There 123");
 
-    EasyMock.replay(userService, pmf, pm, query);
+    EasyMock.replay(userService, pmProvider, pm, query);
     Project actual = service.getProjectByName("Hello There 123");
-    EasyMock.verify(userService, pmf, pm, query);
+    EasyMock.verify(userService, pmProvider, pm, query);
 
     assertEquals(actual, null);
   }
 
+  public void testGetProjectAccModel_readsLabelsFromElements() {
+    Attribute attribute = new Attribute();
+    attribute.setAttributeId(1);
+    attribute.setParentProjectId(42);
+    Component component = new Component();
+    component.setComponentId(1);
+    component.setParentProjectId(42);
+    Capability capability = new Capability();
+    capability.setCapabilityId(1);
+    capability.setParentProjectId(42);
+
+    // Labels are stored without their element.
+    AccLabel attributeLabel = new AccLabel();
+    attributeLabel.setLabelText("Security");
+    attribute.setAccLabels(Lists.newArrayList(attributeLabel));
+    AccLabel capabilityLabel = new AccLabel();
+    capabilityLabel.setLabelText("Priority-P1");
+    capability.setAccLabels(Lists.newArrayList(capabilityLabel));
+
+    EasyMock.expect(userService.hasViewAccess(42L)).andReturn(true);
+    Query attributeQuery = expectNiceQuery(Attribute.class, Lists.newArrayList(attribute));
+    Query componentQuery = expectNiceQuery(Component.class, Lists.newArrayList(component));
+    Query capabilityQuery = expectNiceQuery(Capability.class, Lists.newArrayList(capability));
+    EasyMock.expect(pm.detachCopy(attribute)).andReturn(attribute);
+    EasyMock.expect(pm.detachCopy(component)).andReturn(component);
+    EasyMock.expect(pm.detachCopy(capability)).andReturn(capability);
+
+    EasyMock.replay(userService, pmProvider, pm, attributeQuery, componentQuery, capabilityQuery);
+    ProjectAccModel model = service.getProjectAccModel(42L);
+    EasyMock.verify(userService, pmProvider, pm);
+
+    assertEquals(Lists.newArrayList(attributeLabel, capabilityLabel), model.getLabels());
+    assertEquals(Lists.newArrayList(attributeLabel), model.getAttributes().get(0).getAccLabels());
+    assertEquals(0, model.getComponents().get(0).getAccLabels().size());
+    assertEquals(Lists.newArrayList(capabilityLabel), model.getCapability(1).getAccLabels());
+    assertEquals(42L, capabilityLabel.getProjectId().longValue());
+    assertEquals(AccElementType.CAPABILITY, capabilityLabel.getElementType());
+    assertEquals(1L, capabilityLabel.getElementId().longValue());
+  }
+
+  public void testUpdateAttribute_writesLabelsWithElement() {
+    Attribute attribute = new Attribute(42);
+    attribute.setAttributeId(1);
+    attribute.addLabel("Security");
+    AccLabel existing = new AccLabel();
+    existing.setId("3");
+    existing.setLabelText("Priority-P1");
+    attribute.addLabel(existing);
+
+    EasyMock.expect(userService.hasEditAccess(42L)).andReturn(true);
+    EasyMock.expect(pm.getObjectById(Attribute.class, 1L)).andReturn(new Attribute(42));
+    EasyMock.expect(pm.makePersistent(attribute)).andReturn(attribute);
+    pm.flush();
+    EasyMock.expect(pm.detachCopy(attribute)).andReturn(attribute);
+
+    EasyMock.replay(userService, pmProvider, pm);
+    service.updateAttribute(attribute);
+    // No label entities are read, written or deleted.
+    EasyMock.verify(userService, pmProvider, pm);
+
+    assertEquals("4", attribute.getAccLabels().get(0).getId());
+    assertEquals("3", attribute.getAccLabels().get(1).getId());
+  }
+
+  public void testMoveElement_writesOnlyMovedItem() {
+    Capability moved = newCapability(1, 5 * ProjectServiceImpl.ORDER_GAP);
+    Capability before = newCapability(2, 0);
+    Capability after = newCapability(3, ProjectServiceImpl.ORDER_GAP);
+    EasyMock.expect(userService.hasEditAccess(42L)).andReturn(true);
+    EasyMock.expect(pm.getObjectById(Capability.class, 1L)).andReturn(moved);
+    EasyMock.expect(pm.getObjectById(Capability.class, 2L)).andReturn(before);
+    EasyMock.expect(pm.getObjectById(Capability.class, 3L)).andReturn(after);
+    EasyMock.expect(pm.makePersistent(moved)).andReturn(moved);
+
+    EasyMock.replay(userService, pmProvider, pm);
+    service.moveElement(42L, AccElementType.CAPABILITY, 1L, 2L, 3L);
+    EasyMock.verify(userService, pmProvider, pm);
+
+    assertEquals(ProjectServiceImpl.ORDER_GAP / 2, moved.getDisplayOrder());
+  }
+
+  public void testMoveElement_rebalancesWhenNoRoom() {
+    Capability before = newCapability(1, 7);
+    Capability after = newCapability(2, 8);
+    Capability moved = newCapability(3, 9);
+    EasyMock.expect(userService.hasEditAccess(42L)).andReturn(true);
+    EasyMock.expect(pm.getObjectById(Capability.class, 3L)).andReturn(moved);
+    EasyMock.expect(pm.getObjectById(Capability.class, 1L)).andReturn(before);
+    EasyMock.expect(pm.getObjectById(Capability.class, 2L)).andReturn(after);
+    Query query = expectNiceQuery(Capability.class, Lists.newArrayList(before, after, moved));
+    pm.makePersistentAll(Lists.newArrayList(before, after, moved));
+    EasyMock.expectLastCall().andReturn(null);
+    EasyMock.expect(pm.makePersistent(moved)).andReturn(moved);
+
+    EasyMock.replay(userService, pmProvider, pm, query);
+    service.moveElement(42L, AccElementType.CAPABILITY, 3L, 1L, 2L);
+    EasyMock.verify(userService, pmProvider, pm);
+
+    long gap = ProjectServiceImpl.ORDER_GAP;
+    assertEquals(0, before.getDisplayOrder());
+    assertEquals(gap, after.getDisplayOrder());
+    assertEquals(gap / 2, moved.getDisplayOrder());
+  }
+
+  public void testGetOrderBetween() {
+    long gap = ProjectServiceImpl.ORDER_GAP;
+    assertEquals(0L, ProjectServiceImpl.getOrderBetween(null, null).longValue());
+    assertEquals(-gap, ProjectServiceImpl.getOrderBetween(null, newCapability(1, 0))
+        .longValue());
+    assertEquals(gap + 10, ProjectServiceImpl.getOrderBetween(newCapability(1, 10), null)
+        .longValue());
+    assertEquals(12L, ProjectServiceImpl.getOrderBetween(newCapability(1, 10),
+        newCapability(2, 14)).longValue());
+    assertNull(ProjectServiceImpl.getOrderBetween(newCapability(1, 10), newCapability(2, 11)));
+  }
+
+  private Capability newCapability(long id, long displayOrder) {
+    Capability capability = new Capability(42L, 1L, 1L);
+    capability.setCapabilityId(id);
+    capability.setDisplayOrder(displayOrder);
+    return capability;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Query expectNiceQuery(@SuppressWarnings("rawtypes") Class clazz, Object result) {
+    Query query = EasyMock.createNiceMock(Query.class);
+    EasyMock.expect(pm.newQuery(clazz)).andReturn(query);
+    EasyMock.expect(query.execute(42L)).andReturn(result);
+    return query;
+  }
+
   private void expectGetStarred(List<Long> result) {
     userService.getStarredProjects();
     EasyMock.expectLastCall().andReturn(result);
@@ -505,15 +526,11 @@ public class ProjectServiceImplTest extends TestCase {
   private void expectExecute(Query query, Object result) {
     query.execute();
     EasyMock.expectLastCall().andReturn(result);
-    pm.close();
-    EasyMock.expectLastCall();
   }
 
   private void expectExecute(Query query, Object result, String param) {
     query.execute(param);
     EasyMock.expectLastCall().andReturn(result);
-    pm.close();
-    EasyMock.expectLastCall();
   }
 
   @SuppressWarnings("unchecked")
@@ -523,11 +540,6 @@ public class ProjectServiceImplTest extends TestCase {
     return query;
   }
 
-  private void expectOrdering(Query query, String order) {
-    query.setOrdering(order);
-    EasyMock.expectLastCall();
-  }
-
   private Project newProject(String name, long id) {
     Project p = new Project();
     p.setName(name);
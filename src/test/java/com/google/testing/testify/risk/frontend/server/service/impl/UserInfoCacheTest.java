@@ -0,0 +1,83 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.service.impl;
+
+import com.google.common.base.Ticker;
+import com.google.testing.testify.risk.frontend.model.UserInfo;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for UserInfoCache.
+ */
+public class UserInfoCacheTest extends TestCase {
+
+  private FakeTicker ticker;
+  private UserInfoCache cache;
+
+  @Override
+  public void setUp() {
+    ticker = new FakeTicker();
+    cache = new UserInfoCache(ticker, 60);
+  }
+
+  public void testMissThenHit() {
+    UserInfo user = new UserInfo();
+    assertNull(cache.get("1"));
+    cache.put("1", user);
+    assertSame(user, cache.get("1").get());
+    assertEquals(1, cache.getStats().hitCount());
+    assertEquals(1, cache.getStats().missCount());
+  }
+
+  public void testCachesMissingUserInfo() {
+    cache.put("1", null);
+    assertNotNull(cache.get("1"));
+    assertFalse(cache.get("1").isPresent());
+    assertNull(cache.get("2"));
+  }
+
+  public void testExpires() {
+    cache.put("1", new UserInfo());
+    ticker.advance(59);
+    assertNotNull(cache.get("1"));
+    ticker.advance(2);
+    assertNull(cache.get("1"));
+  }
+
+  public void testInvalidate() {
+    cache.put("1", new UserInfo());
+    cache.put("2", new UserInfo());
+    cache.invalidate("1");
+    assertNull(cache.get("1"));
+    assertNotNull(cache.get("2"));
+  }
+
+  private static class FakeTicker extends Ticker {
+    private long nanos = 0;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    public void advance(long seconds) {
+      nanos += TimeUnit.SECONDS.toNanos(seconds);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.datastore.Blob;
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.Key;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.common.collect.Lists;
+import com.google.testing.testify.risk.frontend.model.AccLabel;
+import com.google.testing.testify.risk.frontend.model.FilterOption;
+import com.google.testing.testify.risk.frontend.server.task.BatchMigrationTask.Position;
+
+import junit.framework.TestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.util.List;
+
+/**
+ * Tests for the {@link EmbedChildEntitiesTask}, against a local datastore.
+ */
+public class EmbedChildEntitiesTaskTest extends TestCase {
+
+  private final LocalServiceTestHelper helper =
+      new LocalServiceTestHelper(new LocalDatastoreServiceTestConfig());
+  private DatastoreService datastore;
+
+  @Override
+  public void setUp() {
+    helper.setUp();
+    datastore = DatastoreServiceFactory.getDatastoreService();
+  }
+
+  @Override
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  public void testMigrate_keepsOptionOrderAcrossBatches() throws Exception {
+    Entity filter = new Entity("Filter");
+    datastore.put(filter);
+    // Written out of order, so the options of one filter span batches in key order.
+    datastore.put(oldOption(filter.getKey(), 2, "Label", "c"));
+    datastore.put(oldOption(filter.getKey(), 0, "Label", "a"));
+    datastore.put(oldOption(filter.getKey(), 3, "Label", "d"));
+    datastore.put(oldOption(filter.getKey(), 1, "Label", "b"));
+
+    runAll(new EmbedChildEntitiesTask(2));
+
+    assertEquals("[a, b, c, d]", getValues(getOptions(filter.getKey())));
+    assertEquals(0, count("FilterOption"));
+  }
+
+  public void testMigrate_keepsRepeatedOptions() throws Exception {
+    Entity filter = new Entity("Filter");
+    datastore.put(filter);
+    datastore.put(oldOption(filter.getKey(), 0, "Path", "src"));
+    datastore.put(oldOption(filter.getKey(), 1, "Path", "src"));
+
+    runAll(new EmbedChildEntitiesTask());
+
+    assertEquals("[src, src]", getValues(getOptions(filter.getKey())));
+  }
+
+  public void testMigrate_retryAfterPartialRunAddsNothing() throws Exception {
+    Entity filter = new Entity("Filter");
+    datastore.put(filter);
+    Entity first = oldOption(filter.getKey(), 0, "Label", "a");
+    Entity second = oldOption(filter.getKey(), 1, "Label", "b");
+    datastore.put(first);
+    datastore.put(second);
+    Entity attribute = new Entity("Attribute");
+    datastore.put(attribute);
+    Entity label = new Entity("AccLabel");
+    label.setProperty("elementType", "ATTRIBUTE");
+    label.setProperty("elementId", attribute.getKey().getId());
+    label.setProperty("name", "Owner");
+    label.setProperty("value", "me");
+    datastore.put(label);
+
+    runAll(new EmbedChildEntitiesTask());
+    // As if the parents were written but the children never removed.
+    datastore.put(Lists.newArrayList(first, second, label));
+    runAll(new EmbedChildEntitiesTask());
+
+    assertEquals("[a, b]", getValues(getOptions(filter.getKey())));
+    List<AccLabel> labels = readList(datastore.get(attribute.getKey()), "accLabels");
+    assertEquals(1, labels.size());
+    assertEquals("me", labels.get(0).getValue());
+    assertEquals(0, count("FilterOption"));
+    assertEquals(0, count("AccLabel"));
+  }
+
+  private void runAll(EmbedChildEntitiesTask task) throws Exception {
+    Position next = task.runBatch("AccLabel", null);
+    while (next != null) {
+      next = task.runBatch(next.kind, next.cursor);
+    }
+  }
+
+  private Entity oldOption(Key filter, long index, String type, String value) {
+    Entity option = new Entity("FilterOption", filter);
+    option.setProperty("filterOptions_INTEGER_IDX", index);
+    option.setProperty("type", type);
+    option.setProperty("value", value);
+    return option;
+  }
+
+  private List<FilterOption> getOptions(Key filter) throws Exception {
+    return readList(datastore.get(filter), "filterOptions");
+  }
+
+  private String getValues(List<FilterOption> options) {
+    List<String> values = Lists.newArrayList();
+    for (FilterOption option : options) {
+      values.add(option.getValue());
+    }
+    return values.toString();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> List<T> readList(Entity parent, String property) throws Exception {
+    Blob blob = (Blob) parent.getProperty(property);
+    ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(blob.getBytes()));
+    try {
+      return (List<T>) in.readObject();
+    } finally {
+      in.close();
+    }
+  }
+
+  private int count(String kind) {
+    return datastore.prepare(new Query(kind)).countEntities();
+  }
+}
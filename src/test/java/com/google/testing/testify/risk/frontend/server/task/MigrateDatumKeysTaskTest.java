@@ -0,0 +1,154 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.testing.testify.risk.frontend.server.task.BatchMigrationTask.Position;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the {@link MigrateDatumKeysTask}, against a local datastore.
+ */
+public class MigrateDatumKeysTaskTest extends TestCase {
+
+  private final LocalServiceTestHelper helper =
+      new LocalServiceTestHelper(new LocalDatastoreServiceTestConfig());
+  private DatastoreService datastore;
+
+  @Override
+  public void setUp() {
+    helper.setUp();
+    datastore = DatastoreServiceFactory.getDatastoreService();
+  }
+
+  @Override
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  public void testMigrate_mergesDuplicates() throws Exception {
+    Entity first = oldBug(1, 10, "first");
+    first.setProperty("targetAttributeId", 5L);
+    Entity second = oldBug(1, 10, "second");
+    second.setProperty("targetComponentId", 6L);
+    datastore.put(first);
+    datastore.put(second);
+
+    runAll(new MigrateDatumKeysTask());
+
+    assertEquals(1, countBugs());
+    Entity bug = getBug("1:BUGS:10");
+    assertEquals(5L, bug.getProperty("targetAttributeId"));
+    assertEquals(6L, bug.getProperty("targetComponentId"));
+  }
+
+  public void testMigrate_keepsItemUploadedSinceDeploy() throws Exception {
+    Entity old = oldBug(1, 10, "old title");
+    old.setProperty("targetCapabilityId", 7L);
+    old.setProperty("targetAttributeId", 5L);
+    datastore.put(old);
+    Entity uploaded = new Entity(KeyFactory.createKey("Bug", "1:BUGS:10"));
+    uploaded.setProperty("parentProjectId", 1L);
+    uploaded.setProperty("externalId", 10L);
+    uploaded.setProperty("title", "new title");
+    uploaded.setProperty("targetAttributeId", 8L);
+    datastore.put(uploaded);
+
+    runAll(new MigrateDatumKeysTask());
+
+    assertEquals(1, countBugs());
+    Entity bug = getBug("1:BUGS:10");
+    assertEquals("new title", bug.getProperty("title"));
+    assertEquals(8L, bug.getProperty("targetAttributeId"));
+    // Only the missing assignment comes from the old entity.
+    assertEquals(7L, bug.getProperty("targetCapabilityId"));
+  }
+
+  public void testMigrate_leavesItemsWithoutExternalId() throws Exception {
+    Entity unkeyed = new Entity("Bug");
+    unkeyed.setProperty("parentProjectId", 1L);
+    unkeyed.setProperty("title", "no external ID");
+    datastore.put(unkeyed);
+
+    runAll(new MigrateDatumKeysTask());
+
+    assertEquals("no external ID", datastore.get(unkeyed.getKey()).getProperty("title"));
+  }
+
+  public void testMigrate_resumesFromCursor() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      datastore.put(oldBug(1, 10 + i, "bug " + i));
+    }
+    // A duplicate of the first bug, read in a later batch.
+    Entity duplicate = oldBug(1, 10, "bug 0 again");
+    duplicate.setProperty("targetAttributeId", 5L);
+    datastore.put(duplicate);
+
+    MigrateDatumKeysTask task = new MigrateDatumKeysTask(2);
+    Position next = task.runBatch("Bug", null);
+    assertEquals("Bug", next.kind);
+    assertNotNull(next.cursor);
+    // Retrying the first batch changes nothing.
+    assertEquals("Bug", task.runBatch("Bug", null).kind);
+
+    // Each batch reads on from where the last left off, then moves on to the next kind.
+    int batches = 1;
+    while (next != null && next.kind.equals("Bug")) {
+      next = new MigrateDatumKeysTask(2).runBatch(next.kind, next.cursor);
+      batches++;
+    }
+    assertTrue(batches > 2);
+    assertEquals("TestCase", next.kind);
+    assertNull(next.cursor);
+
+    assertEquals(5, countBugs());
+    for (int i = 0; i < 5; i++) {
+      assertNotNull(getBug("1:BUGS:" + (10 + i)));
+    }
+    assertEquals(5L, getBug("1:BUGS:10").getProperty("targetAttributeId"));
+  }
+
+  private void runAll(MigrateDatumKeysTask task) throws Exception {
+    Position next = task.runBatch("Bug", null);
+    while (next != null) {
+      next = task.runBatch(next.kind, next.cursor);
+    }
+  }
+
+  private Entity oldBug(long projectId, long externalId, String title) {
+    Entity bug = new Entity("Bug");
+    bug.setProperty("parentProjectId", projectId);
+    bug.setProperty("externalId", externalId);
+    bug.setProperty("title", title);
+    return bug;
+  }
+
+  private Entity getBug(String keyName) throws EntityNotFoundException {
+    return datastore.get(KeyFactory.createKey("Bug", keyName));
+  }
+
+  private int countBugs() {
+    return datastore.prepare(new Query("Bug")).countEntities();
+  }
+}
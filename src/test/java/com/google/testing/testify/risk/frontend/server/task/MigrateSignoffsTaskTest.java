@@ -0,0 +1,114 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.task;
+
+import com.google.appengine.api.datastore.DatastoreService;
+import com.google.appengine.api.datastore.DatastoreServiceFactory;
+import com.google.appengine.api.datastore.Entity;
+import com.google.appengine.api.datastore.EntityNotFoundException;
+import com.google.appengine.api.datastore.KeyFactory;
+import com.google.appengine.api.datastore.Query;
+import com.google.appengine.tools.development.testing.LocalDatastoreServiceTestConfig;
+import com.google.appengine.tools.development.testing.LocalServiceTestHelper;
+import com.google.testing.testify.risk.frontend.server.task.BatchMigrationTask.Position;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for the {@link MigrateSignoffsTask}, against a local datastore.
+ */
+public class MigrateSignoffsTaskTest extends TestCase {
+
+  private final LocalServiceTestHelper helper =
+      new LocalServiceTestHelper(new LocalDatastoreServiceTestConfig());
+  private DatastoreService datastore;
+
+  @Override
+  public void setUp() {
+    helper.setUp();
+    datastore = DatastoreServiceFactory.getDatastoreService();
+  }
+
+  @Override
+  public void tearDown() {
+    helper.tearDown();
+  }
+
+  public void testMigrate_rekeysSignoffs() throws Exception {
+    Entity capability = new Entity("Capability");
+    capability.setProperty("attributeId", 5L);
+    capability.setProperty("componentId", 6L);
+    datastore.put(capability);
+    long capabilityId = capability.getKey().getId();
+    datastore.put(oldSignoff(1, "ATTRIBUTE", 5, true));
+    datastore.put(oldSignoff(1, "CAPABILITY", capabilityId, true));
+
+    runAll(new MigrateSignoffsTask());
+
+    assertEquals(2, countSignoffs());
+    assertEquals(true, getSignoff("1:ATTRIBUTE:5").getProperty("signedOff"));
+    Entity signoff = getSignoff("1:CAPABILITY:" + capabilityId);
+    assertEquals(5L, signoff.getProperty("attributeId"));
+    assertEquals(6L, signoff.getProperty("componentId"));
+  }
+
+  public void testMigrate_dropsSignoffsOfDeletedCapabilities() throws Exception {
+    datastore.put(oldSignoff(1, "CAPABILITY", 99, true));
+
+    runAll(new MigrateSignoffsTask());
+
+    assertEquals(0, countSignoffs());
+  }
+
+  public void testMigrate_keepsSignoffWrittenSinceDeploy() throws Exception {
+    datastore.put(oldSignoff(1, "COMPONENT", 6, true));
+    Entity current = new Entity(KeyFactory.createKey("Signoff", "1:COMPONENT:6"));
+    current.setProperty("parentProjectId", 1L);
+    current.setProperty("elementType", "COMPONENT");
+    current.setProperty("elementId", 6L);
+    current.setProperty("signedOff", false);
+    datastore.put(current);
+
+    runAll(new MigrateSignoffsTask());
+
+    assertEquals(1, countSignoffs());
+    assertEquals(false, getSignoff("1:COMPONENT:6").getProperty("signedOff"));
+  }
+
+  private void runAll(MigrateSignoffsTask task) throws Exception {
+    Position next = task.runBatch("Signoff", null);
+    while (next != null) {
+      next = task.runBatch(next.kind, next.cursor);
+    }
+  }
+
+  private Entity oldSignoff(long projectId, String type, long elementId, boolean signedOff) {
+    Entity signoff = new Entity("Signoff");
+    signoff.setProperty("parentProjectId", projectId);
+    signoff.setProperty("elementType", type);
+    signoff.setProperty("elementId", elementId);
+    signoff.setProperty("signedOff", signedOff);
+    return signoff;
+  }
+
+  private Entity getSignoff(String keyName) throws EntityNotFoundException {
+    return datastore.get(KeyFactory.createKey("Signoff", keyName));
+  }
+
+  private int countSignoffs() {
+    return datastore.prepare(new Query("Signoff")).countEntities();
+  }
+}
@@ -0,0 +1,64 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import com.google.common.collect.Lists;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for AhoCorasickMatcher.
+ */
+public class AhoCorasickMatcherTest extends TestCase {
+
+  public void testOverlappingPatterns() {
+    AhoCorasickMatcher matcher =
+        new AhoCorasickMatcher(Lists.newArrayList("he", "she", "his", "hers", "xyz"));
+    assertMatches(matcher.match("ushers"), true, true, false, true, false);
+    assertMatches(matcher.match("this"), false, false, true, false, false);
+  }
+
+  public void testPatternWhichIsSuffixOfAnother() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(Lists.newArrayList("abcd", "bc", "c"));
+    assertMatches(matcher.match("xabcx"), false, true, true);
+    assertMatches(matcher.match("abcd"), true, true, true);
+  }
+
+  public void testEmptyPatternMatchesEverything() {
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(Lists.newArrayList("", "a"));
+    assertMatches(matcher.match(""), true, false);
+    assertMatches(matcher.match("bab"), true, true);
+  }
+
+  public void testAgreesWithContains() {
+    String[] patterns = {"sec", "security", "ui", "i", "ity", "settings in", "IE6", "e"};
+    String[] texts = {"Error with security settings in IE6", "ui,monday", "", "seceurity"};
+    AhoCorasickMatcher matcher = new AhoCorasickMatcher(Lists.newArrayList(patterns));
+    for (String text : texts) {
+      boolean[] found = matcher.match(text);
+      for (int i = 0; i < patterns.length; i++) {
+        assertEquals(patterns[i] + " in " + text, text.contains(patterns[i]), found[i]);
+      }
+    }
+  }
+
+  private void assertMatches(boolean[] found, boolean... expected) {
+    assertEquals(expected.length, found.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals("pattern " + i, expected[i], found[i]);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import com.google.testing.testify.risk.frontend.model.DataRequestOption;
 
 import junit.framework.TestCase;
 
+import java.io.StringWriter;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -33,7 +34,7 @@ import java.util.regex.Pattern;
 public class DataRequestDocumentGeneratorTest extends TestCase {
 
   private static final String XML_HEADER =
-    "<\\?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"\\?>";
+    "<\\?xml version=\"1.0\" encoding=\"UTF-8\"\\?>";
 
   private static final String TA_OPEN = "<TestAnalytics>";
   private static final String TA_CLOSE = "</TestAnalytics>";
@@ -115,6 +116,19 @@ public class DataRequestDocumentGeneratorTest extends TestCase {
     assertContentsAnyOrder("Contents don't match", actual, expected);
   }
 
+  public void testJsonDocument() throws Exception {
+    DataRequest request = new DataRequest();
+    request.setParentProjectId(1L);
+    request.setDataSourceName("GoogleCodeBugs");
+    request.getDataRequestOptions().add(new DataRequestOption("Alpha", "<1111>"));
+
+    StringWriter writer = new StringWriter();
+    DataRequestDocumentGenerator.writeJson(Lists.newArrayList(request), writer);
+    assertEquals("{\"TestAnalytics\":[{\"ProjectID\":1,\"DataRequests\":["
+        + "{\"Type\":\"GoogleCodeBugs\",\"Parameters\":[{\"Name\":\"Alpha\",\"Value\":\"<1111>\"}]}"
+        + "]}]}", writer.toString());
+  }
+
   public void testDataRequestFields() {
     DataRequest request = new DataRequest();
     assertEquals(null, request.getRequestId());
@@ -127,15 +141,11 @@ public class DataRequestDocumentGeneratorTest extends TestCase {
     DataRequestOption option = new DataRequestOption();
     option.setName("name2");
     option.setValue("value2");
-    option.setId("drq1");
-    option.setDataRequest(request);
     request.setDataRequestOptions(Lists.newArrayList(option,
         new DataRequestOption("name1", "value1")));
     assertEquals(2, request.getDataRequestOptions().size());
     assertTrue(request.getDataRequestOptions().contains(option));
-    assertEquals("drq1", option.getId());
     assertEquals("name2", option.getName());
     assertEquals("value2", option.getValue());
-    assertEquals(request, option.getDataRequest());
   }
 }
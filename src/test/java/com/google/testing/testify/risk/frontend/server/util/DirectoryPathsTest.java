@@ -0,0 +1,53 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.testing.testify.risk.frontend.model.AccLabel;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for DirectoryPaths.
+ */
+public class DirectoryPathsTest extends TestCase {
+
+  public void testNormalize() {
+    assertEquals("depot/project/ui", DirectoryPaths.normalize("//depot\\project/ui/"));
+    assertEquals("depot/project", DirectoryPaths.normalize(" depot / project "));
+    assertEquals("", DirectoryPaths.normalize("/"));
+  }
+
+  public void testGetPrefixes() {
+    assertEquals(Sets.newHashSet("depot", "depot/ui", "depot/ui/login", "depot/server"),
+        DirectoryPaths.getPrefixes(Lists.newArrayList("//depot/ui/login/", "depot\\server")));
+    assertTrue(DirectoryPaths.getPrefixes(Lists.newArrayList("/")).isEmpty());
+  }
+
+  public void testGetPath() {
+    assertEquals("depot/ui", DirectoryPaths.getPath(newLabel("Path-//depot/ui/")));
+    assertNull(DirectoryPaths.getPath(newLabel("Priority-P4")));
+    assertNull(DirectoryPaths.getPath(newLabel("Path")));
+    assertNull(DirectoryPaths.getPath(newLabel("Path-/")));
+  }
+
+  private AccLabel newLabel(String labelText) {
+    AccLabel label = new AccLabel();
+    label.setLabelText(labelText);
+    return label;
+  }
+}
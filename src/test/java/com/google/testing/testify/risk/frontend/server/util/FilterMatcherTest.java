@@ -0,0 +1,133 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import com.google.common.collect.Lists;
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.Checkin;
+import com.google.testing.testify.risk.frontend.model.DatumType;
+import com.google.testing.testify.risk.frontend.model.Filter;
+
+import junit.framework.TestCase;
+
+import java.util.List;
+
+/**
+ * Tests for FilterMatcher.  A FilterMatcher must do exactly what applying each Filter in turn
+ * does, so most of these compare the two.
+ */
+public class FilterMatcherTest extends TestCase {
+
+  public void testMismatchedType() {
+    FilterMatcher matcher = new FilterMatcher(DatumType.BUGS, Lists.<Filter>newArrayList());
+    try {
+      matcher.apply(new Checkin());
+      fail("didn't throw with mismatched filter");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("do not match"));
+    }
+  }
+
+  public void testAndFilter() {
+    Filter filter = newFilter("and", 1L, null, null);
+    filter.addFilterOption("Title", "security");
+    filter.addFilterOption("Labels", "sec");
+    assertSameAsFilters(Lists.newArrayList(filter));
+  }
+
+  public void testAnyFilter() {
+    Filter filter = newFilter("any", null, 2L, null);
+    filter.addFilterOption("Title", "ui");
+    filter.addFilterOption("Labels", "tuesday");
+    assertSameAsFilters(Lists.newArrayList(filter));
+  }
+
+  public void testLaterFiltersWin() {
+    Filter first = newFilter("any", 1L, 2L, null);
+    first.addFilterOption("Title", "Error");
+    Filter second = newFilter("any", 3L, null, 4L);
+    second.addFilterOption("Labels", "monday");
+    assertSameAsFilters(Lists.newArrayList(first, second));
+    assertSameAsFilters(Lists.newArrayList(second, first));
+  }
+
+  public void testSharedAndMissingFields() {
+    Filter onPath = newFilter("and", 1L, null, null);
+    onPath.addFilterOption("Path", "/frontend");
+    Filter unknownField = newFilter("and", 5L, null, null);
+    unknownField.addFilterOption("Nonsense", "anything");
+    Filter sameValue = newFilter("any", null, null, 6L);
+    sameValue.addFilterOption("Title", "security");
+    sameValue.addFilterOption("Labels", "security");
+    Filter noTargets = newFilter("any", null, null, null);
+    noTargets.addFilterOption("Title", "");
+    assertSameAsFilters(Lists.newArrayList(onPath, unknownField, sameValue, noTargets));
+  }
+
+  /** Checks a FilterMatcher assigns each test bug to the same targets as the filters do. */
+  private void assertSameAsFilters(List<Filter> filters) {
+    FilterMatcher matcher = new FilterMatcher(DatumType.BUGS, filters);
+    for (Bug expected : newBugs()) {
+      Bug actual = copy(expected);
+      for (Filter filter : filters) {
+        filter.apply(expected);
+      }
+      matcher.apply(actual);
+      assertEquals(expected.getTitle(), expected.getTargetAttributeId(),
+          actual.getTargetAttributeId());
+      assertEquals(expected.getTitle(), expected.getTargetComponentId(),
+          actual.getTargetComponentId());
+      assertEquals(expected.getTitle(), expected.getTargetCapabilityId(),
+          actual.getTargetCapabilityId());
+    }
+  }
+
+  private List<Bug> newBugs() {
+    List<Bug> bugs = Lists.newArrayList();
+    bugs.add(newBug("Error with security settings in IE6", null, "dorp", "sec", "monday"));
+    bugs.add(newBug("Error with UI", "/frontend/ui", "ui", "monday"));
+    bugs.add(newBug("Crash on tuesday", "/backend", "tuesday"));
+    bugs.add(newBug("security", null));
+    return bugs;
+  }
+
+  private Bug newBug(String title, String path, String... groups) {
+    Bug bug = new Bug();
+    bug.setTitle(title);
+    bug.setPath(path);
+    for (String group : groups) {
+      bug.addBugGroup(group);
+    }
+    return bug;
+  }
+
+  private Bug copy(Bug bug) {
+    Bug copy = newBug(bug.getTitle(), bug.getPath());
+    copy.setBugGroups(bug.getBugGroups());
+    return copy;
+  }
+
+  private Filter newFilter(String conjunction, Long attributeId, Long componentId,
+      Long capabilityId) {
+    Filter filter = new Filter();
+    filter.setFilterType(DatumType.BUGS);
+    filter.setFilterConjunction(conjunction);
+    filter.setTargetAttributeId(attributeId);
+    filter.setTargetComponentId(componentId);
+    filter.setTargetCapabilityId(capabilityId);
+    return filter;
+  }
+}
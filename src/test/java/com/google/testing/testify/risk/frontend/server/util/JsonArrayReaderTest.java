@@ -0,0 +1,94 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import junit.framework.TestCase;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.StringReader;
+
+/**
+ * Tests for JsonArrayReader.
+ */
+public class JsonArrayReaderTest extends TestCase {
+
+  public void testReadsEachElement() throws Exception {
+    JsonArrayReader reader = newReader(" [ {\"bug\": {\"bugId\": 1}}, {\"test\": {}} ,3 ] ");
+    assertTrue(reader.hasNext());
+    assertTrue(reader.hasNext());
+    JSONObject first = (JSONObject) reader.next();
+    assertEquals(1, first.getJSONObject("bug").getLong("bugId"));
+    assertTrue(((JSONObject) reader.next()).has("test"));
+    assertEquals(3, reader.next());
+    assertFalse(reader.hasNext());
+    assertFalse(reader.hasNext());
+  }
+
+  public void testEmptyArray() throws Exception {
+    assertFalse(newReader("[]").hasNext());
+    assertFalse(newReader("  [ \n ] ").hasNext());
+  }
+
+  public void testNotAnArray() {
+    try {
+      newReader("{\"bug\": {}}");
+      fail();
+    } catch (JSONException e) {
+      // Expected.
+    }
+  }
+
+  public void testUnterminatedArray() throws Exception {
+    JsonArrayReader reader = newReader("[{\"a\": 1}, {\"b\": 2}");
+    reader.next();
+    reader.next();
+    try {
+      reader.hasNext();
+      fail();
+    } catch (JSONException e) {
+      // Expected.
+    }
+  }
+
+  public void testMissingComma() throws Exception {
+    JsonArrayReader reader = newReader("[{\"a\": 1} {\"b\": 2}]");
+    reader.next();
+    try {
+      reader.hasNext();
+      fail();
+    } catch (JSONException e) {
+      // Expected.
+    }
+  }
+
+  public void testSizeLimit() throws Exception {
+    JsonArrayReader reader = new JsonArrayReader(
+        new SizeLimitedReader(new StringReader("[{\"a\": 1}, {\"b\": 2}]"), 15));
+    reader.next();
+    try {
+      reader.next();
+      fail();
+    } catch (JSONException e) {
+      assertTrue(e.getCause() instanceof SizeLimitedReader.SizeLimitExceededException);
+    }
+  }
+
+  private JsonArrayReader newReader(String json) throws JSONException {
+    return new JsonArrayReader(new StringReader(json));
+  }
+}
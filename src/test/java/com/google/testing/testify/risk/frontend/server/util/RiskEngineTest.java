@@ -0,0 +1,217 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.testing.testify.risk.frontend.model.Attribute;
+import com.google.testing.testify.risk.frontend.model.Bug;
+import com.google.testing.testify.risk.frontend.model.Capability;
+import com.google.testing.testify.risk.frontend.model.Component;
+import com.google.testing.testify.risk.frontend.model.FailureRate;
+import com.google.testing.testify.risk.frontend.model.RiskMatrix;
+import com.google.testing.testify.risk.frontend.model.RiskSource;
+import com.google.testing.testify.risk.frontend.model.TestCase;
+import com.google.testing.testify.risk.frontend.model.UserImpact;
+import com.google.testing.testify.risk.frontend.shared.util.RiskUtil;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for RiskEngine.
+ */
+public class RiskEngineTest extends junit.framework.TestCase {
+
+  private static final double DELTA = 0.0001;
+
+  private final List<Attribute> attributes = Lists.newArrayList(newAttribute(1), newAttribute(2));
+  private final List<Component> components = Lists.newArrayList(newComponent(10));
+  private final List<Capability> capabilities = Lists.newArrayList();
+  private final List<Bug> bugs = Lists.newArrayList();
+  private final List<TestCase> tests = Lists.newArrayList();
+
+  public void testInherentRisk() {
+    Capability capability = newCapability(100, 1, 10);
+    capabilities.add(capability);
+
+    RiskMatrix matrix = computeRisk();
+    assertEquals(RiskUtil.determineRisk(capability),
+        matrix.getValue(RiskSource.INHERENT, 1, 10), DELTA);
+    assertEquals(0.0, matrix.getValue(RiskSource.INHERENT, 2, 10), DELTA);
+  }
+
+  public void testBugRisk() {
+    capabilities.add(newCapability(100, 1, 10));
+    bugs.add(newBug(null, 10L, null));
+    bugs.add(newBug(1L, null, null));
+    bugs.add(newBug(null, null, 100L));
+    bugs.add(newBug(null, null, null));
+
+    RiskMatrix matrix = computeRisk();
+    // Component bug, attribute bug and capability bug.
+    assertEquals(0.25 + 0.25 + 1.0, matrix.getValue(RiskSource.BUGS, 1, 10), DELTA);
+    // Only the component bug.
+    assertEquals(0.25, matrix.getValue(RiskSource.BUGS, 2, 10), DELTA);
+  }
+
+  public void testTestCoverageCountsDistinctTests() {
+    capabilities.add(newCapability(100, 1, 10));
+    tests.add(newTest(1000, "Attribute:1", "Capability:100"));
+    tests.add(newTest(1001, "Component:10"));
+    tests.add(newTest(1002, "Component:bogus", "Other"));
+
+    RiskMatrix matrix = computeRisk();
+    assertEquals(2 * -0.15, matrix.getValue(RiskSource.TEST_COVERAGE, 1, 10), DELTA);
+    assertEquals(-0.15, matrix.getValue(RiskSource.TEST_COVERAGE, 2, 10), DELTA);
+  }
+
+  public void testUnknownCell() {
+    RiskMatrix matrix = computeRisk();
+    assertEquals(0.0, matrix.getValue(RiskSource.BUGS, 3, 10), DELTA);
+  }
+
+  public void testIncrementalBugUpdateMatchesRecompute() {
+    components.add(newComponent(11));
+    capabilities.add(newCapability(100, 1, 10));
+    capabilities.add(newCapability(101, 2, 11));
+    Bug bug = newBug(1L, null, 100L);
+    bugs.add(bug);
+    bugs.add(newBug(null, 11L, null));
+    RiskMatrix matrix = computeRisk();
+
+    // Reassign the bug, as DataServiceImpl.updateAssociations would.
+    RiskInput before = RiskInput.of(bug);
+    bug.setTargetAttributeId(null);
+    bug.setTargetComponentId(10L);
+    bug.setTargetCapabilityId(101L);
+    applyChange(matrix, before, RiskInput.of(bug));
+
+    assertEquals(Lists.newArrayList(), RiskEngine.diff(computeRisk(), matrix));
+  }
+
+  public void testIncrementalTestAddMatchesRecompute() {
+    capabilities.add(newCapability(100, 1, 10));
+    tests.add(newTest(1000, "Attribute:1"));
+    RiskMatrix matrix = computeRisk();
+
+    TestCase test = newTest(1001, "Attribute:1", "Component:10", "Capability:100");
+    tests.add(test);
+    new RiskEngine().applyRiskInput(matrix, RiskInput.of(test), getCapabilitiesById(), 1);
+
+    assertEquals(Lists.newArrayList(), RiskEngine.diff(computeRisk(), matrix));
+    // Counted once per cell, however many of its tags cover the cell.
+    assertEquals(2 * -0.15, matrix.getValue(RiskSource.TEST_COVERAGE, 1, 10), DELTA);
+  }
+
+  public void testCodeChurnCountsDistinctCheckins() {
+    components.add(newComponent(11));
+    capabilities.add(newCapability(100, 1, 10));
+    Multimap<Long, String> componentPaths = HashMultimap.create();
+    componentPaths.put(10L, "depot/ui");
+    Multimap<Long, String> capabilityPaths = HashMultimap.create();
+    capabilityPaths.put(100L, "depot/ui/login");
+    Multimap<String, String> checkinsByPath = HashMultimap.create();
+    checkinsByPath.putAll("depot/ui", Lists.newArrayList("1:CHECKINS:1000", "1:CHECKINS:1001"));
+    // Checkin 1001 is under both paths, and counts once.
+    checkinsByPath.putAll("depot/ui/login",
+        Lists.newArrayList("1:CHECKINS:1001", "1:CHECKINS:1002"));
+
+    RiskMatrix matrix = computeRisk();
+    new RiskEngine().addCodeChurn(matrix, capabilities, componentPaths, capabilityPaths,
+        checkinsByPath);
+    assertEquals(3 * 0.20, matrix.getValue(RiskSource.CODE_CHURN, 1, 10), DELTA);
+    assertEquals(2 * 0.20, matrix.getValue(RiskSource.CODE_CHURN, 2, 10), DELTA);
+    assertEquals(0.0, matrix.getValue(RiskSource.CODE_CHURN, 1, 11), DELTA);
+  }
+
+  public void testDiffReportsChangedCells() {
+    RiskMatrix expected = computeRisk();
+    RiskMatrix actual = computeRisk();
+    actual.addValue(RiskSource.BUGS, 2, 10, 1.0);
+
+    List<String> differences = RiskEngine.diff(expected, actual);
+    assertEquals(1, differences.size());
+    assertTrue(differences.get(0).contains("Attribute 2, Component 10"));
+  }
+
+  public void testDiffReportsDifferentShape() {
+    RiskMatrix expected = computeRisk();
+    attributes.add(newAttribute(3));
+    assertEquals(1, RiskEngine.diff(expected, computeRisk()).size());
+  }
+
+  private void applyChange(RiskMatrix matrix, RiskInput before, RiskInput after) {
+    RiskEngine engine = new RiskEngine();
+    engine.applyRiskInput(matrix, before, getCapabilitiesById(), -1);
+    engine.applyRiskInput(matrix, after, getCapabilitiesById(), 1);
+  }
+
+  private Map<Long, Capability> getCapabilitiesById() {
+    Map<Long, Capability> byId = Maps.newHashMap();
+    for (Capability capability : capabilities) {
+      byId.put(capability.getCapabilityId(), capability);
+    }
+    return byId;
+  }
+
+  private RiskMatrix computeRisk() {
+    return new RiskEngine().computeRisk(42, attributes, components, capabilities, bugs, tests);
+  }
+
+  private Attribute newAttribute(long id) {
+    Attribute attribute = new Attribute();
+    attribute.setAttributeId(id);
+    attribute.setParentProjectId(42);
+    return attribute;
+  }
+
+  private Component newComponent(long id) {
+    Component component = new Component();
+    component.setComponentId(id);
+    component.setParentProjectId(42);
+    return component;
+  }
+
+  private Capability newCapability(long id, long attributeId, long componentId) {
+    Capability capability = new Capability();
+    capability.setCapabilityId(id);
+    capability.setParentProjectId(42);
+    capability.setAttributeId(attributeId);
+    capability.setComponentId(componentId);
+    capability.setUserImpact(UserImpact.MAXIMAL);
+    capability.setFailureRate(FailureRate.OFTEN);
+    return capability;
+  }
+
+  private Bug newBug(Long attributeId, Long componentId, Long capabilityId) {
+    Bug bug = new Bug();
+    bug.setTargetAttributeId(attributeId);
+    bug.setTargetComponentId(componentId);
+    bug.setTargetCapabilityId(capabilityId);
+    return bug;
+  }
+
+  private TestCase newTest(long externalId, String... tags) {
+    TestCase test = new TestCase();
+    test.setExternalId(externalId);
+    test.setTags(Sets.newHashSet(tags));
+    return test;
+  }
+}
@@ -0,0 +1,65 @@
+// Copyright 2026 The test-analytics-ng Authors.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.google.testing.testify.risk.frontend.server.util;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests for SnapshotEncoding.
+ */
+public class SnapshotEncodingTest extends TestCase {
+
+  public void testFixedPoint() {
+    assertEquals(1234, SnapshotEncoding.toFixed(1.2341));
+    assertEquals(-500, SnapshotEncoding.toFixed(-0.5));
+    assertEquals(1.234, SnapshotEncoding.fromFixed(1234), 0.0000001);
+  }
+
+  public void testRoundTripWithoutPrevious() {
+    long[] values = {0, 0, 1500, -20, 0, 70000, 0};
+    byte[] encoded = SnapshotEncoding.encode(values, null);
+    assertTrue(Arrays.equals(values, SnapshotEncoding.decode(encoded, null, values.length)));
+  }
+
+  public void testRoundTripAgainstPrevious() {
+    long[] previous = {100, 200, 300, 400, 500};
+    long[] values = {100, 150, 300, 900, 500};
+    byte[] encoded = SnapshotEncoding.encode(values, previous);
+    assertTrue(Arrays.equals(values, SnapshotEncoding.decode(encoded, previous, values.length)));
+  }
+
+  public void testUnchangedValuesEncodeAsSingleRun() {
+    long[] values = new long[10000];
+    Arrays.fill(values, 250);
+    byte[] encoded = SnapshotEncoding.encode(values, values.clone());
+    // A zero, then the run length of 10000 as a two byte varint.
+    assertEquals(3, encoded.length);
+    assertTrue(Arrays.equals(values, SnapshotEncoding.decode(encoded, values, values.length)));
+  }
+
+  public void testSmallChangesTakeOneByte() {
+    long[] previous = {1000, 1000};
+    byte[] encoded = SnapshotEncoding.encode(new long[] {1010, 990}, previous);
+    assertEquals(2, encoded.length);
+  }
+
+  public void testEmpty() {
+    assertEquals(0, SnapshotEncoding.encode(new long[0], null).length);
+    assertEquals(0, SnapshotEncoding.decode(new byte[0], null, 0).length);
+  }
+}